@@ -0,0 +1,33 @@
+package com.umpisa.restaurant.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link ApiAdmissionFilter} for the API, active unless {@code api.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "api.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiAdmissionConfig {
+
+    /**
+     * Runs first, so rejected requests cost as little as possible.
+     */
+    @Bean
+    public FilterRegistrationBean<ApiAdmissionFilter> apiAdmissionFilter(ApiAdmissionProperties properties,
+                                                                         ObjectMapper objectMapper,
+                                                                         MeterRegistry meterRegistry) {
+        ApiAdmissionFilter filter = new ApiAdmissionFilter(new TokenBucketRateLimiter(properties.getRateLimit()),
+                                                           properties, objectMapper, meterRegistry);
+
+        FilterRegistrationBean<ApiAdmissionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
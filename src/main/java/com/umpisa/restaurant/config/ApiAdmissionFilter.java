@@ -0,0 +1,158 @@
+package com.umpisa.restaurant.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the API, so no single client and no traffic spike can exhaust
+ * the database connection pools.
+ * <ol>
+ *     <li>Rate limiting: a client that has used up its {@link TokenBucketRateLimiter} bucket gets
+ *     429 Too Many Requests.</li>
+ *     <li>Load shedding: once the configured number of requests is in flight across all clients,
+ *     further requests get 503 Service Unavailable at once instead of queueing for a connection.
+ *     The in-flight count is claimed with compare-and-set, without locks.</li>
+ * </ol>
+ * Both rejections carry a Retry-After header. Clients are identified by their authenticated principal,
+ * otherwise by their remote address. The configurable client id header is honoured only on requests
+ * from a trusted proxy, since anyone else could rotate it to get a fresh bucket on every request.
+ * <p>
+ * Metrics:
+ * <ul>
+ *     <li>{@code api.admission.rate-limited} - requests rejected with 429</li>
+ *     <li>{@code api.admission.shed} - requests rejected with 503</li>
+ *     <li>{@code api.admission.in-flight} - requests currently admitted</li>
+ *     <li>{@code api.admission.clients} - clients with a tracked bucket</li>
+ * </ul>
+ */
+@Slf4j
+public class ApiAdmissionFilter extends OncePerRequestFilter {
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String clientIdHeader;
+    private final Set<String> trustedProxies;
+    private final int maxInFlight;
+    private final Duration shedRetryAfter;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public ApiAdmissionFilter(TokenBucketRateLimiter rateLimiter,
+                              ApiAdmissionProperties properties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.clientIdHeader = properties.getClientIdHeader();
+        this.trustedProxies = Set.copyOf(properties.getTrustedProxies());
+        this.maxInFlight = properties.getLoadShedding().getMaxInFlight();
+        this.shedRetryAfter = properties.getLoadShedding().getRetryAfter();
+        this.objectMapper = objectMapper;
+
+        this.rateLimited = Counter.builder("api.admission.rate-limited")
+                                  .description("Requests rejected because their client exceeded its rate limit")
+                                  .register(meterRegistry);
+        this.shed = Counter.builder("api.admission.shed")
+                           .description("Requests rejected because too many requests were in flight")
+                           .register(meterRegistry);
+        Gauge.builder("api.admission.in-flight", inFlight, AtomicInteger::get)
+             .description("Requests currently being processed")
+             .register(meterRegistry);
+        Gauge.builder("api.admission.clients", rateLimiter, TokenBucketRateLimiter::trackedClients)
+             .description("Clients with a tracked rate limit bucket")
+             .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String clientKey = clientKey(request);
+        Duration wait = rateLimiter.tryAcquire(clientKey);
+        if (!wait.isZero()) {
+            rateLimited.increment();
+            log.debug("Rate limited client {} on {} {}", clientKey, request.getMethod(), request.getRequestURI());
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, wait, "Rate limit exceeded, please retry later");
+            return;
+        }
+
+        if (!tryEnter()) {
+            shed.increment();
+            log.debug("Shedding {} {}: {} requests in flight", request.getMethod(), request.getRequestURI(), maxInFlight);
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfter, "Server is busy, please retry later");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        HttpStatus status, Duration retryAfter, String message) throws IOException {
+        // Retry-After is in whole seconds; round up so clients never come back too early
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                                                                         .timestamp(LocalDateTime.now())
+                                                                         .status(status.value())
+                                                                         .error(status.getReasonPhrase())
+                                                                         .message(message)
+                                                                         .path(request.getRequestURI())
+                                                                         .build());
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddress)) {
+            String clientId = request.getHeader(clientIdHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                // A forwarding header lists every hop; the last entry is the one our proxy added
+                String[] hops = clientId.split(",");
+                return hops[hops.length - 1].trim();
+            }
+        }
+        return remoteAddress;
+    }
+}
@@ -0,0 +1,81 @@
+package com.umpisa.restaurant.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for per-client rate limiting and global load shedding of the API.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "api.admission")
+public class ApiAdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * URL patterns the admission checks apply to.
+     */
+    private String[] urlPatterns = {"/api/*"};
+
+    /**
+     * Header identifying the API client, set by a trusted proxy; for example X-Forwarded-For,
+     * or the client id of an API gateway that has validated the caller's key.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Remote addresses of the proxies whose client id header is trusted. Requests from any other
+     * address are rate limited by remote address, whatever headers they carry.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private LoadShedding loadShedding = new LoadShedding();
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Sustained requests per second allowed for each client.
+         */
+        private double requestsPerSecond = 20;
+
+        /**
+         * Requests a client may send in a burst on top of the sustained rate.
+         */
+        private int burst = 40;
+
+        /**
+         * Upper bound on the number of clients tracked at once.
+         */
+        private long maxClients = 100_000;
+
+        /**
+         * Clients idle for this long are forgotten; they come back with a full bucket.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class LoadShedding {
+
+        /**
+         * Requests processed at once across all clients before new ones are shed with 503.
+         * Admitted requests beyond the connection pool size queue for a connection,
+         * so keep this a small multiple of the pool size.
+         */
+        private int maxInFlight = 64;
+
+        /**
+         * Value of the Retry-After header on shed requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.umpisa.restaurant.config;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks when the tasks queued on or running in the notification dispatch executor were submitted.
+ * Everything submitted before the oldest of them has finished, which tells the outbox whether a reservation
+ * event's listener may still be waiting in the queue rather than lost.
+ */
+@Component
+public class DispatchBacklog {
+
+    private final Set<TrackedTask> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Wrap a task so it counts as pending from now until it has run.
+     */
+    public Runnable track(Runnable task) {
+        TrackedTask tracked = new TrackedTask(task, Instant.now());
+        pending.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * Stop tracking a wrapped task that will never run, such as one the executor rejected.
+     */
+    public void untrack(Runnable task) {
+        pending.remove(task);
+    }
+
+    /**
+     * Return when the oldest task still queued or running was submitted, or null if there is none.
+     */
+    public Instant oldestSubmission() {
+        return pending.stream()
+                      .map(task -> task.submittedAt)
+                      .min(Comparator.naturalOrder())
+                      .orElse(null);
+    }
+
+    private final class TrackedTask implements Runnable {
+
+        private final Runnable task;
+        private final Instant submittedAt;
+
+        private TrackedTask(Runnable task, Instant submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                pending.remove(this);
+            }
+        }
+    }
+}
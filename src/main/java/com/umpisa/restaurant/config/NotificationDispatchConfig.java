@@ -0,0 +1,123 @@
+package com.umpisa.restaurant.config;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationDispatchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for notifications. Reservation events are handled off the request thread once the reservation
+ * transaction commits, and notifications are then sent by the delivery executor. An event the dispatch executor
+ * has no room for is dropped rather than handled on the committing request thread; its publication stays
+ * incomplete and {@code ReservationEventOutbox} resubmits it.
+ * <p>
+ * Metrics: the {@code notifications.dispatch.queue.depth} and {@code notifications.dispatch.active} gauges,
+ * the {@code notifications.dispatch.dropped} counter of events left to the outbox because the executor was
+ * saturated, and the {@code notifications.delivery.queue.depth} and
+ * {@code notifications.delivery.active} gauges.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class NotificationDispatchConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+
+    public static final String NOTIFICATION_DELIVERY_EXECUTOR = "notificationDeliveryExecutor";
+
+    public static final String DEAD_LETTER_REPLAY_EXECUTOR = "deadLetterReplayExecutor";
+
+    @Bean(NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(NotificationDispatchProperties properties,
+                                                       ShardRouter shardRouter,
+                                                       DispatchBacklog backlog,
+                                                       MeterRegistry meterRegistry) {
+        Counter dropped = Counter.builder("notifications.dispatch.dropped")
+                                 .description("Reservation events left to the outbox resubmission because the executor was saturated")
+                                 .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("notification-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) properties.getKeepAlive().toSeconds());
+        // Throwing would fail the request that already committed; the event's publication stays incomplete instead
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            backlog.untrack(task);
+            dropped.increment();
+            log.warn("Notification executor saturated; the event is left for the outbox resubmission");
+        });
+        // The event publication is completed in the shard the event was published in, and the outbox
+        // does not resubmit events whose listener may still be queued
+        executor.setTaskDecorator(task -> {
+            Integer shard = ShardContext.current();
+            return backlog.track(shard == null ? task : () -> shardRouter.runInShard(shard, task));
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(properties.getShutdownTimeout().toMillis());
+
+        Gauge.builder("notifications.dispatch.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+             .description("Notifications waiting for a dispatch thread")
+             .register(meterRegistry);
+        Gauge.builder("notifications.dispatch.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+             .description("Notifications being sent")
+             .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Executor that sends notifications. It rejects work once its queue is full rather than running it on the
+     * submitting thread, which may be a timer; rejected deliveries stay in the table for the next sweep.
+     */
+    @Bean(NOTIFICATION_DELIVERY_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationDeliveryExecutor(NotificationDeliveryProperties properties,
+                                                               NotificationDispatchProperties dispatchProperties,
+                                                               MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("notification-delivery-");
+        executor.setCorePoolSize(properties.getConcurrency());
+        executor.setMaxPoolSize(properties.getConcurrency());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(dispatchProperties.getShutdownTimeout().toMillis());
+
+        Gauge.builder("notifications.delivery.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+             .description("Delivery batches waiting for a delivery thread")
+             .register(meterRegistry);
+        Gauge.builder("notifications.delivery.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+             .description("Delivery batches being sent")
+             .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Executor that replays dead letters for every replay request, {@code replay-concurrency} at a time, so a large
+     * backlog does not flood the mail server or SMS gateway. Dead letters it has no room for are left unclaimed.
+     */
+    @Bean(DEAD_LETTER_REPLAY_EXECUTOR)
+    public ThreadPoolTaskExecutor deadLetterReplayExecutor(NotificationDeliveryProperties properties,
+                                                           NotificationDispatchProperties dispatchProperties) {
+        int concurrency = Math.max(1, properties.getReplayConcurrency());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dead-letter-replay-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(properties.getMaxReplayBatch());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(dispatchProperties.getShutdownTimeout().toMillis());
+        return executor;
+    }
+}
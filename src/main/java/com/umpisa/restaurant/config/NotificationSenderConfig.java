@@ -0,0 +1,45 @@
+package com.umpisa.restaurant.config;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationSenderProperties;
+import com.umpisa.restaurant.notificationservice.service.sender.BatchingSmsSender;
+import com.umpisa.restaurant.notificationservice.service.sender.LoggingEmailSender;
+import com.umpisa.restaurant.notificationservice.service.sender.LoggingSmsGateway;
+import com.umpisa.restaurant.notificationservice.service.sender.NotificationSender;
+import com.umpisa.restaurant.notificationservice.service.sender.SmsGateway;
+import com.umpisa.restaurant.notificationservice.service.sender.SmtpEmailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Notification senders. Emails go to the SMTP server in {@code notification.sender.email.host} and are
+ * only logged when it is unset; SMS go to the {@link SmsGateway} bean, which only logs unless one is defined.
+ */
+@Slf4j
+@Configuration
+public class NotificationSenderConfig {
+
+    @Bean
+    public NotificationSender emailNotificationSender(NotificationSenderProperties properties, MeterRegistry meterRegistry) {
+        NotificationSenderProperties.Email email = properties.getEmail();
+        if (!StringUtils.hasText(email.getHost())) {
+            log.info("notification.sender.email.host is not set; emails will only be logged");
+            return new LoggingEmailSender();
+        }
+        return new SmtpEmailSender(email, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SmsGateway smsGateway() {
+        return new LoggingSmsGateway();
+    }
+
+    @Bean
+    public NotificationSender smsNotificationSender(SmsGateway smsGateway, NotificationSenderProperties properties) {
+        return new BatchingSmsSender(smsGateway, properties.getSms().getBatchSize());
+    }
+}
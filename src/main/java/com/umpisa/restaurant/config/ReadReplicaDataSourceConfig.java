@@ -0,0 +1,87 @@
+package com.umpisa.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datasource configuration for read-replica routing, active when {@code datasource.routing.enabled=true}.
+ * Read-only transactions go to the configured replicas; all other work goes to the primary
+ * built from {@code spring.datasource}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                     ReadReplicaProperties properties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                                                       .type(HikariDataSource.class)
+                                                       .build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> replicaConfigs = properties.getReplicas();
+        for (int i = 0; i < replicaConfigs.size(); i++) {
+            ReadReplicaProperties.Replica config = replicaConfigs.get(i);
+            String name = "replica-" + (i + 1);
+
+            HikariDataSource replica = DataSourceBuilder.create()
+                                                        .type(HikariDataSource.class)
+                                                        .driverClassName(config.getDriverClassName() != null
+                                                                                 ? config.getDriverClassName()
+                                                                                 : dataSourceProperties.determineDriverClassName())
+                                                        .url(config.getUrl())
+                                                        .username(config.getUsername())
+                                                        .password(config.getPassword())
+                                                        .build();
+            replica.setPoolName(name);
+            if (config.getMaximumPoolSize() != null) {
+                replica.setMaximumPoolSize(config.getMaximumPoolSize());
+            }
+            replicas.put(name, replica);
+        }
+
+        log.info("Routing read-only transactions to {} replica(s) using {} selection",
+                 replicas.size(), properties.getSelection());
+
+        return new ReadReplicaRoutingDataSource(primary, replicas, properties.getSelection());
+    }
+
+    /**
+     * The datasource used by JPA and the transaction manager. Connections are fetched lazily so
+     * the routing decision sees the read-only flag of the surrounding transaction.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    /**
+     * Registered only when a read-your-writes window is configured.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(properties.getReadYourWritesWindow(), properties.getClientIdHeader()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(!properties.getReadYourWritesWindow().isZero());
+        return registration;
+    }
+}
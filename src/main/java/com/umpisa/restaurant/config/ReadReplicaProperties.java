@@ -0,0 +1,53 @@
+package com.umpisa.restaurant.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for routing read-only transactions to read replicas.
+ * The primary datasource keeps using the standard {@code spring.datasource} properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReadReplicaProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas at all.
+     */
+    private boolean enabled = false;
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * How long a client's reads stay on the primary after its own mutation.
+     * Zero turns read-your-writes pinning off.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    /**
+     * Request header identifying a client; the remote address is used when it is absent.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,104 @@
+package com.umpisa.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections of read-only transactions to one of the replicas and everything else
+ * to the primary. Callers pinned by {@link ReadYourWritesContext} always get the primary.
+ * <p>
+ * The lookup reads the transaction's read-only flag, which Spring only exposes after the
+ * transaction has begun; wrap this datasource in a {@link LazyConnectionDataSourceProxy}
+ * so the physical connection is fetched at the first statement rather than at begin.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final ReadReplicaProperties.Selection selection;
+    private final List<DataSource> allDataSources = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary,
+                                        Map<String, DataSource> replicas,
+                                        ReadReplicaProperties.Selection selection) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaKeys = List.copyOf(this.replicas.keySet());
+        this.selection = selection;
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        allDataSources.add(primary);
+        allDataSources.addAll(this.replicas.values());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWritesContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return selection == ReadReplicaProperties.Selection.LEAST_LOADED ? leastLoadedReplica() : nextReplica();
+    }
+
+    private String nextReplica() {
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Pick the replica with the fewest active connections. The scan starts at the round-robin
+     * position so that ties spread across replicas instead of always favouring the first one.
+     */
+    private String leastLoadedReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicaKeys.size());
+        String best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            String key = replicaKeys.get((start + i) % replicaKeys.size());
+            int active = activeConnections(replicas.get(key));
+            if (active < bestActive) {
+                best = key;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            // The pool bean only exists once the pool has started
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : allDataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
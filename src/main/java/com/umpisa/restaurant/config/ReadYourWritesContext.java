@@ -0,0 +1,43 @@
+package com.umpisa.restaurant.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds, per thread, whether the current request must read from the primary because
+ * its client mutated data within the read-your-writes window.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Run work with its read-only transactions routed to the primary. Used when the result is
+     * cached, since a value read from a lagging replica would be served to every client.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (isPinnedToPrimary()) {
+            return work.get();
+        }
+        pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.umpisa.restaurant.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Pins a client's requests to the primary for a short window after the client's own mutation,
+ * so it does not read stale data from a lagging replica.
+ * Clients are identified by a configurable header, falling back to the remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final long MAX_TRACKED_CLIENTS = 100_000;
+
+    private final String clientIdHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window, String clientIdHeader) {
+        this.clientIdHeader = clientIdHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                                     .maximumSize(MAX_TRACKED_CLIENTS)
+                                     .expireAfterWrite(window)
+                                     .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String clientKey = clientKey(request);
+        boolean mutating = MUTATING_METHODS.contains(request.getMethod());
+
+        if (mutating || recentWriters.getIfPresent(clientKey) != null) {
+            ReadYourWritesContext.pinToPrimary();
+        }
+        // Recorded up front as well, so a read racing the tail of this response is still pinned
+        if (mutating) {
+            recentWriters.put(clientKey, Boolean.TRUE);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+            if (mutating) {
+                // Restart the window from the point the write has committed
+                recentWriters.put(clientKey, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(clientIdHeader);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
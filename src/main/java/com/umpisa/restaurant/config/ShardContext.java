@@ -0,0 +1,25 @@
+package com.umpisa.restaurant.config;
+
+/**
+ * Holds, per thread, the shard that connections are currently routed to.
+ * Unset means the default shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void set(int shard) {
+        CURRENT_SHARD.set(shard);
+    }
+
+    public static Integer current() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
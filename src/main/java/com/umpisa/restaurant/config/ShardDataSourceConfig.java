@@ -0,0 +1,112 @@
+package com.umpisa.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datasource configuration for sharding by restaurant, active when {@code datasource.sharding.enabled=true}.
+ * Every shard has its own connection pool; shard 0 is built from {@code spring.datasource}.
+ * <p>
+ * The shards share one JPA persistence unit and transaction manager over a {@link ShardRoutingDataSource},
+ * so each transaction runs entirely on the shard {@link ShardRouter} bound it to.
+ * Sharding replaces read-replica routing; the two cannot be enabled together.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.sharding", name = "enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardProperties properties,
+                                                         ReadReplicaProperties readReplicaProperties) {
+        if (readReplicaProperties.isEnabled()) {
+            throw new IllegalStateException("datasource.sharding and datasource.routing cannot be enabled together");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+
+        HikariDataSource shard0 = dataSourceProperties.initializeDataSourceBuilder()
+                                                      .type(HikariDataSource.class)
+                                                      .build();
+        shard0.setPoolName("shard-0");
+        shards.add(shard0);
+
+        for (ShardProperties.Shard config : properties.getShards()) {
+            String name = "shard-" + shards.size();
+
+            HikariDataSource shard = DataSourceBuilder.create()
+                                                      .type(HikariDataSource.class)
+                                                      .driverClassName(config.getDriverClassName() != null
+                                                                               ? config.getDriverClassName()
+                                                                               : dataSourceProperties.determineDriverClassName())
+                                                      .url(config.getUrl())
+                                                      .username(config.getUsername())
+                                                      .password(config.getPassword())
+                                                      .build();
+            shard.setPoolName(name);
+            if (config.getMaximumPoolSize() != null) {
+                shard.setMaximumPoolSize(config.getMaximumPoolSize());
+            }
+            shards.add(shard);
+        }
+
+        log.info("Partitioning reservations across {} shard(s)", shards.size());
+
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * The datasource used by JPA and the transaction manager. Connections are fetched lazily so
+     * the routing decision sees the shard bound at the start of the surrounding transaction.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Hibernate and Spring Modulith only create their schema in shard 0; this creates it in the other shards.
+     * Event publications are written in the reservation's transaction, so every shard needs the registry table.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "datasource.sharding", name = "initialize-schema", havingValue = "true")
+    public InitializingBean shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                   DataSource dataSource,
+                                                   ShardProperties properties,
+                                                   ShardRouter shardRouter) {
+        return () -> {
+            for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+                String platform = DatabaseDriver.fromJdbcUrl(properties.getShards().get(shard - 1).getUrl()).getId();
+                ResourceDatabasePopulator eventPublicationSchema =
+                        new ResourceDatabasePopulator(new ClassPathResource("schema-" + platform + ".sql"));
+
+                shardRouter.runInShard(shard, () -> {
+                    entityManagerFactory.unwrap(SessionFactory.class)
+                                        .getSchemaManager()
+                                        .exportMappedObjects(true);
+                    eventPublicationSchema.execute(dataSource);
+                });
+            }
+            log.info("Created the schema in {} additional shard(s)", shardRouter.getShardCount() - 1);
+        };
+    }
+}
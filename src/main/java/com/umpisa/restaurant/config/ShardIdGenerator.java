@@ -0,0 +1,103 @@
+package com.umpisa.restaurant.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Generates globally unique IDs for rows stored in a shard.
+ * <p>
+ * An ID carries its shard in the bits above {@link #SHARD_SHIFT} and a value of the shard's own
+ * {@code shard_ids} sequence below, so IDs from different shards never collide and
+ * {@link #shardOf} decodes the shard with a single shift. Like a pooled Hibernate sequence,
+ * each sequence call reserves {@link #ALLOCATION_SIZE} values that are then handed out from
+ * memory. IDs are assigned before insert, which keeps JDBC insert batching enabled.
+ */
+@Slf4j
+@Component
+public class ShardIdGenerator implements InitializingBean {
+
+    /**
+     * Bits left for the per-shard sequence value.
+     */
+    public static final int SHARD_SHIFT = 48;
+
+    static final String SEQUENCE = "shard_ids";
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final long MAX_LOCAL_VALUE = (1L << SHARD_SHIFT) - 1;
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlock[] blocks;
+
+    public ShardIdGenerator(ShardRouter shardRouter, DataSource dataSource) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.blocks = new IdBlock[shardRouter.getShardCount()];
+        for (int shard = 0; shard < blocks.length; shard++) {
+            blocks[shard] = new IdBlock(shard);
+        }
+    }
+
+    /**
+     * Return the shard an ID was generated in.
+     */
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+
+    /**
+     * Create the ID sequence in every shard that does not have it yet.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        shardRouter.forEachShard(shard -> jdbcTemplate.execute(
+                "CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE));
+        log.info("ID sequences ready in {} shard(s)", blocks.length);
+    }
+
+    /**
+     * Return the next ID for a row stored in a shard.
+     *
+     * @throws IllegalStateException if the current thread is routed to another shard, whose sequence would be used
+     */
+    public long nextId(int shard) {
+        Integer routed = ShardContext.current();
+        if (routed != null && routed != shard) {
+            throw new IllegalStateException(String.format(
+                    "Cannot generate an ID for shard %d while routed to shard %d", shard, routed));
+        }
+        return blocks[shard].next();
+    }
+
+    /**
+     * The values of one shard's sequence reserved by the last sequence call.
+     */
+    private final class IdBlock {
+
+        private final int shard;
+        private long next;
+        private long limit;
+
+        private IdBlock(int shard) {
+            this.shard = shard;
+        }
+
+        synchronized long next() {
+            if (next == limit) {
+                long start = shardRouter.inShard(shard, () ->
+                        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCE, Long.class));
+                if (start + ALLOCATION_SIZE - 1 > MAX_LOCAL_VALUE) {
+                    throw new IllegalStateException("ID sequence of shard " + shard + " is exhausted");
+                }
+                next = start;
+                limit = start + ALLOCATION_SIZE;
+            }
+            return ((long) shard << SHARD_SHIFT) | next++;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.umpisa.restaurant.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for partitioning reservations across databases by restaurant.
+ * Shard 0 is the standard {@code spring.datasource}; {@code shards} lists shards 1 and up.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.sharding")
+public class ShardProperties {
+
+    /**
+     * Whether the additional shards are used at all. When off, everything lives in shard 0.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Whether the mapped schema is created in shards 1 and up at startup, like
+     * {@code spring.jpa.hibernate.ddl-auto} does for shard 0. Meant for local in-memory shards.
+     */
+    private boolean initializeSchema = false;
+
+    /**
+     * Explicit restaurant-to-shard placement. Restaurants not listed are placed by
+     * {@code restaurantId mod shardCount}; pin existing restaurants here before adding shards.
+     */
+    private Map<Long, Integer> restaurants = new HashMap<>();
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,163 @@
+package com.umpisa.restaurant.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a restaurant's reservations live in and runs work against a shard.
+ * <p>
+ * Work is routed by setting {@link ShardContext}, which {@link ShardRoutingDataSource} reads when a
+ * transaction fetches its connection. Every transaction therefore talks to exactly one shard:
+ * either bind it with {@link #bindTransaction} before its first statement, or start it inside
+ * {@link #inShard}. Queries that are not keyed by restaurant, such as a customer's reservations,
+ * run once per shard through {@link #onEachShard}, each shard in its own transaction.
+ * <p>
+ * With sharding disabled there is a single shard 0 and all of this is a no-op.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final Map<Long, Integer> restaurantShards;
+
+    public ShardRouter(ShardProperties properties) {
+        this.shardCount = properties.isEnabled() ? properties.getShards().size() + 1 : 1;
+        this.restaurantShards = Map.copyOf(properties.getRestaurants());
+
+        restaurantShards.forEach((restaurantId, shard) -> {
+            if (!isShard(shard)) {
+                throw new IllegalStateException(String.format(
+                        "datasource.sharding.restaurants places restaurant %d on shard %d, but there are %d shard(s)",
+                        restaurantId, shard, shardCount));
+            }
+        });
+    }
+
+    /**
+     * Return the number of shards, including shard 0.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Return the shard that holds a restaurant's reservations.
+     */
+    public int shardFor(Long restaurantId) {
+        Integer shard = restaurantShards.get(restaurantId);
+        return shard != null ? shard : (int) Math.floorMod(restaurantId, (long) shardCount);
+    }
+
+    /**
+     * Return the shard an ID was generated in, or empty if the ID cannot belong to any shard.
+     */
+    public OptionalInt shardOf(Long id) {
+        if (id == null || id < 0) {
+            return OptionalInt.empty();
+        }
+        int shard = ShardIdGenerator.shardOf(id);
+        return isShard(shard) ? OptionalInt.of(shard) : OptionalInt.empty();
+    }
+
+    public boolean isShard(int shard) {
+        return shard >= 0 && shard < shardCount;
+    }
+
+    /**
+     * Route the current transaction to a shard until it completes.
+     * Must be called before the transaction's first statement.
+     *
+     * @throws IllegalStateException if no transaction is active or it is already bound to another shard
+     */
+    public void bindTransaction(int shard) {
+        if (shardCount == 1) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Binding a shard requires an active transaction");
+        }
+
+        Integer current = ShardContext.current();
+        if (current != null) {
+            if (current != shard) {
+                throw new IllegalStateException(String.format(
+                        "Transaction is bound to shard %d and cannot also use shard %d", current, shard));
+            }
+            return;
+        }
+
+        ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.clear();
+            }
+        });
+    }
+
+    /**
+     * Run work against a shard. Transactions started by the work use that shard.
+     */
+    public <T> T inShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                ShardContext.set(previous);
+            } else {
+                ShardContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Run work against a shard. Transactions started by the work use that shard.
+     */
+    public void runInShard(int shard, Runnable work) {
+        inShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run work against every shard in turn and collect the results, in shard order.
+     *
+     * @throws IllegalStateException if called inside a transaction, which can only reach one shard
+     */
+    public <T> List<T> onEachShard(IntFunction<T> work) {
+        if (shardCount > 1 && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cross-shard work cannot run inside a transaction");
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            results.add(inShard(shard, () -> work.apply(current)));
+        }
+        return results;
+    }
+
+    /**
+     * Run work against every shard in turn.
+     *
+     * @throws IllegalStateException if called inside a transaction, which can only reach one shard
+     */
+    public void forEachShard(IntConsumer work) {
+        onEachShard(shard -> {
+            work.accept(shard);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.umpisa.restaurant.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes connections to the shard held in {@link ShardContext}, or to shard 0 when none is set.
+ * <p>
+ * A transaction's connection is fetched once and then reused, so the shard must be set before
+ * the first statement of a transaction; wrap this datasource in a {@link LazyConnectionDataSourceProxy}
+ * so that setting it at the start of a transactional method is early enough.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            targets.put(shard, this.shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(this.shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : shards) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.umpisa.restaurant.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, without locks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm, which admits exactly what a
+ * token bucket does). Taking a token advances that time by one emission interval with a compare-and-set,
+ * and is refused if it would move more than the burst ahead of now. Buckets live in a bounded Caffeine
+ * cache that evicts clients after an idle period, so memory does not grow with the number of clients seen.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(ApiAdmissionProperties.RateLimit properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(ApiAdmissionProperties.RateLimit properties, LongSupplier nanoClock) {
+        if (properties.getRequestsPerSecond() <= 0 || properties.getBurst() < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRequestsPerSecond());
+        this.burstToleranceNanos = emissionIntervalNanos * (properties.getBurst() - 1);
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                               .maximumSize(properties.getMaxClients())
+                               .expireAfterAccess(properties.getIdleTimeout())
+                               .build();
+    }
+
+    /**
+     * Take a token from a client's bucket.
+     *
+     * @param clientKey the client
+     * @return zero if the request is admitted, otherwise how long until the next token is available
+     */
+    public Duration tryAcquire(String clientKey) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(clientKey, key -> new AtomicLong(now));
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstToleranceNanos + emissionIntervalNanos) {
+                return Duration.ofNanos(ahead - burstToleranceNanos - emissionIntervalNanos);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Return the number of clients currently tracked.
+     */
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+}
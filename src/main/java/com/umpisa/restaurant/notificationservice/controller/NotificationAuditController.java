@@ -0,0 +1,70 @@
+package com.umpisa.restaurant.notificationservice.controller;
+
+import com.umpisa.restaurant.notificationservice.model.dto.response.NotificationAuditRecordResponse;
+import com.umpisa.restaurant.notificationservice.service.audit.NotificationAuditLog;
+import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Admin REST controller for looking up notification send attempts in the audit log.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/notifications/audit")
+@Tag(name = "Notification Audit", description = "Lookup of sent notifications")
+public class NotificationAuditController {
+
+    private final NotificationAuditLog auditLog;
+
+    /**
+     * Find audit records, newest first.
+     *
+     * @param recipient the email address or phone number to match
+     * @param hash      the message hash to match
+     * @param limit     the maximum number of records to return
+     * @return the matching records
+     */
+    @Operation(
+            summary = "Find notification audit records",
+            description = "Returns send attempts from the audit log, newest first, optionally filtered by recipient " +
+                    "and message hash. Attempts appear once the audit writer has flushed them"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved audit records",
+                    content = @Content(schema = @Schema(implementation = NotificationAuditRecordResponse.class))),
+
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<List<NotificationAuditRecordResponse>> findAuditRecords(
+            @Parameter(description = "Email address or phone number", example = "john.doe@example.com")
+            @RequestParam(required = false) String recipient,
+            @Parameter(description = "Message hash", example = "9f86d081884c7d65")
+            @RequestParam(required = false) String hash,
+            @Parameter(description = "Maximum records to return (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.info("GET /api/admin/notifications/audit?limit={} - Retrieving audit records", limit);
+
+        return ResponseEntity.ok(auditLog.find(recipient, hash, limit));
+    }
+}
@@ -0,0 +1,99 @@
+package com.umpisa.restaurant.notificationservice.controller;
+
+import com.umpisa.restaurant.notificationservice.model.dto.request.DeadLetterReplayRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterPageResponse;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterReplayResponse;
+import com.umpisa.restaurant.notificationservice.service.NotificationDeadLetterService;
+import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin REST controller for notifications that could not be delivered after every retry.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/notifications/dead-letters")
+@Tag(name = "Notification Dead Letters", description = "Inspection and replay of undelivered notifications")
+public class NotificationDeadLetterController {
+
+    private final NotificationDeadLetterService deadLetterService;
+
+    /**
+     * Get a page of dead letters, oldest first.
+     *
+     * @param afterId the ID of the last dead letter already seen
+     * @param limit   the maximum number of dead letters to return
+     * @return the page of dead letters
+     */
+    @Operation(
+            summary = "List dead letters",
+            description = "Returns notifications that failed every retry, oldest first. " +
+                    "Pass the returned nextAfterId as afterId to get the next page"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved dead letters",
+                    content = @Content(schema = @Schema(implementation = DeadLetterPageResponse.class))),
+
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<DeadLetterPageResponse> listDeadLetters(
+            @Parameter(description = "ID of the last dead letter already seen", example = "0")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Maximum dead letters to return (1-100)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.info("GET /api/admin/notifications/dead-letters?afterId={}&limit={} - Retrieving dead letters", afterId, limit);
+
+        return ResponseEntity.ok(deadLetterService.list(afterId, limit));
+    }
+
+    /**
+     * Replay dead letters in the background.
+     *
+     * @param request the dead letters to replay; the oldest ones when omitted
+     * @return how many dead letters were queued for replay
+     */
+    @Operation(
+            summary = "Replay dead letters",
+            description = "Queues the given dead letters for one more delivery attempt, or the oldest ones when no IDs " +
+                    "are given, and returns without waiting for the attempts. Dead letters another replay holds are " +
+                    "skipped. Delivered dead letters are removed; the others are kept with the attempt recorded"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202",
+                    description = "Replay started",
+                    content = @Content(schema = @Schema(implementation = DeadLetterReplayResponse.class))),
+
+            @ApiResponse(responseCode = "400",
+                    description = "Too many dead letters requested",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replayDeadLetters(
+            @RequestBody(required = false) DeadLetterReplayRequest request) {
+
+        log.info("POST /api/admin/notifications/dead-letters/replay - Replaying dead letters");
+
+        return ResponseEntity.accepted().body(deadLetterService.replay(request != null ? request.getIds() : null));
+    }
+}
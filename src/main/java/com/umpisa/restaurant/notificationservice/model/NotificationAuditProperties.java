@@ -0,0 +1,45 @@
+package com.umpisa.restaurant.notificationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the notification audit log.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.audit")
+public class NotificationAuditProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Directory of the audit files; created if missing.
+     */
+    private String directory = "logs/notification-audit";
+
+    /**
+     * Records buffered in memory for the writer, rounded up to a power of two.
+     * Records arriving while the buffer is full are dropped and counted.
+     */
+    private int bufferSize = 16384;
+
+    /**
+     * Size at which the writer starts a new file.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Files kept; the oldest is deleted when a new one is started.
+     */
+    private int maxFiles = 10;
+
+    /**
+     * How long the writer sleeps when there is nothing to write, and so the longest a record waits to be written.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+}
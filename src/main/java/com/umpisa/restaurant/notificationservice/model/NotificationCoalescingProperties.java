@@ -0,0 +1,22 @@
+package com.umpisa.restaurant.notificationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for merging a reservation's notifications that fall within a short window.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.coalescing")
+public class NotificationCoalescingProperties {
+
+    /**
+     * How long a reservation's first notification is held for later changes to be merged into it.
+     * Zero sends every notification as soon as its event arrives.
+     */
+    private Duration window = Duration.ofMinutes(1);
+}
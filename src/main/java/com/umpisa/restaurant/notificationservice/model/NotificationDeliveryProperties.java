@@ -0,0 +1,85 @@
+package com.umpisa.restaurant.notificationservice.model;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for delivering notifications, retrying failures and replaying dead letters.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.delivery")
+public class NotificationDeliveryProperties {
+
+    private RetryPolicy email = new RetryPolicy();
+
+    private RetryPolicy sms = new RetryPolicy();
+
+    /**
+     * Threads sending notifications and their retries.
+     */
+    private int concurrency = 8;
+
+    /**
+     * Delivery batches waiting for a thread. Deliveries that do not fit stay in {@code notification_deliveries}
+     * and are picked up by the next sweep, which takes at most this many deliveries at once.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Most deliveries over one channel handed to its sender at once, to share an SMTP connection
+     * or an SMS provider request.
+     */
+    private int batchSize = 50;
+
+    /**
+     * How long a worker holds a delivery or dead letter it is sending before another worker may take
+     * it over. Must exceed the slowest send, or the notification can be sent twice.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Threads replaying dead letters, shared by every replay request.
+     */
+    private int replayConcurrency = 4;
+
+    /**
+     * Upper bound on dead letters replayed per request, and on dead letters waiting for a replay thread.
+     */
+    private int maxReplayBatch = 500;
+
+    public RetryPolicy policyFor(NotificationChannel channel) {
+        return channel == NotificationChannel.SMS ? sms : email;
+    }
+
+    @Data
+    public static class RetryPolicy {
+
+        /**
+         * Attempts, including the first, before the notification is dead-lettered.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Wait before the first retry.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        /**
+         * Factor the wait grows by after each failed retry.
+         */
+        private double multiplier = 2.0;
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        /**
+         * Fraction of each wait that is randomized, so retries of one outage do not arrive together.
+         * 0 waits exactly the backoff; 1 waits anywhere between zero and the backoff.
+         */
+        private double jitter = 0.5;
+    }
+}
@@ -0,0 +1,43 @@
+package com.umpisa.restaurant.notificationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the executor that sends notifications after the reservation transaction commits.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.dispatch")
+public class NotificationDispatchProperties {
+
+    /**
+     * Threads kept sending notifications while idle.
+     */
+    private int corePoolSize = 4;
+
+    /**
+     * Threads started once the queue is full.
+     */
+    private int maxPoolSize = 16;
+
+    /**
+     * Notifications waiting for a thread. When the queue and the pool are both full, the event is dropped
+     * and counted rather than handled on the thread that committed the reservation; its publication stays
+     * incomplete, and the outbox resubmits it once {@code reservation.outbox.resubmit-after} has passed.
+     */
+    private int queueCapacity = 500;
+
+    /**
+     * Threads above the core size are stopped after being idle for this long.
+     */
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * How long shutdown waits for queued notifications to be sent.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
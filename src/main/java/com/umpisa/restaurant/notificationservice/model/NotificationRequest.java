@@ -9,11 +9,16 @@ import lombok.Data;
  * Encapsulates all parameters needed to send a notification via any channel.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class NotificationRequest {
     private NotificationChannel channel;
     private String email;
     private String phoneNumber;
     private String subject;
     private String message;
+
+    /**
+     * The template the message was rendered from, such as {@code confirmation}; recorded in the audit log.
+     */
+    private String templateId;
 }
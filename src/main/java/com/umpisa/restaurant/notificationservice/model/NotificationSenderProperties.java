@@ -0,0 +1,81 @@
+package com.umpisa.restaurant.notificationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the email and SMS notification senders.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.sender")
+public class NotificationSenderProperties {
+
+    private Email email = new Email();
+
+    private Sms sms = new Sms();
+
+    @Data
+    public static class Email {
+
+        /**
+         * SMTP server host. When unset, emails are only logged.
+         */
+        private String host;
+
+        private int port = 25;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Whether to upgrade connections with STARTTLS.
+         */
+        private boolean startTls = false;
+
+        /**
+         * Sender address of every notification email.
+         */
+        private String from = "reservations@localhost";
+
+        /**
+         * SMTP connections kept open and shared by the dispatch threads.
+         */
+        private int poolSize = 4;
+
+        /**
+         * Messages sent over one connection before it is replaced; mail servers limit messages per session.
+         */
+        private int maxMessagesPerConnection = 100;
+
+        /**
+         * Pooled connections idle for longer are reopened, since servers drop idle sessions.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How long a send waits for a pooled connection.
+         */
+        private Duration borrowTimeout = Duration.ofSeconds(10);
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Read and write timeout of SMTP commands.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Sms {
+
+        /**
+         * Messages handed to the SMS gateway in one request.
+         */
+        private int batchSize = 50;
+    }
+}
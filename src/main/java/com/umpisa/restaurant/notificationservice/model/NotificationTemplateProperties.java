@@ -4,22 +4,53 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Configuration properties for notification message templates.
+ * The top-level templates are in the default language; {@code locales} holds translations by language tag.
  */
 @Data
 @Component
 @ConfigurationProperties(prefix = "notification.templates")
 public class NotificationTemplateProperties {
 
+    /**
+     * Language tag of the top-level templates, used for reservations without a supported preferred language.
+     */
+    private String defaultLanguage = "en";
+
+    private String dateTimePattern = "EEEE, MMMM dd, yyyy 'at' hh:mm a";
+    private String timePattern = "hh:mm a";
+
     private TemplateConfig confirmation;
     private TemplateConfig cancellation;
     private TemplateConfig update;
     private TemplateConfig reminder;
+    private TemplateConfig waitlistPromotion;
+
+    /**
+     * Translations by language tag, such as {@code fil} or {@code zh}.
+     * Patterns and templates left out fall back to the default language.
+     */
+    private Map<String, LocaleTemplates> locales = new LinkedHashMap<>();
 
     @Data
     public static class TemplateConfig {
         private String subject;
         private String body;
     }
+
+    @Data
+    public static class LocaleTemplates {
+        private String dateTimePattern;
+        private String timePattern;
+
+        private TemplateConfig confirmation;
+        private TemplateConfig cancellation;
+        private TemplateConfig update;
+        private TemplateConfig reminder;
+        private TemplateConfig waitlistPromotion;
+    }
 }
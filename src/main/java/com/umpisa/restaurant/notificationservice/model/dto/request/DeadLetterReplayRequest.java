@@ -0,0 +1,24 @@
+package com.umpisa.restaurant.notificationservice.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for replaying dead letters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dead letters to replay")
+public class DeadLetterReplayRequest {
+
+    @Schema(description = "IDs of the dead letters to replay; when empty, the oldest dead letters are replayed",
+            example = "[1, 2, 3]")
+    private List<Long> ids;
+}
@@ -0,0 +1,29 @@
+package com.umpisa.restaurant.notificationservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of dead letters, oldest first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of dead letters with the ID to continue after")
+public class DeadLetterPageResponse {
+
+    @Schema(description = "Dead letters on this page, ordered by ID")
+    private List<DeadLetterResponse> content;
+
+    @Schema(description = "Pass as afterId to get the next page; absent on the last page", example = "50")
+    private Long nextAfterId;
+
+    @Schema(description = "Whether more dead letters follow this page")
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.umpisa.restaurant.notificationservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO summarizing a replay of dead letters that has been started.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dead letters handed to the replay workers")
+public class DeadLetterReplayResponse {
+
+    @Schema(description = "Dead letters claimed and queued for replay", example = "9")
+    private int queued;
+
+    @Schema(description = "Requested dead letters not replayed because they do not exist, another replay holds them, " +
+            "or the replay queue is full", example = "1")
+    private int skipped;
+}
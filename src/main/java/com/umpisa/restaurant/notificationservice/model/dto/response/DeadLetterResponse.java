@@ -0,0 +1,54 @@
+package com.umpisa.restaurant.notificationservice.model.dto.response;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for a notification that could not be delivered.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Notification that could not be delivered after every retry")
+public class DeadLetterResponse {
+
+    @Schema(description = "Unique dead letter identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Channel that failed", example = "SMS")
+    private NotificationChannel channel;
+
+    @Schema(description = "Recipient's email address", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Recipient's phone number", example = "+639171234567")
+    private String phoneNumber;
+
+    @Schema(description = "Email subject", example = "Reservation Confirmed - ID #1")
+    private String subject;
+
+    @Schema(description = "Message content")
+    private String message;
+
+    @Schema(description = "Template the message was rendered from", example = "confirmation")
+    private String templateId;
+
+    @Schema(description = "Delivery attempts so far, including replays", example = "5")
+    private int attempts;
+
+    @Schema(description = "Error of the last attempt")
+    private String lastError;
+
+    @Schema(description = "When the notification was dead-lettered")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When delivery was last attempted")
+    private LocalDateTime lastAttemptAt;
+}
@@ -0,0 +1,39 @@
+package com.umpisa.restaurant.notificationservice.model.dto.response;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for one entry of the notification audit log.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A notification send attempt recorded in the audit log")
+public class NotificationAuditRecordResponse {
+
+    @Schema(description = "When the send attempt finished")
+    private Instant timestamp;
+
+    @Schema(description = "Channel the notification was sent over", example = "EMAIL")
+    private NotificationChannel channel;
+
+    @Schema(description = "Template the message was rendered from", example = "confirmation")
+    private String templateId;
+
+    @Schema(description = "Outcome of the attempt", example = "SENT", allowableValues = {"SENT", "FAILED"})
+    private String status;
+
+    @Schema(description = "Email address or phone number the notification was sent to", example = "john.doe@example.com")
+    private String recipient;
+
+    @Schema(description = "Hash of the subject and message, to match a message without storing it", example = "9f86d081884c7d65")
+    private String hash;
+}
@@ -0,0 +1,96 @@
+package com.umpisa.restaurant.notificationservice.model.entity;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity holding a reservation's notification while the coalescing window merges later changes into it.
+ * The row is written before the reservation event is acknowledged and deleted in the transaction that hands the
+ * notification to delivery, so a held notification survives a restart. Like deliveries, holds live in shard 0.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_holds")
+public class HeldNotification {
+
+    @Id
+    private Long reservationId;
+
+    /**
+     * The kind of notification to send once the window closes; null until the first event is merged.
+     */
+    @Column(length = 30)
+    private String kind;
+
+    /**
+     * Whether an update has been merged, whose date and party size take precedence over the creation's.
+     */
+    private boolean updated;
+
+    private String customerName;
+
+    private String email;
+
+    private String phoneNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private NotificationChannel channel;
+
+    @Column(length = 35)
+    private String language;
+
+    private LocalDateTime reservationDateTime;
+
+    private Integer numberOfGuests;
+
+    /**
+     * When the window closes and the notification is handed to delivery.
+     */
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    @Version
+    private Long version;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                                                                                     .getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                                              .getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        HeldNotification that = (HeldNotification) o;
+        return getReservationId() != null && Objects.equals(getReservationId(), that.getReservationId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                       .getPersistentClass()
+                                                                       .hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,109 @@
+package com.umpisa.restaurant.notificationservice.model.entity;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity holding a notification that could not be delivered over one channel after every retry.
+ * Dead letters are not partitioned by restaurant and live in shard 0. A successful replay deletes the row.
+ * <p>
+ * A replay claims its dead letters by setting {@code claimedBy} and {@code claimedUntil} with a conditional update,
+ * so overlapping replays never send the same dead letter; a claim left behind by a crash lapses at {@code claimedUntil}.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_dead_letters")
+public class NotificationDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The channel that failed, {@code EMAIL} or {@code SMS}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private NotificationChannel channel;
+
+    private String email;
+
+    private String phoneNumber;
+
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String message;
+
+    @Column(length = 50)
+    private String templateId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastAttemptAt;
+
+    /**
+     * The replay holding the dead letter; null while none does.
+     */
+    @Column(length = 36)
+    private String claimedBy;
+
+    /**
+     * When the replay's claim lapses.
+     */
+    private LocalDateTime claimedUntil;
+
+    @Version
+    private Long version;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                                                                                     .getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                                              .getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        NotificationDeadLetter that = (NotificationDeadLetter) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                       .getPersistentClass()
+                                                                       .hashCode() : getClass().hashCode();
+    }
+}
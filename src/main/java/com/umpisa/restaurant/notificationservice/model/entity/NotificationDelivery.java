@@ -0,0 +1,118 @@
+package com.umpisa.restaurant.notificationservice.model.entity;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity holding a notification waiting to be delivered over one channel.
+ * The row is written before the first attempt and deleted once the notification is delivered or dead-lettered,
+ * so pending deliveries and their retries survive a restart. Like dead letters, deliveries live in shard 0.
+ * <p>
+ * A worker claims the row by setting {@code claimedUntil} with a conditional update before sending, so a delivery
+ * is attempted by one worker at a time; a claim left behind by a crashed worker lapses at {@code claimedUntil}.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_deliveries", indexes = {
+        @Index(name = "idx_notification_deliveries_next_attempt_at", columnList = "next_attempt_at")
+})
+public class NotificationDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The channel to deliver over, {@code EMAIL} or {@code SMS}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private NotificationChannel channel;
+
+    private String email;
+
+    private String phoneNumber;
+
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String message;
+
+    @Column(length = 50)
+    private String templateId;
+
+    /**
+     * Attempts made so far.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * When the current worker's claim lapses; null while no worker holds the delivery.
+     */
+    private LocalDateTime claimedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public NotificationRequest toRequest() {
+        return NotificationRequest.builder()
+                                  .channel(channel)
+                                  .email(email)
+                                  .phoneNumber(phoneNumber)
+                                  .subject(subject)
+                                  .message(message)
+                                  .templateId(templateId)
+                                  .build();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                                                                                     .getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                                              .getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        NotificationDelivery that = (NotificationDelivery) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                       .getPersistentClass()
+                                                                       .hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,23 @@
+package com.umpisa.restaurant.notificationservice.repository;
+
+import com.umpisa.restaurant.notificationservice.model.entity.HeldNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository interface for HeldNotification entity.
+ */
+@Repository
+public interface HeldNotificationRepository extends JpaRepository<HeldNotification, Long> {
+
+    /**
+     * Find every held notification. Runs in a read-write transaction, so it reads the primary.
+     *
+     * @return the held notifications
+     */
+    @Transactional
+    List<HeldNotification> findAllByOrderByDueAtAsc();
+}
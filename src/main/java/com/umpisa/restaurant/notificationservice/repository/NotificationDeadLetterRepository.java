@@ -0,0 +1,112 @@
+package com.umpisa.restaurant.notificationservice.repository;
+
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for NotificationDeadLetter entity.
+ */
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+
+    /**
+     * Find dead letters after a given ID, oldest first.
+     *
+     * @param afterId  the ID of the last dead letter already seen
+     * @param pageable the maximum number of dead letters to return
+     * @return the dead letters
+     */
+    List<NotificationDeadLetter> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Find the oldest dead letters no replay holds. Runs in a read-write transaction, so it reads the primary.
+     *
+     * @param now      the current date/time
+     * @param pageable the maximum number of dead letters to return
+     * @return the dead letter IDs
+     */
+    @Transactional
+    @Query("SELECT d.id FROM NotificationDeadLetter d WHERE d.claimedUntil IS NULL OR d.claimedUntil < :now ORDER BY d.id")
+    List<Long> findUnclaimedIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim dead letters for a replay, skipping those another replay holds.
+     *
+     * @param ids          the dead letter IDs
+     * @param claimedBy    the replay's claim token
+     * @param now          the current date/time
+     * @param claimedUntil when the claim lapses
+     * @return the number of claimed dead letters
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDeadLetter d SET d.claimedBy = :claimedBy, d.claimedUntil = :claimedUntil " +
+            "WHERE d.id IN :ids AND (d.claimedUntil IS NULL OR d.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimedBy") String claimedBy,
+              @Param("now") LocalDateTime now,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Find the dead letters a replay holds, oldest first. Runs in a read-write transaction, so it reads the primary.
+     *
+     * @param claimedBy the replay's claim token
+     * @return the dead letters
+     */
+    @Transactional
+    List<NotificationDeadLetter> findByClaimedByOrderByIdAsc(String claimedBy);
+
+    /**
+     * Record a failed replay and release the claim, unless another replay has taken the dead letter over.
+     *
+     * @param id            the dead letter ID
+     * @param claimedBy     the replay's claim token
+     * @param lastError     the error of the failed attempt
+     * @param lastAttemptAt the time of the attempt
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDeadLetter d SET d.attempts = d.attempts + 1, d.lastError = :lastError, " +
+            "d.lastAttemptAt = :lastAttemptAt, d.claimedBy = NULL, d.claimedUntil = NULL " +
+            "WHERE d.id = :id AND d.claimedBy = :claimedBy")
+    int recordFailedReplay(@Param("id") Long id,
+                           @Param("claimedBy") String claimedBy,
+                           @Param("lastError") String lastError,
+                           @Param("lastAttemptAt") LocalDateTime lastAttemptAt);
+
+    /**
+     * Release a claim without replaying the dead letter.
+     *
+     * @param id        the dead letter ID
+     * @param claimedBy the replay's claim token
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDeadLetter d SET d.claimedBy = NULL, d.claimedUntil = NULL " +
+            "WHERE d.id = :id AND d.claimedBy = :claimedBy")
+    int release(@Param("id") Long id, @Param("claimedBy") String claimedBy);
+
+    /**
+     * Delete a replayed dead letter, unless another replay has taken it over.
+     *
+     * @param id        the dead letter ID
+     * @param claimedBy the replay's claim token
+     * @return the number of deleted rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationDeadLetter d WHERE d.id = :id AND d.claimedBy = :claimedBy")
+    int deleteReplayed(@Param("id") Long id, @Param("claimedBy") String claimedBy);
+}
@@ -0,0 +1,109 @@
+package com.umpisa.restaurant.notificationservice.repository;
+
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for NotificationDelivery entity.
+ * Reads run in read-write transactions so they go to the primary even when read replicas are enabled.
+ */
+@Repository
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, Long> {
+
+    /**
+     * Find deliveries due for an attempt that no worker holds, earliest first.
+     *
+     * @param now      the current date/time
+     * @param pageable the maximum number of deliveries to return
+     * @return the delivery IDs
+     */
+    @Transactional
+    @Query("SELECT d.id FROM NotificationDelivery d WHERE d.nextAttemptAt <= :now " +
+            "AND (d.claimedUntil IS NULL OR d.claimedUntil < :now) ORDER BY d.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Load deliveries from the primary, in ID order. Deliveries that are gone are left out.
+     *
+     * @param ids the delivery IDs
+     * @return the deliveries
+     */
+    @Transactional
+    @Query("SELECT d FROM NotificationDelivery d WHERE d.id IN :ids ORDER BY d.id")
+    List<NotificationDelivery> findForAttempt(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Claim a due delivery for an attempt, unless another worker holds it or it is not due yet.
+     *
+     * @param id           the delivery ID
+     * @param now          the current date/time
+     * @param claimedUntil when the claim lapses
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDelivery d SET d.claimedUntil = :claimedUntil WHERE d.id = :id " +
+            "AND d.nextAttemptAt <= :now AND (d.claimedUntil IS NULL OR d.claimedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Record a failed attempt, set the time of the next one and release the claim.
+     *
+     * @param id            the delivery ID
+     * @param attempts      the attempts made so far
+     * @param lastError     the error of the failed attempt
+     * @param nextAttemptAt when the next attempt is due
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDelivery d SET d.attempts = :attempts, d.lastError = :lastError, " +
+            "d.nextAttemptAt = :nextAttemptAt, d.claimedUntil = NULL WHERE d.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Release claims without attempting the deliveries.
+     *
+     * @param ids the delivery IDs
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationDelivery d SET d.claimedUntil = NULL WHERE d.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete a delivered delivery.
+     *
+     * @param id the delivery ID
+     * @return the number of deleted rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationDelivery d WHERE d.id = :id")
+    int deleteDelivered(@Param("id") Long id);
+
+    /**
+     * Delete delivered deliveries.
+     *
+     * @param ids the delivery IDs
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationDelivery d WHERE d.id IN :ids")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,369 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationCoalescingProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.entity.HeldNotification;
+import com.umpisa.restaurant.notificationservice.repository.HeldNotificationRepository;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds a reservation's notification for the configured window and merges later changes into it,
+ * so a customer who books and edits in quick succession gets one message describing the final state.
+ * <ul>
+ *     <li>created, then updated: one confirmation with the latest date and party size</li>
+ *     <li>updated several times: one update with the latest date and party size</li>
+ *     <li>updated, then cancelled: one cancellation</li>
+ *     <li>created, then cancelled: nothing</li>
+ * </ul>
+ * The window starts with the reservation's first event, so no notification is delayed by more than the window.
+ * Events may arrive out of order from the dispatch threads; the merge gives the same result either way.
+ * <p>
+ * Held notifications are stored in {@code notification_holds} before the event is acknowledged, so the event's
+ * publication only completes once the hold is durable. When the window closes, the hold is deleted in the same
+ * transaction that stores the notification for delivery, and {@link NotificationDeliveryService} sends it on its
+ * own executor once that transaction commits, so the timer never sends. Holds left by a restart are reloaded at
+ * startup and handed off when their window closes. A hand-off that fails is retried after another window.
+ * <p>
+ * Concurrent events for one reservation are serialized by the hold row's version rather than by a lock:
+ * a merge or hand-off that loses the race fails on the version and is retried against the fresh row.
+ * <p>
+ * Metrics: the {@code notifications.coalescing.pending} gauge, and the {@code notifications.coalescing.merged}
+ * and {@code notifications.coalescing.dropped} counters of events folded into another notification or cancelled out.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer implements SmartInitializingSingleton {
+
+    /**
+     * Attempts at a hold's merge or hand-off while concurrent events for the reservation keep changing its row.
+     */
+    private static final int MAX_CONFLICT_RETRIES = 5;
+
+    private final NotificationDeliveryService deliveryService;
+    private final NotificationTemplateService templateService;
+    private final HeldNotificationRepository holdRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+    /**
+     * When each notification this instance has scheduled a hand-off for is due.
+     */
+    private final ConcurrentMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final Counter mergedCounter;
+    private final Counter droppedCounter;
+
+    public NotificationCoalescer(NotificationDeliveryService deliveryService,
+                                 NotificationTemplateService templateService,
+                                 HeldNotificationRepository holdRepository,
+                                 ShardRouter shardRouter,
+                                 NotificationCoalescingProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.deliveryService = deliveryService;
+        this.templateService = templateService;
+        this.holdRepository = holdRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.window = properties.getWindow();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notifications.coalescing.pending", pending, ConcurrentMap::size)
+             .description("Reservations with a notification held for merging")
+             .register(meterRegistry);
+        this.mergedCounter = Counter.builder("notifications.coalescing.merged")
+                                    .description("Reservation events merged into a notification already held")
+                                    .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.coalescing.dropped")
+                                     .description("Notifications not sent because the reservation was created and cancelled within the window")
+                                     .register(meterRegistry);
+    }
+
+    private enum Kind {
+        CONFIRMATION("confirmation"),
+        WAITLIST_PROMOTION("waitlist-promotion"),
+        UPDATE("update"),
+        CANCELLATION("cancellation"),
+        NONE(null);
+
+        /**
+         * The key of the notification's template under {@code notification.templates}.
+         */
+        private final String templateId;
+
+        Kind(String templateId) {
+            this.templateId = templateId;
+        }
+
+        private static Kind of(HeldNotification notification) {
+            return notification.getKind() == null ? null : valueOf(notification.getKind());
+        }
+    }
+
+    public void created(ReservationCreatedEvent event) {
+        hold(event.getReservationId(), notification -> merge(notification, event));
+    }
+
+    public void updated(ReservationUpdatedEvent event) {
+        hold(event.getReservationId(), notification -> merge(notification, event));
+    }
+
+    public void cancelled(ReservationCancelledEvent event) {
+        hold(event.getReservationId(), notification -> merge(notification, event));
+    }
+
+    /**
+     * Reload the notifications held before a restart and schedule their hand-off.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<HeldNotification> held = inNotificationShard(holdRepository::findAllByOrderByDueAtAsc);
+        for (HeldNotification notification : held) {
+            scheduleIfAbsent(notification.getReservationId(), notification.getDueAt());
+        }
+        if (!held.isEmpty()) {
+            log.info("Reloaded {} held notifications", held.size());
+        }
+    }
+
+    /**
+     * Hand every notification this instance holds to delivery now.
+     */
+    public void flushAll() {
+        List.copyOf(pending.keySet()).forEach(this::flush);
+    }
+
+    /**
+     * Stop the timer. Held notifications stay stored and are reloaded after the restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void hold(Long reservationId, Consumer<HeldNotification> change) {
+        if (window.isZero() || window.isNegative()) {
+            HeldNotification notification = HeldNotification.builder().reservationId(reservationId).build();
+            change.accept(notification);
+            NotificationRequest request = request(notification);
+            if (request != null) {
+                deliveryService.deliver(request);
+            }
+            return;
+        }
+
+        HeldNotification notification = retryOnConflict(() -> inNotificationShard(() -> transactionTemplate.execute(status -> {
+            HeldNotification held = holdRepository.findById(reservationId)
+                                                  .orElseGet(() -> HeldNotification.builder()
+                                                                                   .reservationId(reservationId)
+                                                                                   .dueAt(LocalDateTime.now().plus(window))
+                                                                                   .build());
+            change.accept(held);
+            return holdRepository.saveAndFlush(held);
+        })));
+        // The first event inserts the row at version 0; every merge after it bumps the version
+        if (notification.getVersion() > 0) {
+            mergedCounter.increment();
+        }
+        scheduleIfAbsent(reservationId, notification.getDueAt());
+    }
+
+    private void scheduleIfAbsent(Long reservationId, LocalDateTime dueAt) {
+        if (pending.putIfAbsent(reservationId, dueAt) == null) {
+            schedule(reservationId, Math.max(0, Duration.between(LocalDateTime.now(), dueAt).toMillis()));
+        }
+    }
+
+    private void schedule(Long reservationId, long delayMillis) {
+        timer.schedule(() -> flush(reservationId), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hand a held notification off. An event merged after the entry is removed schedules a new flush,
+     * which finds the row handed off or hands off the newer one.
+     */
+    private void flush(Long reservationId) {
+        LocalDateTime dueAt = pending.remove(reservationId);
+        if (dueAt == null) {
+            return;
+        }
+        try {
+            retryOnConflict(() -> {
+                handOff(reservationId);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to hand the notification for reservation ID {} to delivery; retrying in {}: {}",
+                     reservationId, window, e.getMessage());
+            if (pending.putIfAbsent(reservationId, dueAt) == null && !timer.isShutdown()) {
+                schedule(reservationId, window.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Run work that reads and writes a hold row, retrying it when a concurrent change to the same row,
+     * or a concurrent insert of it, makes it fail.
+     */
+    private static <T> T retryOnConflict(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_CONFLICT_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete the hold and store its notification for delivery in one transaction. Another instance that
+     * reloaded the same hold finds it gone, or fails on its version, so the notification is handed off once.
+     */
+    private void handOff(Long reservationId) {
+        inNotificationShard(() -> transactionTemplate.execute(status -> {
+            HeldNotification notification = holdRepository.findById(reservationId).orElse(null);
+            if (notification == null) {
+                return null;
+            }
+            holdRepository.delete(notification);
+            NotificationRequest request = request(notification);
+            if (request != null) {
+                deliveryService.deliverOnCommit(request);
+                log.debug("Handed {} notification for reservation ID {} to delivery", request.getTemplateId(), reservationId);
+            }
+            return null;
+        }));
+    }
+
+    private static void recipient(HeldNotification notification, String customerName, String email, String phoneNumber,
+                                  NotificationChannel channel, String language) {
+        notification.setCustomerName(customerName);
+        notification.setEmail(email);
+        notification.setPhoneNumber(phoneNumber);
+        notification.setChannel(channel);
+        notification.setLanguage(language);
+    }
+
+    private static void merge(HeldNotification notification, ReservationCreatedEvent event) {
+        if (Kind.of(notification) == Kind.CANCELLATION) {
+            // Cancelled before the creation was announced
+            notification.setKind(Kind.NONE.name());
+            return;
+        }
+        notification.setKind((event.isFromWaitlist() ? Kind.WAITLIST_PROMOTION : Kind.CONFIRMATION).name());
+        if (!notification.isUpdated()) {
+            recipient(notification, event.getCustomerName(), event.getEmail(), event.getPhoneNumber(),
+                      event.getNotificationChannel(), event.getPreferredLanguage());
+            notification.setReservationDateTime(event.getReservationDateTime());
+            notification.setNumberOfGuests(event.getNumberOfGuests());
+        }
+    }
+
+    private static void merge(HeldNotification notification, ReservationUpdatedEvent event) {
+        if (Kind.of(notification) == null) {
+            notification.setKind(Kind.UPDATE.name());
+        }
+        notification.setUpdated(true);
+        recipient(notification, event.getCustomerName(), event.getEmail(), event.getPhoneNumber(),
+                  event.getNotificationChannel(), event.getPreferredLanguage());
+        notification.setReservationDateTime(event.getNewReservationDateTime());
+        notification.setNumberOfGuests(event.getNewNumberOfGuests());
+    }
+
+    private static void merge(HeldNotification notification, ReservationCancelledEvent event) {
+        Kind kind = Kind.of(notification);
+        if (kind == Kind.CONFIRMATION || kind == Kind.WAITLIST_PROMOTION) {
+            notification.setKind(Kind.NONE.name());
+            return;
+        }
+        notification.setKind(Kind.CANCELLATION.name());
+        recipient(notification, event.getCustomerName(), event.getEmail(), event.getPhoneNumber(),
+                  event.getNotificationChannel(), event.getPreferredLanguage());
+    }
+
+    /**
+     * Render a held notification, or return null if it cancelled itself out.
+     */
+    private NotificationRequest request(HeldNotification notification) {
+        Long reservationId = notification.getReservationId();
+        Kind kind = Kind.of(notification);
+        String language = notification.getLanguage();
+        String subject;
+        String message;
+        switch (kind) {
+            case CONFIRMATION -> {
+                subject = templateService.buildConfirmationSubject(reservationId, language);
+                message = templateService.buildReservationConfirmationMessage(notification.getCustomerName(), reservationId,
+                                                                              notification.getReservationDateTime(),
+                                                                              notification.getNumberOfGuests(), language);
+            }
+            case WAITLIST_PROMOTION -> {
+                subject = templateService.buildWaitlistPromotionSubject(reservationId, language);
+                message = templateService.buildWaitlistPromotionMessage(notification.getCustomerName(), reservationId,
+                                                                        notification.getReservationDateTime(),
+                                                                        notification.getNumberOfGuests(), language);
+            }
+            case UPDATE -> {
+                subject = templateService.buildUpdateSubject(reservationId, language);
+                message = templateService.buildUpdateMessage(notification.getCustomerName(), reservationId,
+                                                             notification.getReservationDateTime(),
+                                                             notification.getNumberOfGuests(), language);
+            }
+            case CANCELLATION -> {
+                subject = templateService.buildCancellationSubject(reservationId, language);
+                message = templateService.buildCancellationMessage(notification.getCustomerName(), reservationId, language);
+            }
+            default -> {
+                droppedCounter.increment();
+                log.info("Reservation ID {} was created and cancelled within {}; no notification sent", reservationId, window);
+                return null;
+            }
+        }
+
+        return NotificationRequest.builder()
+                                  .channel(notification.getChannel())
+                                  .email(notification.getEmail())
+                                  .phoneNumber(notification.getPhoneNumber())
+                                  .subject(subject)
+                                  .message(message)
+                                  .templateId(kind.templateId)
+                                  .build();
+    }
+
+    private <T> T inNotificationShard(Supplier<T> work) {
+        return shardRouter.inShard(NotificationDeliveryService.NOTIFICATION_SHARD, work);
+    }
+}
@@ -0,0 +1,178 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.NotificationDispatchConfig;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterPageResponse;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterReplayResponse;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterResponse;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDeadLetter;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeadLetterRepository;
+import com.umpisa.restaurant.shared.exceptions.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Lists and replays the notifications {@link NotificationDeliveryService} gave up on.
+ * <p>
+ * A replay claims its dead letters with a conditional update, so overlapping replays, on this instance or another,
+ * never send the same dead letter, and returns once they are queued. The shared replay executor then makes one
+ * delivery attempt per dead letter, at most {@code notification.delivery.replay-concurrency} at a time across all
+ * replays so a large backlog does not flood the mail server or SMS gateway. Delivered dead letters are deleted;
+ * the others keep their place with the attempt recorded and are released for the next replay.
+ */
+@Slf4j
+@Service
+public class NotificationDeadLetterService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationService notificationService;
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final ShardRouter shardRouter;
+    private final NotificationDeliveryProperties properties;
+    private final Executor replayExecutor;
+
+    public NotificationDeadLetterService(NotificationService notificationService,
+                                         NotificationDeadLetterRepository deadLetterRepository,
+                                         ShardRouter shardRouter,
+                                         NotificationDeliveryProperties properties,
+                                         @Qualifier(NotificationDispatchConfig.DEAD_LETTER_REPLAY_EXECUTOR) Executor replayExecutor) {
+        this.notificationService = notificationService;
+        this.deadLetterRepository = deadLetterRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.replayExecutor = replayExecutor;
+    }
+
+    /**
+     * Get a page of dead letters, oldest first.
+     *
+     * @param afterId the ID of the last dead letter already seen; 0 for the first page
+     * @param limit   the maximum number of dead letters to return
+     * @return the page
+     */
+    public DeadLetterPageResponse list(long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<NotificationDeadLetter> deadLetters = inDeadLetterShard(() ->
+                deadLetterRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit + 1)));
+
+        boolean hasMore = deadLetters.size() > limit;
+        List<NotificationDeadLetter> page = hasMore ? deadLetters.subList(0, limit) : deadLetters;
+
+        return DeadLetterPageResponse.builder()
+                                     .content(page.stream().map(this::toResponse).toList())
+                                     .nextAfterId(hasMore ? page.get(page.size() - 1).getId() : null)
+                                     .hasMore(hasMore)
+                                     .build();
+    }
+
+    /**
+     * Start attempting delivery of dead letters once more. Returns once the dead letters are claimed and queued;
+     * the outcome of each attempt is logged and visible through {@link #list}.
+     *
+     * @param ids the dead letters to replay; when null or empty, the oldest ones no other replay holds
+     * @return how many were queued and skipped
+     */
+    public DeadLetterReplayResponse replay(List<Long> ids) {
+        int batch = properties.getMaxReplayBatch();
+        if (ids != null && ids.size() > batch) {
+            throw new BadRequestException("At most " + batch + " dead letters can be replayed at once");
+        }
+
+        String claimedBy = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> requested = ids == null || ids.isEmpty()
+                ? inDeadLetterShard(() -> deadLetterRepository.findUnclaimedIds(now, PageRequest.ofSize(batch)))
+                : ids;
+        List<NotificationDeadLetter> claimed = requested.isEmpty() ? List.of() : inDeadLetterShard(() -> {
+            deadLetterRepository.claim(requested, claimedBy, now, now.plus(properties.getClaimTimeout()));
+            return deadLetterRepository.findByClaimedByOrderByIdAsc(claimedBy);
+        });
+
+        int queued = 0;
+        for (NotificationDeadLetter deadLetter : claimed) {
+            try {
+                replayExecutor.execute(() -> replayOne(deadLetter));
+                queued++;
+            } catch (RejectedExecutionException e) {
+                log.warn("Replay queue is full; dead letter {} is left for a later replay", deadLetter.getId());
+                inDeadLetterShard(() -> deadLetterRepository.release(deadLetter.getId(), claimedBy));
+            }
+        }
+
+        log.info("Queued {} of {} requested dead letter(s) for replay", queued, requested.size());
+
+        return DeadLetterReplayResponse.builder()
+                                       .queued(queued)
+                                       .skipped(requested.size() - queued)
+                                       .build();
+    }
+
+    private void replayOne(NotificationDeadLetter deadLetter) {
+        NotificationRequest request = NotificationRequest.builder()
+                                                         .channel(deadLetter.getChannel())
+                                                         .email(deadLetter.getEmail())
+                                                         .phoneNumber(deadLetter.getPhoneNumber())
+                                                         .subject(deadLetter.getSubject())
+                                                         .message(deadLetter.getMessage())
+                                                         .templateId(deadLetter.getTemplateId())
+                                                         .build();
+        String claimedBy = deadLetter.getClaimedBy();
+        try {
+            notificationService.sendNotification(request);
+        } catch (RuntimeException e) {
+            log.warn("Replay of dead letter {} failed: {}", deadLetter.getId(), e.getMessage());
+            try {
+                inDeadLetterShard(() -> deadLetterRepository.recordFailedReplay(deadLetter.getId(), claimedBy,
+                                                                                NotificationDeliveryService.truncate(e.getMessage()),
+                                                                                LocalDateTime.now()));
+            } catch (RuntimeException saveFailure) {
+                log.error("Failed to record the replay of dead letter {}; it is released when its claim lapses: {}",
+                          deadLetter.getId(), saveFailure.getMessage());
+            }
+            return;
+        }
+
+        try {
+            inDeadLetterShard(() -> deadLetterRepository.deleteReplayed(deadLetter.getId(), claimedBy));
+            log.info("Replayed dead letter {}", deadLetter.getId());
+        } catch (RuntimeException deleteFailure) {
+            log.error("Replayed dead letter {} but failed to delete it; a later replay sends it again: {}",
+                      deadLetter.getId(), deleteFailure.getMessage());
+        }
+    }
+
+    private <T> T inDeadLetterShard(Supplier<T> work) {
+        return shardRouter.inShard(NotificationDeliveryService.NOTIFICATION_SHARD, work);
+    }
+
+    private DeadLetterResponse toResponse(NotificationDeadLetter deadLetter) {
+        return DeadLetterResponse.builder()
+                                 .id(deadLetter.getId())
+                                 .channel(deadLetter.getChannel())
+                                 .email(deadLetter.getEmail())
+                                 .phoneNumber(deadLetter.getPhoneNumber())
+                                 .subject(deadLetter.getSubject())
+                                 .message(deadLetter.getMessage())
+                                 .templateId(deadLetter.getTemplateId())
+                                 .attempts(deadLetter.getAttempts())
+                                 .lastError(deadLetter.getLastError())
+                                 .createdAt(deadLetter.getCreatedAt())
+                                 .lastAttemptAt(deadLetter.getLastAttemptAt())
+                                 .build();
+    }
+}
@@ -0,0 +1,430 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.NotificationDispatchConfig;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDeadLetter;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDelivery;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeadLetterRepository;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeliveryRepository;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Delivers notifications with retries, and dead-letters those that keep failing.
+ * <p>
+ * Each channel of a request is stored as a row in {@code notification_deliveries} before it is attempted, and the
+ * row is only deleted once the notification is delivered or dead-lettered, so neither a pending send nor a waiting
+ * retry is lost to a crash. Attempts run on the delivery executor; a worker first claims the row with a conditional
+ * update, so an instance, its timer and its sweep never send the same delivery at once. Each worker takes a batch
+ * of up to {@code batchSize} deliveries and hands each channel's share to its sender in one
+ * {@link NotificationService#sendNotifications} call, so a burst such as a reminder run shares SMTP connections
+ * and SMS provider requests.
+ * <p>
+ * Each channel is delivered and retried on its own, so an SMS outage does not resend the email. A transient
+ * {@link NotificationDeliveryException} is retried with jittered exponential backoff per the channel's
+ * {@link NotificationDeliveryProperties.RetryPolicy}; permanent failures, and failures that are not delivery
+ * failures at all, are dead-lettered at once. Waits run on a timer, which only hands the next attempt to the
+ * delivery executor, so no thread sleeps between attempts and the timer never sends. Deliveries the executor
+ * had no room for, and retries whose timer was lost to a restart, are picked up by a periodic sweep.
+ * Once the attempts are used up the notification is moved to {@code notification_dead_letters}, from where
+ * {@link NotificationDeadLetterService} replays it.
+ * <p>
+ * Metrics: the {@code notifications.delivery.retries.pending} gauge, and the {@code notifications.delivery.retried},
+ * {@code notifications.delivery.dead-lettered} and {@code notifications.delivery.deferred} counters.
+ */
+@Slf4j
+@Service
+public class NotificationDeliveryService {
+
+    /**
+     * Deliveries and dead letters are not partitioned by restaurant.
+     */
+    static final int NOTIFICATION_SHARD = 0;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationService notificationService;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final ShardRouter shardRouter;
+    private final NotificationDeliveryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor deliveryExecutor;
+    private final ScheduledExecutorService timer;
+    private final Set<Long> scheduledRetries = ConcurrentHashMap.newKeySet();
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter deferredCounter;
+
+    public NotificationDeliveryService(NotificationService notificationService,
+                                       NotificationDeliveryRepository deliveryRepository,
+                                       NotificationDeadLetterRepository deadLetterRepository,
+                                       ShardRouter shardRouter,
+                                       NotificationDeliveryProperties properties,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier(NotificationDispatchConfig.NOTIFICATION_DELIVERY_EXECUTOR) Executor deliveryExecutor,
+                                       MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.deliveryRepository = deliveryRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        // A caller's transaction is bound to its own shard; deliveries are stored in a transaction of their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.deliveryExecutor = deliveryExecutor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notifications.delivery.retries.pending", scheduledRetries, Set::size)
+             .description("Failed notifications waiting on this instance's timer for their next attempt")
+             .register(meterRegistry);
+        this.retriedCounter = Counter.builder("notifications.delivery.retried")
+                                     .description("Notification attempts scheduled after a failure")
+                                     .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("notifications.delivery.dead-lettered")
+                                          .description("Notifications stored as dead letters after failing for good")
+                                          .register(meterRegistry);
+        this.deferredCounter = Counter.builder("notifications.delivery.deferred")
+                                      .description("Deliveries left for the next sweep because the delivery executor was saturated")
+                                      .register(meterRegistry);
+    }
+
+    /**
+     * Store a notification for delivery over each of its channels and start sending it in the background.
+     * Never throws because of a delivery failure.
+     *
+     * @param request the notification request
+     * @throws org.springframework.dao.DataAccessException if the notification cannot be stored; nothing is sent then
+     */
+    public void deliver(NotificationRequest request) {
+        deliverAll(List.of(request));
+    }
+
+    /**
+     * Store several notifications for delivery in one transaction and start sending them in the background,
+     * each channel's share in batches of up to {@code batchSize}. Never throws because of a delivery failure.
+     *
+     * @param requests the notification requests
+     * @throws org.springframework.dao.DataAccessException if the notifications cannot be stored; nothing is sent then
+     */
+    public void deliverAll(List<NotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<NotificationDelivery> stored = inNotificationShard(() ->
+                transactionTemplate.execute(status -> deliveryRepository.saveAll(deliveries(requests))));
+
+        submitByChannel(stored);
+    }
+
+    /**
+     * Store a notification for delivery in the caller's transaction, which must run in the notification shard,
+     * and start sending it once that transaction commits. Nothing is stored or sent if it rolls back.
+     *
+     * @param request the notification request
+     */
+    void deliverOnCommit(NotificationRequest request) {
+        List<NotificationDelivery> stored = deliveryRepository.saveAll(deliveries(List.of(request)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submitByChannel(stored);
+            }
+        });
+    }
+
+    /**
+     * Hand the due deliveries no worker holds to the delivery executor, up to what its queue takes.
+     */
+    @Scheduled(cron = "${notification.delivery.sweep-cron:*/10 * * * * *}")
+    public void sweep() {
+        List<Long> due = inNotificationShard(() ->
+                deliveryRepository.findDueIds(LocalDateTime.now(), PageRequest.ofSize(properties.getQueueCapacity())));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        log.debug("Sweeping {} due notification deliveries", due.size());
+        submitInBatches(due);
+    }
+
+    /**
+     * Stop the retry timer. Waiting retries stay stored and are picked up by a sweep after the restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Return the wait before the given retry: the exponential backoff, capped, with part of it randomized.
+     *
+     * @param policy  the channel's retry policy
+     * @param retry   1 for the first retry
+     * @param random  a random number in [0, 1)
+     */
+    static Duration backoff(NotificationDeliveryProperties.RetryPolicy policy, int retry, double random) {
+        double exponential = policy.getInitialBackoff().toMillis() * Math.pow(policy.getMultiplier(), retry - 1);
+        double capped = Math.min(exponential, policy.getMaxBackoff().toMillis());
+        double jitter = Math.min(Math.max(policy.getJitter(), 0), 1);
+        return Duration.ofMillis(Math.round(capped * (1 - jitter * random)));
+    }
+
+    /**
+     * Return whether a failed attempt may succeed when repeated.
+     */
+    static boolean isTransient(RuntimeException failure) {
+        return failure instanceof NotificationDeliveryException deliveryFailure && !deliveryFailure.isPermanent();
+    }
+
+    /**
+     * Hand stored deliveries to the delivery executor, grouped by channel so each batch goes to one sender.
+     */
+    private void submitByChannel(List<NotificationDelivery> deliveries) {
+        for (List<NotificationDelivery> sameChannel : byChannel(deliveries).values()) {
+            if (!submitInBatches(sameChannel.stream().map(NotificationDelivery::getId).toList())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hand deliveries to the delivery executor in batches of up to {@code batchSize}.
+     *
+     * @return false if the executor is saturated; the remaining deliveries then wait for the next sweep
+     */
+    private boolean submitInBatches(List<Long> ids) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            if (!submit(ids.subList(from, Math.min(from + batchSize, ids.size())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hand a batch of deliveries to the delivery executor.
+     *
+     * @return false if the executor is saturated; the deliveries then wait for the next sweep
+     */
+    private boolean submit(List<Long> ids) {
+        List<Long> batch = List.copyOf(ids);
+        try {
+            deliveryExecutor.execute(() -> claimAndAttempt(batch));
+            return true;
+        } catch (RejectedExecutionException e) {
+            deferredCounter.increment(batch.size());
+            log.debug("Delivery executor saturated; deliveries {} are left for the next sweep", batch);
+            return false;
+        }
+    }
+
+    private void claimAndAttempt(List<Long> ids) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime claimedUntil = now.plus(properties.getClaimTimeout());
+            List<NotificationDelivery> claimed = inNotificationShard(() -> {
+                List<Long> claimedIds = ids.stream()
+                                           .filter(id -> deliveryRepository.claim(id, now, claimedUntil) == 1)
+                                           .toList();
+                return claimedIds.isEmpty() ? List.<NotificationDelivery>of() : deliveryRepository.findForAttempt(claimedIds);
+            });
+            byChannel(claimed).values().forEach(this::attempt);
+        } catch (RuntimeException e) {
+            log.error("Failed to record notification deliveries {}; they are attempted again once their claims lapse: {}",
+                      ids, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Send a batch of deliveries over one channel. Those delivered before a failure are done; after a transient
+     * failure every undelivered one backs off, since the provider is likely to fail them all, while a permanent
+     * failure only dead-letters the notification at fault and sends the rest again in a batch of their own.
+     */
+    private void attempt(List<NotificationDelivery> batch) {
+        List<NotificationRequest> requests = batch.stream().map(NotificationDelivery::toRequest).toList();
+        int delivered = batch.size();
+        RuntimeException failure = null;
+        try {
+            notificationService.sendNotifications(requests);
+        } catch (NotificationBatchException e) {
+            delivered = e.getDelivered();
+            failure = (RuntimeException) e.getCause();
+        } catch (RuntimeException e) {
+            delivered = 0;
+            failure = e;
+        }
+
+        List<NotificationDelivery> sent = batch.subList(0, delivered);
+        if (!sent.isEmpty()) {
+            inNotificationShard(() -> deliveryRepository.deleteDelivered(sent.stream().map(NotificationDelivery::getId).toList()));
+            for (NotificationDelivery delivery : sent) {
+                if (delivery.getAttempts() > 0) {
+                    log.info("Delivered {} notification to {} on attempt {}", delivery.getChannel(),
+                             recipient(delivery.toRequest()), delivery.getAttempts() + 1);
+                }
+            }
+        }
+        if (failure == null) {
+            return;
+        }
+
+        List<NotificationDelivery> unsent = batch.subList(delivered, batch.size());
+        if (isTransient(failure)) {
+            for (NotificationDelivery delivery : unsent) {
+                failed(delivery, delivery.getAttempts() + 1, failure);
+            }
+            return;
+        }
+
+        failed(unsent.get(0), unsent.get(0).getAttempts() + 1, failure);
+        List<Long> rest = unsent.subList(1, unsent.size()).stream().map(NotificationDelivery::getId).toList();
+        if (!rest.isEmpty()) {
+            inNotificationShard(() -> deliveryRepository.release(rest));
+            submit(rest);
+        }
+    }
+
+    private void failed(NotificationDelivery delivery, int attempt, RuntimeException failure) {
+        NotificationRequest request = delivery.toRequest();
+        if (!isTransient(failure)) {
+            if (failure instanceof NotificationDeliveryException) {
+                log.error("{} notification to {} failed permanently on attempt {}: {}",
+                          request.getChannel(), recipient(request), attempt, failure.getMessage());
+            } else {
+                log.error("{} notification to {} failed unexpectedly on attempt {}; not retrying",
+                          request.getChannel(), recipient(request), attempt, failure);
+            }
+            deadLetter(delivery, attempt, failure.getMessage());
+            return;
+        }
+
+        NotificationDeliveryProperties.RetryPolicy policy = properties.policyFor(request.getChannel());
+        if (attempt >= policy.getMaxAttempts()) {
+            log.error("{} notification to {} failed after {} attempts: {}",
+                      request.getChannel(), recipient(request), attempt, failure.getMessage());
+            deadLetter(delivery, attempt, failure.getMessage());
+            return;
+        }
+
+        Duration wait = backoff(policy, attempt, ThreadLocalRandom.current().nextDouble());
+        log.warn("{} notification to {} failed on attempt {}; retrying in {}: {}",
+                 request.getChannel(), recipient(request), attempt, wait, failure.getMessage());
+        // The timer starts after the row is updated, so it never fires before the attempt is due
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(wait);
+        inNotificationShard(() -> deliveryRepository.reschedule(delivery.getId(), attempt, truncate(failure.getMessage()),
+                                                                nextAttemptAt));
+        retriedCounter.increment();
+        scheduleRetry(delivery.getId(), wait);
+    }
+
+    private void scheduleRetry(Long id, Duration wait) {
+        scheduledRetries.add(id);
+        timer.schedule(() -> {
+            scheduledRetries.remove(id);
+            submit(List.of(id));
+        }, wait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(NotificationDelivery delivery, int attempts, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationDeadLetter deadLetter = NotificationDeadLetter.builder()
+                                                                  .channel(delivery.getChannel())
+                                                                  .email(delivery.getEmail())
+                                                                  .phoneNumber(delivery.getPhoneNumber())
+                                                                  .subject(delivery.getSubject())
+                                                                  .message(delivery.getMessage())
+                                                                  .templateId(delivery.getTemplateId())
+                                                                  .attempts(attempts)
+                                                                  .lastError(truncate(error))
+                                                                  .createdAt(now)
+                                                                  .lastAttemptAt(now)
+                                                                  .build();
+        inNotificationShard(() -> transactionTemplate.execute(status -> {
+            deadLetterRepository.save(deadLetter);
+            return deliveryRepository.deleteDelivered(delivery.getId());
+        }));
+        deadLetteredCounter.increment();
+    }
+
+    private static List<NotificationDelivery> deliveries(List<NotificationRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        return requests.stream()
+                       .flatMap(request -> NotificationService.channelsOf(request.getChannel()).stream()
+                                                              .map(channel -> delivery(request, channel, now)))
+                       .toList();
+    }
+
+    private static Map<NotificationChannel, List<NotificationDelivery>> byChannel(List<NotificationDelivery> deliveries) {
+        Map<NotificationChannel, List<NotificationDelivery>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (NotificationDelivery delivery : deliveries) {
+            byChannel.computeIfAbsent(delivery.getChannel(), channel -> new ArrayList<>()).add(delivery);
+        }
+        return byChannel;
+    }
+
+    private static NotificationDelivery delivery(NotificationRequest request, NotificationChannel channel, LocalDateTime now) {
+        return NotificationDelivery.builder()
+                                   .channel(channel)
+                                   .email(request.getEmail())
+                                   .phoneNumber(request.getPhoneNumber())
+                                   .subject(request.getSubject())
+                                   .message(request.getMessage())
+                                   .templateId(request.getTemplateId())
+                                   .nextAttemptAt(now)
+                                   .createdAt(now)
+                                   .build();
+    }
+
+    private <T> T inNotificationShard(Supplier<T> work) {
+        return shardRouter.inShard(NOTIFICATION_SHARD, work);
+    }
+
+    static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String recipient(NotificationRequest request) {
+        return request.getChannel() == NotificationChannel.SMS ? request.getPhoneNumber() : request.getEmail();
+    }
+}
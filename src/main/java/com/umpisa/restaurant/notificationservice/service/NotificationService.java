@@ -1,16 +1,42 @@
 package com.umpisa.restaurant.notificationservice.service;
 
 import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.service.audit.NotificationAuditLog;
+import com.umpisa.restaurant.notificationservice.service.sender.NotificationSender;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service for sending notifications to customers.
+ * Each request is routed to the {@link NotificationSender} of every channel the customer chose,
+ * and every attempt is recorded in the {@link NotificationAuditLog}.
  */
 @Slf4j
 @Service
 public class NotificationService {
 
+    private final Map<NotificationChannel, NotificationSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final NotificationAuditLog auditLog;
+
+    public NotificationService(List<NotificationSender> senders, NotificationAuditLog auditLog) {
+        this.auditLog = auditLog;
+        for (NotificationSender sender : senders) {
+            NotificationSender previous = this.senders.put(sender.channel(), sender);
+            if (previous != null) {
+                throw new IllegalStateException(String.format("Both %s and %s send %s notifications",
+                                                              previous.getClass().getSimpleName(),
+                                                              sender.getClass().getSimpleName(), sender.channel()));
+            }
+        }
+    }
+
     /**
      * Send notification via the specified channel.
      * This method routes the notification to the appropriate channel(s) based on the customer's preference.
@@ -18,49 +44,59 @@ public class NotificationService {
      * @param request the notification request containing all necessary information
      */
     public void sendNotification(NotificationRequest request) {
-        switch (request.getChannel()) {
-            case EMAIL -> sendEmail(request.getEmail(), request.getSubject(), request.getMessage());
-            case SMS -> sendSms(request.getPhoneNumber(), request.getMessage());
-            case BOTH -> {
-                sendEmail(request.getEmail(), request.getSubject(), request.getMessage());
-                sendSms(request.getPhoneNumber(), request.getMessage());
+        for (NotificationChannel channel : channelsOf(request.getChannel())) {
+            NotificationSender sender = sender(channel);
+            boolean delivered = false;
+            try {
+                sender.send(request);
+                delivered = true;
+            } finally {
+                auditLog.record(request, channel, delivered);
             }
-            default -> log.warn("Unknown notification channel: {}", request.getChannel());
         }
     }
 
     /**
-     * Send SMS notification to a phone number.
+     * Send several notifications, handing each channel's share to its sender in one batch.
      *
-     * @param phoneNumber the recipient's phone number
-     * @param message the SMS message content
+     * @param requests the notification requests
+     * @throws NotificationBatchException if a channel's batch fails after part of it was delivered
      */
-    private void sendSms(String phoneNumber, String message) {
-        log.info("=".repeat(80));
-        log.info("SENT SMS");
-        log.info("To: {}", phoneNumber);
-        log.info("Message: {}", message);
-        log.info("=".repeat(80));
-
-        System.out.println("Sent SMS to " + phoneNumber);
+    public void sendNotifications(List<NotificationRequest> requests) {
+        Map<NotificationChannel, List<NotificationRequest>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (NotificationRequest request : requests) {
+            for (NotificationChannel channel : channelsOf(request.getChannel())) {
+                byChannel.computeIfAbsent(channel, key -> new ArrayList<>()).add(request);
+            }
+        }
+        byChannel.forEach((channel, batch) -> {
+            NotificationSender sender = sender(channel);
+            int delivered = 0;
+            try {
+                sender.sendAll(batch);
+                delivered = batch.size();
+            } catch (NotificationBatchException e) {
+                delivered = e.getDelivered();
+                throw e;
+            } finally {
+                for (int i = 0; i < batch.size(); i++) {
+                    auditLog.record(batch.get(i), channel, i < delivered);
+                }
+            }
+        });
     }
 
-    /**
-     * Send email notification to an email address.
-     *
-     * @param email the recipient's email address
-     * @param subject the email subject
-     * @param body the email body content
-     */
-    private void sendEmail(String email, String subject, String body) {
-        log.info("=".repeat(80));
-        log.info("SENT EMAIL");
-        log.info("To: {}", email);
-        log.info("Subject: {}", subject);
-        log.info("Body: {}", body);
-        log.info("=".repeat(80));
-
-        System.out.println("Sent EMAIL to " + email);
+    static List<NotificationChannel> channelsOf(NotificationChannel channel) {
+        return channel == NotificationChannel.BOTH
+                ? List.of(NotificationChannel.EMAIL, NotificationChannel.SMS)
+                : List.of(channel);
     }
 
+    private NotificationSender sender(NotificationChannel channel) {
+        NotificationSender sender = senders.get(channel);
+        if (sender == null) {
+            throw new IllegalStateException("No sender for " + channel + " notifications");
+        }
+        return sender;
+    }
 }
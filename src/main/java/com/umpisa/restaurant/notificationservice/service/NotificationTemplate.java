@@ -0,0 +1,105 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message template compiled once into alternating literals and placeholder slots.
+ * <p>
+ * Placeholders are written {@code {name}} and must be one of the parameters the template is compiled with;
+ * braces around anything else, such as {@code {}} or {@code { x }}, are kept as literal text.
+ * Rendering is a single pass into a builder sized for the result, so the only allocation is the message itself.
+ */
+final class NotificationTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z][A-Za-z0-9]*)}");
+
+    /**
+     * {@code literals[i]} is followed by the parameter at {@code slots[i]}; the last literal ends the template.
+     */
+    private final String[] literals;
+    private final int[] slots;
+    private final int parameterCount;
+    private final int literalLength;
+
+    private NotificationTemplate(String[] literals, int[] slots, int parameterCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param name       the template's property name, for error messages
+     * @param source     the template text
+     * @param parameters the placeholder names, in the order {@link #render} takes their values
+     * @return the compiled template
+     * @throws IllegalStateException if the template is missing or uses a placeholder not among the parameters
+     */
+    static NotificationTemplate compile(String name, String source, String... parameters) {
+        if (source == null) {
+            throw new IllegalStateException("Notification template " + name + " is not configured");
+        }
+        List<String> parameterNames = List.of(parameters);
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Set<String> unknown = new LinkedHashSet<>();
+
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int literalStart = 0;
+        while (matcher.find()) {
+            int slot = parameterNames.indexOf(matcher.group(1));
+            if (slot < 0) {
+                unknown.add(matcher.group());
+                continue;
+            }
+            literals.add(source.substring(literalStart, matcher.start()));
+            slots.add(slot);
+            literalStart = matcher.end();
+        }
+        literals.add(source.substring(literalStart));
+
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("Notification template " + name + " uses unknown placeholder(s) " + unknown
+                                                    + "; supported: " + parameterNames);
+        }
+
+        return new NotificationTemplate(literals.toArray(String[]::new),
+                                        slots.stream().mapToInt(Integer::intValue).toArray(),
+                                        parameters.length);
+    }
+
+    /**
+     * Render the template.
+     *
+     * @param values the placeholder values, in the order of the parameters the template was compiled with
+     * @return the message
+     */
+    String render(String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Expected " + parameterCount + " values but got " + values.length);
+        }
+
+        int length = literalLength;
+        for (int slot : slots) {
+            length += values[slot] != null ? values[slot].length() : "null".length();
+        }
+
+        StringBuilder message = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            message.append(literals[i]).append(values[slots[i]]);
+        }
+        return message.append(literals[slots.length]).toString();
+    }
+}
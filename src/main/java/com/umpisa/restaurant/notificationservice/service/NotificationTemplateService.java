@@ -1,27 +1,64 @@
 package com.umpisa.restaurant.notificationservice.service;
 
 import com.umpisa.restaurant.notificationservice.model.NotificationTemplateProperties;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Service for building notification message templates.
  * Templates are externalized in application.yml for easy maintenance.
- * Uses placeholder replacement for dynamic content.
+ * Each template is compiled once at startup, so a template with an unknown placeholder fails the boot
+ * instead of reaching customers with the placeholder unreplaced.
+ * <p>
+ * Messages are rendered in the reservation's preferred language. Every configured language gets an immutable
+ * catalog of compiled templates and date formatters at startup, so rendering never parses a pattern or
+ * resolves locale data. A language without a catalog falls back to its base language, such as {@code zh}
+ * for {@code zh-TW}, and then to the default language.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class NotificationTemplateService {
 
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy 'at' hh:mm a");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+    private static final String CUSTOMER_NAME = "customerName";
+    private static final String RESERVATION_ID = "reservationId";
+    private static final String DATE_TIME = "dateTime";
+    private static final String NUMBER_OF_GUESTS = "numberOfGuests";
+    private static final String TIME = "time";
 
-    private final NotificationTemplateProperties templateProperties;
+    private final Catalog defaultCatalog;
+    private final Map<String, Catalog> catalogs;
+
+    public NotificationTemplateService(NotificationTemplateProperties templateProperties) {
+        String defaultLanguage = normalize(templateProperties.getDefaultLanguage());
+        this.defaultCatalog = new Catalog(defaultLanguage, templateProperties.getDateTimePattern(), templateProperties.getTimePattern(),
+                                          templateProperties.getConfirmation(), templateProperties.getCancellation(),
+                                          templateProperties.getUpdate(), templateProperties.getReminder(),
+                                          templateProperties.getWaitlistPromotion(), null);
+
+        Map<String, Catalog> catalogs = new HashMap<>();
+        catalogs.put(defaultLanguage, defaultCatalog);
+        templateProperties.getLocales().forEach((language, templates) -> {
+            Catalog catalog = new Catalog(normalize(language),
+                                          fallback(templates.getDateTimePattern(), templateProperties.getDateTimePattern()),
+                                          fallback(templates.getTimePattern(), templateProperties.getTimePattern()),
+                                          templates.getConfirmation(), templates.getCancellation(),
+                                          templates.getUpdate(), templates.getReminder(),
+                                          templates.getWaitlistPromotion(), defaultCatalog);
+            if (catalogs.putIfAbsent(catalog.language, catalog) != null) {
+                throw new IllegalStateException("Notification templates for language " + language + " are configured twice");
+            }
+        });
+        this.catalogs = Map.copyOf(catalogs);
+
+        log.info("Compiled notification templates for languages {}", this.catalogs.keySet());
+    }
 
     /**
      * Build reservation confirmation message.
@@ -30,32 +67,28 @@ public class NotificationTemplateService {
      * @param reservationId  the reservation ID
      * @param dateTime       the reservation date and time
      * @param numberOfGuests the number of guests
+     * @param language       the customer's preferred language tag; the default language when null
      * @return the formatted confirmation message
      */
     public String buildReservationConfirmationMessage(String customerName,
                                                       Long reservationId,
                                                       LocalDateTime dateTime,
-                                                      Integer numberOfGuests) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("customerName", customerName);
-        placeholders.put("reservationId", String.valueOf(reservationId));
-        placeholders.put("dateTime", dateTime.format(DATE_TIME_FORMATTER));
-        placeholders.put("numberOfGuests", String.valueOf(numberOfGuests));
-
-        return replacePlaceholders(templateProperties.getConfirmation().getBody(), placeholders);
+                                                      Integer numberOfGuests,
+                                                      String language) {
+        Catalog catalog = catalog(language);
+        return catalog.confirmationBody.render(customerName, String.valueOf(reservationId),
+                                               catalog.dateTimeFormatter.format(dateTime), String.valueOf(numberOfGuests));
     }
 
     /**
      * Build reservation confirmation email subject.
      *
      * @param reservationId the reservation ID
+     * @param language      the customer's preferred language tag; the default language when null
      * @return the email subject
      */
-    public String buildConfirmationSubject(Long reservationId) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("reservationId", String.valueOf(reservationId));
-
-        return replacePlaceholders(templateProperties.getConfirmation().getSubject(), placeholders);
+    public String buildConfirmationSubject(Long reservationId, String language) {
+        return catalog(language).confirmationSubject.render(String.valueOf(reservationId));
     }
 
     /**
@@ -63,28 +96,24 @@ public class NotificationTemplateService {
      *
      * @param customerName  the customer's name
      * @param reservationId the reservation ID
+     * @param language      the customer's preferred language tag; the default language when null
      * @return the formatted cancellation message
      */
     public String buildCancellationMessage(String customerName,
-                                           Long reservationId) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("customerName", customerName);
-        placeholders.put("reservationId", String.valueOf(reservationId));
-
-        return replacePlaceholders(templateProperties.getCancellation().getBody(), placeholders);
+                                           Long reservationId,
+                                           String language) {
+        return catalog(language).cancellationBody.render(customerName, String.valueOf(reservationId));
     }
 
     /**
      * Build reservation cancellation email subject.
      *
      * @param reservationId the reservation ID
+     * @param language      the customer's preferred language tag; the default language when null
      * @return the email subject
      */
-    public String buildCancellationSubject(Long reservationId) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("reservationId", String.valueOf(reservationId));
-
-        return replacePlaceholders(templateProperties.getCancellation().getSubject(), placeholders);
+    public String buildCancellationSubject(Long reservationId, String language) {
+        return catalog(language).cancellationSubject.render(String.valueOf(reservationId));
     }
 
     /**
@@ -94,32 +123,28 @@ public class NotificationTemplateService {
      * @param reservationId     the reservation ID
      * @param newDateTime       the new reservation date and time
      * @param newNumberOfGuests the new number of guests
+     * @param language          the customer's preferred language tag; the default language when null
      * @return the formatted update message
      */
     public String buildUpdateMessage(String customerName,
                                      Long reservationId,
                                      LocalDateTime newDateTime,
-                                     Integer newNumberOfGuests) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("customerName", customerName);
-        placeholders.put("reservationId", String.valueOf(reservationId));
-        placeholders.put("dateTime", newDateTime.format(DATE_TIME_FORMATTER));
-        placeholders.put("numberOfGuests", String.valueOf(newNumberOfGuests));
-
-        return replacePlaceholders(templateProperties.getUpdate().getBody(), placeholders);
+                                     Integer newNumberOfGuests,
+                                     String language) {
+        Catalog catalog = catalog(language);
+        return catalog.updateBody.render(customerName, String.valueOf(reservationId),
+                                         catalog.dateTimeFormatter.format(newDateTime), String.valueOf(newNumberOfGuests));
     }
 
     /**
      * Build reservation update email subject.
      *
      * @param reservationId the reservation ID
+     * @param language      the customer's preferred language tag; the default language when null
      * @return the email subject
      */
-    public String buildUpdateSubject(Long reservationId) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("reservationId", String.valueOf(reservationId));
-
-        return replacePlaceholders(templateProperties.getUpdate().getSubject(), placeholders);
+    public String buildUpdateSubject(Long reservationId, String language) {
+        return catalog(language).updateSubject.render(String.valueOf(reservationId));
     }
 
     /**
@@ -128,45 +153,182 @@ public class NotificationTemplateService {
      * @param customerName   the customer's name
      * @param dateTime       the reservation date and time
      * @param numberOfGuests the number of guests
+     * @param language       the customer's preferred language tag; the default language when null
      * @return the formatted reminder message
      */
     public String buildReminderMessage(String customerName,
                                        LocalDateTime dateTime,
-                                       Integer numberOfGuests) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("customerName", customerName);
-        placeholders.put("dateTime", dateTime.format(DATE_TIME_FORMATTER));
-        placeholders.put("numberOfGuests", String.valueOf(numberOfGuests));
-
-        return replacePlaceholders(templateProperties.getReminder().getBody(), placeholders);
+                                       Integer numberOfGuests,
+                                       String language) {
+        Catalog catalog = catalog(language);
+        return catalog.reminderBody.render(customerName, catalog.dateTimeFormatter.format(dateTime), String.valueOf(numberOfGuests));
     }
 
     /**
      * Build reservation reminder email subject.
      *
      * @param dateTime the reservation date and time
+     * @param language the customer's preferred language tag; the default language when null
      * @return the email subject
      */
-    public String buildReminderSubject(LocalDateTime dateTime) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("time", dateTime.format(TIME_FORMATTER));
+    public String buildReminderSubject(LocalDateTime dateTime, String language) {
+        Catalog catalog = catalog(language);
+        return catalog.reminderSubject.render(catalog.timeFormatter.format(dateTime));
+    }
 
-        return replacePlaceholders(templateProperties.getReminder().getSubject(), placeholders);
+    /**
+     * Build the message sent when a waitlist entry has been turned into a reservation.
+     *
+     * @param customerName   the customer's name
+     * @param reservationId  the reservation ID
+     * @param dateTime       the reservation date and time
+     * @param numberOfGuests the number of guests
+     * @param language       the customer's preferred language tag; the default language when null
+     * @return the formatted waitlist promotion message
+     */
+    public String buildWaitlistPromotionMessage(String customerName,
+                                                Long reservationId,
+                                                LocalDateTime dateTime,
+                                                Integer numberOfGuests,
+                                                String language) {
+        Catalog catalog = catalog(language);
+        return catalog.waitlistPromotionBody.render(customerName, String.valueOf(reservationId),
+                                                    catalog.dateTimeFormatter.format(dateTime), String.valueOf(numberOfGuests));
     }
 
     /**
-     * Replace placeholders in template with actual values.
-     * Placeholders are in the format {placeholderName}.
+     * Build waitlist promotion email subject.
      *
-     * @param template     the template string with placeholders
-     * @param placeholders map of placeholder names to values
-     * @return the processed template with placeholders replaced
+     * @param reservationId the reservation ID
+     * @param language      the customer's preferred language tag; the default language when null
+     * @return the email subject
      */
-    private String replacePlaceholders(String template, Map<String, String> placeholders) {
-        String result = template;
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            result = result.replace("{" + entry.getKey() + "}", entry.getValue());
+    public String buildWaitlistPromotionSubject(Long reservationId, String language) {
+        return catalog(language).waitlistPromotionSubject.render(String.valueOf(reservationId));
+    }
+
+    /**
+     * Return the catalog for a language tag, dropping subtags from the end until one is configured.
+     */
+    private Catalog catalog(String language) {
+        if (language == null || language.isEmpty()) {
+            return defaultCatalog;
+        }
+        String tag = normalize(language);
+        while (true) {
+            Catalog catalog = catalogs.get(tag);
+            if (catalog != null) {
+                return catalog;
+            }
+            int subtag = tag.lastIndexOf('-');
+            if (subtag < 0) {
+                return defaultCatalog;
+            }
+            tag = tag.substring(0, subtag);
+        }
+    }
+
+    private static String normalize(String language) {
+        return language.replace('_', '-').toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> T fallback(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * The compiled templates and formatters of one language.
+     */
+    private static final class Catalog {
+
+        private final String language;
+        private final DateTimeFormatter dateTimeFormatter;
+        private final DateTimeFormatter timeFormatter;
+        private final NotificationTemplate confirmationSubject;
+        private final NotificationTemplate confirmationBody;
+        private final NotificationTemplate cancellationSubject;
+        private final NotificationTemplate cancellationBody;
+        private final NotificationTemplate updateSubject;
+        private final NotificationTemplate updateBody;
+        private final NotificationTemplate reminderSubject;
+        private final NotificationTemplate reminderBody;
+        private final NotificationTemplate waitlistPromotionSubject;
+        private final NotificationTemplate waitlistPromotionBody;
+
+        /**
+         * @param fallback the catalog whose templates replace those not configured; null for the default language
+         */
+        private Catalog(String language,
+                        String dateTimePattern,
+                        String timePattern,
+                        NotificationTemplateProperties.TemplateConfig confirmation,
+                        NotificationTemplateProperties.TemplateConfig cancellation,
+                        NotificationTemplateProperties.TemplateConfig update,
+                        NotificationTemplateProperties.TemplateConfig reminder,
+                        NotificationTemplateProperties.TemplateConfig waitlistPromotion,
+                        Catalog fallback) {
+            Locale locale = Locale.forLanguageTag(language);
+            this.language = language;
+            this.dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimePattern, locale);
+            this.timeFormatter = DateTimeFormatter.ofPattern(timePattern, locale);
+
+            this.confirmationSubject = compile(language, "confirmation.subject", confirmation,
+                                               NotificationTemplateProperties.TemplateConfig::getSubject,
+                                               fallback, catalog -> catalog.confirmationSubject,
+                                               RESERVATION_ID);
+            this.confirmationBody = compile(language, "confirmation.body", confirmation,
+                                            NotificationTemplateProperties.TemplateConfig::getBody,
+                                            fallback, catalog -> catalog.confirmationBody,
+                                            CUSTOMER_NAME, RESERVATION_ID, DATE_TIME, NUMBER_OF_GUESTS);
+            this.cancellationSubject = compile(language, "cancellation.subject", cancellation,
+                                               NotificationTemplateProperties.TemplateConfig::getSubject,
+                                               fallback, catalog -> catalog.cancellationSubject,
+                                               RESERVATION_ID);
+            this.cancellationBody = compile(language, "cancellation.body", cancellation,
+                                            NotificationTemplateProperties.TemplateConfig::getBody,
+                                            fallback, catalog -> catalog.cancellationBody,
+                                            CUSTOMER_NAME, RESERVATION_ID);
+            this.updateSubject = compile(language, "update.subject", update,
+                                         NotificationTemplateProperties.TemplateConfig::getSubject,
+                                         fallback, catalog -> catalog.updateSubject,
+                                         RESERVATION_ID);
+            this.updateBody = compile(language, "update.body", update,
+                                      NotificationTemplateProperties.TemplateConfig::getBody,
+                                      fallback, catalog -> catalog.updateBody,
+                                      CUSTOMER_NAME, RESERVATION_ID, DATE_TIME, NUMBER_OF_GUESTS);
+            this.reminderSubject = compile(language, "reminder.subject", reminder,
+                                           NotificationTemplateProperties.TemplateConfig::getSubject,
+                                           fallback, catalog -> catalog.reminderSubject,
+                                           TIME);
+            this.reminderBody = compile(language, "reminder.body", reminder,
+                                        NotificationTemplateProperties.TemplateConfig::getBody,
+                                        fallback, catalog -> catalog.reminderBody,
+                                        CUSTOMER_NAME, DATE_TIME, NUMBER_OF_GUESTS);
+            this.waitlistPromotionSubject = compile(language, "waitlist-promotion.subject", waitlistPromotion,
+                                                    NotificationTemplateProperties.TemplateConfig::getSubject,
+                                                    fallback, catalog -> catalog.waitlistPromotionSubject,
+                                                    RESERVATION_ID);
+            this.waitlistPromotionBody = compile(language, "waitlist-promotion.body", waitlistPromotion,
+                                                 NotificationTemplateProperties.TemplateConfig::getBody,
+                                                 fallback, catalog -> catalog.waitlistPromotionBody,
+                                                 CUSTOMER_NAME, RESERVATION_ID, DATE_TIME, NUMBER_OF_GUESTS);
+        }
+
+        /**
+         * Compile one template of this language, or reuse the fallback's if this language does not configure it.
+         */
+        private static NotificationTemplate compile(String language,
+                                                    String name,
+                                                    NotificationTemplateProperties.TemplateConfig config,
+                                                    Function<NotificationTemplateProperties.TemplateConfig, String> part,
+                                                    Catalog fallback,
+                                                    Function<Catalog, NotificationTemplate> fallbackTemplate,
+                                                    String... parameters) {
+            String source = config != null ? part.apply(config) : null;
+            if (source == null && fallback != null) {
+                return fallbackTemplate.apply(fallback);
+            }
+            return NotificationTemplate.compile(fallback != null ? "locales." + language + "." + name : name, source, parameters);
         }
-        return result;
     }
 }
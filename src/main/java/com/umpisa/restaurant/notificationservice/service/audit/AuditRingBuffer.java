@@ -0,0 +1,86 @@
+package com.umpisa.restaurant.notificationservice.service.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number that tells whose turn it is: a producer claims the next position with
+ * one compare-and-set and publishes its element by advancing the slot's sequence, and the consumer frees
+ * the slot by advancing it by a full lap. A full buffer rejects the element instead of waiting.
+ *
+ * @param <T> the element type
+ */
+final class AuditRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Add an element; safe to call from any thread.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer has not freed this slot since the previous lap
+                return false;
+            }
+            // Otherwise another producer claimed the position first; try the next one
+        }
+    }
+
+    /**
+     * Remove the oldest element; only the single consumer thread may call this.
+     *
+     * @return the element, or null if none is published yet
+     */
+    T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Return the number of elements claimed but not yet removed; approximate while producers are active.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
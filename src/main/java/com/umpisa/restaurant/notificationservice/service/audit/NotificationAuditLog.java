@@ -0,0 +1,336 @@
+package com.umpisa.restaurant.notificationservice.service.audit;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationAuditProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.NotificationAuditRecordResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit log of notification send attempts, one line per channel and attempt.
+ * <p>
+ * Senders only add a reference to a lock-free {@link AuditRingBuffer}; a background writer formats the
+ * records, hashes the message and appends them to the current file in batches. The message itself is not
+ * stored, only a hash of its subject and body. Files roll over at {@code notification.audit.max-file-size}
+ * and the oldest are deleted beyond {@code notification.audit.max-files}. When the writer falls behind
+ * and the buffer fills, records are dropped rather than slowing down sending.
+ * <p>
+ * Each line holds tab-separated: timestamp, channel, template ID, {@code SENT} or {@code FAILED}, recipient and hash.
+ * <p>
+ * Metrics: the {@code notifications.audit.pending} gauge and the {@code notifications.audit.dropped} counter.
+ */
+@Slf4j
+@Component
+public class NotificationAuditLog {
+
+    static final String FILE_PREFIX = "notification-audit-";
+    static final String FILE_SUFFIX = ".log";
+    static final int MAX_QUERY_LIMIT = 500;
+
+    private static final String SENT = "SENT";
+    private static final String FAILED = "FAILED";
+    private static final String MISSING = "-";
+    private static final int HASH_BYTES = 8;
+
+    private final NotificationAuditProperties properties;
+    private final Path directory;
+    private final AuditRingBuffer<Entry> buffer;
+    private final Thread writer;
+    private final Counter droppedCounter;
+    private volatile boolean running;
+
+    // Owned by the writer thread
+    private final MessageDigest digest;
+    private OutputStream out;
+    private long fileSize;
+    private long lastFileStamp;
+
+    public NotificationAuditLog(NotificationAuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory());
+        this.droppedCounter = Counter.builder("notifications.audit.dropped")
+                                     .description("Audit records lost because the buffer was full or the file could not be written")
+                                     .register(meterRegistry);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        if (!properties.isEnabled()) {
+            this.buffer = null;
+            this.writer = null;
+            return;
+        }
+
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+        Gauge.builder("notifications.audit.pending", buffer, AuditRingBuffer::size)
+             .description("Audit records waiting for the writer")
+             .register(meterRegistry);
+
+        this.running = true;
+        this.writer = new Thread(this::drain, "notification-audit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    private record Entry(long timestamp, NotificationChannel channel, boolean delivered, NotificationRequest request) {
+    }
+
+    /**
+     * Record a send attempt over one channel. Never blocks.
+     *
+     * @param request   the notification
+     * @param channel   the channel it was sent over, {@code EMAIL} or {@code SMS}
+     * @param delivered whether the sender accepted it
+     */
+    public void record(NotificationRequest request, NotificationChannel channel, boolean delivered) {
+        if (buffer != null && !buffer.offer(new Entry(System.currentTimeMillis(), channel, delivered, request))) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Find audit records, newest first. Records are visible once written, within {@code notification.audit.flush-interval}.
+     * Every retained file is scanned, so this is meant for occasional lookups.
+     *
+     * @param recipient the email address or phone number to match; any when null
+     * @param hash      the message hash to match; any when null
+     * @param limit     the maximum number of records to return
+     * @return the matching records
+     */
+    public List<NotificationAuditRecordResponse> find(String recipient, String hash, int limit) {
+        if (limit < 1 || limit > MAX_QUERY_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+
+        List<NotificationAuditRecordResponse> found = new ArrayList<>();
+        for (Path file : auditFiles(true)) {
+            List<NotificationAuditRecordResponse> matches = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    NotificationAuditRecordResponse record = parse(line);
+                    if (record != null
+                            && (recipient == null || recipient.equals(record.getRecipient()))
+                            && (hash == null || hash.equals(record.getHash()))) {
+                        matches.add(record);
+                    }
+                }
+            } catch (IOException e) {
+                // Deleted by a rollover while being read
+                log.debug("Skipping audit file {}: {}", file, e.getMessage());
+                continue;
+            }
+
+            Collections.reverse(matches);
+            for (NotificationAuditRecordResponse record : matches) {
+                found.add(record);
+                if (found.size() == limit) {
+                    return found;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Write the records still buffered and close the current file.
+     */
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long idleNanos = Math.max(1, properties.getFlushInterval().toNanos());
+        while (true) {
+            boolean stopping = !running;
+            int written = 0;
+            Entry entry;
+            while ((entry = buffer.poll()) != null) {
+                write(entry);
+                written++;
+            }
+            if (written > 0) {
+                flush();
+            } else if (stopping) {
+                break;
+            } else {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+        closeFile();
+    }
+
+    private void write(Entry entry) {
+        NotificationRequest request = entry.request();
+        String recipient = entry.channel() == NotificationChannel.SMS ? request.getPhoneNumber() : request.getEmail();
+        String line = Instant.ofEpochMilli(entry.timestamp()) + "\t"
+                + entry.channel() + "\t"
+                + field(request.getTemplateId()) + "\t"
+                + (entry.delivered() ? SENT : FAILED) + "\t"
+                + field(recipient) + "\t"
+                + hash(request) + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+        try {
+            if (out == null || fileSize + bytes.length > properties.getMaxFileSize().toBytes()) {
+                roll();
+            }
+            out.write(bytes);
+            fileSize += bytes.length;
+        } catch (IOException | UncheckedIOException e) {
+            droppedCounter.increment();
+            log.error("Failed to write notification audit record: {}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.error("Failed to flush the notification audit log: {}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    /**
+     * Start a new file and delete the oldest ones beyond the retention.
+     */
+    private void roll() throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+
+        // Never reuse the stamp of a pruned file when several roll within a millisecond
+        long stamp = Math.max(System.currentTimeMillis(), lastFileStamp + 1);
+        Path file;
+        while (true) {
+            // Fixed width, so file names sort in creation order
+            file = directory.resolve(FILE_PREFIX + String.format("%013d", stamp) + FILE_SUFFIX);
+            if (!Files.exists(file)) {
+                break;
+            }
+            stamp++;
+        }
+        lastFileStamp = stamp;
+
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                                       64 * 1024);
+        fileSize = 0;
+
+        List<Path> files = auditFiles(false);
+        for (int i = 0; i < files.size() - Math.max(1, properties.getMaxFiles()); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.error("Failed to close the notification audit log: {}", e.getMessage());
+        }
+        out = null;
+    }
+
+    private List<Path> auditFiles(boolean newestFirst) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> auditFiles = new ArrayList<>(files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).sorted().toList());
+            if (newestFirst) {
+                Collections.reverse(auditFiles);
+            }
+            return auditFiles;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(NotificationRequest request) {
+        digest.reset();
+        if (request.getSubject() != null) {
+            digest.update(request.getSubject().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) '\n');
+        if (request.getMessage() != null) {
+            digest.update(request.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, HASH_BYTES);
+    }
+
+    private static String field(String value) {
+        if (value == null || value.isEmpty()) {
+            return MISSING;
+        }
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static NotificationAuditRecordResponse parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 6) {
+            return null;
+        }
+        try {
+            return NotificationAuditRecordResponse.builder()
+                                                  .timestamp(Instant.parse(fields[0]))
+                                                  .channel(NotificationChannel.valueOf(fields[1]))
+                                                  .templateId(MISSING.equals(fields[2]) ? null : fields[2])
+                                                  .status(fields[3])
+                                                  .recipient(MISSING.equals(fields[4]) ? null : fields[4])
+                                                  .hash(fields[5])
+                                                  .build();
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,56 +1,46 @@
 package com.umpisa.restaurant.notificationservice.service.event;
 
-import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
-import com.umpisa.restaurant.notificationservice.service.NotificationService;
-import com.umpisa.restaurant.notificationservice.service.NotificationTemplateService;
+import com.umpisa.restaurant.config.NotificationDispatchConfig;
+import com.umpisa.restaurant.notificationservice.service.NotificationCoalescer;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Event listener for reservation-related events.
  * Listens to events published by the Reservation service and sends appropriate notifications.
+ * <p>
+ * Notifications are sent on the notification executor once the publishing transaction commits, so a slow
+ * email or SMS gateway neither holds the request thread and its connection nor rolls back the reservation.
+ * Nothing is sent for a transaction that rolls back. Events for the same reservation that arrive close
+ * together are merged into one notification by {@link NotificationCoalescer}, which stores the notification
+ * before the listener returns, so the event's publication stays incomplete until the notification is durable.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ReservationEventListener {
 
-    private final NotificationService notificationService;
-    private final NotificationTemplateService templateService;
+    private final NotificationCoalescer notificationCoalescer;
 
     /**
      * Handle reservation created event.
      * Sends confirmation notification to the customer via their preferred channel.
+     * Reservations promoted from the waitlist get the waitlist promotion message instead.
      *
      * @param event the reservation created event
      */
-    @EventListener
+    @Async(NotificationDispatchConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
     public void onReservationCreated(ReservationCreatedEvent event) {
         log.info("Received ReservationCreatedEvent for reservation ID: {}", event.getReservationId());
 
-        String message = templateService.buildReservationConfirmationMessage(event.getCustomerName(),
-                                                                             event.getReservationId(),
-                                                                             event.getReservationDateTime(),
-                                                                             event.getNumberOfGuests());
-
-        String subject = templateService.buildConfirmationSubject(event.getReservationId());
-
-        NotificationRequest request = NotificationRequest.builder()
-                                                         .channel(event.getNotificationChannel())
-                                                         .email(event.getEmail())
-                                                         .phoneNumber(event.getPhoneNumber())
-                                                         .subject(subject)
-                                                         .message(message)
-                                                         .build();
-
-        notificationService.sendNotification(request);
-
-        log.info("Sent confirmation notification for reservation ID: {}", event.getReservationId());
+        notificationCoalescer.created(event);
     }
 
     /**
@@ -59,25 +49,12 @@ public class ReservationEventListener {
      *
      * @param event the reservation cancelled event
      */
-    @EventListener
+    @Async(NotificationDispatchConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
     public void onReservationCancelled(ReservationCancelledEvent event) {
         log.info("Received ReservationCancelledEvent for reservation ID: {}", event.getReservationId());
 
-        String message = templateService.buildCancellationMessage(event.getCustomerName(), event.getReservationId());
-
-        String subject = templateService.buildCancellationSubject(event.getReservationId());
-
-        NotificationRequest request = NotificationRequest.builder()
-                                                         .channel(event.getNotificationChannel())
-                                                         .email(event.getEmail())
-                                                         .phoneNumber(event.getPhoneNumber())
-                                                         .subject(subject)
-                                                         .message(message)
-                                                         .build();
-
-        notificationService.sendNotification(request);
-
-        log.info("Sent cancellation notification for reservation ID: {}", event.getReservationId());
+        notificationCoalescer.cancelled(event);
     }
 
     /**
@@ -86,27 +63,11 @@ public class ReservationEventListener {
      *
      * @param event the reservation updated event
      */
-    @EventListener
+    @Async(NotificationDispatchConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
     public void onReservationUpdated(ReservationUpdatedEvent event) {
         log.info("Received ReservationUpdatedEvent for reservation ID: {}", event.getReservationId());
 
-        String message = templateService.buildUpdateMessage(event.getCustomerName(),
-                                                            event.getReservationId(),
-                                                            event.getNewReservationDateTime(),
-                                                            event.getNewNumberOfGuests());
-
-        String subject = templateService.buildUpdateSubject(event.getReservationId());
-
-        NotificationRequest request = NotificationRequest.builder()
-                                                         .channel(event.getNotificationChannel())
-                                                         .email(event.getEmail())
-                                                         .phoneNumber(event.getPhoneNumber())
-                                                         .subject(subject)
-                                                         .message(message)
-                                                         .build();
-
-        notificationService.sendNotification(request);
-
-        log.info("Sent update notification for reservation ID: {}", event.getReservationId());
+        notificationCoalescer.updated(event);
     }
 }
@@ -0,0 +1,52 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+
+import java.util.List;
+
+/**
+ * SMS sender that hands messages to the {@link SmsGateway} in batches of up to {@code batchSize},
+ * one provider request per batch. A rejected batch fails as a whole; the batches before it were delivered.
+ */
+public class BatchingSmsSender implements NotificationSender {
+
+    private final SmsGateway smsGateway;
+    private final int batchSize;
+
+    public BatchingSmsSender(SmsGateway smsGateway, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("notification.sender.sms.batch-size must be at least 1");
+        }
+        this.smsGateway = smsGateway;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    public void send(NotificationRequest request) {
+        sendAll(List.of(request));
+    }
+
+    @Override
+    public void sendAll(List<NotificationRequest> requests) {
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<SmsGateway.SmsMessage> batch = requests.subList(from, Math.min(from + batchSize, requests.size()))
+                                                        .stream()
+                                                        .map(request -> new SmsGateway.SmsMessage(request.getPhoneNumber(),
+                                                                                                  request.getMessage()))
+                                                        .toList();
+            try {
+                smsGateway.sendBatch(batch);
+            } catch (NotificationDeliveryException e) {
+                throw from == 0 ? e : new NotificationBatchException(from, e);
+            }
+        }
+    }
+}
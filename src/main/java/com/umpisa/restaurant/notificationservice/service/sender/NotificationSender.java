@@ -0,0 +1,44 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+
+import java.util.List;
+
+/**
+ * Delivers notifications over one channel. {@code NotificationService} routes each request
+ * to the sender of every channel the customer chose.
+ */
+public interface NotificationSender {
+
+    /**
+     * Return the channel this sender delivers over, {@link NotificationChannel#EMAIL} or {@link NotificationChannel#SMS}.
+     */
+    NotificationChannel channel();
+
+    /**
+     * Deliver one notification.
+     *
+     * @throws com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException if the provider rejects it
+     */
+    void send(NotificationRequest request);
+
+    /**
+     * Deliver several notifications in order. Senders that can share a connection or request between
+     * messages override this; the default sends them one by one.
+     *
+     * @throws NotificationBatchException    if the provider rejects one after earlier ones were delivered
+     * @throws NotificationDeliveryException if the provider rejects the first; none were delivered
+     */
+    default void sendAll(List<NotificationRequest> requests) {
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                send(requests.get(i));
+            } catch (NotificationDeliveryException e) {
+                throw i == 0 ? e : new NotificationBatchException(i, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import java.util.List;
+
+/**
+ * Client of the SMS provider's bulk send API.
+ */
+public interface SmsGateway {
+
+    /**
+     * An SMS to one recipient.
+     */
+    record SmsMessage(String phoneNumber, String message) {
+    }
+
+    /**
+     * Send several messages in one request to the provider.
+     *
+     * @throws com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException if the provider rejects the batch
+     */
+    void sendBatch(List<SmsMessage> messages);
+}
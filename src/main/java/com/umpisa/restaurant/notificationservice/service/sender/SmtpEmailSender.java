@@ -0,0 +1,251 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.NotificationSenderProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email sender that delivers over a pool of open SMTP connections.
+ * <p>
+ * A connection is opened, secured and authenticated once and then carries many messages, each sent
+ * as a further MAIL/RCPT/DATA exchange in the same session, instead of paying the TCP, TLS and AUTH
+ * round trips per message. {@link #sendAll} sends a whole batch over one connection. Connections are
+ * replaced after {@code maxMessagesPerConnection} messages or {@code idleTimeout} without use, and a
+ * connection the server has closed is reopened once before a send fails.
+ * <p>
+ * Metrics: {@code notifications.email.sent} and {@code notifications.email.connections.opened} counters.
+ */
+@Slf4j
+public class SmtpEmailSender implements NotificationSender, AutoCloseable {
+
+    private final Session session;
+    private final InternetAddress from;
+    private final NotificationSenderProperties.Email properties;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle = new LinkedBlockingQueue<>();
+    private final Counter sentCounter;
+    private final Counter openedCounter;
+    private volatile boolean closed;
+
+    public SmtpEmailSender(NotificationSenderProperties.Email properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getPoolSize());
+        this.session = Session.getInstance(sessionProperties(properties));
+        try {
+            this.from = new InternetAddress(properties.getFrom(), true);
+        } catch (AddressException e) {
+            throw new IllegalStateException("notification.sender.email.from is not a valid address", e);
+        }
+        this.sentCounter = Counter.builder("notifications.email.sent")
+                                  .description("Emails accepted by the SMTP server")
+                                  .register(meterRegistry);
+        this.openedCounter = Counter.builder("notifications.email.connections.opened")
+                                    .description("SMTP connections opened")
+                                    .register(meterRegistry);
+    }
+
+    /**
+     * An open SMTP session and its usage.
+     */
+    private static final class PooledConnection {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+        private boolean open = true;
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public void send(NotificationRequest request) {
+        sendAll(List.of(request));
+    }
+
+    @Override
+    public void sendAll(List<NotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        acquirePermit();
+        PooledConnection connection = null;
+        int sent = 0;
+        try {
+            connection = idleConnection();
+            for (NotificationRequest request : requests) {
+                MimeMessage message = message(request);
+                if (connection == null || connection.messagesSent >= properties.getMaxMessagesPerConnection()) {
+                    closeQuietly(connection);
+                    connection = open();
+                }
+                connection = deliver(connection, message);
+                sent++;
+            }
+        } catch (NotificationDeliveryException e) {
+            throw sent == 0 ? e : new NotificationBatchException(sent, e);
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Close every idle connection. Connections in use are closed when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Send a message over the connection, reopening it once if the server has dropped it.
+     * A connection that fails is closed before this returns or throws.
+     *
+     * @return the connection to keep using
+     */
+    private PooledConnection deliver(PooledConnection connection, MimeMessage message) {
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            // The server refused the recipients; the session stays usable. Addresses refused with
+            // a 5xx reply are reported invalid and will be refused again; 4xx replies are temporary
+            boolean permanent = e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0;
+            throw new NotificationDeliveryException("SMTP server rejected the email: " + e.getMessage(), e, permanent);
+        } catch (MessagingException | IllegalStateException e) {
+            boolean fresh = connection.messagesSent == 0;
+            closeQuietly(connection);
+            if (fresh) {
+                throw new NotificationDeliveryException("SMTP server rejected the email: " + e.getMessage(), e);
+            }
+            log.debug("Reopening SMTP connection after failure on a reused session: {}", e.getMessage());
+            connection = open();
+            try {
+                connection.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException | IllegalStateException retryFailure) {
+                closeQuietly(connection);
+                throw new NotificationDeliveryException("SMTP server rejected the email: " + retryFailure.getMessage(), retryFailure);
+            }
+        }
+        connection.messagesSent++;
+        connection.lastUsedNanos = System.nanoTime();
+        sentCounter.increment();
+        return connection;
+    }
+
+    private PooledConnection idleConnection() {
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            if (System.nanoTime() - connection.lastUsedNanos < properties.getIdleTimeout().toNanos()) {
+                return connection;
+            }
+            closeQuietly(connection);
+        }
+        return null;
+    }
+
+    private PooledConnection open() {
+        try {
+            Transport transport = session.getTransport("smtp");
+            transport.connect(properties.getHost(), properties.getPort(), properties.getUsername(), properties.getPassword());
+            openedCounter.increment();
+            log.debug("Opened SMTP connection to {}:{}", properties.getHost(), properties.getPort());
+            return new PooledConnection(transport);
+        } catch (MessagingException e) {
+            throw new NotificationDeliveryException("Cannot connect to SMTP server " + properties.getHost(), e);
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        if (closed) {
+            closeQuietly(connection);
+        } else if (connection.open) {
+            idle.offer(connection);
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(properties.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new NotificationDeliveryException("No SMTP connection free within " + properties.getBorrowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotificationDeliveryException("Interrupted waiting for an SMTP connection", e);
+        }
+    }
+
+    private MimeMessage message(NotificationRequest request) {
+        try {
+            MimeMessage message = new MimeMessage(session);
+            message.setFrom(from);
+            message.setRecipient(Message.RecipientType.TO, new InternetAddress(request.getEmail(), true));
+            message.setSubject(request.getSubject(), StandardCharsets.UTF_8.name());
+            message.setText(request.getMessage(), StandardCharsets.UTF_8.name());
+            message.setSentDate(new Date());
+            message.saveChanges();
+            return message;
+        } catch (MessagingException e) {
+            throw new NotificationDeliveryException("Cannot build email to " + request.getEmail(), e, true);
+        }
+    }
+
+    private static void closeQuietly(PooledConnection connection) {
+        if (connection == null || !connection.open) {
+            return;
+        }
+        connection.open = false;
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static Properties sessionProperties(NotificationSenderProperties.Email properties) {
+        Properties session = new Properties();
+        session.put("mail.smtp.host", properties.getHost());
+        session.put("mail.smtp.port", String.valueOf(properties.getPort()));
+        session.put("mail.smtp.auth", String.valueOf(properties.getUsername() != null));
+        session.put("mail.smtp.starttls.enable", String.valueOf(properties.isStartTls()));
+        session.put("mail.smtp.starttls.required", String.valueOf(properties.isStartTls()));
+        session.put("mail.smtp.connectiontimeout", String.valueOf(properties.getConnectTimeout().toMillis()));
+        session.put("mail.smtp.timeout", String.valueOf(properties.getTimeout().toMillis()));
+        session.put("mail.smtp.writetimeout", String.valueOf(properties.getTimeout().toMillis()));
+        return session;
+    }
+}
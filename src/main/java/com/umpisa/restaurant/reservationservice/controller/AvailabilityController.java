@@ -0,0 +1,84 @@
+package com.umpisa.restaurant.reservationservice.controller;
+
+import com.umpisa.restaurant.reservationservice.model.dto.response.AvailabilityResponse;
+import com.umpisa.restaurant.reservationservice.service.AvailabilityService;
+import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * REST controller for table availability.
+ * Lets booking widgets find open time slots with a single call.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/availability")
+@Tag(name = "Availability", description = "Table availability APIs")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    /**
+     * Get the open time slots of a restaurant's day for a party size.
+     *
+     * @param restaurantId the restaurant
+     * @param date         the date
+     * @param partySize    the number of guests
+     * @param time         the preferred time
+     * @param nearest      how many alternatives to return when the preferred slot is full
+     * @return the open slots
+     */
+    @Operation(
+            summary = "Get available time slots",
+            description = "Returns the open time slots of a restaurant's day that can seat the party. " +
+                    "With a time, returns that slot if it is open, otherwise the nearest open slots, closest first."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved availability",
+                    content = @Content(schema = @Schema(implementation = AvailabilityResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid restaurant, party size or nearest count",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @Parameter(description = "Restaurant ID", required = true)
+            @RequestParam Long restaurantId,
+            @Parameter(description = "Date (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Number of guests", required = true)
+            @RequestParam int partySize,
+            @Parameter(description = "Preferred time (HH:mm)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+            @Parameter(description = "Number of alternatives when the preferred slot is full (1-20)")
+            @RequestParam(defaultValue = "3") int nearest) {
+
+        log.info("GET /api/availability?restaurantId={}&date={}&partySize={} - Retrieving availability", restaurantId, date, partySize);
+
+        AvailabilityResponse response = availabilityService.getAvailability(restaurantId, date, partySize, time, nearest);
+
+        return ResponseEntity.ok(response);
+    }
+}
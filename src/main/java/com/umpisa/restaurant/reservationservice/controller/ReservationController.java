@@ -1,10 +1,15 @@
 package com.umpisa.restaurant.reservationservice.controller;
 
 import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.BulkImportResponse;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationPageResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.request.UpdateReservationRequest;
+import com.umpisa.restaurant.reservationservice.service.IdempotencyStore;
+import com.umpisa.restaurant.reservationservice.service.ReservationImportService;
 import com.umpisa.restaurant.reservationservice.service.ReservationService;
 import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import com.umpisa.restaurant.shared.exceptions.PreconditionFailedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,10 +20,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -32,17 +41,25 @@ import java.util.List;
 @Tag(name = "Reservations", description = "Restaurant reservation management APIs")
 public class ReservationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ReservationService reservationService;
+    private final ReservationImportService reservationImportService;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Create a new reservation.
+     * With an Idempotency-Key, a retry of the same request returns the original response instead of booking again.
      *
-     * @param request the reservation details
+     * @param idempotencyKey optional client-generated key identifying the request across retries
+     * @param request        the reservation details
      * @return the created reservation with HTTP 201 status
      */
     @Operation(
             summary = "Create a new reservation",
-            description = "Creates a new restaurant reservation and sends a confirmation notification via the customer's preferred channel (EMAIL, SMS, or BOTH)"
+            description = "Creates a new restaurant reservation and sends a confirmation notification via the customer's preferred channel (EMAIL, SMS, or BOTH). " +
+                    "Requests retried with the same Idempotency-Key return the original response, marked with the Idempotent-Replayed header"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201",
@@ -51,16 +68,64 @@ public class ReservationController {
 
             @ApiResponse(responseCode = "400",
                     description = "Invalid request data or validation error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+
+            @ApiResponse(responseCode = "409",
+                    description = "Not enough seats left in the requested time slot, or a request with the same Idempotency-Key is still in progress",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+
+            @ApiResponse(responseCode = "422",
+                    description = "Idempotency-Key was already used for a different request",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping
-    public ResponseEntity<ReservationResponse> createReservation(@Valid @RequestBody CreateReservationRequest request) {
+    public ResponseEntity<ReservationResponse> createReservation(
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateReservationRequest request) {
 
         log.info("POST /api/reservations - Creating reservation for: {}", request.getEmail());
 
-        ReservationResponse response = reservationService.createReservation(request);
+        if (idempotencyKey == null) {
+            ReservationResponse response = reservationService.createReservation(request);
+            return withETag(ResponseEntity.status(HttpStatus.CREATED), response);
+        }
+
+        IdempotencyStore.Result result = idempotencyStore.execute(
+                idempotencyKey, request, () -> reservationService.createReservation(request));
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return withETag(builder, result.response());
+    }
+
+    /**
+     * Bulk import reservations from a newline-delimited JSON upload.
+     *
+     * @param body the NDJSON request body, one create-reservation request per line
+     * @return the import summary with per-line errors
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(
+            summary = "Bulk import reservations",
+            description = "Imports reservations from an NDJSON body (one create-reservation request per line). " +
+                    "The body is streamed and written in fixed-size batches. No per-reservation notifications are sent."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Import finished; see the response for per-line errors",
+                    content = @Content(schema = @Schema(implementation = BulkImportResponse.class)))
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResponse> importReservations(InputStream body) throws IOException {
+
+        log.info("POST /api/reservations/import - Importing reservations");
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        BulkImportResponse response = reservationImportService.importReservations(body);
+
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -92,6 +157,48 @@ public class ReservationController {
         return ResponseEntity.ok(reservations);
     }
 
+    /**
+     * Get one page of upcoming reservations for a customer.
+     * Selected instead of the unpaged list whenever the {@code limit} parameter is present.
+     *
+     * @param email  the customer's email address
+     * @param limit  the maximum number of reservations to return
+     * @param cursor the cursor returned with the previous page
+     * @return the page of upcoming reservations
+     */
+    @Operation(
+            summary = "Get upcoming reservations (paginated)",
+            description = "Retrieves a page of upcoming confirmed reservations for a customer. " +
+                    "Pass the nextCursor of a response as cursor to fetch the following page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved a page of upcoming reservations",
+                    content = @Content(schema = @Schema(implementation = ReservationPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid limit or cursor",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(params = "limit")
+    public ResponseEntity<ReservationPageResponse> getUpcomingReservationsPage(
+            @Parameter(description = "Customer's email address", required = true)
+            @RequestParam String email,
+            @Parameter(description = "Maximum number of reservations to return (1-100)", required = true)
+            @RequestParam int limit,
+            @Parameter(description = "Cursor from the previous page")
+            @RequestParam(required = false) String cursor) {
+
+        log.info("GET /api/reservations?email={}&limit={} - Retrieving upcoming reservations page", email, limit);
+
+        ReservationPageResponse page = reservationService.getUpcomingReservations(email, cursor, limit);
+
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Get a reservation by ID.
      *
@@ -123,7 +230,7 @@ public class ReservationController {
 
         ReservationResponse response = reservationService.getReservationById(id);
 
-        return ResponseEntity.ok(response);
+        return withETag(ResponseEntity.ok(), response);
     }
 
     /**
@@ -131,6 +238,7 @@ public class ReservationController {
      *
      * @param id      the reservation ID
      * @param request the updated reservation details
+     * @param ifMatch the ETag the client last saw; when present, the update only applies to that version
      * @return the updated reservation
      */
     @Operation(
@@ -152,25 +260,38 @@ public class ReservationController {
                     responseCode = "404",
                     description = "Reservation not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Not enough seats left in the requested time slot, or a concurrent change",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Reservation was modified since the version in If-Match",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
     @PutMapping("/{id}")
     public ResponseEntity<ReservationResponse> updateReservation(
             @Parameter(description = "Reservation ID", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the reservation version being updated")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateReservationRequest request) {
 
         log.info("PUT /api/reservations/{} - Updating reservation", id);
 
-        ReservationResponse response = reservationService.updateReservation(id, request);
+        ReservationResponse response = reservationService.updateReservation(id, request, parseIfMatch(ifMatch));
 
-        return ResponseEntity.ok(response);
+        return withETag(ResponseEntity.ok(), response);
     }
 
     /**
      * Cancel a reservation.
      *
-     * @param id the reservation ID
+     * @param id      the reservation ID
+     * @param ifMatch the ETag the client last saw; when present, only that version is cancelled
      * @return HTTP 204 No Content status
      */
     @Operation(
@@ -191,17 +312,55 @@ public class ReservationController {
                     responseCode = "404",
                     description = "Reservation not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Reservation was modified since the version in If-Match",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelReservation(
             @Parameter(description = "Reservation ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the reservation version being cancelled")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("DELETE /api/reservations/{} - Cancelling reservation", id);
 
-        reservationService.cancelReservation(id);
+        reservationService.cancelReservation(id, parseIfMatch(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<ReservationResponse> withETag(ResponseEntity.BodyBuilder builder, ReservationResponse response) {
+        if (response.getVersion() != null) {
+            builder.eTag(response.getVersion().toString());
+        }
+        return builder.body(response);
+    }
+
+    /**
+     * Parse an If-Match header into the expected reservation version.
+     * A missing header or {@code *} matches any version.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not name a reservation version: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.umpisa.restaurant.reservationservice.controller;
+
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.WaitlistEntryResponse;
+import com.umpisa.restaurant.reservationservice.service.WaitlistService;
+import com.umpisa.restaurant.shared.exceptions.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the waitlist of fully booked time slots.
+ * Waiting parties are promoted to reservations automatically when seats are freed.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/waitlist")
+@Tag(name = "Waitlist", description = "Waitlist management APIs")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    /**
+     * Join the waitlist of a fully booked time slot.
+     *
+     * @param request the reservation details
+     * @return the waitlist entry with HTTP 201 status
+     */
+    @Operation(
+            summary = "Join the waitlist",
+            description = "Adds the party to the waitlist of a fully booked time slot. When seats are freed, " +
+                    "the entry is turned into a reservation and the customer is notified via their preferred channel"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201",
+                    description = "Added to the waitlist",
+                    content = @Content(schema = @Schema(implementation = WaitlistEntryResponse.class))),
+
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid request data, or the slot still has seats",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(@Valid @RequestBody CreateReservationRequest request) {
+
+        log.info("POST /api/waitlist - Adding to waitlist: {}", request.getEmail());
+
+        WaitlistEntryResponse response = waitlistService.joinWaitlist(request);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Get a waitlist entry by ID.
+     *
+     * @param id the waitlist entry ID
+     * @return the waitlist entry
+     */
+    @Operation(
+            summary = "Get waitlist entry by ID",
+            description = "Retrieves a waitlist entry, including the reservation it was promoted to"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Successfully retrieved waitlist entry",
+                    content = @Content(schema = @Schema(implementation = WaitlistEntryResponse.class))),
+
+            @ApiResponse(responseCode = "404",
+                    description = "Waitlist entry not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntryResponse> getWaitlistEntry(
+            @Parameter(description = "Waitlist entry ID", required = true)
+            @PathVariable Long id) {
+
+        log.info("GET /api/waitlist/{} - Retrieving waitlist entry", id);
+
+        return ResponseEntity.ok(waitlistService.getWaitlistEntry(id));
+    }
+
+    /**
+     * Leave the waitlist.
+     *
+     * @param id the waitlist entry ID
+     * @return HTTP 204 No Content status
+     */
+    @Operation(
+            summary = "Leave the waitlist",
+            description = "Removes a waiting entry from the waitlist"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204",
+                    description = "Removed from the waitlist"),
+
+            @ApiResponse(responseCode = "400",
+                    description = "Waitlist entry is no longer waiting",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+
+            @ApiResponse(responseCode = "404",
+                    description = "Waitlist entry not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @Parameter(description = "Waitlist entry ID", required = true)
+            @PathVariable Long id) {
+
+        log.info("DELETE /api/waitlist/{} - Removing waitlist entry", id);
+
+        waitlistService.leaveWaitlist(id);
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.umpisa.restaurant.reservationservice.mapper;
+
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursor used for keyset pagination.
+ * A cursor holds the sort key, {@code (reservationDateTime, id)}, of the last row on a page.
+ */
+@Component
+public class ReservationCursorCodec {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encode the position after the given reservation.
+     *
+     * @param reservationDateTime the reservation date/time of the last row
+     * @param id                  the ID of the last row
+     * @return the opaque cursor token
+     */
+    public String encode(LocalDateTime reservationDateTime, Long id) {
+        String raw = reservationDateTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token produced by {@link #encode}.
+     *
+     * @param cursor the opaque cursor token
+     * @return the decoded position
+     * @throws InvalidReservationException if the token is malformed
+     */
+    public Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidReservationException("Invalid pagination cursor");
+            }
+            return new Position(LocalDateTime.parse(raw.substring(0, separator)),
+                                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidReservationException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * A decoded keyset position.
+     */
+    @Value
+    public static class Position {
+        LocalDateTime reservationDateTime;
+        Long id;
+    }
+}
@@ -6,6 +6,8 @@ import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+
 /**
  * Mapper to convert between Reservation entities and DTOs.
  */
@@ -19,12 +21,14 @@ public class ReservationMapper {
      * @return the Reservation entity
      */
     public Reservation toEntity(CreateReservationRequest request) {
-        return Reservation.builder().customerName(request.getCustomerName())
+        return Reservation.builder().restaurantId(request.getRestaurantId())
+                          .customerName(request.getCustomerName())
                           .phoneNumber(request.getPhoneNumber())
-                          .email(request.getEmail())
+                          .email(normalizeEmail(request.getEmail()))
                           .reservationDateTime(request.getReservationDateTime())
                           .numberOfGuests(request.getNumberOfGuests())
                           .notificationChannel(request.getNotificationChannel())
+                          .preferredLanguage(request.getPreferredLanguage())
                           .status(ReservationStatus.CONFIRMED)
                           .build();
     }
@@ -38,6 +42,7 @@ public class ReservationMapper {
     public ReservationResponse toResponse(Reservation reservation) {
         return ReservationResponse.builder()
                                   .id(reservation.getId())
+                                  .restaurantId(reservation.getRestaurantId())
                                   .customerName(reservation.getCustomerName())
                                   .phoneNumber(reservation.getPhoneNumber())
                                   .email(reservation.getEmail())
@@ -45,8 +50,20 @@ public class ReservationMapper {
                                   .numberOfGuests(reservation.getNumberOfGuests())
                                   .status(reservation.getStatus())
                                   .notificationChannel(reservation.getNotificationChannel())
+                                  .preferredLanguage(reservation.getPreferredLanguage())
                                   .createdAt(reservation.getCreatedAt())
                                   .updatedAt(reservation.getUpdatedAt())
+                                  .version(reservation.getVersion())
                                   .build();
     }
+
+    /**
+     * Normalize an email address for storage and lookup (trimmed, lower case).
+     *
+     * @param email the email address
+     * @return the normalized email address
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
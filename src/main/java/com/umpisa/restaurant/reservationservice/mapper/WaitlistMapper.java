@@ -0,0 +1,76 @@
+package com.umpisa.restaurant.reservationservice.mapper;
+
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.WaitlistEntryResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper to convert between WaitlistEntry entities and DTOs.
+ */
+@Component
+public class WaitlistMapper {
+
+    /**
+     * Convert a reservation request for a full slot to a waiting WaitlistEntry.
+     *
+     * @param request the request DTO
+     * @return the WaitlistEntry entity
+     */
+    public WaitlistEntry toEntity(CreateReservationRequest request) {
+        return WaitlistEntry.builder()
+                            .restaurantId(request.getRestaurantId())
+                            .customerName(request.getCustomerName())
+                            .phoneNumber(request.getPhoneNumber())
+                            .email(ReservationMapper.normalizeEmail(request.getEmail()))
+                            .reservationDateTime(request.getReservationDateTime())
+                            .numberOfGuests(request.getNumberOfGuests())
+                            .notificationChannel(request.getNotificationChannel())
+                            .preferredLanguage(request.getPreferredLanguage())
+                            .status(WaitlistStatus.WAITING)
+                            .build();
+    }
+
+    /**
+     * Convert a WaitlistEntry entity to the reservation request it is promoted with.
+     *
+     * @param entry the WaitlistEntry entity
+     * @return the reservation request
+     */
+    public CreateReservationRequest toReservationRequest(WaitlistEntry entry) {
+        return CreateReservationRequest.builder()
+                                       .restaurantId(entry.getRestaurantId())
+                                       .customerName(entry.getCustomerName())
+                                       .phoneNumber(entry.getPhoneNumber())
+                                       .email(entry.getEmail())
+                                       .reservationDateTime(entry.getReservationDateTime())
+                                       .numberOfGuests(entry.getNumberOfGuests())
+                                       .notificationChannel(entry.getNotificationChannel())
+                                       .preferredLanguage(entry.getPreferredLanguage())
+                                       .build();
+    }
+
+    /**
+     * Convert a WaitlistEntry entity to WaitlistEntryResponse DTO.
+     *
+     * @param entry the WaitlistEntry entity
+     * @return the response DTO
+     */
+    public WaitlistEntryResponse toResponse(WaitlistEntry entry) {
+        return WaitlistEntryResponse.builder()
+                                    .id(entry.getId())
+                                    .restaurantId(entry.getRestaurantId())
+                                    .customerName(entry.getCustomerName())
+                                    .phoneNumber(entry.getPhoneNumber())
+                                    .email(entry.getEmail())
+                                    .reservationDateTime(entry.getReservationDateTime())
+                                    .numberOfGuests(entry.getNumberOfGuests())
+                                    .notificationChannel(entry.getNotificationChannel())
+                                    .preferredLanguage(entry.getPreferredLanguage())
+                                    .status(entry.getStatus())
+                                    .requestedAt(entry.getRequestedAt())
+                                    .reservationId(entry.getReservationId())
+                                    .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for archiving past reservations.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.archive")
+public class ReservationArchiveProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Reservations whose date/time is older than this are moved to the archive.
+     */
+    private Duration horizon = Duration.ofDays(30);
+
+    /**
+     * Number of reservations moved per transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Upper bound on chunks per scheduled run, so one run cannot monopolize the database.
+     */
+    private int maxChunksPerRun = 100;
+}
@@ -0,0 +1,26 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-process reservation caches.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.cache")
+public class ReservationCacheProperties {
+
+    private CacheConfig byId = new CacheConfig();
+
+    private CacheConfig upcoming = new CacheConfig();
+
+    @Data
+    public static class CacheConfig {
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
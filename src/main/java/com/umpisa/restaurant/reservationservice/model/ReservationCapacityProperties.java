@@ -0,0 +1,38 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Configuration properties for the restaurant's seating capacity.
+ * A reservation occupies seats in the time slot its date/time falls into.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.capacity")
+public class ReservationCapacityProperties {
+
+    /**
+     * Length of a time slot; must divide a day evenly.
+     */
+    private Duration slotLength = Duration.ofMinutes(30);
+
+    /**
+     * Number of seats that can be booked in a single time slot.
+     */
+    private int seatsPerSlot = 60;
+
+    /**
+     * Start of the first slot offered by the availability API.
+     */
+    private LocalTime openingTime = LocalTime.of(11, 0);
+
+    /**
+     * The availability API offers slots starting before this time.
+     */
+    private LocalTime closingTime = LocalTime.of(22, 0);
+}
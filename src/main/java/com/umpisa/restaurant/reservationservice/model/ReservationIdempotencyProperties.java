@@ -0,0 +1,31 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for {@code Idempotency-Key} handling of reservation creation.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.idempotency")
+public class ReservationIdempotencyProperties {
+
+    /**
+     * How long a stored response is replayed for retries of the same key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Number of recent responses kept in memory in front of the database table.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a duplicate waits for the in-flight request with the same key before giving up.
+     */
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,25 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the NDJSON bulk reservation import.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.import")
+public class ReservationImportProperties {
+
+    /**
+     * Number of reservations written per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum number of line errors included in the import response.
+     * Further errors are only counted, so the response size stays bounded.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,26 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the per-slot locks taken by reservation writes.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.lock")
+public class ReservationLockProperties {
+
+    /**
+     * Number of lock stripes; rounded up to a power of two.
+     */
+    private int stripes = 1024;
+
+    /**
+     * How long a write waits for a busy slot before giving up.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,38 @@
+package com.umpisa.restaurant.reservationservice.model;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for replaying and compacting the event publication registry.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservation.outbox")
+public class ReservationOutboxProperties {
+
+    /**
+     * Whether incomplete publications are resubmitted once the application has started.
+     */
+    private boolean resubmitOnStartup = true;
+
+    /**
+     * Publications still incomplete this long after they were published are resubmitted, once everything
+     * dispatched before then has left the notification queue. Keep it above the time a reservation
+     * transaction takes to commit and a synchronous listener takes to run.
+     */
+    private Duration resubmitAfter = Duration.ofMinutes(1);
+
+    /**
+     * Shards whose incomplete publications are resubmitted at once.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Completed publications are deleted once they were published this long ago.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -20,6 +20,11 @@ import java.time.LocalDateTime;
 @Schema(description = "Request body for creating a new restaurant reservation")
 public class CreateReservationRequest {
 
+    @Schema(description = "Restaurant to book at", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    @NotNull(message = "Restaurant ID is required")
+    @Positive(message = "Restaurant ID must be positive")
+    private Long restaurantId;
+
     @Schema(description = "Customer's full name", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotBlank(message = "Customer name is required")
     @Size(min = 2, max = 100, message = "Customer name must be between 2 and 100 characters")
@@ -49,4 +54,10 @@ public class CreateReservationRequest {
     @Schema(description = "Preferred notification channel", requiredMode = Schema.RequiredMode.REQUIRED, allowableValues = {"EMAIL", "SMS", "BOTH"})
     @NotNull(message = "Notification channel is required")
     private NotificationChannel notificationChannel;
+
+    @Schema(description = "Language for notifications as an IETF language tag; unsupported languages fall back to English",
+            example = "fil", allowableValues = {"en", "fil", "zh"})
+    @Size(max = 35, message = "Preferred language cannot exceed 35 characters")
+    @Pattern(regexp = "^[A-Za-z]{2,8}(-[A-Za-z0-9]{1,8})*$", message = "Invalid language tag")
+    private String preferredLanguage;
 }
@@ -0,0 +1,55 @@
+package com.umpisa.restaurant.reservationservice.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for the open time slots of a restaurant's day for a given party size.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Open time slots for a party size")
+public class AvailabilityResponse {
+
+    @Schema(description = "Requested restaurant", example = "1")
+    private Long restaurantId;
+
+    @Schema(description = "Requested date", example = "2026-12-25")
+    private LocalDate date;
+
+    @Schema(description = "Requested party size", example = "4")
+    private int partySize;
+
+    @Schema(description = "Start of the slot containing the requested time; absent when no time was requested")
+    private LocalDateTime requestedSlot;
+
+    @Schema(description = "Whether the requested slot can seat the party; absent when no time was requested")
+    private Boolean requestedSlotAvailable;
+
+    @Schema(description = "Open slots: the whole day in time order, or the nearest ones to the requested time")
+    private List<SlotAvailability> slots;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "An open time slot")
+    public static class SlotAvailability {
+
+        @Schema(description = "Start of the slot", example = "2026-12-25T19:00:00")
+        private LocalDateTime startTime;
+
+        @Schema(description = "Seats still available in the slot", example = "12")
+        private int remainingSeats;
+    }
+}
@@ -0,0 +1,52 @@
+package com.umpisa.restaurant.reservationservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO summarizing a bulk reservation import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk reservation import")
+public class BulkImportResponse {
+
+    @Schema(description = "Number of non-empty lines read from the upload")
+    private long totalLines;
+
+    @Schema(description = "Number of reservations imported")
+    private long importedCount;
+
+    @Schema(description = "Number of lines that could not be imported")
+    private long failedCount;
+
+    @Schema(description = "Per-line errors (capped; see errorsTruncated)")
+    private List<LineError> errors;
+
+    @Schema(description = "Whether more errors occurred than are listed in errors")
+    private boolean errorsTruncated;
+
+    /**
+     * Error details for a single NDJSON line.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Import error for a single line")
+    public static class LineError {
+
+        @Schema(description = "1-based line number in the upload")
+        private long lineNumber;
+
+        @Schema(description = "Reason the line was rejected")
+        private String message;
+    }
+}
@@ -0,0 +1,29 @@
+package com.umpisa.restaurant.reservationservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of reservations in keyset (cursor) pagination.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of reservations with a cursor for the next page")
+public class ReservationPageResponse {
+
+    @Schema(description = "Reservations on this page, ordered by date/time and ID")
+    private List<ReservationResponse> content;
+
+    @Schema(description = "Opaque cursor for the next page; absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether more reservations follow this page")
+    private boolean hasMore;
+}
@@ -23,6 +23,9 @@ public class ReservationResponse {
     @Schema(description = "Unique reservation identifier")
     private Long id;
 
+    @Schema(description = "Restaurant the reservation is for")
+    private Long restaurantId;
+
     @Schema(description = "Customer's full name")
     private String customerName;
 
@@ -44,9 +47,15 @@ public class ReservationResponse {
     @Schema(description = "Notification channel preference")
     private NotificationChannel notificationChannel;
 
+    @Schema(description = "Language of the customer's notifications")
+    private String preferredLanguage;
+
     @Schema(description = "Timestamp when reservation was created")
     private LocalDateTime createdAt;
 
     @Schema(description = "Timestamp when reservation was last updated")
     private LocalDateTime updatedAt;
+
+    @Schema(description = "Reservation version; also returned as the ETag header and accepted in If-Match")
+    private Long version;
 }
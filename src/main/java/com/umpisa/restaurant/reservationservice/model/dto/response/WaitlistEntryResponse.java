@@ -0,0 +1,58 @@
+package com.umpisa.restaurant.reservationservice.model.dto.response;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for waitlist entry details.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Waitlist entry details")
+public class WaitlistEntryResponse {
+
+    @Schema(description = "Unique waitlist entry identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Restaurant the entry is waiting for", example = "1")
+    private Long restaurantId;
+
+    @Schema(description = "Customer's full name", example = "John Doe")
+    private String customerName;
+
+    @Schema(description = "Customer's phone number", example = "+639171234567")
+    private String phoneNumber;
+
+    @Schema(description = "Customer's email address", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Requested reservation date and time", example = "2025-12-25T19:00:00")
+    private LocalDateTime reservationDateTime;
+
+    @Schema(description = "Number of guests", example = "4")
+    private Integer numberOfGuests;
+
+    @Schema(description = "Preferred notification channel", example = "EMAIL")
+    private NotificationChannel notificationChannel;
+
+    @Schema(description = "Language of the customer's notifications", example = "fil")
+    private String preferredLanguage;
+
+    @Schema(description = "Waitlist status", example = "WAITING")
+    private WaitlistStatus status;
+
+    @Schema(description = "When the customer joined the waitlist")
+    private LocalDateTime requestedAt;
+
+    @Schema(description = "Reservation created when the entry was promoted")
+    private Long reservationId;
+}
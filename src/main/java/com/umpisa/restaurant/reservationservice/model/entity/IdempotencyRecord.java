@@ -0,0 +1,88 @@
+package com.umpisa.restaurant.reservationservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity recording the response to a create-reservation request sent with an {@code Idempotency-Key},
+ * so a retry with the same key replays the response instead of booking again.
+ * Records live in shard 0, whatever the restaurant, and are purged once expired.
+ */
+
+@Getter
+@Setter
+@Entity
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the request body; a retry with the same key must send the same request.
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * The response as JSON; null while the request that claimed the key is running.
+     */
+    @Column(length = 4000)
+    private String responseBody;
+
+    private Long reservationId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Lets Spring Data tell new records, whose keys are assigned by the client, from stored ones.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                                                                                     .getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                                              .getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return getIdempotencyKey() != null && Objects.equals(getIdempotencyKey(), that.getIdempotencyKey());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                       .getPersistentClass()
+                                                                       .hashCode() : getClass().hashCode();
+    }
+}
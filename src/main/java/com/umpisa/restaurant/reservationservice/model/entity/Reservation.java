@@ -4,12 +4,12 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -24,6 +24,10 @@ import java.util.Objects;
 /**
  * Entity representing a restaurant reservation.
  * Contains all customer and booking information.
+ * <p>
+ * Each index mirrors a query in {@code ReservationRepository}: equality
+ * columns come first and {@code reservation_date_time} last, so the range
+ * predicate of every query is served by a single index seek.
  */
 
 @Getter
@@ -33,13 +37,27 @@ import java.util.Objects;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_email_status_date_time", columnList = "email, status, reservation_date_time"),
+        @Index(name = "idx_reservations_status_date_time", columnList = "status, reservation_date_time"),
+        @Index(name = "idx_reservations_reminder_status_date_time", columnList = "reminder_sent, status, reservation_date_time"),
+        @Index(name = "idx_reservations_date_time", columnList = "reservation_date_time")
+})
 public class Reservation {
 
+    /**
+     * Assigned before insert by {@code ShardIdGenerator}: the shard in the high bits and a pooled
+     * sequence value below, which keeps JDBC insert batching enabled (IDENTITY columns disable it).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Partition key: all reservations of a restaurant live in the same shard.
+     */
+    @Column(nullable = false)
+    private Long restaurantId;
+
     @Column(nullable = false)
     private String customerName;
 
@@ -49,7 +67,7 @@ public class Reservation {
     @Column(nullable = false)
     private String email;
 
-    @Column(nullable = false)
+    @Column(name = "reservation_date_time", nullable = false)
     private LocalDateTime reservationDateTime;
 
     @Column(nullable = false)
@@ -63,8 +81,14 @@ public class Reservation {
     @Column(nullable = false)
     private NotificationChannel notificationChannel;
 
+    /**
+     * Language tag for the customer's notifications, such as {@code fil} or {@code zh}; the default language when null.
+     */
+    @Column(length = 35)
+    private String preferredLanguage;
+
     @Builder.Default
-    @Column(nullable = false)
+    @Column(name = "reminder_sent", nullable = false)
     private Boolean reminderSent = false;
 
     @Column(nullable = false, updatable = false)
@@ -73,6 +97,14 @@ public class Reservation {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic-locking version, exposed to clients as the ETag.
+     * Conditional updates in {@code ReservationRepository} increment it explicitly.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
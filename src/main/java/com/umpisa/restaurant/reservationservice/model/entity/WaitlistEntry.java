@@ -0,0 +1,125 @@
+package com.umpisa.restaurant.reservationservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing a customer waiting for seats in a fully booked time slot.
+ * Waiting entries are promoted to reservations when seats in their slot are freed.
+ */
+
+@Getter
+@Setter
+@Entity
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_entries_status_date_time", columnList = "status, reservation_date_time")
+})
+public class WaitlistEntry {
+
+    /**
+     * Assigned before insert by {@code ShardIdGenerator}; entries live in their restaurant's shard.
+     */
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    private String customerName;
+
+    @Column(nullable = false)
+    private String phoneNumber;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "reservation_date_time", nullable = false)
+    private LocalDateTime reservationDateTime;
+
+    @Column(nullable = false)
+    private Integer numberOfGuests;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationChannel notificationChannel;
+
+    /**
+     * Language tag for the customer's notifications, such as {@code fil} or {@code zh}; the default language when null.
+     */
+    @Column(length = 35)
+    private String preferredLanguage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status;
+
+    /**
+     * When the customer joined the waitlist; earlier requests are promoted first.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime requestedAt;
+
+    /**
+     * The reservation created on promotion.
+     */
+    private Long reservationId;
+
+    private LocalDateTime promotedAt;
+
+    /**
+     * Lets Spring Data tell new entries, whose IDs are assigned up front, from stored ones.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        requestedAt = LocalDateTime.now();
+        if (status == null) {
+            status = WaitlistStatus.WAITING;
+        }
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                                                                                     .getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                                              .getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        WaitlistEntry that = (WaitlistEntry) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                                                                       .getPersistentClass()
+                                                                       .hashCode() : getClass().hashCode();
+    }
+}
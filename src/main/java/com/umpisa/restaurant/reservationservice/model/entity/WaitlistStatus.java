@@ -0,0 +1,11 @@
+package com.umpisa.restaurant.reservationservice.model.entity;
+
+/**
+ * Enumeration representing the status of a waitlist entry.
+ */
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    CANCELLED,
+    EXPIRED
+}
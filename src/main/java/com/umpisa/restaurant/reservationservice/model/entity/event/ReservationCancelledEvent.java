@@ -6,9 +6,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
  * Event published when a reservation is cancelled.
- * This event is consumed by the notification service to send cancellation confirmation.
+ * This event is consumed by the notification service to send cancellation confirmation,
+ * and by the waitlist to fill the freed seats.
  */
 @Data
 @Builder
@@ -17,8 +20,12 @@ import lombok.NoArgsConstructor;
 public class ReservationCancelledEvent {
 
     private Long reservationId;
+    private Long restaurantId;
     private String customerName;
     private String email;
     private String phoneNumber;
+    private LocalDateTime reservationDateTime;
+    private Integer numberOfGuests;
     private NotificationChannel notificationChannel;
+    private String preferredLanguage;
 }
@@ -25,4 +25,10 @@ public class ReservationCreatedEvent {
     private LocalDateTime reservationDateTime;
     private Integer numberOfGuests;
     private NotificationChannel notificationChannel;
+    private String preferredLanguage;
+
+    /**
+     * Whether the reservation was created by promoting a waitlist entry.
+     */
+    private boolean fromWaitlist;
 }
@@ -25,4 +25,5 @@ public class ReservationUpdatedEvent {
     private LocalDateTime newReservationDateTime;
     private Integer newNumberOfGuests;
     private NotificationChannel notificationChannel;
+    private String preferredLanguage;
 }
@@ -0,0 +1,23 @@
+package com.umpisa.restaurant.reservationservice.model.entity.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published once when a bulk import finishes.
+ * Imported reservations do not publish individual created events, so no per-row notifications are sent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationsImportedEvent {
+
+    private long importedCount;
+    private long failedCount;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,32 @@
+package com.umpisa.restaurant.reservationservice.repository;
+
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.ArchivedReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedReservation entity.
+ * Provides read access to reservations moved out of the hot table.
+ */
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+
+    /**
+     * Find an archived reservation by ID as a response projection.
+     *
+     * @param id the reservation ID
+     * @return the archived reservation, if found
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse(" +
+            "a.id, a.restaurantId, a.customerName, a.phoneNumber, a.email, a.reservationDateTime, a.numberOfGuests, " +
+            "a.status, a.notificationChannel, a.preferredLanguage, a.createdAt, a.updatedAt, a.version) " +
+            "FROM ArchivedReservation a WHERE a.id = :id")
+    Optional<ReservationResponse> findResponseById(@Param("id") Long id);
+}
@@ -1,20 +1,66 @@
 package com.umpisa.restaurant.reservationservice.repository;
 
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
 import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Reservation entity.
  * Provides data access operations for reservations.
+ * <p>
+ * The {@code *Response*} queries are read-path projections: they select only the response
+ * columns straight into {@link ReservationResponse}, so no entity is hydrated, attached to
+ * the persistence context or dirty-checked.
  */
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    /**
+     * Constructor expression shared by the read-path projections.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse(" +
+            "r.id, r.restaurantId, r.customerName, r.phoneNumber, r.email, r.reservationDateTime, r.numberOfGuests, " +
+            "r.status, r.notificationChannel, r.preferredLanguage, r.createdAt, r.updatedAt, r.version) ";
+
+    /**
+     * Find a reservation by ID as a response projection.
+     *
+     * @param id the reservation ID
+     * @return the reservation, if found
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "FROM Reservation r WHERE r.id = :id")
+    Optional<ReservationResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Find all upcoming reservations for a customer as response projections,
+     * ordered by reservation date/time.
+     *
+     * @param email    the customer's email
+     * @param status   the reservation status
+     * @param dateTime the cutoff date/time
+     * @return list of upcoming reservations for the customer
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "FROM Reservation r " +
+            "WHERE r.email = :email AND r.status = :status AND r.reservationDateTime > :dateTime " +
+            "ORDER BY r.reservationDateTime ASC, r.id ASC")
+    List<ReservationResponse> findUpcomingResponses(@Param("email") String email,
+                                                    @Param("status") ReservationStatus status,
+                                                    @Param("dateTime") LocalDateTime dateTime);
+
     /**
      * Find all reservations by customer email.
      *
@@ -44,6 +90,32 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByEmailAndStatusAndReservationDateTimeAfter(
             String email, ReservationStatus status, LocalDateTime dateTime);
 
+    /**
+     * Find one page of a customer's reservations that sort after a keyset position.
+     * Rows are ordered by {@code (reservationDateTime, id)}; the range condition on
+     * {@code reservationDateTime} lets the email/status/date-time index seek directly
+     * to the position, so every page costs the same regardless of depth.
+     * Only the page size of the pageable is used; it must request the first page.
+     *
+     * @param email         the customer's email
+     * @param status        the reservation status
+     * @param afterDateTime the reservation date/time of the last row on the previous page
+     * @param afterId       the ID of the last row on the previous page
+     * @param pageable      the page size
+     * @return the reservations on the page
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "FROM Reservation r " +
+            "WHERE r.email = :email AND r.status = :status " +
+            "AND r.reservationDateTime >= :afterDateTime " +
+            "AND (r.reservationDateTime > :afterDateTime OR r.id > :afterId) " +
+            "ORDER BY r.reservationDateTime ASC, r.id ASC")
+    List<ReservationResponse> findPageByEmailAndStatusAfter(@Param("email") String email,
+                                                    @Param("status") ReservationStatus status,
+                                                    @Param("afterDateTime") LocalDateTime afterDateTime,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
     /**
      * Find all confirmed reservations within a time window that haven't received a reminder yet.
      * Used by the reminder scheduler to find reservations 4 hours before their scheduled time.
@@ -57,4 +129,128 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByReservationDateTimeBetweenAndReminderSentAndStatus(
             LocalDateTime startDateTime, LocalDateTime endDateTime,
             Boolean reminderSent, ReservationStatus status);
+
+    /**
+     * Cancel a reservation in a single statement, unless it is already cancelled.
+     * When an expected version is given, the row is only changed if its version still matches.
+     *
+     * @param id              the reservation ID
+     * @param expectedVersion the version the client last saw, or null for an unconditional cancel
+     * @param updatedAt       the update timestamp
+     * @param cancelled       the cancelled status
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :cancelled, r.updatedAt = :updatedAt, r.version = r.version + 1 " +
+            "WHERE r.id = :id AND r.status <> :cancelled " +
+            "AND (:expectedVersion IS NULL OR r.version = :expectedVersion)")
+    int cancelIfNotCancelled(@Param("id") Long id,
+                             @Param("expectedVersion") Long expectedVersion,
+                             @Param("updatedAt") LocalDateTime updatedAt,
+                             @Param("cancelled") ReservationStatus cancelled);
+
+    /**
+     * Change the date/time and party size of a reservation in a single statement, unless it is cancelled.
+     * When an expected version is given, the row is only changed if its version still matches.
+     *
+     * @param id                  the reservation ID
+     * @param expectedVersion     the version the client last saw, or null for an unconditional update
+     * @param reservationDateTime the new reservation date/time
+     * @param numberOfGuests      the new number of guests
+     * @param updatedAt           the update timestamp
+     * @param cancelled           the cancelled status
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.reservationDateTime = :reservationDateTime, r.numberOfGuests = :numberOfGuests, " +
+            "r.updatedAt = :updatedAt, r.version = r.version + 1 " +
+            "WHERE r.id = :id AND r.status <> :cancelled " +
+            "AND (:expectedVersion IS NULL OR r.version = :expectedVersion)")
+    int updateIfNotCancelled(@Param("id") Long id,
+                             @Param("expectedVersion") Long expectedVersion,
+                             @Param("reservationDateTime") LocalDateTime reservationDateTime,
+                             @Param("numberOfGuests") Integer numberOfGuests,
+                             @Param("updatedAt") LocalDateTime updatedAt,
+                             @Param("cancelled") ReservationStatus cancelled);
+
+    /**
+     * Flag a reservation's reminder as sent, unless it already was.
+     * The version is left alone because the flag is not part of the client-visible state.
+     *
+     * @param id the reservation ID
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.reminderSent = true WHERE r.id = :id AND r.reminderSent = false")
+    int markReminderSent(@Param("id") Long id);
+
+    /**
+     * Sum the booked seats per restaurant and reservation date/time from a given date/time onwards,
+     * for rebuilding the in-memory capacity counters.
+     *
+     * @param status the status of reservations that hold seats
+     * @param from   the earliest reservation date/time to include
+     * @return the booked seats, grouped by restaurant and reservation date/time
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT r.restaurantId AS restaurantId, r.reservationDateTime AS reservationDateTime, SUM(r.numberOfGuests) AS seats " +
+            "FROM Reservation r WHERE r.status = :status AND r.reservationDateTime >= :from " +
+            "GROUP BY r.restaurantId, r.reservationDateTime")
+    List<BookedSeats> findBookedSeatsFrom(@Param("status") ReservationStatus status,
+                                          @Param("from") LocalDateTime from);
+
+    /**
+     * Find the IDs of the oldest reservations scheduled before a cutoff, for archiving.
+     *
+     * @param cutoff   reservations before this date/time are returned
+     * @param pageable the chunk size
+     * @return the reservation IDs, oldest first
+     */
+    @Query("SELECT r.id FROM Reservation r WHERE r.reservationDateTime < :cutoff ORDER BY r.reservationDateTime ASC")
+    List<Long> findIdsScheduledBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Find the date/time of the oldest reservation in the table.
+     *
+     * @return the oldest reservation date/time, if the table is not empty
+     */
+    @Query("SELECT MIN(r.reservationDateTime) FROM Reservation r")
+    Optional<LocalDateTime> findOldestReservationDateTime();
+
+    /**
+     * Copy reservations into the archive table.
+     *
+     * @param ids        the reservation IDs
+     * @param archivedAt the archive timestamp
+     * @return the number of copied rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reservations_archive (id, restaurant_id, customer_name, phone_number, email, reservation_date_time, " +
+            "number_of_guests, status, notification_channel, preferred_language, reminder_sent, created_at, updated_at, version, archived_at) " +
+            "SELECT id, restaurant_id, customer_name, phone_number, email, reservation_date_time, number_of_guests, status, " +
+            "notification_channel, preferred_language, reminder_sent, created_at, updated_at, version, :archivedAt " +
+            "FROM reservations WHERE id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Delete reservations by ID without loading them.
+     *
+     * @param ids the reservation IDs
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Seats booked at one restaurant and reservation date/time.
+     */
+    interface BookedSeats {
+
+        Long getRestaurantId();
+
+        LocalDateTime getReservationDateTime();
+
+        Long getSeats();
+    }
 }
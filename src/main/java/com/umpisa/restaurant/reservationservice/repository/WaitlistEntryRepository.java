@@ -0,0 +1,86 @@
+package com.umpisa.restaurant.reservationservice.repository;
+
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for WaitlistEntry entity.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Find the entries in a status for slots from a given date/time onwards,
+     * for rebuilding the in-memory waitlist queues.
+     *
+     * @param status the entry status
+     * @param from   the earliest reservation date/time to include
+     * @return the matching entries
+     */
+    @Transactional(readOnly = true)
+    List<WaitlistEntry> findByStatusAndReservationDateTimeGreaterThanEqual(WaitlistStatus status, LocalDateTime from);
+
+    /**
+     * Change the status of an entry, but only if it is still in the expected status.
+     *
+     * @param id   the entry ID
+     * @param from the expected current status
+     * @param to   the new status
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = :to WHERE w.id = :id AND w.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") WaitlistStatus from, @Param("to") WaitlistStatus to);
+
+    /**
+     * Claim a waiting entry for promotion, unless it has left the waitlist meanwhile.
+     * Runs in the caller's transaction, so the claim is undone if the reservation cannot be created.
+     *
+     * @param id         the entry ID
+     * @param promotedAt the promotion timestamp
+     * @param waiting    the waiting status
+     * @param promoted   the promoted status
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :promoted, w.promotedAt = :promotedAt WHERE w.id = :id AND w.status = :waiting")
+    int claimForPromotion(@Param("id") Long id,
+                          @Param("promotedAt") LocalDateTime promotedAt,
+                          @Param("waiting") WaitlistStatus waiting,
+                          @Param("promoted") WaitlistStatus promoted);
+
+    /**
+     * Record the reservation a promoted entry was turned into.
+     *
+     * @param id            the entry ID
+     * @param reservationId the reservation ID
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.reservationId = :reservationId WHERE w.id = :id")
+    void setReservationId(@Param("id") Long id, @Param("reservationId") Long reservationId);
+
+    /**
+     * Expire waiting entries whose slot has passed.
+     *
+     * @param cutoff  entries for slots before this date/time are expired
+     * @param waiting the waiting status
+     * @param expired the expired status
+     * @return the number of expired entries
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = :expired WHERE w.status = :waiting AND w.reservationDateTime < :cutoff")
+    int expireBefore(@Param("cutoff") LocalDateTime cutoff,
+                     @Param("waiting") WaitlistStatus waiting,
+                     @Param("expired") WaitlistStatus expired);
+}
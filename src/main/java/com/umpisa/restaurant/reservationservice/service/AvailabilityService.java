@@ -0,0 +1,26 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.dto.response.AvailabilityResponse;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Service interface for table availability queries.
+ */
+public interface AvailabilityService {
+
+    /**
+     * Get the open time slots of a restaurant's day that can seat a party.
+     * When a time is given, only its slot is returned if it is open; otherwise the
+     * nearest open slots are returned, closest first.
+     *
+     * @param restaurantId the restaurant
+     * @param date         the date
+     * @param partySize    the number of guests
+     * @param time         the preferred time, or null for the whole day
+     * @param nearest      how many alternatives to return when the preferred slot is full
+     * @return the open slots
+     */
+    AvailabilityResponse getAvailability(Long restaurantId, LocalDate date, int partySize, LocalTime time, int nearest);
+}
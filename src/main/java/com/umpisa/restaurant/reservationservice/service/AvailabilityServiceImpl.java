@@ -0,0 +1,126 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.AvailabilityResponse;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of AvailabilityService.
+ * Answers from a snapshot of the per-slot counters of {@link ReservationCapacityEngine},
+ * which are kept current by every booking, so no query touches the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final int MAX_NEAREST = 20;
+
+    private final ReservationCapacityEngine capacityEngine;
+    private final ReservationCapacityProperties capacityProperties;
+
+    @Override
+    public AvailabilityResponse getAvailability(Long restaurantId, LocalDate date, int partySize, LocalTime time, int nearest) {
+        log.debug("Retrieving availability at restaurant {} for {} guests on {} (time {})", restaurantId, partySize, date, time);
+
+        if (restaurantId == null || restaurantId < 1) {
+            throw new InvalidReservationException("Restaurant ID must be positive");
+        }
+        if (partySize < 1) {
+            throw new InvalidReservationException("Party size must be at least 1");
+        }
+        if (nearest < 1 || nearest > MAX_NEAREST) {
+            throw new InvalidReservationException("Nearest must be between 1 and " + MAX_NEAREST);
+        }
+
+        int slotMinutes = capacityEngine.getSlotMinutes();
+        OpenSlots openSlots = new OpenSlots(date, partySize, slotMinutes, capacityEngine.remainingSeats(restaurantId, date),
+                                            firstSlot(slotMinutes), endSlot(slotMinutes), LocalDateTime.now());
+
+        AvailabilityResponse.AvailabilityResponseBuilder response = AvailabilityResponse.builder()
+                                                                                        .restaurantId(restaurantId)
+                                                                                        .date(date)
+                                                                                        .partySize(partySize);
+
+        if (time == null) {
+            List<AvailabilityResponse.SlotAvailability> slots = new ArrayList<>();
+            for (int slot = 0; slot < openSlots.remaining.length; slot++) {
+                if (openSlots.isOpen(slot)) {
+                    slots.add(openSlots.toSlotAvailability(slot));
+                }
+            }
+            return response.slots(slots).build();
+        }
+
+        int requested = (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+        response.requestedSlot(openSlots.startOf(requested));
+
+        if (openSlots.isOpen(requested)) {
+            return response.requestedSlotAvailable(true)
+                           .slots(List.of(openSlots.toSlotAvailability(requested)))
+                           .build();
+        }
+
+        // Walk outwards from the requested slot, earlier slot first on equal distance
+        List<AvailabilityResponse.SlotAvailability> alternatives = new ArrayList<>(nearest);
+        for (int distance = 1; distance < openSlots.remaining.length && alternatives.size() < nearest; distance++) {
+            if (openSlots.isOpen(requested - distance)) {
+                alternatives.add(openSlots.toSlotAvailability(requested - distance));
+            }
+            if (alternatives.size() < nearest && openSlots.isOpen(requested + distance)) {
+                alternatives.add(openSlots.toSlotAvailability(requested + distance));
+            }
+        }
+
+        return response.requestedSlotAvailable(false)
+                       .slots(alternatives)
+                       .build();
+    }
+
+    /**
+     * Index of the first slot starting at or after the opening time.
+     */
+    private int firstSlot(int slotMinutes) {
+        int openingMinute = capacityProperties.getOpeningTime().toSecondOfDay() / 60;
+        return (openingMinute + slotMinutes - 1) / slotMinutes;
+    }
+
+    /**
+     * Index after the last slot starting before the closing time.
+     */
+    private int endSlot(int slotMinutes) {
+        int closingMinute = capacityProperties.getClosingTime().toSecondOfDay() / 60;
+        return (closingMinute + slotMinutes - 1) / slotMinutes;
+    }
+
+    /**
+     * The slots of one day that can seat a party: within opening hours, not yet started,
+     * and with enough seats left.
+     */
+    private record OpenSlots(LocalDate date, int partySize, int slotMinutes, int[] remaining,
+                             int firstSlot, int endSlot, LocalDateTime now) {
+
+        boolean isOpen(int slot) {
+            return slot >= firstSlot && slot < endSlot && slot < remaining.length
+                    && remaining[slot] >= partySize
+                    && startOf(slot).isAfter(now);
+        }
+
+        LocalDateTime startOf(int slot) {
+            return date.atStartOfDay().plusMinutes((long) slot * slotMinutes);
+        }
+
+        AvailabilityResponse.SlotAvailability toSlotAvailability(int slot) {
+            return new AvailabilityResponse.SlotAvailability(startOf(slot), remaining[slot]);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationIdempotencyProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.IdempotencyRecord;
+import com.umpisa.restaurant.reservationservice.repository.IdempotencyRecordRepository;
+import com.umpisa.restaurant.shared.exceptions.IdempotencyKeyMismatchException;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier store of the responses to create-reservation requests sent with an {@code Idempotency-Key}.
+ * <p>
+ * Recent responses are kept in a bounded Caffeine cache in front of the {@code idempotency_keys} table,
+ * which keeps every response until its TTL passes. A retry is answered from either tier without calling
+ * {@link ReservationService}, and a retry with a different body is rejected.
+ * <p>
+ * Duplicates arriving while the first request is still running wait for its outcome instead of racing
+ * it. Across instances the table's primary key does the same: the key is inserted before the reservation,
+ * so a concurrent insert of the key blocks until the first request's claim commits.
+ * <p>
+ * Records live in shard 0 whatever the restaurant, so a key reused for a restaurant in another shard
+ * is still recognised. For restaurants in shard 0 the key is claimed in the reservation's transaction.
+ * For other restaurants it is claimed in its own transaction first and given the response once the
+ * reservation commits; a duplicate arriving in between gets 409 Conflict, and a request interrupted
+ * by a crash in between leaves its key in that state until the TTL passes, since its reservation may
+ * have been created.
+ * <p>
+ * Metrics: {@code reservations.idempotency} cache statistics and the {@code reservations.idempotency.replayed} counter.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The shard holding every idempotency record.
+     */
+    static final int IDEMPOTENCY_SHARD = 0;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReservationIdempotencyProperties properties;
+    private final Cache<String, StoredResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter replayed;
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ShardRouter shardRouter,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            ReservationIdempotencyProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(properties.getMaximumSize())
+                             .expireAfterWrite(properties.getTtl())
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reservations.idempotency");
+        this.replayed = Counter.builder("reservations.idempotency.replayed")
+                               .description("Create-reservation retries answered with a stored response")
+                               .register(meterRegistry);
+    }
+
+    /**
+     * The response to a create-reservation request.
+     *
+     * @param response the reservation
+     * @param replayed whether the response was stored by an earlier request with the same key
+     */
+    public record Result(ReservationResponse response, boolean replayed) {
+    }
+
+    private record StoredResponse(String requestHash, ReservationResponse response, LocalDateTime expiresAt) {
+
+        boolean isExpired(LocalDateTime now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+
+    private record Outcome(StoredResponse stored, boolean replayed) {
+    }
+
+    /**
+     * Create a reservation at most once per idempotency key.
+     *
+     * @param key     the client's idempotency key
+     * @param request the create-reservation request
+     * @param action  creates the reservation; only called if the key has no stored response
+     * @return the new or the stored response
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     * @throws ReservationConflictException    if the first request with the key is still running after the wait timeout
+     */
+    public Result execute(String key, CreateReservationRequest request, Supplier<ReservationResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidReservationException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        StoredResponse cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired(LocalDateTime.now())) {
+            return replay(key, cached, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> running = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> first = inFlight.putIfAbsent(key, running);
+        if (first != null) {
+            log.debug("Waiting for the in-flight request with Idempotency-Key {}", key);
+            return replay(key, await(key, first), requestHash);
+        }
+
+        try {
+            Outcome outcome = runOnce(key, requestHash, shardRouter.shardFor(request.getRestaurantId()), action);
+            cache.put(key, outcome.stored());
+            running.complete(outcome.stored());
+            return outcome.replayed()
+                    ? replay(key, outcome.stored(), requestHash)
+                    : new Result(outcome.stored().response(), false);
+        } catch (RuntimeException e) {
+            // Waiting duplicates share the outcome of the first request
+            running.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, running);
+        }
+    }
+
+    /**
+     * Scheduled task that deletes expired records.
+     */
+    @Scheduled(cron = "${reservation.idempotency.purge-cron:0 30 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = inIdempotencyShard(() -> idempotencyRecordRepository.deleteExpired(now));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Outcome runOnce(String key, String requestHash, int shard, Supplier<ReservationResponse> action) {
+        try {
+            return tryRunOnce(key, requestHash, shard, action);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the key first and has committed its claim by now; look again
+            log.debug("Idempotency-Key {} was claimed concurrently: {}", key, e.getMessage());
+            return tryRunOnce(key, requestHash, shard, action);
+        }
+    }
+
+    private Outcome tryRunOnce(String key, String requestHash, int shard, Supplier<ReservationResponse> action) {
+        if (shard == IDEMPOTENCY_SHARD) {
+            return inIdempotencyShard(() -> transactionTemplate.execute(status -> {
+                IdempotencyRecord claim = claim(key, requestHash);
+                return claim.getResponseBody() != null ? stored(claim) : complete(claim, action.get());
+            }));
+        }
+
+        IdempotencyRecord claim = inIdempotencyShard(() -> transactionTemplate.execute(status -> claim(key, requestHash)));
+        if (claim.getResponseBody() != null) {
+            return stored(claim);
+        }
+
+        ReservationResponse response;
+        try {
+            response = shardRouter.inShard(shard, () -> transactionTemplate.execute(status -> action.get()));
+        } catch (RuntimeException e) {
+            release(claim);
+            throw e;
+        }
+        return inIdempotencyShard(() -> transactionTemplate.execute(status -> {
+            Outcome outcome = complete(claim, response);
+            idempotencyRecordRepository.save(claim);
+            return outcome;
+        }));
+    }
+
+    /**
+     * Return the unexpired record stored for the key, or insert a claim on the key in the current transaction.
+     *
+     * @return a record with a response, or the new claim without one
+     * @throws ReservationConflictException if the key is claimed by a request that has no response yet
+     */
+    private IdempotencyRecord claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+        if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+            IdempotencyRecord stored = existing.get();
+            if (stored.getResponseBody() == null) {
+                if (!stored.getRequestHash().equals(requestHash)) {
+                    throw mismatch(key);
+                }
+                throw new ReservationConflictException("A request with Idempotency-Key " + key + " is still in progress");
+            }
+            return stored;
+        }
+
+        // An expired record not purged yet is reused
+        IdempotencyRecord claim = existing.orElseGet(() -> IdempotencyRecord.builder().idempotencyKey(key).build());
+        claim.setRequestHash(requestHash);
+        claim.setResponseBody(null);
+        claim.setReservationId(null);
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(now.plus(properties.getTtl()));
+        return idempotencyRecordRepository.saveAndFlush(claim);
+    }
+
+    private Outcome stored(IdempotencyRecord stored) {
+        return new Outcome(new StoredResponse(stored.getRequestHash(), read(stored.getResponseBody()), stored.getExpiresAt()), true);
+    }
+
+    private Outcome complete(IdempotencyRecord claim, ReservationResponse response) {
+        claim.setResponseBody(write(response));
+        claim.setReservationId(response.getId());
+        return new Outcome(new StoredResponse(claim.getRequestHash(), response, claim.getExpiresAt()), false);
+    }
+
+    /**
+     * Delete a claim whose reservation was not created, so a retry can create it.
+     */
+    private void release(IdempotencyRecord claim) {
+        try {
+            inIdempotencyShard(() -> transactionTemplate.execute(status -> {
+                idempotencyRecordRepository.delete(claim);
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release Idempotency-Key {}; it stays claimed until it expires: {}",
+                     claim.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private <T> T inIdempotencyShard(Supplier<T> work) {
+        return shardRouter.inShard(IDEMPOTENCY_SHARD, work);
+    }
+
+    private static IdempotencyKeyMismatchException mismatch(String key) {
+        return new IdempotencyKeyMismatchException("Idempotency-Key " + key + " was already used for a different request");
+    }
+
+    private Result replay(String key, StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw mismatch(key);
+        }
+        replayed.increment();
+        log.info("Replaying the stored response for Idempotency-Key {}", key);
+        return new Result(stored.response(), true);
+    }
+
+    private StoredResponse await(String key, CompletableFuture<StoredResponse> first) {
+        try {
+            return first.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ReservationConflictException("A request with Idempotency-Key " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationConflictException("A request with Idempotency-Key " + key + " is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String hash(CreateReservationRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint the request", e);
+        }
+    }
+
+    private String write(ReservationResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store the response", e);
+        }
+    }
+
+    private ReservationResponse read(String responseBody) {
+        try {
+            return objectMapper.readValue(responseBody, ReservationResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read the stored response", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationArchiveProperties;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled service that moves reservations older than the configured horizon
+ * from the hot {@code reservations} table into {@code reservations_archive}.
+ * Each chunk is copied and deleted in its own transaction, so a run holds locks
+ * on at most one chunk at a time. Shards are archived one after another.
+ * <p>
+ * Metrics:
+ * <ul>
+ *     <li>{@code reservations.archive.archived} - reservations moved so far</li>
+ *     <li>{@code reservations.archive.lag} - seconds between the horizon and the oldest
+ *     reservation still in the hot table of any shard (0 when the archive is caught up)</li>
+ *     <li>{@code reservations.archive.last.run} - epoch seconds of the last completed run</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ReservationArchiver {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Counter archivedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+
+    public ReservationArchiver(ReservationRepository reservationRepository,
+                               ReservationArchiveProperties archiveProperties,
+                               TransactionTemplate transactionTemplate,
+                               ShardRouter shardRouter,
+                               MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.archivedCounter = Counter.builder("reservations.archive.archived")
+                                      .description("Reservations moved to the archive table")
+                                      .register(meterRegistry);
+        Gauge.builder("reservations.archive.lag", lagSeconds, AtomicLong::get)
+             .description("Seconds between the archive horizon and the oldest unarchived reservation")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+        Gauge.builder("reservations.archive.last.run", lastRunEpochSeconds, AtomicLong::get)
+             .description("Epoch seconds of the last completed archive run")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled task that archives past reservations in bounded chunks.
+     * Runs on the cron expression configured in {@code reservation.archive.cron} (hourly by default).
+     */
+    @Scheduled(cron = "${reservation.archive.cron:0 0 * * * *}")
+    public void archivePastReservations() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveProperties.getHorizon());
+        int total = shardRouter.onEachShard(shard -> archiveShard(cutoff)).stream()
+                               .mapToInt(Integer::intValue)
+                               .sum();
+
+        updateLag(cutoff);
+        lastRunEpochSeconds.set(System.currentTimeMillis() / 1000);
+
+        if (total > 0) {
+            log.info("Archived {} reservation(s) scheduled before {}", total, cutoff);
+        } else {
+            log.debug("No reservations to archive before {}", cutoff);
+        }
+    }
+
+    /**
+     * Archive the current shard, up to the configured number of chunks.
+     *
+     * @param cutoff reservations before this date/time are archived
+     * @return the number of archived reservations
+     */
+    private int archiveShard(LocalDateTime cutoff) {
+        int total = 0;
+        for (int chunk = 0; chunk < archiveProperties.getMaxChunksPerRun(); chunk++) {
+            int archived = archiveChunk(cutoff);
+            total += archived;
+            if (archived < archiveProperties.getChunkSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Move one chunk of reservations scheduled before the cutoff into the archive.
+     *
+     * @param cutoff reservations before this date/time are archived
+     * @return the number of archived reservations
+     */
+    int archiveChunk(LocalDateTime cutoff) {
+        Integer archived = transactionTemplate.execute(status -> {
+            List<Long> ids = reservationRepository.findIdsScheduledBefore(
+                    cutoff, PageRequest.ofSize(archiveProperties.getChunkSize()));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            reservationRepository.copyToArchive(ids, LocalDateTime.now());
+            return reservationRepository.deleteAllByIdIn(ids);
+        });
+
+        int count = archived == null ? 0 : archived;
+        archivedCounter.increment(count);
+        return count;
+    }
+
+    private void updateLag(LocalDateTime cutoff) {
+        long lag = shardRouter.onEachShard(shard -> reservationRepository.findOldestReservationDateTime())
+                              .stream()
+                              .flatMap(Optional::stream)
+                              .filter(oldest -> oldest.isBefore(cutoff))
+                              .mapToLong(oldest -> Duration.between(oldest, cutoff).toSeconds())
+                              .max()
+                              .orElse(0L);
+        lagSeconds.set(lag);
+    }
+}
@@ -0,0 +1,73 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.umpisa.restaurant.reservationservice.model.ReservationCacheProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Bounded, size- and TTL-evicting cache of reservations by ID.
+ * Hit, miss and eviction counters are published under the {@code reservations.by-id} cache name.
+ * <p>
+ * Entries are invalidated after the transaction that updated or cancelled the reservation commits.
+ * Loads run inside Caffeine's per-key atomic compute, and invalidation of a key waits for an
+ * in-flight load of that key, so a value read before the commit can never outlive the invalidation.
+ */
+@Slf4j
+@Component
+public class ReservationByIdCache {
+
+    private final Cache<Long, ReservationResponse> cache;
+
+    public ReservationByIdCache(ReservationCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        ReservationCacheProperties.CacheConfig config = cacheProperties.getById();
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(config.getMaximumSize())
+                             .expireAfterWrite(config.getExpireAfterWrite())
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reservations.by-id");
+    }
+
+    /**
+     * Return the cached reservation, loading it on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     *
+     * @param id     the reservation ID
+     * @param loader loads the reservation on a miss
+     * @return the reservation
+     */
+    public ReservationResponse get(Long id, Function<Long, ReservationResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Remove a reservation from the cache.
+     *
+     * @param id the reservation ID
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationUpdated(ReservationUpdatedEvent event) {
+        log.debug("Invalidating cached reservation ID: {} after update", event.getReservationId());
+        invalidate(event.getReservationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCancelled(ReservationCancelledEvent event) {
+        log.debug("Invalidating cached reservation ID: {} after cancellation", event.getReservationId());
+        invalidate(event.getReservationId());
+    }
+}
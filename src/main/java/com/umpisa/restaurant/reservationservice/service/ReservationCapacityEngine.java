@@ -0,0 +1,275 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ReadYourWritesContext;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory availability engine holding the booked seats of every restaurant and time slot.
+ * <p>
+ * Each day of a restaurant is an {@link AtomicIntegerArray} with one counter per slot, so every
+ * restaurant has its own {@code seats-per-slot} and bookings at one never use up seats at another.
+ * Seats are taken with a compare-and-set loop that never lets a counter exceed the slot capacity,
+ * so concurrent bookings of the same slot cannot overbook it and bookings of different slots never contend.
+ * Seats are taken before the reservation row is written and handed back if the transaction
+ * rolls back; cancellations hand them back once the transaction has committed.
+ * <p>
+ * The counters are rebuilt from {@link ReservationRepository} of every shard at startup.
+ */
+@Slf4j
+@Component
+public class ReservationCapacityEngine implements SmartInitializingSingleton {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ReservationRepository reservationRepository;
+    private final ShardRouter shardRouter;
+    private final int seatsPerSlot;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final ConcurrentMap<RestaurantDay, AtomicIntegerArray> bookedSeats = new ConcurrentHashMap<>();
+
+    public ReservationCapacityEngine(ReservationRepository reservationRepository,
+                                     ShardRouter shardRouter,
+                                     ReservationCapacityProperties capacityProperties) {
+        this.reservationRepository = reservationRepository;
+        this.shardRouter = shardRouter;
+        this.seatsPerSlot = capacityProperties.getSeatsPerSlot();
+
+        Duration slotLength = capacityProperties.getSlotLength();
+        if (slotLength.toMinutes() < 1 || MINUTES_PER_DAY % slotLength.toMinutes() != 0) {
+            throw new IllegalStateException("reservation.capacity.slot-length must divide a day into whole minutes, got " + slotLength);
+        }
+        this.slotMinutes = (int) slotLength.toMinutes();
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+    }
+
+    /**
+     * The counters of one restaurant on one day.
+     */
+    private record RestaurantDay(Long restaurantId, LocalDate date) {
+    }
+
+    /**
+     * Take seats in the slot of a reservation date/time for the current transaction.
+     * The seats are handed back automatically if the transaction does not commit.
+     *
+     * @param restaurantId        the restaurant
+     * @param reservationDateTime the reservation date/time
+     * @param seats               the number of seats
+     * @throws ReservationConflictException if the slot does not have enough seats left
+     */
+    public void reserve(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        if (!tryReserve(restaurantId, reservationDateTime, seats)) {
+            throw new ReservationConflictException(String.format(
+                    "Not enough seats left at %s for %d guests", slotStart(reservationDateTime), seats));
+        }
+        releaseUnlessCommitted(restaurantId, reservationDateTime, seats);
+    }
+
+    /**
+     * Move a booking of a restaurant from one slot and party size to another for the current transaction.
+     * Within the same slot only the difference is taken or handed back.
+     *
+     * @throws ReservationConflictException if the new slot does not have enough seats left
+     */
+    public void reserveChange(Long restaurantId, LocalDateTime oldDateTime, int oldSeats, LocalDateTime newDateTime, int newSeats) {
+        if (slotStart(oldDateTime).equals(slotStart(newDateTime))) {
+            int difference = newSeats - oldSeats;
+            if (difference > 0) {
+                reserve(restaurantId, newDateTime, difference);
+            } else if (difference < 0) {
+                releaseAfterCommit(restaurantId, oldDateTime, -difference);
+            }
+            return;
+        }
+
+        reserve(restaurantId, newDateTime, newSeats);
+        releaseAfterCommit(restaurantId, oldDateTime, oldSeats);
+    }
+
+    /**
+     * Hand seats back once the current transaction has committed,
+     * or right away when no transaction is active.
+     * The seats are back before any after-commit event listener runs, so the waitlist sees them.
+     */
+    public void releaseAfterCommit(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(restaurantId, reservationDateTime, seats);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                release(restaurantId, reservationDateTime, seats);
+            }
+        });
+    }
+
+    /**
+     * Take seats in the slot of a reservation date/time, outside of any transaction handling.
+     *
+     * @return true if the seats were taken, false if the slot does not have enough seats left
+     */
+    public boolean tryReserve(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        if (seats > seatsPerSlot) {
+            return false;
+        }
+
+        AtomicIntegerArray day = bookedSeats.computeIfAbsent(new RestaurantDay(restaurantId, reservationDateTime.toLocalDate()),
+                                                             key -> new AtomicIntegerArray(slotsPerDay));
+        int slot = slotIndex(reservationDateTime);
+        while (true) {
+            int booked = day.get(slot);
+            if (booked + seats > seatsPerSlot) {
+                return false;
+            }
+            if (day.compareAndSet(slot, booked, booked + seats)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hand seats back to the slot of a reservation date/time right away.
+     */
+    public void release(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        AtomicIntegerArray day = bookedSeats.get(new RestaurantDay(restaurantId, reservationDateTime.toLocalDate()));
+        if (day == null) {
+            return;
+        }
+
+        int slot = slotIndex(reservationDateTime);
+        while (true) {
+            int booked = day.get(slot);
+            if (day.compareAndSet(slot, booked, Math.max(0, booked - seats))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return the seats booked at a restaurant in the slot of a reservation date/time.
+     */
+    public int bookedSeats(Long restaurantId, LocalDateTime reservationDateTime) {
+        AtomicIntegerArray day = bookedSeats.get(new RestaurantDay(restaurantId, reservationDateTime.toLocalDate()));
+        return day == null ? 0 : day.get(slotIndex(reservationDateTime));
+    }
+
+    /**
+     * Return the seats still available at a restaurant in the slot of a reservation date/time.
+     */
+    public int remainingSeats(Long restaurantId, LocalDateTime reservationDateTime) {
+        return Math.max(0, seatsPerSlot - bookedSeats(restaurantId, reservationDateTime));
+    }
+
+    /**
+     * Return a snapshot of the seats still available at a restaurant in every slot of a day, indexed by slot.
+     * Reading the counters never touches the database.
+     */
+    public int[] remainingSeats(Long restaurantId, LocalDate date) {
+        int[] remaining = new int[slotsPerDay];
+        AtomicIntegerArray day = bookedSeats.get(new RestaurantDay(restaurantId, date));
+        for (int slot = 0; slot < slotsPerDay; slot++) {
+            int booked = day == null ? 0 : day.get(slot);
+            remaining[slot] = Math.max(0, seatsPerSlot - booked);
+        }
+        return remaining;
+    }
+
+    /**
+     * Return the length of a time slot in minutes.
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Return the start of the slot a reservation date/time falls into.
+     */
+    public LocalDateTime slotStart(LocalDateTime reservationDateTime) {
+        return reservationDateTime.toLocalDate().atStartOfDay().plusMinutes((long) slotIndex(reservationDateTime) * slotMinutes);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reload the booked seats of the current and future slots from the database.
+     * Only safe while no bookings are in flight, i.e. at startup. Reads the primary, since counters
+     * started from a lagging replica would allow overbooking.
+     */
+    public void rebuild() {
+        LocalDateTime from = slotStart(LocalDateTime.now());
+        Map<RestaurantDay, AtomicIntegerArray> rebuilt = new HashMap<>();
+
+        List<List<ReservationRepository.BookedSeats>> perShard = ReadYourWritesContext.onPrimary(() ->
+                shardRouter.onEachShard(shard -> reservationRepository.findBookedSeatsFrom(ReservationStatus.CONFIRMED, from)));
+        for (List<ReservationRepository.BookedSeats> shardSeats : perShard) {
+            for (ReservationRepository.BookedSeats booked : shardSeats) {
+                LocalDateTime reservationDateTime = booked.getReservationDateTime();
+                rebuilt.computeIfAbsent(new RestaurantDay(booked.getRestaurantId(), reservationDateTime.toLocalDate()),
+                                        key -> new AtomicIntegerArray(slotsPerDay))
+                       .addAndGet(slotIndex(reservationDateTime), booked.getSeats().intValue());
+            }
+        }
+
+        bookedSeats.clear();
+        bookedSeats.putAll(rebuilt);
+        log.info("Rebuilt capacity counters for {} restaurant day(s) from {}", rebuilt.size(), from);
+    }
+
+    /**
+     * Drop the counters of days that have passed.
+     */
+    @Scheduled(cron = "${reservation.capacity.evict-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        bookedSeats.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private void releaseUnlessCommitted(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(restaurantId, reservationDateTime, seats);
+                }
+            }
+        });
+    }
+
+    private int slotIndex(LocalDateTime reservationDateTime) {
+        return (reservationDateTime.getHour() * 60 + reservationDateTime.getMinute()) / slotMinutes;
+    }
+}
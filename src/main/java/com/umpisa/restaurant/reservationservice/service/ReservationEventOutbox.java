@@ -0,0 +1,199 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.DispatchBacklog;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationOutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.events.CompletedEventPublications;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Replays and compacts the event publication registry, the outbox that makes reservation events durable.
+ * <p>
+ * Spring Modulith writes a publication for every transactional listener of an event in the same
+ * transaction as the reservation change, and marks it completed once the listener has run. Publications
+ * left incomplete, because the listener failed or the JVM died first, are resubmitted on startup and on
+ * a schedule. Each shard's incomplete publications are loaded once per run and replayed in one pass, with
+ * up to {@code parallelism} shards at a time. Completed publications are deleted after the retention period.
+ * <p>
+ * A publication is only resubmitted once its listener can no longer be waiting in the notification dispatch
+ * queue: {@code resubmit-after} past its publication, or past this instance's last resubmission of it, must
+ * precede the oldest task still queued or running in {@link DispatchBacklog}. So a backlog that takes longer
+ * than {@code resubmit-after} to drain delays resubmission instead of sending notifications twice.
+ * <p>
+ * Metrics: {@code reservations.outbox.resubmitted} counter of resubmitted publications.
+ */
+@Slf4j
+@Service
+public class ReservationEventOutbox {
+
+    private final IncompleteEventPublications incompleteEventPublications;
+    private final CompletedEventPublications completedEventPublications;
+    private final ShardRouter shardRouter;
+    private final DispatchBacklog dispatchBacklog;
+    private final ReservationOutboxProperties properties;
+    private final Counter resubmittedCounter;
+    private final AtomicBoolean resubmitting = new AtomicBoolean();
+    /**
+     * When this instance last resubmitted each publication that was still incomplete at the last run.
+     */
+    private final Map<UUID, Instant> resubmittedAt = new ConcurrentHashMap<>();
+
+    public ReservationEventOutbox(IncompleteEventPublications incompleteEventPublications,
+                                  CompletedEventPublications completedEventPublications,
+                                  ShardRouter shardRouter,
+                                  DispatchBacklog dispatchBacklog,
+                                  ReservationOutboxProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.incompleteEventPublications = incompleteEventPublications;
+        this.completedEventPublications = completedEventPublications;
+        this.shardRouter = shardRouter;
+        this.dispatchBacklog = dispatchBacklog;
+        this.properties = properties;
+        this.resubmittedCounter = Counter.builder("reservations.outbox.resubmitted")
+                                         .description("Incomplete event publications handed to their listener again")
+                                         .register(meterRegistry);
+    }
+
+    /**
+     * Replay publications left incomplete by the previous run of the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resubmitOnStartup() {
+        if (properties.isResubmitOnStartup()) {
+            resubmitIncomplete();
+        }
+    }
+
+    /**
+     * Scheduled task that resubmits publications still incomplete after {@code reservation.outbox.resubmit-after}.
+     * Runs on the cron expression configured in {@code reservation.outbox.resubmit-cron} (every minute by default).
+     * A run is skipped while the previous one is still going.
+     */
+    @Scheduled(cron = "${reservation.outbox.resubmit-cron:0 * * * * *}")
+    public void resubmitIncomplete() {
+        if (!resubmitting.compareAndSet(false, true)) {
+            log.debug("Skipping event publication resubmission; the previous run is still going");
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant oldestPending = dispatchBacklog.oldestSubmission();
+        Instant drainedBefore = oldestPending == null || oldestPending.isAfter(now) ? now : oldestPending;
+        Set<UUID> incomplete = ConcurrentHashMap.newKeySet();
+        AtomicInteger resubmitted = new AtomicInteger();
+        Predicate<EventPublication> due = due(now, drainedBefore, properties.getResubmitAfter(), resubmittedAt,
+                                              incomplete, resubmitted);
+
+        int shards = shardRouter.getShardCount();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(properties.getParallelism(), shards)),
+                                                                runnable -> {
+                                                                    Thread thread = new Thread(runnable, "outbox-resubmit");
+                                                                    thread.setDaemon(true);
+                                                                    return thread;
+                                                                });
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++) {
+                int target = shard;
+                runs.add(executor.submit(() -> shardRouter.runInShard(target, () ->
+                        incompleteEventPublications.resubmitIncompletePublications(due))));
+            }
+            boolean complete = true;
+            for (Future<?> run : runs) {
+                complete &= await(run);
+            }
+            if (complete) {
+                // Publications no longer incomplete have completed and need no record
+                resubmittedAt.keySet().retainAll(incomplete);
+            }
+        } finally {
+            executor.shutdownNow();
+            resubmitting.set(false);
+        }
+
+        if (resubmitted.get() > 0) {
+            resubmittedCounter.increment(resubmitted.get());
+            log.info("Resubmitted {} incomplete event publications", resubmitted.get());
+        }
+    }
+
+    /**
+     * Scheduled task that deletes completed publications older than {@code reservation.outbox.retention}
+     * from every shard. Runs on the cron expression configured in {@code reservation.outbox.compact-cron}
+     * (hourly by default).
+     */
+    @Scheduled(cron = "${reservation.outbox.compact-cron:0 45 * * * *}")
+    public void compactCompleted() {
+        shardRouter.forEachShard(shard -> completedEventPublications.deletePublicationsOlderThan(properties.getRetention()));
+        log.debug("Deleted completed event publications older than {}", properties.getRetention());
+    }
+
+    /**
+     * Select the publications whose listener was dispatched before everything still in the dispatch queue,
+     * recording each incomplete publication seen and the resubmission of each selected one.
+     *
+     * @param now            the time of this run
+     * @param drainedBefore  everything dispatched before this has left the dispatch queue
+     * @param resubmitAfter  how long after publication or resubmission the listener may be dispatched
+     * @param resubmittedAt  when each publication was last resubmitted; updated for the selected ones
+     * @param incomplete     collects the identifiers of the incomplete publications seen
+     * @param selected       counts the selected publications
+     */
+    static Predicate<EventPublication> due(Instant now, Instant drainedBefore, Duration resubmitAfter,
+                                           Map<UUID, Instant> resubmittedAt, Set<UUID> incomplete, AtomicInteger selected) {
+        return publication -> {
+            UUID id = publication.getIdentifier();
+            incomplete.add(id);
+            Instant dispatchedBy = resubmittedAt.getOrDefault(id, publication.getPublicationDate()).plus(resubmitAfter);
+            boolean due = dispatchedBy.isBefore(drainedBefore);
+            if (due) {
+                resubmittedAt.put(id, now);
+                selected.incrementAndGet();
+            }
+            return due;
+        };
+    }
+
+    /**
+     * Wait for a shard's run.
+     *
+     * @return false if it failed
+     */
+    private static boolean await(Future<?> run) {
+        try {
+            run.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // The other shards still run; the failed ones are retried on the next run
+            log.error("Resubmitting event publications failed", e.getCause());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.dto.response.BulkImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk reservation imports.
+ */
+public interface ReservationImportService {
+
+    /**
+     * Import reservations from a newline-delimited JSON stream.
+     * Each line holds one create-reservation request; the stream is read incrementally
+     * and valid lines are written in fixed-size transactional batches.
+     *
+     * @param ndjson the NDJSON input stream
+     * @return the import summary with per-line errors
+     * @throws IOException if the stream cannot be read
+     */
+    BulkImportResponse importReservations(InputStream ndjson) throws IOException;
+}
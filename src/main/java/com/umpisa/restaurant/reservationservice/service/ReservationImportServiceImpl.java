@@ -0,0 +1,217 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umpisa.restaurant.config.ShardIdGenerator;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
+import com.umpisa.restaurant.reservationservice.model.ReservationImportProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.BulkImportResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationsImportedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ReservationImportService.
+ * Streams the upload line by line so memory use is bounded by the batch size,
+ * not by the size of the upload. Lines are batched per shard, and each batch is
+ * written in a transaction on its own shard.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationImportServiceImpl implements ReservationImportService {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final ReservationImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationCapacityEngine capacityEngine;
+    private final ShardRouter shardRouter;
+    private final ShardIdGenerator shardIdGenerator;
+
+    @Override
+    public BulkImportResponse importReservations(InputStream ndjson) throws IOException {
+        ImportResult result = new ImportResult(importProperties.getMaxReportedErrors());
+        int batchSize = importProperties.getBatchSize();
+        List<ShardBatch> batches = new ArrayList<>(shardRouter.getShardCount());
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            batches.add(new ShardBatch(shard, batchSize));
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.totalLines++;
+
+                Reservation reservation = parseLine(line, lineNumber, result);
+                if (reservation == null) {
+                    continue;
+                }
+
+                ShardBatch batch = batches.get(ShardIdGenerator.shardOf(reservation.getId()));
+                batch.reservations.add(reservation);
+                batch.lineNumbers.add(lineNumber);
+                if (batch.reservations.size() == batchSize) {
+                    writeBatch(batch, result);
+                }
+            }
+        }
+
+        for (ShardBatch batch : batches) {
+            if (!batch.reservations.isEmpty()) {
+                writeBatch(batch, result);
+            }
+        }
+
+        log.info("Bulk import finished: {} imported, {} failed", result.importedCount, result.failedCount);
+
+        if (result.importedCount > 0) {
+            eventPublisher.publishEvent(ReservationsImportedEvent.builder()
+                                                                 .importedCount(result.importedCount)
+                                                                 .failedCount(result.failedCount)
+                                                                 .completedAt(LocalDateTime.now())
+                                                                 .build());
+        }
+
+        return BulkImportResponse.builder()
+                                 .totalLines(result.totalLines)
+                                 .importedCount(result.importedCount)
+                                 .failedCount(result.failedCount)
+                                 .errors(result.errors)
+                                 .errorsTruncated(result.failedCount > result.errors.size())
+                                 .build();
+    }
+
+    /**
+     * Parse and validate a single NDJSON line.
+     *
+     * @return the reservation entity, or null if the line was rejected
+     */
+    private Reservation parseLine(String line, long lineNumber, ImportResult result) {
+        CreateReservationRequest request;
+        try {
+            request = objectMapper.readValue(line, CreateReservationRequest.class);
+        } catch (JsonProcessingException e) {
+            result.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateReservationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            result.fail(lineNumber, violations.stream()
+                                              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                              .sorted()
+                                              .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        if (!capacityEngine.tryReserve(request.getRestaurantId(), request.getReservationDateTime(), request.getNumberOfGuests())) {
+            result.fail(lineNumber, "Not enough seats left at " + capacityEngine.slotStart(request.getReservationDateTime()));
+            return null;
+        }
+
+        int shard = shardRouter.shardFor(request.getRestaurantId());
+        Reservation reservation = reservationMapper.toEntity(request);
+        reservation.setId(shardIdGenerator.nextId(shard));
+        return reservation;
+    }
+
+    /**
+     * Write one batch in its own transaction and detach the saved entities afterwards,
+     * so the persistence context never holds more than one batch.
+     * If the batch fails, every line in it is reported with the failure reason
+     * and the seats taken for it are handed back.
+     */
+    private void writeBatch(ShardBatch shardBatch, ImportResult result) {
+        List<Reservation> batch = shardBatch.reservations;
+        List<Long> lineNumbers = shardBatch.lineNumbers;
+        try {
+            shardRouter.runInShard(shardBatch.shard, () -> transactionTemplate.executeWithoutResult(status -> {
+                reservationRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+            }));
+            result.importedCount += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Bulk import batch of {} reservations for shard {} failed: {}", batch.size(), shardBatch.shard, e.getMessage());
+            for (Reservation reservation : batch) {
+                capacityEngine.release(reservation.getRestaurantId(), reservation.getReservationDateTime(), reservation.getNumberOfGuests());
+            }
+            for (Long lineNumber : lineNumbers) {
+                result.fail(lineNumber, "Batch write failed: " + e.getMessage());
+            }
+        } finally {
+            batch.clear();
+            lineNumbers.clear();
+        }
+    }
+
+    /**
+     * The parsed lines waiting to be written to one shard.
+     */
+    private static final class ShardBatch {
+
+        private final int shard;
+        private final List<Reservation> reservations;
+        private final List<Long> lineNumbers;
+
+        private ShardBatch(int shard, int batchSize) {
+            this.shard = shard;
+            this.reservations = new ArrayList<>(batchSize);
+            this.lineNumbers = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Mutable counters for a single import run.
+     */
+    private static final class ImportResult {
+
+        private final int maxReportedErrors;
+        private final List<BulkImportResponse.LineError> errors = new ArrayList<>();
+        private long totalLines;
+        private long importedCount;
+        private long failedCount;
+
+        private ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long lineNumber, String message) {
+            failedCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResponse.LineError(lineNumber, message));
+            }
+        }
+    }
+}
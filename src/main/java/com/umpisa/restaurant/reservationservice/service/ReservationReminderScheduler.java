@@ -1,18 +1,20 @@
 package com.umpisa.restaurant.reservationservice.service;
 
+import com.umpisa.restaurant.config.ShardRouter;
 import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
 import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
 import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
 import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
-import com.umpisa.restaurant.notificationservice.service.NotificationService;
+import com.umpisa.restaurant.notificationservice.service.NotificationDeliveryService;
 import com.umpisa.restaurant.notificationservice.service.NotificationTemplateService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,17 +27,23 @@ import java.util.List;
 public class ReservationReminderScheduler {
 
     private final ReservationRepository reservationRepository;
-    private final NotificationService notificationService;
+    private final NotificationDeliveryService notificationDeliveryService;
     private final NotificationTemplateService notificationTemplateService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public ReservationReminderScheduler(
             ReservationRepository reservationRepository,
-            NotificationService notificationService,
-            NotificationTemplateService notificationTemplateService) {
+            NotificationDeliveryService notificationDeliveryService,
+            NotificationTemplateService notificationTemplateService,
+            ShardRouter shardRouter,
+            TransactionTemplate transactionTemplate) {
         this.reservationRepository = reservationRepository;
-        this.notificationService = notificationService;
+        this.notificationDeliveryService = notificationDeliveryService;
         this.notificationTemplateService = notificationTemplateService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -48,13 +56,23 @@ public class ReservationReminderScheduler {
      * - Every day
      * - Every month
      * - Every day of week
+     * <p>
+     * Each shard is processed in its own transaction.
      */
-    @Transactional
     @Scheduled(cron = "0 */5 * * * *")
     public void sendReservationReminders() {
         log.debug("Running reservation reminder scheduler");
 
         LocalDateTime now = LocalDateTime.now();
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> sendReminders(now)));
+    }
+
+    /**
+     * Sends the reminders due in the current shard.
+     *
+     * @param now the time of this scheduler run
+     */
+    private void sendReminders(LocalDateTime now) {
         LocalDateTime fourHoursFromNow = now.plusHours(4);
         LocalDateTime reminderWindowEnd = fourHoursFromNow.plusMinutes(5);
 
@@ -74,47 +92,64 @@ public class ReservationReminderScheduler {
 
         log.info("Found {} reservation(s) needing reminders", reservationsNeedingReminders.size());
 
+        List<Reservation> reminded = new ArrayList<>();
+        List<NotificationRequest> requests = new ArrayList<>();
         for (Reservation reservation : reservationsNeedingReminders) {
             try {
-                sendReminder(reservation);
-                reservation.setReminderSent(true);
-                reservationRepository.save(reservation);
-
-                log.info("Reminder sent successfully for reservation ID: {}", reservation.getId());
+                requests.add(buildReminder(reservation));
+                reminded.add(reservation);
             } catch (Exception e) {
-                log.error("Failed to send reminder for reservation ID: {}. Error: {}",
+                log.error("Failed to build reminder for reservation ID: {}. Error: {}",
                         reservation.getId(), e.getMessage(), e);
             }
         }
+
+        try {
+            // One burst, so the reminders share SMTP connections and SMS provider requests.
+            // Failed deliveries are retried in the background, so the reminders count as sent
+            notificationDeliveryService.deliverAll(requests);
+        } catch (Exception e) {
+            log.error("Failed to send {} reminder(s). Error: {}", requests.size(), e.getMessage(), e);
+            return;
+        }
+
+        for (Reservation reservation : reminded) {
+            // Flag only; a full-entity save would bump the version and fail a concurrent edit's If-Match
+            reservationRepository.markReminderSent(reservation.getId());
+
+            log.info("Reminder sent successfully for reservation ID: {}", reservation.getId());
+        }
     }
 
     /**
-     * Sends a reminder notification for a specific reservation.
+     * Builds the reminder notification for a specific reservation.
      *
      * @param reservation the reservation to send a reminder for
+     * @return the reminder notification request
      */
-    private void sendReminder(Reservation reservation) {
+    private NotificationRequest buildReminder(Reservation reservation) {
         String message = notificationTemplateService.buildReminderMessage(
                 reservation.getCustomerName(),
                 reservation.getReservationDateTime(),
-                reservation.getNumberOfGuests()
+                reservation.getNumberOfGuests(),
+                reservation.getPreferredLanguage()
         );
 
         String subject = notificationTemplateService.buildReminderSubject(
-                reservation.getReservationDateTime()
+                reservation.getReservationDateTime(),
+                reservation.getPreferredLanguage()
         );
 
         log.debug("Sending reminder for reservation ID: {} to customer: {}",
                 reservation.getId(), reservation.getEmail());
 
-        NotificationRequest request = NotificationRequest.builder()
+        return NotificationRequest.builder()
                 .channel(reservation.getNotificationChannel())
                 .email(reservation.getEmail())
                 .phoneNumber(reservation.getPhoneNumber())
                 .subject(subject)
                 .message(message)
+                .templateId("reminder")
                 .build();
-
-        notificationService.sendNotification(request);
     }
 }
@@ -1,6 +1,7 @@
 package com.umpisa.restaurant.reservationservice.service;
 
 import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationPageResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.request.UpdateReservationRequest;
 
@@ -20,21 +21,32 @@ public interface ReservationService {
      */
     ReservationResponse createReservation(CreateReservationRequest request);
 
+    /**
+     * Create a reservation for a promoted waitlist entry.
+     * The customer is notified with the waitlist promotion message instead of the usual confirmation.
+     *
+     * @param request the reservation details of the waitlist entry
+     * @return the created reservation
+     */
+    ReservationResponse createReservationFromWaitlist(CreateReservationRequest request);
+
     /**
      * Cancel a reservation by ID.
      *
      * @param id the reservation ID
+     * @param expectedVersion the version the client last saw, or null to cancel unconditionally
      */
-    void cancelReservation(Long id);
+    void cancelReservation(Long id, Long expectedVersion);
 
     /**
      * Update an existing reservation.
      *
      * @param id the reservation ID
      * @param request the updated reservation details
+     * @param expectedVersion the version the client last saw, or null to update unconditionally
      * @return the updated reservation
      */
-    ReservationResponse updateReservation(Long id, UpdateReservationRequest request);
+    ReservationResponse updateReservation(Long id, UpdateReservationRequest request, Long expectedVersion);
 
     /**
      * Get all upcoming reservations for a customer.
@@ -44,6 +56,16 @@ public interface ReservationService {
      */
     List<ReservationResponse> getUpcomingReservations(String email);
 
+    /**
+     * Get one page of upcoming reservations for a customer using keyset pagination.
+     *
+     * @param email  the customer's email
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the maximum number of reservations to return
+     * @return the page with a cursor for the next page
+     */
+    ReservationPageResponse getUpcomingReservations(String email, String cursor, int limit);
+
     /**
      * Get a reservation by ID.
      *
@@ -1,26 +1,36 @@
 package com.umpisa.restaurant.reservationservice.service;
 
+import com.umpisa.restaurant.config.ReadYourWritesContext;
+import com.umpisa.restaurant.config.ShardIdGenerator;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.ReservationCursorCodec;
 import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
 import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
 import com.umpisa.restaurant.reservationservice.model.dto.request.UpdateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationPageResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ArchivedReservationRepository;
 import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
 import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.PreconditionFailedException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
 import com.umpisa.restaurant.shared.exceptions.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of ReservationService.
@@ -31,20 +41,53 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReservationServiceImpl implements ReservationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Comparator<ReservationResponse> BY_DATE_TIME =
+            Comparator.comparing(ReservationResponse::getReservationDateTime).thenComparing(ReservationResponse::getId);
+
     private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
     private final ReservationMapper reservationMapper;
+    private final ReservationCursorCodec cursorCodec;
+    private final ReservationByIdCache reservationByIdCache;
+    private final UpcomingReservationsCache upcomingReservationsCache;
+    private final ReservationCapacityEngine capacityEngine;
+    private final SlotLockManager slotLockManager;
+    private final ShardRouter shardRouter;
+    private final ShardIdGenerator shardIdGenerator;
     private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public ReservationResponse createReservation(CreateReservationRequest request) {
+        return create(request, false);
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse createReservationFromWaitlist(CreateReservationRequest request) {
+        return create(request, true);
+    }
+
+    private ReservationResponse create(CreateReservationRequest request, boolean fromWaitlist) {
         log.info("Creating reservation for customer: {}", request.getEmail());
 
         // Additional business validation
         validateReservationDateTime(request.getReservationDateTime());
 
+        // Everything below runs in the restaurant's shard
+        int shard = shardRouter.shardFor(request.getRestaurantId());
+        shardRouter.bindTransaction(shard);
+
+        // Writers of the same slot of this restaurant queue here until this transaction completes
+        slotLockManager.lockForTransaction(request.getRestaurantId(), request.getReservationDateTime());
+
+        // Take the seats first; they are handed back if the insert does not commit
+        capacityEngine.reserve(request.getRestaurantId(), request.getReservationDateTime(), request.getNumberOfGuests());
+
         // Create and save reservation
         Reservation reservation = reservationMapper.toEntity(request);
+        reservation.setId(shardIdGenerator.nextId(shard));
         Reservation savedReservation = reservationRepository.save(reservation);
 
         log.info("Reservation created with ID: {}", savedReservation.getId());
@@ -58,6 +101,8 @@ public class ReservationServiceImpl implements ReservationService {
                                                                .reservationDateTime(savedReservation.getReservationDateTime())
                                                                .numberOfGuests(savedReservation.getNumberOfGuests())
                                                                .notificationChannel(savedReservation.getNotificationChannel())
+                                                               .preferredLanguage(savedReservation.getPreferredLanguage())
+                                                               .fromWaitlist(fromWaitlist)
                                                                .build();
 
         eventPublisher.publishEvent(event);
@@ -66,59 +111,96 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationMapper.toResponse(savedReservation);
     }
 
+    /**
+     * Cancels with a single conditional UPDATE; the affected row count tells whether the
+     * cancellation happened. Only when it did not is the row read to explain why.
+     */
     @Override
     @Transactional
-    public void cancelReservation(Long id) {
+    public void cancelReservation(Long id, Long expectedVersion) {
         log.info("Cancelling reservation with ID: {}", id);
 
-        Reservation reservation = reservationRepository.findById(id)
+        bindTransactionToShardOf(id);
+
+        int updated = reservationRepository.cancelIfNotCancelled(
+                id, expectedVersion, LocalDateTime.now(), ReservationStatus.CANCELLED);
+
+        // Read back the row for the event payload (or for the failure reason)
+        ReservationResponse reservation = reservationRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
 
-        // Validate that reservation is not already cancelled
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            throw new InvalidReservationException("Reservation is already cancelled");
+        if (updated == 0) {
+            if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+                throw new InvalidReservationException("Reservation is already cancelled");
+            }
+            throw versionMismatch(id, expectedVersion, reservation);
         }
 
-        // Update status to cancelled
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        reservationRepository.save(reservation);
+        capacityEngine.releaseAfterCommit(reservation.getRestaurantId(), reservation.getReservationDateTime(), reservation.getNumberOfGuests());
 
         log.info("Reservation with ID: {} has been cancelled", id);
 
         // Publish event for notification service
         ReservationCancelledEvent event = ReservationCancelledEvent.builder()
                                                                    .reservationId(reservation.getId())
+                                                                   .restaurantId(reservation.getRestaurantId())
                                                                    .customerName(reservation.getCustomerName())
                                                                    .email(reservation.getEmail())
                                                                    .phoneNumber(reservation.getPhoneNumber())
+                                                                   .reservationDateTime(reservation.getReservationDateTime())
+                                                                   .numberOfGuests(reservation.getNumberOfGuests())
                                                                    .notificationChannel(reservation.getNotificationChannel())
+                                                                   .preferredLanguage(reservation.getPreferredLanguage())
                                                                    .build();
 
         eventPublisher.publishEvent(event);
         log.debug("Published ReservationCancelledEvent for reservation ID: {}", id);
     }
 
+    /**
+     * Updates with a single conditional UPDATE guarded by the version that was read, so the seats
+     * moved in {@link ReservationCapacityEngine} always match the row that gets changed.
+     * The row is then read back as a projection for the event and response.
+     */
     @Override
     @Transactional
-    public ReservationResponse updateReservation(Long id, UpdateReservationRequest request) {
+    public ReservationResponse updateReservation(Long id, UpdateReservationRequest request, Long expectedVersion) {
         log.info("Updating reservation with ID: {}", id);
 
-        Reservation reservation = reservationRepository.findById(id)
+        // Additional business validation
+        validateReservationDateTime(request.getReservationDateTime());
+
+        bindTransactionToShardOf(id);
+
+        ReservationResponse current = reservationRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
 
-        // Validate that reservation is not cancelled
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+        if (current.getStatus() == ReservationStatus.CANCELLED) {
             throw new InvalidReservationException("Cannot update a cancelled reservation");
         }
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw versionMismatch(id, expectedVersion, current);
+        }
 
-        // Additional business validation
-        validateReservationDateTime(request.getReservationDateTime());
+        // Both slots are locked, in stripe order, until this transaction completes
+        slotLockManager.lockForTransaction(current.getRestaurantId(), current.getReservationDateTime(), request.getReservationDateTime());
+
+        // Take the new seats first; the old ones are handed back once the update commits
+        capacityEngine.reserveChange(current.getRestaurantId(), current.getReservationDateTime(), current.getNumberOfGuests(),
+                                     request.getReservationDateTime(), request.getNumberOfGuests());
 
-        // Update reservation details
-        reservation.setReservationDateTime(request.getReservationDateTime());
-        reservation.setNumberOfGuests(request.getNumberOfGuests());
+        int updated = reservationRepository.updateIfNotCancelled(
+                id, current.getVersion(), request.getReservationDateTime(), request.getNumberOfGuests(),
+                LocalDateTime.now(), ReservationStatus.CANCELLED);
 
-        Reservation updatedReservation = reservationRepository.save(reservation);
+        if (updated == 0) {
+            // Changed between our read and the update; the seats taken above are handed back on rollback
+            throw new ReservationConflictException(
+                    "Reservation with ID " + id + " was modified concurrently, please retry");
+        }
+
+        ReservationResponse updatedReservation = reservationRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
 
         log.info("Reservation with ID: {} has been updated", id);
 
@@ -131,42 +213,128 @@ public class ReservationServiceImpl implements ReservationService {
                                                                .newReservationDateTime(updatedReservation.getReservationDateTime())
                                                                .newNumberOfGuests(updatedReservation.getNumberOfGuests())
                                                                .notificationChannel(updatedReservation.getNotificationChannel())
+                                                               .preferredLanguage(updatedReservation.getPreferredLanguage())
                                                                .build();
 
         eventPublisher.publishEvent(event);
         log.debug("Published ReservationUpdatedEvent for reservation ID: {}", id);
 
-        return reservationMapper.toResponse(updatedReservation);
+        return updatedReservation;
     }
 
+    /**
+     * Served from {@link UpcomingReservationsCache}; only misses run the range query, once per
+     * shard in the read-only transaction of {@link ReservationRepository#findUpcomingResponses},
+     * since a customer may have booked at restaurants in different shards. Misses read the primary,
+     * so a lagging replica cannot fill the cache with rows older than the events that patch it.
+     */
     @Override
-    @Transactional(readOnly = true)
     public List<ReservationResponse> getUpcomingReservations(String email) {
         log.info("Retrieving upcoming reservations for customer: {}", email);
 
-        List<Reservation> reservations = reservationRepository
-                .findByEmailAndStatusAndReservationDateTimeAfter(
-                        email,
-                        ReservationStatus.CONFIRMED,
-                        LocalDateTime.now()
-                );
+        List<ReservationResponse> reservations = upcomingReservationsCache.get(email, normalizedEmail -> {
+            LocalDateTime now = LocalDateTime.now();
+            return ReadYourWritesContext.onPrimary(() -> mergeByDateTime(shardRouter.onEachShard(shard ->
+                    reservationRepository.findUpcomingResponses(
+                            normalizedEmail,
+                            ReservationStatus.CONFIRMED,
+                            now
+                    ))));
+        });
 
         log.info("Found {} upcoming reservations for customer: {}", reservations.size(), email);
 
-        return reservations.stream()
-                .map(reservationMapper::toResponse)
-                .collect(Collectors.toList());
+        return reservations;
     }
 
+    /**
+     * Every shard returns its own next page after the cursor; the merged page keeps the first rows
+     * in {@code (reservationDateTime, id)} order, which IDs make unique across shards.
+     */
+    @Override
+    public ReservationPageResponse getUpcomingReservations(String email, String cursor, int limit) {
+        log.info("Retrieving upcoming reservations page for customer: {} (limit {})", email, limit);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidReservationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // The first page starts right after "now"; Long.MAX_VALUE turns the tie-breaker off
+        LocalDateTime afterDateTime = LocalDateTime.now();
+        Long afterId = Long.MAX_VALUE;
+        if (cursor != null) {
+            ReservationCursorCodec.Position position = cursorCodec.decode(cursor);
+            afterDateTime = position.getReservationDateTime();
+            afterId = position.getId();
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        String normalizedEmail = ReservationMapper.normalizeEmail(email);
+        LocalDateTime pageAfterDateTime = afterDateTime;
+        Long pageAfterId = afterId;
+        List<ReservationResponse> reservations = mergeByDateTime(shardRouter.onEachShard(shard ->
+                reservationRepository.findPageByEmailAndStatusAfter(
+                        normalizedEmail, ReservationStatus.CONFIRMED, pageAfterDateTime, pageAfterId, PageRequest.ofSize(limit + 1))));
+
+        boolean hasMore = reservations.size() > limit;
+        List<ReservationResponse> page = hasMore ? reservations.subList(0, limit) : reservations;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ReservationResponse last = page.get(page.size() - 1);
+            nextCursor = cursorCodec.encode(last.getReservationDateTime(), last.getId());
+        }
+
+        return ReservationPageResponse.builder()
+                                      .content(page)
+                                      .nextCursor(nextCursor)
+                                      .hasMore(hasMore)
+                                      .build();
+    }
+
+    /**
+     * Served from {@link ReservationByIdCache}; only misses reach the database, in the
+     * read-only transaction of {@link ReservationRepository#findResponseById} on the shard
+     * encoded in the ID. Reservations moved out by {@link ReservationArchiver} are looked up in the archive.
+     * Misses read the primary: an entry evicted by an update must not be refilled from a replica
+     * that has not applied it yet, since every client would then see the stale row until it expires.
+     */
     @Override
-    @Transactional(readOnly = true)
     public ReservationResponse getReservationById(Long id) {
         log.info("Retrieving reservation with ID: {}", id);
 
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+        return reservationByIdCache.get(id, key -> {
+            int shard = shardRouter.shardOf(key).orElseThrow(() -> new ResourceNotFoundException("Reservation", key));
+            return ReadYourWritesContext.onPrimary(() -> shardRouter.inShard(shard, () -> reservationRepository.findResponseById(key)
+                    .or(() -> archivedReservationRepository.findResponseById(key))
+                    .orElseThrow(() -> new ResourceNotFoundException("Reservation", key))));
+        });
+    }
+
+    /**
+     * Route the current transaction to the shard encoded in a reservation ID.
+     */
+    private void bindTransactionToShardOf(Long id) {
+        int shard = shardRouter.shardOf(id).orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+        shardRouter.bindTransaction(shard);
+    }
+
+    /**
+     * Merge per-shard results, each already sorted, into {@code (reservationDateTime, id)} order.
+     */
+    private static List<ReservationResponse> mergeByDateTime(List<List<ReservationResponse>> perShard) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<ReservationResponse> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(BY_DATE_TIME);
+        return merged;
+    }
 
-        return reservationMapper.toResponse(reservation);
+    private static PreconditionFailedException versionMismatch(Long id, Long expectedVersion, ReservationResponse current) {
+        return new PreconditionFailedException(String.format(
+                "Reservation with ID %d has version %d, expected %d", id, current.getVersion(), expectedVersion));
     }
 
     /**
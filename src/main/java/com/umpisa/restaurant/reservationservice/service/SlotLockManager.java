@@ -0,0 +1,114 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.ReservationLockProperties;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing reservation writes per restaurant and time slot.
+ * <p>
+ * Each (restaurant, slot) pair hashes to one of a fixed number of fair {@link ReentrantLock}s, so
+ * writes to different slots or restaurants almost never share a lock, while writes to the same
+ * slot of a restaurant queue in arrival order. A lock is held until the surrounding transaction completes, so the next writer of
+ * the slot sees the committed row. Waiting is bounded by a timeout.
+ * When several slots are locked at once, the stripes are taken in ascending index order,
+ * so two writers moving bookings between the same slots cannot deadlock.
+ */
+@Slf4j
+@Component
+public class SlotLockManager {
+
+    private final ReservationCapacityEngine capacityEngine;
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+
+    public SlotLockManager(ReservationCapacityEngine capacityEngine, ReservationLockProperties lockProperties) {
+        this.capacityEngine = capacityEngine;
+        this.timeoutNanos = lockProperties.getTimeout().toNanos();
+
+        int requested = lockProperties.getStripes();
+        int stripeCount = requested <= 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Lock the slots of the given reservation date/times until the current transaction completes.
+     *
+     * @param restaurantId         the restaurant whose slots are written
+     * @param reservationDateTimes the date/times whose slots are written
+     * @throws ReservationConflictException if a slot stays locked for longer than the timeout
+     * @throws IllegalStateException        if no transaction is active
+     */
+    public void lockForTransaction(Long restaurantId, LocalDateTime... reservationDateTimes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Slot locks can only be taken inside a transaction");
+        }
+
+        List<ReentrantLock> acquired = lock(stripeIndexes(restaurantId, reservationDateTimes));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(acquired);
+            }
+        });
+    }
+
+    /**
+     * Return the distinct stripe indexes of a restaurant's slots, in ascending order.
+     */
+    int[] stripeIndexes(Long restaurantId, LocalDateTime... reservationDateTimes) {
+        return Arrays.stream(reservationDateTimes)
+                          .mapToInt(reservationDateTime -> stripeIndex(restaurantId, reservationDateTime))
+                          .distinct()
+                          .sorted()
+                          .toArray();
+    }
+
+    private int stripeIndex(Long restaurantId, LocalDateTime reservationDateTime) {
+        int hash = 31 * restaurantId.hashCode() + capacityEngine.slotStart(reservationDateTime).hashCode();
+        // Spread the high bits, as HashMap does, before masking
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private List<ReentrantLock> lock(int[] stripeIndexes) {
+        List<ReentrantLock> acquired = new ArrayList<>(stripeIndexes.length);
+        try {
+            for (int index : stripeIndexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    log.warn("Timed out waiting for reservation slot lock stripe {}", index);
+                    throw new ReservationConflictException("The requested time slot is busy, please retry");
+                }
+                acquired.add(lock);
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new ReservationConflictException("Interrupted while waiting for the requested time slot");
+        } catch (RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        }
+    }
+
+    private static void unlock(List<ReentrantLock> acquired) {
+        for (int i = acquired.size() - 1; i >= 0; i--) {
+            acquired.get(i).unlock();
+        }
+    }
+}
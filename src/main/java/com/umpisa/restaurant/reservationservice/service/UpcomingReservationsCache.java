@@ -0,0 +1,174 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.umpisa.restaurant.config.ReadYourWritesContext;
+import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
+import com.umpisa.restaurant.reservationservice.model.ReservationCacheProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationsImportedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Per-customer cache of upcoming confirmed reservations, keyed by normalized email.
+ * Each entry is an immutable list sorted by {@code (reservationDateTime, id)}.
+ * <p>
+ * Entries are patched in place from reservation events after commit rather than dropped:
+ * created and updated reservations are fetched by primary key and spliced into the list,
+ * cancelled ones are removed. Reservations whose time has passed are trimmed from the head
+ * of the list on read, so answers stay correct without reloading.
+ * Updates to a key are applied inside Caffeine's per-key compute, which serializes them
+ * with an in-flight load of the same key.
+ */
+@Slf4j
+@Component
+public class UpcomingReservationsCache {
+
+    private static final Comparator<ReservationResponse> ORDER =
+            Comparator.comparing(ReservationResponse::getReservationDateTime)
+                      .thenComparing(ReservationResponse::getId);
+
+    private final ReservationRepository reservationRepository;
+    private final Cache<String, List<ReservationResponse>> cache;
+
+    public UpcomingReservationsCache(ReservationRepository reservationRepository,
+                                     ReservationCacheProperties cacheProperties,
+                                     MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+
+        ReservationCacheProperties.CacheConfig config = cacheProperties.getUpcoming();
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(config.getMaximumSize())
+                             .expireAfterWrite(config.getExpireAfterWrite())
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reservations.upcoming");
+    }
+
+    /**
+     * Return the upcoming reservations for a customer, loading them on a miss.
+     *
+     * @param email  the customer's email (normalized before use)
+     * @param loader loads the sorted upcoming reservations for a normalized email
+     * @return the upcoming reservations, sorted by date/time
+     */
+    public List<ReservationResponse> get(String email, Function<String, List<ReservationResponse>> loader) {
+        String key = ReservationMapper.normalizeEmail(email);
+        List<ReservationResponse> reservations = cache.get(key, k -> List.copyOf(loader.apply(k)));
+
+        int firstUpcoming = firstUpcomingIndex(reservations, LocalDateTime.now());
+        if (firstUpcoming == 0) {
+            return reservations;
+        }
+
+        List<ReservationResponse> upcoming = List.copyOf(reservations.subList(firstUpcoming, reservations.size()));
+        // Only replace the list we trimmed; a concurrent event may already have replaced it
+        cache.asMap().computeIfPresent(key, (k, current) -> current == reservations ? upcoming : current);
+        return upcoming;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCreated(ReservationCreatedEvent event) {
+        upsert(event.getEmail(), event.getReservationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationUpdated(ReservationUpdatedEvent event) {
+        upsert(event.getEmail(), event.getReservationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCancelled(ReservationCancelledEvent event) {
+        String key = ReservationMapper.normalizeEmail(event.getEmail());
+        cache.asMap().computeIfPresent(key, (k, current) -> without(current, event.getReservationId()));
+    }
+
+    /**
+     * Imported reservations do not publish individual events, so cached lists may be incomplete.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsImported(ReservationsImportedEvent event) {
+        log.debug("Clearing upcoming reservations cache after bulk import of {} reservations", event.getImportedCount());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Fetch the current state of a reservation and splice it into the customer's cached list.
+     * Nothing is fetched when the customer has no cached list.
+     */
+    private void upsert(String email, Long reservationId) {
+        String key = ReservationMapper.normalizeEmail(email);
+        if (cache.getIfPresent(key) == null) {
+            // A load may be in flight and have read before this change committed; invalidate waits for it
+            // and drops its result
+            cache.invalidate(key);
+            return;
+        }
+
+        // Listeners without a transaction would otherwise read a replica that may not have the change yet
+        ReservationResponse reservation = ReadYourWritesContext.onPrimary(() -> reservationRepository.findResponseById(reservationId))
+                                                               .orElse(null);
+        cache.asMap().computeIfPresent(key, (k, current) -> {
+            List<ReservationResponse> updated = without(current, reservationId);
+            if (reservation == null
+                    || reservation.getStatus() != ReservationStatus.CONFIRMED
+                    || !reservation.getReservationDateTime().isAfter(LocalDateTime.now())) {
+                return updated;
+            }
+
+            ReservationResponse existing = find(current, reservationId);
+            if (existing != null && existing.getVersion() != null && reservation.getVersion() != null
+                    && existing.getVersion() > reservation.getVersion()) {
+                // A newer state was already applied by a later event
+                return current;
+            }
+
+            List<ReservationResponse> merged = new ArrayList<>(updated.size() + 1);
+            merged.addAll(updated);
+            merged.add(reservation);
+            merged.sort(ORDER);
+            return List.copyOf(merged);
+        });
+    }
+
+    private static List<ReservationResponse> without(List<ReservationResponse> reservations, Long reservationId) {
+        if (find(reservations, reservationId) == null) {
+            return reservations;
+        }
+        return reservations.stream()
+                           .filter(reservation -> !reservation.getId().equals(reservationId))
+                           .toList();
+    }
+
+    private static ReservationResponse find(List<ReservationResponse> reservations, Long reservationId) {
+        for (ReservationResponse reservation : reservations) {
+            if (reservation.getId().equals(reservationId)) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    private static int firstUpcomingIndex(List<ReservationResponse> reservations, LocalDateTime now) {
+        int index = 0;
+        while (index < reservations.size() && !reservations.get(index).getReservationDateTime().isAfter(now)) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,150 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.WaitlistMapper;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Fills freed seats from the waitlist.
+ * <p>
+ * Once a cancellation has committed, its seats are back in {@link ReservationCapacityEngine}.
+ * The promoter then repeatedly takes the best-fitting candidate of the same restaurant from
+ * {@link WaitlistQueue} for the seats left in the slot and books it, each in its own transaction, until no waiting party fits.
+ * The customer is notified through the reservation created event.
+ */
+@Slf4j
+@Component
+public class WaitlistPromoter {
+
+    private final WaitlistQueue waitlistQueue;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final WaitlistMapper waitlistMapper;
+    private final ReservationService reservationService;
+    private final ReservationCapacityEngine capacityEngine;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    public WaitlistPromoter(WaitlistQueue waitlistQueue,
+                            WaitlistEntryRepository waitlistEntryRepository,
+                            WaitlistMapper waitlistMapper,
+                            ReservationService reservationService,
+                            ReservationCapacityEngine capacityEngine,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager) {
+        this.waitlistQueue = waitlistQueue;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.waitlistMapper = waitlistMapper;
+        this.reservationService = reservationService;
+        this.capacityEngine = capacityEngine;
+        this.shardRouter = shardRouter;
+        // Listeners run after the cancelling transaction has committed, so each promotion needs its own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Handle reservation cancelled event.
+     * Promotes waiting parties into the seats the cancellation freed.
+     *
+     * @param event the reservation cancelled event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCancelled(ReservationCancelledEvent event) {
+        if (event.getRestaurantId() == null || event.getReservationDateTime() == null) {
+            return;
+        }
+        promote(event.getRestaurantId(), event.getReservationDateTime());
+    }
+
+    /**
+     * Promote best-fitting waiting parties into the free seats of a restaurant's slot.
+     *
+     * @param restaurantId        the restaurant
+     * @param reservationDateTime any date/time within the slot
+     * @return the number of promoted entries
+     */
+    public int promote(Long restaurantId, LocalDateTime reservationDateTime) {
+        int promoted = 0;
+
+        while (true) {
+            int remaining = capacityEngine.remainingSeats(restaurantId, reservationDateTime);
+            if (remaining == 0) {
+                return promoted;
+            }
+
+            Optional<WaitlistQueue.Candidate> next = waitlistQueue.pollBestFit(restaurantId, reservationDateTime, remaining);
+            if (next.isEmpty()) {
+                return promoted;
+            }
+            WaitlistQueue.Candidate candidate = next.get();
+            // The entry and the reservation it becomes live in the shard of the entry's restaurant
+            int shard = shardRouter.shardOf(candidate.id()).orElse(0);
+
+            try {
+                Long reservationId = shardRouter.inShard(shard, () -> transactionTemplate.execute(status -> promote(candidate)));
+                if (reservationId != null) {
+                    promoted++;
+                    log.info("Promoted waitlist entry {} to reservation {}", candidate.id(), reservationId);
+                }
+            } catch (ReservationConflictException e) {
+                // Another booking took the seats first; keep the candidate's place and stop
+                waitlistQueue.add(candidate);
+                log.debug("Waitlist entry {} could not be promoted: {}", candidate.id(), e.getMessage());
+                return promoted;
+            } catch (InvalidReservationException e) {
+                try {
+                    shardRouter.runInShard(shard, () -> waitlistEntryRepository.updateStatus(
+                            candidate.id(), WaitlistStatus.WAITING, WaitlistStatus.EXPIRED));
+                } catch (RuntimeException expireFailure) {
+                    return requeue(candidate, expireFailure, promoted);
+                }
+                log.info("Expired waitlist entry {}: {}", candidate.id(), e.getMessage());
+            } catch (RuntimeException e) {
+                return requeue(candidate, e, promoted);
+            }
+        }
+    }
+
+    /**
+     * Put back a candidate whose promotion failed unexpectedly; its entry is still waiting in the
+     * database. Promotion of the slot stops here and resumes with the next cancellation.
+     */
+    private int requeue(WaitlistQueue.Candidate candidate, RuntimeException e, int promoted) {
+        waitlistQueue.add(candidate);
+        log.error("Failed to promote waitlist entry {}: {}", candidate.id(), e.getMessage(), e);
+        return promoted;
+    }
+
+    /**
+     * Claim the entry and book it in the current transaction.
+     *
+     * @return the reservation ID, or null if the entry left the waitlist meanwhile
+     */
+    private Long promote(WaitlistQueue.Candidate candidate) {
+        if (waitlistEntryRepository.claimForPromotion(
+                candidate.id(), LocalDateTime.now(), WaitlistStatus.WAITING, WaitlistStatus.PROMOTED) == 0) {
+            return null;
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.findById(candidate.id()).orElseThrow();
+        ReservationResponse reservation = reservationService.createReservationFromWaitlist(waitlistMapper.toReservationRequest(entry));
+        waitlistEntryRepository.setReservationId(entry.getId(), reservation.getId());
+
+        return reservation.getId();
+    }
+}
@@ -0,0 +1,202 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ReadYourWritesContext;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory priority structure of the waiting entries of every restaurant and time slot.
+ * <p>
+ * Each slot of a restaurant keeps its candidates in a {@link TreeMap} keyed by party size, and each party size
+ * in a {@link TreeSet} ordered by request time. Picking the candidate for a number of freed seats
+ * is a floor lookup followed by taking the first element: the largest party that fits wins, and
+ * within a party size the earliest request wins. Both are O(log n), so promotion never scans the
+ * waitlist table.
+ * <p>
+ * The queues are rebuilt from {@link WaitlistEntryRepository} of every shard at startup.
+ */
+@Slf4j
+@Component
+public class WaitlistQueue implements SmartInitializingSingleton {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final ReservationCapacityEngine capacityEngine;
+    private final ShardRouter shardRouter;
+    private final ConcurrentMap<RestaurantSlot, SlotQueue> slots = new ConcurrentHashMap<>();
+
+    public WaitlistQueue(WaitlistEntryRepository waitlistEntryRepository,
+                         ReservationCapacityEngine capacityEngine,
+                         ShardRouter shardRouter) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.capacityEngine = capacityEngine;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * A waiting entry, with just the fields needed to order and promote it.
+     */
+    public record Candidate(Long id, Long restaurantId, LocalDateTime reservationDateTime, LocalDateTime requestedAt, int partySize) {
+
+        private static final Comparator<Candidate> BY_REQUEST_TIME =
+                Comparator.comparing(Candidate::requestedAt).thenComparing(Candidate::id);
+
+        public static Candidate of(WaitlistEntry entry) {
+            return new Candidate(entry.getId(), entry.getRestaurantId(), entry.getReservationDateTime(),
+                                 entry.getRequestedAt(), entry.getNumberOfGuests());
+        }
+    }
+
+    /**
+     * The queue key: a restaurant and the start of one of its slots.
+     */
+    private record RestaurantSlot(Long restaurantId, LocalDateTime slotStart) {
+    }
+
+    /**
+     * Add a waiting entry to the queue of its restaurant's slot.
+     */
+    public void add(Candidate candidate) {
+        slots.computeIfAbsent(slotOf(candidate.restaurantId(), candidate.reservationDateTime()), slot -> new SlotQueue())
+             .add(candidate);
+    }
+
+    /**
+     * Remove a waiting entry from the queue of its restaurant's slot.
+     *
+     * @return true if the entry was queued
+     */
+    public boolean remove(Candidate candidate) {
+        SlotQueue queue = slots.get(slotOf(candidate.restaurantId(), candidate.reservationDateTime()));
+        return queue != null && queue.remove(candidate);
+    }
+
+    /**
+     * Take the best-fitting candidate for the seats freed in a restaurant's slot: the largest
+     * party that fits, and within that party size the earliest request.
+     *
+     * @param restaurantId        the restaurant
+     * @param reservationDateTime any date/time within the slot
+     * @param seats               the seats available in the slot
+     * @return the candidate, removed from the queue, or empty if no waiting party fits
+     */
+    public Optional<Candidate> pollBestFit(Long restaurantId, LocalDateTime reservationDateTime, int seats) {
+        SlotQueue queue = slots.get(slotOf(restaurantId, reservationDateTime));
+        return queue == null ? Optional.empty() : Optional.ofNullable(queue.pollBestFit(seats));
+    }
+
+    /**
+     * Return the number of entries waiting for a restaurant's slot.
+     */
+    public int size(Long restaurantId, LocalDateTime reservationDateTime) {
+        SlotQueue queue = slots.get(slotOf(restaurantId, reservationDateTime));
+        return queue == null ? 0 : queue.size();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reload the waiting entries of the current and future slots from the database.
+     * Reads the primary, so entries not yet on a replica are not left out of the queues.
+     */
+    public void rebuild() {
+        LocalDateTime from = capacityEngine.slotStart(LocalDateTime.now());
+        slots.clear();
+
+        int count = 0;
+        for (List<WaitlistEntry> entries : ReadYourWritesContext.onPrimary(() -> shardRouter.onEachShard(shard ->
+                waitlistEntryRepository.findByStatusAndReservationDateTimeGreaterThanEqual(WaitlistStatus.WAITING, from)))) {
+            for (WaitlistEntry entry : entries) {
+                add(Candidate.of(entry));
+                count++;
+            }
+        }
+        log.info("Rebuilt waitlist queues with {} waiting entries from {}", count, from);
+    }
+
+    /**
+     * Drop the queues of past slots and expire their remaining entries.
+     */
+    @Scheduled(cron = "${reservation.waitlist.evict-cron:0 */5 * * * *}")
+    public void evictPastSlots() {
+        LocalDateTime cutoff = capacityEngine.slotStart(LocalDateTime.now());
+        slots.keySet().removeIf(slot -> slot.slotStart().isBefore(cutoff));
+
+        int expired = shardRouter.onEachShard(shard ->
+                                  waitlistEntryRepository.expireBefore(cutoff, WaitlistStatus.WAITING, WaitlistStatus.EXPIRED))
+                                 .stream()
+                                 .mapToInt(Integer::intValue)
+                                 .sum();
+        if (expired > 0) {
+            log.info("Expired {} waitlist entries for slots before {}", expired, cutoff);
+        }
+    }
+
+    private RestaurantSlot slotOf(Long restaurantId, LocalDateTime reservationDateTime) {
+        return new RestaurantSlot(restaurantId, capacityEngine.slotStart(reservationDateTime));
+    }
+
+    /**
+     * The candidates of a single slot, grouped by party size.
+     * Queues of different slots never contend.
+     */
+    private static final class SlotQueue {
+
+        private final TreeMap<Integer, TreeSet<Candidate>> byPartySize = new TreeMap<>();
+        private int size;
+
+        synchronized void add(Candidate candidate) {
+            if (byPartySize.computeIfAbsent(candidate.partySize(), partySize -> new TreeSet<>(Candidate.BY_REQUEST_TIME))
+                           .add(candidate)) {
+                size++;
+            }
+        }
+
+        synchronized boolean remove(Candidate candidate) {
+            TreeSet<Candidate> candidates = byPartySize.get(candidate.partySize());
+            if (candidates == null || !candidates.remove(candidate)) {
+                return false;
+            }
+            if (candidates.isEmpty()) {
+                byPartySize.remove(candidate.partySize());
+            }
+            size--;
+            return true;
+        }
+
+        synchronized Candidate pollBestFit(int seats) {
+            Map.Entry<Integer, TreeSet<Candidate>> fit = byPartySize.floorEntry(seats);
+            if (fit == null) {
+                return null;
+            }
+            Candidate candidate = fit.getValue().pollFirst();
+            if (fit.getValue().isEmpty()) {
+                byPartySize.remove(fit.getKey());
+            }
+            size--;
+            return candidate;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
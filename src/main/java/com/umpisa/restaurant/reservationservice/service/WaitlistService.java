@@ -0,0 +1,34 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.WaitlistEntryResponse;
+
+/**
+ * Service interface for waitlist operations.
+ */
+public interface WaitlistService {
+
+    /**
+     * Join the waitlist of a fully booked time slot.
+     * The entry is promoted to a reservation as soon as enough seats are freed.
+     *
+     * @param request the reservation details
+     * @return the waitlist entry
+     */
+    WaitlistEntryResponse joinWaitlist(CreateReservationRequest request);
+
+    /**
+     * Get a waitlist entry by ID.
+     *
+     * @param id the waitlist entry ID
+     * @return the waitlist entry
+     */
+    WaitlistEntryResponse getWaitlistEntry(Long id);
+
+    /**
+     * Leave the waitlist.
+     *
+     * @param id the waitlist entry ID
+     */
+    void leaveWaitlist(Long id);
+}
@@ -0,0 +1,126 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardIdGenerator;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.WaitlistMapper;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.WaitlistEntryResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of WaitlistService.
+ * Entries are persisted first and added to {@link WaitlistQueue} once the insert has committed.
+ * An entry lives in the same shard as its restaurant's reservations.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final WaitlistMapper waitlistMapper;
+    private final WaitlistQueue waitlistQueue;
+    private final WaitlistPromoter waitlistPromoter;
+    private final ReservationCapacityEngine capacityEngine;
+    private final ReservationCapacityProperties capacityProperties;
+    private final ShardRouter shardRouter;
+    private final ShardIdGenerator shardIdGenerator;
+
+    @Override
+    @Transactional
+    public WaitlistEntryResponse joinWaitlist(CreateReservationRequest request) {
+        log.info("Adding customer to the waitlist: {}", request.getEmail());
+
+        if (request.getReservationDateTime().isBefore(LocalDateTime.now())) {
+            throw new InvalidReservationException("Reservation date and time must be in the future");
+        }
+        if (request.getNumberOfGuests() > capacityProperties.getSeatsPerSlot()) {
+            throw new InvalidReservationException(
+                    "Number of guests cannot exceed " + capacityProperties.getSeatsPerSlot());
+        }
+        if (capacityEngine.remainingSeats(request.getRestaurantId(), request.getReservationDateTime()) >= request.getNumberOfGuests()) {
+            throw new InvalidReservationException(String.format(
+                    "Seats are still available at %s, please book a reservation instead",
+                    capacityEngine.slotStart(request.getReservationDateTime())));
+        }
+
+        int shard = shardRouter.shardFor(request.getRestaurantId());
+        shardRouter.bindTransaction(shard);
+
+        WaitlistEntry entry = waitlistMapper.toEntity(request);
+        entry.setId(shardIdGenerator.nextId(shard));
+        WaitlistEntry savedEntry = waitlistEntryRepository.save(entry);
+
+        log.info("Waitlist entry created with ID: {}", savedEntry.getId());
+
+        WaitlistQueue.Candidate candidate = WaitlistQueue.Candidate.of(savedEntry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waitlistQueue.add(candidate);
+                // Seats may have been freed since the check above
+                waitlistPromoter.promote(candidate.restaurantId(), candidate.reservationDateTime());
+            }
+        });
+
+        return waitlistMapper.toResponse(savedEntry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WaitlistEntryResponse getWaitlistEntry(Long id) {
+        log.info("Retrieving waitlist entry with ID: {}", id);
+
+        bindTransactionToShardOf(id);
+
+        return waitlistEntryRepository.findById(id)
+                                      .map(waitlistMapper::toResponse)
+                                      .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", id));
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(Long id) {
+        log.info("Removing waitlist entry with ID: {}", id);
+
+        bindTransactionToShardOf(id);
+
+        WaitlistEntry entry = waitlistEntryRepository.findById(id)
+                                                     .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", id));
+
+        if (waitlistEntryRepository.updateStatus(id, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) == 0) {
+            throw new InvalidReservationException("Waitlist entry is no longer waiting");
+        }
+
+        WaitlistQueue.Candidate candidate = WaitlistQueue.Candidate.of(entry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waitlistQueue.remove(candidate);
+            }
+        });
+
+        log.info("Waitlist entry with ID: {} has been removed", id);
+    }
+
+    /**
+     * Route the current transaction to the shard encoded in a waitlist entry ID.
+     */
+    private void bindTransactionToShardOf(Long id) {
+        int shard = shardRouter.shardOf(id).orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", id));
+        shardRouter.bindTransaction(shard);
+    }
+}
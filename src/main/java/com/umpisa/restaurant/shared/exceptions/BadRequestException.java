@@ -0,0 +1,11 @@
+package com.umpisa.restaurant.shared.exceptions;
+
+/**
+ * Exception thrown when request parameters outside any one domain, such as paging limits, are invalid.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
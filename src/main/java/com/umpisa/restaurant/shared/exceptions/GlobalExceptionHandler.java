@@ -49,6 +49,66 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(
+            BadRequestException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                                                   .timestamp(LocalDateTime.now())
+                                                   .status(HttpStatus.BAD_REQUEST.value())
+                                                   .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                                                   .message(ex.getMessage())
+                                                   .path(request.getDescription(false).replace("uri=", ""))
+                                                   .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ReservationConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReservationConflictException(
+            ReservationConflictException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                                                   .timestamp(LocalDateTime.now())
+                                                   .status(HttpStatus.CONFLICT.value())
+                                                   .error(HttpStatus.CONFLICT.getReasonPhrase())
+                                                   .message(ex.getMessage())
+                                                   .path(request.getDescription(false).replace("uri=", ""))
+                                                   .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                                                   .timestamp(LocalDateTime.now())
+                                                   .status(HttpStatus.PRECONDITION_FAILED.value())
+                                                   .error(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                                                   .message(ex.getMessage())
+                                                   .path(request.getDescription(false).replace("uri=", ""))
+                                                   .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                                                   .timestamp(LocalDateTime.now())
+                                                   .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                                                   .error(HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase())
+                                                   .message(ex.getMessage())
+                                                   .path(request.getDescription(false).replace("uri=", ""))
+                                                   .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
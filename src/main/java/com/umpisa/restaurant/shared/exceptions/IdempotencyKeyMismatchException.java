@@ -0,0 +1,11 @@
+package com.umpisa.restaurant.shared.exceptions;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different request body.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.umpisa.restaurant.shared.exceptions;
+
+/**
+ * Exception thrown when a batch of notifications fails part way through. The batch's first
+ * {@code delivered} notifications were handed to the provider; the next one failed with the cause,
+ * and the rest were not attempted.
+ */
+public class NotificationBatchException extends NotificationDeliveryException {
+
+    private final int delivered;
+
+    public NotificationBatchException(int delivered, NotificationDeliveryException cause) {
+        super(cause.getMessage(), cause, cause.isPermanent());
+        this.delivered = delivered;
+    }
+
+    /**
+     * Return the number of notifications delivered before the failure.
+     */
+    public int getDelivered() {
+        return delivered;
+    }
+}
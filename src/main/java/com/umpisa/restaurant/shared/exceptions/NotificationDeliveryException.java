@@ -0,0 +1,32 @@
+package com.umpisa.restaurant.shared.exceptions;
+
+/**
+ * Exception thrown when a notification cannot be handed to the email or SMS provider.
+ * <p>
+ * Failures are transient unless flagged permanent: a permanent failure, such as a recipient the
+ * provider refuses, fails the same way on every attempt and is not retried.
+ */
+public class NotificationDeliveryException extends RuntimeException {
+
+    private final boolean permanent;
+
+    public NotificationDeliveryException(String message) {
+        this(message, null, false);
+    }
+
+    public NotificationDeliveryException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public NotificationDeliveryException(String message, Throwable cause, boolean permanent) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    /**
+     * Return whether retrying the notification cannot succeed.
+     */
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
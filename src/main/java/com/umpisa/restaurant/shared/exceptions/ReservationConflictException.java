@@ -0,0 +1,11 @@
+package com.umpisa.restaurant.shared.exceptions;
+
+/**
+ * Exception thrown when a reservation conflicts with the current state, such as a fully booked time slot.
+ */
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
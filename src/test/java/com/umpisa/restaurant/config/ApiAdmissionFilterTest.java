@@ -0,0 +1,107 @@
+package com.umpisa.restaurant.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiAdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ApiAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApiAdmissionProperties properties = new ApiAdmissionProperties();
+        properties.getRateLimit().setRequestsPerSecond(1);
+        properties.getRateLimit().setBurst(2);
+        properties.getLoadShedding().setMaxInFlight(1);
+        properties.getLoadShedding().setRetryAfter(Duration.ofSeconds(3));
+        properties.setTrustedProxies(List.of("10.0.0.1"));
+
+        filter = new ApiAdmissionFilter(new TokenBucketRateLimiter(properties.getRateLimit()), properties,
+                                        new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    @Test
+    void doFilter_WhenClientExceedsRate_ShouldReturnTooManyRequests() throws Exception {
+        assertThat(perform(request("192.0.2.1"), new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(perform(request("192.0.2.1"), new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = perform(request("192.0.2.1"), new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("Rate limit exceeded");
+        assertThat(perform(request("192.0.2.2"), new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("api.admission.rate-limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_WhenClientRotatesClientId_ShouldStillRateLimitByRemoteAddress() throws Exception {
+        assertThat(perform(request("192.0.2.10", "client-1"), new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(perform(request("192.0.2.10", "client-2"), new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        assertThat(perform(request("192.0.2.10", "client-3"), new MockFilterChain()).getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("api.admission.clients").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_WhenBehindTrustedProxy_ShouldRateLimitByClientId() throws Exception {
+        assertThat(perform(request("10.0.0.1", "client-a"), new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(perform(request("10.0.0.1", "spoofed, client-a"), new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        assertThat(perform(request("10.0.0.1", "client-a"), new MockFilterChain()).getStatus()).isEqualTo(429);
+        assertThat(perform(request("10.0.0.1", "client-b"), new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_WhenTooManyRequestsInFlight_ShouldShedWithServiceUnavailable() throws Exception {
+        AtomicReference<MockHttpServletResponse> concurrent = new AtomicReference<>();
+        FilterChain slowChain = (request, response) -> {
+            assertThat(meterRegistry.get("api.admission.in-flight").gauge().value()).isEqualTo(1);
+            concurrent.set(perform(request("192.0.2.2"), new MockFilterChain()));
+        };
+
+        MockHttpServletResponse admitted = perform(request("192.0.2.1"), slowChain);
+
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(concurrent.get().getStatus()).isEqualTo(503);
+        assertThat(concurrent.get().getHeader("Retry-After")).isEqualTo("3");
+        assertThat(meterRegistry.get("api.admission.shed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("api.admission.in-flight").gauge().value()).isZero();
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservations");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = request(remoteAddress);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
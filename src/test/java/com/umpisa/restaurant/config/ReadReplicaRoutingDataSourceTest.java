@@ -0,0 +1,141 @@
+package com.umpisa.restaurant.config;
+
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import com.umpisa.restaurant.reservationservice.service.ReservationCapacityEngine;
+import com.umpisa.restaurant.reservationservice.service.WaitlistQueue;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routes against separate in-memory H2 databases and identifies the one that served
+ * each statement with {@code SELECT DATABASE()}.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReadYourWritesContext.clear();
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+
+        assertThat(databaseName(dataSource, false)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldAlternateBetweenReplicas() {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(databaseName(dataSource, true));
+        }
+
+        assertThat(served).containsExactly("REPLICA1", "REPLICA2", "REPLICA1", "REPLICA2");
+    }
+
+    @Test
+    void readOnlyTransaction_WithLeastLoadedSelection_ShouldAvoidBusyReplica() throws Exception {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.LEAST_LOADED);
+
+        HikariDataSource replica1 = (HikariDataSource) routingDataSource.getResolvedDataSources().get("replica-1");
+        try (Connection busy = replica1.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(databaseName(dataSource, true)).isEqualTo("REPLICA2");
+            }
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_WhenPinnedToPrimary_ShouldUsePrimary() {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+
+        ReadYourWritesContext.pinToPrimary();
+
+        assertThat(databaseName(dataSource, true)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void readOnlyTransaction_OnPrimary_ShouldUsePrimaryAndRestoreRouting() {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+
+        assertThat(ReadYourWritesContext.onPrimary(() -> databaseName(dataSource, true))).isEqualTo("PRIMARY");
+        assertThat(databaseName(dataSource, true)).isEqualTo("REPLICA1");
+    }
+
+    @Test
+    void capacityAndWaitlistRebuild_ShouldReadPrimary() {
+        DataSource dataSource = routing(ReadReplicaProperties.Selection.ROUND_ROBIN);
+        List<String> served = new ArrayList<>();
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findBookedSeatsFrom(any(), any())).thenAnswer(invocation -> {
+            served.add(databaseName(dataSource, true));
+            return List.of();
+        });
+        WaitlistEntryRepository waitlistEntryRepository = mock(WaitlistEntryRepository.class);
+        when(waitlistEntryRepository.findByStatusAndReservationDateTimeGreaterThanEqual(any(), any())).thenAnswer(invocation -> {
+            served.add(databaseName(dataSource, true));
+            return List.of();
+        });
+        ShardRouter shardRouter = new ShardRouter(new ShardProperties());
+        ReservationCapacityEngine capacityEngine = new ReservationCapacityEngine(reservationRepository, shardRouter,
+                                                                                 new ReservationCapacityProperties());
+
+        capacityEngine.rebuild();
+        new WaitlistQueue(waitlistEntryRepository, capacityEngine, shardRouter).rebuild();
+
+        assertThat(served).containsExactly("PRIMARY", "PRIMARY");
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+
+    private DataSource routing(ReadReplicaProperties.Selection selection) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", h2("replica1"));
+        replicas.put("replica-2", h2("replica2"));
+
+        routingDataSource = new ReadReplicaRoutingDataSource(h2("primary"), replicas, selection);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static String databaseName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
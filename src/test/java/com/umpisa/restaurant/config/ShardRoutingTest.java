@@ -0,0 +1,149 @@
+package com.umpisa.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes against three in-memory H2 shards and identifies the one that served
+ * each statement with {@code SELECT DATABASE()}.
+ */
+class ShardRoutingTest {
+
+    private ShardRoutingDataSource routingDataSource;
+    private DataSource dataSource;
+    private ShardRouter shardRouter;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ShardProperties properties = new ShardProperties();
+        properties.setEnabled(true);
+        properties.setShards(List.of(new ShardProperties.Shard(), new ShardProperties.Shard()));
+        properties.setRestaurants(Map.of(42L, 2));
+        shardRouter = new ShardRouter(properties);
+
+        routingDataSource = new ShardRoutingDataSource(List.of(h2("shard0"), h2("shard1"), h2("shard2")));
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ShardContext.clear();
+        routingDataSource.close();
+    }
+
+    @Test
+    void shardFor_ShouldUseExplicitPlacementThenModulo() {
+        assertThat(shardRouter.getShardCount()).isEqualTo(3);
+        assertThat(shardRouter.shardFor(42L)).isEqualTo(2);
+        assertThat(shardRouter.shardFor(7L)).isEqualTo(1);
+        assertThat(shardRouter.shardFor(9L)).isZero();
+    }
+
+    @Test
+    void bindTransaction_ShouldRouteTheWholeTransaction() {
+        List<String> served = transactionTemplate.execute(status -> {
+            shardRouter.bindTransaction(2);
+            return List.of(databaseName(), databaseName());
+        });
+
+        assertThat(served).containsExactly("SHARD2", "SHARD2");
+        assertThat(ShardContext.current()).isNull();
+        assertThat(transactionTemplate.execute(status -> databaseName())).isEqualTo("SHARD0");
+    }
+
+    @Test
+    void bindTransaction_WhenBoundToAnotherShard_ShouldThrow() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            shardRouter.bindTransaction(1);
+            shardRouter.bindTransaction(2);
+        })).isInstanceOf(IllegalStateException.class)
+           .hasMessageContaining("bound to shard 1");
+    }
+
+    @Test
+    void bindTransaction_WithoutTransaction_ShouldThrow() {
+        assertThatThrownBy(() -> shardRouter.bindTransaction(1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void onEachShard_ShouldVisitEveryShardInOrder() {
+        List<String> served = shardRouter.onEachShard(shard -> transactionTemplate.execute(status -> databaseName()));
+
+        assertThat(served).containsExactly("SHARD0", "SHARD1", "SHARD2");
+    }
+
+    @Test
+    void onEachShard_InsideTransaction_ShouldThrow() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                shardRouter.onEachShard(shard -> databaseName())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void inShard_ShouldRestoreTheEnclosingShard() {
+        String inner = shardRouter.inShard(1, () -> {
+            String nested = shardRouter.inShard(2, () -> transactionTemplate.execute(status -> databaseName()));
+            assertThat(ShardContext.current()).isEqualTo(1);
+            return nested;
+        });
+
+        assertThat(inner).isEqualTo("SHARD2");
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    void nextId_ShouldEncodeShardAndNeverRepeat() {
+        ShardIdGenerator idGenerator = new ShardIdGenerator(shardRouter, dataSource);
+        idGenerator.afterPropertiesSet();
+
+        Set<Long> ids = new HashSet<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            // More than one allocation block per shard
+            for (int i = 0; i < ShardIdGenerator.ALLOCATION_SIZE * 2 + 1; i++) {
+                long id = idGenerator.nextId(shard);
+                assertThat(ShardIdGenerator.shardOf(id)).isEqualTo(shard);
+                assertThat(shardRouter.shardOf(id)).hasValue(shard);
+                assertThat(ids.add(id)).as("id %d is unique", id).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void nextId_WhenRoutedToAnotherShard_ShouldThrow() {
+        ShardIdGenerator idGenerator = new ShardIdGenerator(shardRouter, dataSource);
+
+        assertThatThrownBy(() -> shardRouter.inShard(1, () -> idGenerator.nextId(2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private String databaseName() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,105 @@
+package com.umpisa.restaurant.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        ApiAdmissionProperties.RateLimit properties = new ApiAdmissionProperties.RateLimit();
+        properties.setRequestsPerSecond(10);
+        properties.setBurst(5);
+        rateLimiter = new TokenBucketRateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void tryAcquire_ShouldAdmitBurstThenRefuse() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("client-a")).isZero();
+        }
+
+        Duration wait = rateLimiter.tryAcquire("client-a");
+
+        assertThat(wait).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("client-a");
+        }
+
+        clock.addAndGet(Duration.ofMillis(250).toNanos());
+
+        assertThat(rateLimiter.tryAcquire("client-a")).isZero();
+        assertThat(rateLimiter.tryAcquire("client-a")).isZero();
+        assertThat(rateLimiter.tryAcquire("client-a")).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepClientsSeparate() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("client-a");
+        }
+
+        assertThat(rateLimiter.tryAcquire("client-a")).isPositive();
+        assertThat(rateLimiter.tryAcquire("client-b")).isZero();
+        assertThat(rateLimiter.trackedClients()).isEqualTo(2);
+    }
+
+    @Test
+    void tryAcquire_WhenIdle_ShouldNotBankMoreThanTheBurst() {
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+
+        int admitted = 0;
+        while (rateLimiter.tryAcquire("client-a").isZero()) {
+            admitted++;
+        }
+
+        assertThat(admitted).isEqualTo(5);
+    }
+
+    @Test
+    void tryAcquire_FromManyThreads_ShouldAdmitExactlyTheBurst() throws Exception {
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (rateLimiter.tryAcquire("client-a").isZero()) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The clock does not move, so only the burst is available
+        assertThat(admitted).hasValue(5);
+    }
+}
@@ -0,0 +1,57 @@
+package com.umpisa.restaurant.notificationservice.controller;
+
+import com.umpisa.restaurant.notificationservice.model.dto.response.NotificationAuditRecordResponse;
+import com.umpisa.restaurant.notificationservice.service.audit.NotificationAuditLog;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(NotificationAuditController.class)
+class NotificationAuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NotificationAuditLog auditLog;
+
+    @Test
+    void findAuditRecords_ShouldReturnRecords() throws Exception {
+        NotificationAuditRecordResponse record = NotificationAuditRecordResponse.builder()
+                                                                                .timestamp(Instant.parse("2026-10-16T10:15:30Z"))
+                                                                                .channel(NotificationChannel.EMAIL)
+                                                                                .templateId("confirmation")
+                                                                                .status("SENT")
+                                                                                .recipient("john.doe@example.com")
+                                                                                .hash("9f86d081884c7d65")
+                                                                                .build();
+        when(auditLog.find("john.doe@example.com", null, 50)).thenReturn(List.of(record));
+
+        mockMvc.perform(get("/api/admin/notifications/audit").param("recipient", "john.doe@example.com"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].channel").value("EMAIL"))
+               .andExpect(jsonPath("$[0].templateId").value("confirmation"))
+               .andExpect(jsonPath("$[0].status").value("SENT"))
+               .andExpect(jsonPath("$[0].hash").value("9f86d081884c7d65"));
+    }
+
+    @Test
+    void findAuditRecords_WithInvalidLimit_ShouldReturnBadRequest() throws Exception {
+        when(auditLog.find(null, null, 1000)).thenThrow(new BadRequestException("Limit must be between 1 and 500"));
+
+        mockMvc.perform(get("/api/admin/notifications/audit").param("limit", "1000"))
+               .andExpect(status().isBadRequest());
+    }
+}
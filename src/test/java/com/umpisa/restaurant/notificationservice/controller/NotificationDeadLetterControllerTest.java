@@ -0,0 +1,93 @@
+package com.umpisa.restaurant.notificationservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umpisa.restaurant.notificationservice.model.dto.request.DeadLetterReplayRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterPageResponse;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterReplayResponse;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterResponse;
+import com.umpisa.restaurant.notificationservice.service.NotificationDeadLetterService;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(NotificationDeadLetterController.class)
+class NotificationDeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private NotificationDeadLetterService deadLetterService;
+
+    @Test
+    void listDeadLetters_ShouldReturnPage() throws Exception {
+        DeadLetterResponse deadLetter = DeadLetterResponse.builder()
+                                                          .id(7L)
+                                                          .channel(NotificationChannel.SMS)
+                                                          .phoneNumber("+639171234567")
+                                                          .attempts(5)
+                                                          .lastError("Gateway unavailable")
+                                                          .build();
+        when(deadLetterService.list(0L, 1)).thenReturn(DeadLetterPageResponse.builder()
+                                                                             .content(List.of(deadLetter))
+                                                                             .nextAfterId(7L)
+                                                                             .hasMore(true)
+                                                                             .build());
+
+        mockMvc.perform(get("/api/admin/notifications/dead-letters").param("limit", "1"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content[0].id").value(7))
+               .andExpect(jsonPath("$.content[0].channel").value("SMS"))
+               .andExpect(jsonPath("$.nextAfterId").value(7))
+               .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void listDeadLetters_WithInvalidLimit_ShouldReturnBadRequest() throws Exception {
+        when(deadLetterService.list(0L, 500)).thenThrow(new BadRequestException("Limit must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/admin/notifications/dead-letters").param("limit", "500"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void replayDeadLetters_ShouldAcceptAndReturnQueuedCount() throws Exception {
+        when(deadLetterService.replay(List.of(1L, 2L))).thenReturn(DeadLetterReplayResponse.builder()
+                                                                                           .queued(1)
+                                                                                           .skipped(1)
+                                                                                           .build());
+
+        mockMvc.perform(post("/api/admin/notifications/dead-letters/replay")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new DeadLetterReplayRequest(List.of(1L, 2L)))))
+               .andExpect(status().isAccepted())
+               .andExpect(jsonPath("$.queued").value(1))
+               .andExpect(jsonPath("$.skipped").value(1));
+    }
+
+    @Test
+    void replayDeadLetters_WithoutBody_ShouldReplayOldest() throws Exception {
+        when(deadLetterService.replay(isNull())).thenReturn(DeadLetterReplayResponse.builder().queued(0).build());
+
+        mockMvc.perform(post("/api/admin/notifications/dead-letters/replay"))
+               .andExpect(status().isAccepted())
+               .andExpect(jsonPath("$.queued").value(0));
+    }
+}
@@ -0,0 +1,304 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationCoalescingProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.entity.HeldNotification;
+import com.umpisa.restaurant.notificationservice.repository.HeldNotificationRepository;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationCoalescerTest {
+
+    @Autowired
+    private HeldNotificationRepository holdRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final NotificationDeliveryService deliveryService = mock(NotificationDeliveryService.class);
+    private final NotificationTemplateService templateService = mock(NotificationTemplateService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime bookedFor = LocalDateTime.now().plusDays(1).withNano(0);
+    private final LocalDateTime movedTo = bookedFor.plusHours(2);
+
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        when(templateService.buildConfirmationSubject(anyLong(), any())).thenReturn("Confirmed");
+        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any())).thenReturn("Confirmation");
+        when(templateService.buildUpdateSubject(anyLong(), any())).thenReturn("Updated");
+        when(templateService.buildUpdateMessage(anyString(), anyLong(), any(), anyInt(), any())).thenReturn("Update");
+        when(templateService.buildCancellationSubject(anyLong(), any())).thenReturn("Cancelled");
+        when(templateService.buildCancellationMessage(anyString(), anyLong(), any())).thenReturn("Cancellation");
+
+        // Long enough that nothing is flushed until the test asks
+        coalescer = newCoalescer(Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+        holdRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createdThenUpdatedTwice_ShouldSendOneConfirmationWithFinalState() {
+        coalescer.created(created(1L));
+        coalescer.updated(updated(1L, bookedFor.plusHours(1), 5));
+        coalescer.updated(updated(1L, movedTo, 6));
+        verify(deliveryService, never()).deliverOnCommit(any());
+        assertThat(meterRegistry.get("notifications.coalescing.pending").gauge().value()).isEqualTo(1.0);
+
+        coalescer.flushAll();
+
+        NotificationRequest request = sentRequest();
+        assertThat(request.getSubject()).isEqualTo("Confirmed");
+        assertThat(request.getMessage()).isEqualTo("Confirmation");
+        verify(templateService).buildReservationConfirmationMessage("John Doe", 1L, movedTo, 6, null);
+        verify(templateService, never()).buildUpdateMessage(anyString(), anyLong(), any(), anyInt(), any());
+        assertThat(meterRegistry.get("notifications.coalescing.merged").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("notifications.coalescing.pending").gauge().value()).isZero();
+        assertThat(holdRepository.count()).isZero();
+    }
+
+    @Test
+    void createdThenCancelled_ShouldSendNothing() {
+        coalescer.created(created(1L));
+        coalescer.updated(updated(1L, movedTo, 6));
+        coalescer.cancelled(cancelled(1L));
+
+        coalescer.flushAll();
+
+        verify(deliveryService, never()).deliverOnCommit(any());
+        assertThat(meterRegistry.get("notifications.coalescing.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(holdRepository.count()).isZero();
+    }
+
+    @Test
+    void cancelledBeforeCreatedArrives_ShouldSendNothing() {
+        coalescer.cancelled(cancelled(1L));
+        coalescer.created(created(1L));
+
+        coalescer.flushAll();
+
+        verify(deliveryService, never()).deliverOnCommit(any());
+    }
+
+    @Test
+    void updatedThenCancelled_ShouldSendOnlyCancellation() {
+        coalescer.updated(updated(1L, movedTo, 6));
+        coalescer.cancelled(cancelled(1L));
+
+        coalescer.flushAll();
+
+        assertThat(sentRequest().getSubject()).isEqualTo("Cancelled");
+        verify(templateService, never()).buildUpdateSubject(anyLong(), any());
+    }
+
+    @Test
+    void updatedBeforeCreatedArrives_ShouldKeepUpdatedState() {
+        coalescer.updated(updated(1L, movedTo, 6));
+        coalescer.created(created(1L));
+
+        coalescer.flushAll();
+
+        assertThat(sentRequest().getSubject()).isEqualTo("Confirmed");
+        verify(templateService).buildReservationConfirmationMessage("John Doe", 1L, movedTo, 6, null);
+    }
+
+    @Test
+    void differentReservations_ShouldNotBeMerged() {
+        coalescer.created(created(1L));
+        coalescer.created(created(2L));
+
+        coalescer.flushAll();
+
+        verify(templateService).buildConfirmationSubject(1L, null);
+        verify(templateService).buildConfirmationSubject(2L, null);
+        assertThat(meterRegistry.get("notifications.coalescing.merged").counter().count()).isZero();
+    }
+
+    @Test
+    void windowElapsed_ShouldSendWithoutFlush() {
+        coalescer = newCoalescer(Duration.ofMillis(50));
+
+        coalescer.created(created(1L));
+        coalescer.updated(updated(1L, movedTo, 6));
+
+        verify(deliveryService, timeout(5000)).deliverOnCommit(any());
+        verify(templateService).buildReservationConfirmationMessage("John Doe", 1L, movedTo, 6, null);
+    }
+
+    @Test
+    void hold_ShouldStoreNotificationBeforeReturning() {
+        coalescer.created(created(1L));
+        coalescer.updated(updated(1L, movedTo, 6));
+
+        HeldNotification held = holdRepository.findById(1L).orElseThrow();
+        assertThat(held.getKind()).isEqualTo("CONFIRMATION");
+        assertThat(held.getReservationDateTime()).isEqualTo(movedTo);
+        assertThat(held.getNumberOfGuests()).isEqualTo(6);
+        verify(deliveryService, never()).deliverOnCommit(any());
+    }
+
+    @Test
+    void concurrentEvents_ShouldAllBeMergedIntoOneHold() throws Exception {
+        int events = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            Runnable event = i == 0 ? () -> coalescer.created(created(1L)) : () -> coalescer.updated(updated(1L, movedTo, 6));
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                event.run();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        HeldNotification held = holdRepository.findById(1L).orElseThrow();
+        assertThat(held.getKind()).isEqualTo("CONFIRMATION");
+        assertThat(held.isUpdated()).isTrue();
+        assertThat(held.getVersion()).isEqualTo(events - 1L);
+        assertThat(meterRegistry.get("notifications.coalescing.merged").counter().count()).isEqualTo(events - 1.0);
+        assertThat(meterRegistry.get("notifications.coalescing.pending").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void heldAtRestart_ShouldBeReloadedAndHandedOff() {
+        coalescer.created(created(1L));
+        coalescer.shutdown();
+
+        coalescer = newCoalescer(Duration.ofMinutes(5));
+        coalescer.afterSingletonsInstantiated();
+        coalescer.updated(updated(1L, movedTo, 6));
+        coalescer.flushAll();
+
+        assertThat(sentRequest().getSubject()).isEqualTo("Confirmed");
+        verify(templateService).buildReservationConfirmationMessage("John Doe", 1L, movedTo, 6, null);
+        assertThat(meterRegistry.get("notifications.coalescing.merged").counter().count()).isEqualTo(1.0);
+        assertThat(holdRepository.count()).isZero();
+    }
+
+    @Test
+    void heldByTwoInstances_ShouldBeHandedOffOnce() {
+        coalescer.created(created(1L));
+        NotificationCoalescer other = newCoalescer(Duration.ofMinutes(5));
+        other.afterSingletonsInstantiated();
+
+        coalescer.flushAll();
+        other.flushAll();
+        other.shutdown();
+
+        verify(deliveryService).deliverOnCommit(any());
+    }
+
+    @Test
+    void flush_WhenHandOffFails_ShouldKeepNotificationHeld() {
+        doThrow(new IllegalStateException("Database unavailable")).when(deliveryService).deliverOnCommit(any());
+        coalescer.created(created(1L));
+
+        coalescer.flushAll();
+
+        assertThat(holdRepository.findById(1L)).isPresent();
+        assertThat(meterRegistry.get("notifications.coalescing.pending").gauge().value()).isEqualTo(1.0);
+
+        reset(deliveryService);
+        coalescer.flushAll();
+
+        assertThat(sentRequest().getSubject()).isEqualTo("Confirmed");
+        assertThat(holdRepository.count()).isZero();
+    }
+
+    private NotificationCoalescer newCoalescer(Duration window) {
+        NotificationCoalescingProperties properties = new NotificationCoalescingProperties();
+        properties.setWindow(window);
+        return new NotificationCoalescer(deliveryService, templateService, holdRepository,
+                                         new ShardRouter(new ShardProperties()), properties, transactionManager,
+                                         meterRegistry);
+    }
+
+    private NotificationRequest sentRequest() {
+        ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(deliveryService).deliverOnCommit(requestCaptor.capture());
+        return requestCaptor.getValue();
+    }
+
+    private ReservationCreatedEvent created(Long reservationId) {
+        return ReservationCreatedEvent.builder()
+                                      .reservationId(reservationId)
+                                      .customerName("John Doe")
+                                      .email("john@example.com")
+                                      .phoneNumber("+1234567890")
+                                      .reservationDateTime(bookedFor)
+                                      .numberOfGuests(4)
+                                      .notificationChannel(NotificationChannel.SMS)
+                                      .build();
+    }
+
+    private ReservationUpdatedEvent updated(Long reservationId, LocalDateTime newDateTime, int newGuests) {
+        return ReservationUpdatedEvent.builder()
+                                      .reservationId(reservationId)
+                                      .customerName("John Doe")
+                                      .email("john@example.com")
+                                      .phoneNumber("+1234567890")
+                                      .newReservationDateTime(newDateTime)
+                                      .newNumberOfGuests(newGuests)
+                                      .notificationChannel(NotificationChannel.SMS)
+                                      .build();
+    }
+
+    private ReservationCancelledEvent cancelled(Long reservationId) {
+        return ReservationCancelledEvent.builder()
+                                        .reservationId(reservationId)
+                                        .customerName("John Doe")
+                                        .email("john@example.com")
+                                        .phoneNumber("+1234567890")
+                                        .notificationChannel(NotificationChannel.SMS)
+                                        .build();
+    }
+}
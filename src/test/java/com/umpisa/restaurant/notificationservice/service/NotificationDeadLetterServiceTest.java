@@ -0,0 +1,144 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.DeadLetterReplayResponse;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDeadLetter;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeadLetterRepository;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationDeadLetterServiceTest {
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+
+    @AfterEach
+    void tearDown() {
+        deadLetterRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void replay_ShouldDeleteDeliveredAndRecordFailedAttempts() {
+        NotificationDeadLetter delivered = deadLetterRepository.save(deadLetter("john@example.com", null));
+        NotificationDeadLetter failing = deadLetterRepository.save(deadLetter("jane@example.com", null));
+        doThrow(new NotificationDeliveryException("Mailbox unavailable"))
+                .when(notificationService).sendNotification(argThat(request -> "jane@example.com".equals(request.getEmail())));
+
+        DeadLetterReplayResponse response = deadLetterService(Runnable::run).replay(null);
+
+        assertThat(response.getQueued()).isEqualTo(2);
+        assertThat(response.getSkipped()).isZero();
+        assertThat(deadLetterRepository.findById(delivered.getId())).isEmpty();
+        NotificationDeadLetter kept = deadLetterRepository.findById(failing.getId()).orElseThrow();
+        assertThat(kept.getAttempts()).isEqualTo(6);
+        assertThat(kept.getLastError()).isEqualTo("Mailbox unavailable");
+        assertThat(kept.getClaimedBy()).isNull();
+        assertThat(kept.getClaimedUntil()).isNull();
+    }
+
+    @Test
+    void replay_ShouldReturnBeforeSending() {
+        NotificationDeadLetter deadLetter = deadLetterRepository.save(deadLetter("john@example.com", null));
+        List<Runnable> queued = new ArrayList<>();
+
+        DeadLetterReplayResponse response = deadLetterService(queued::add).replay(List.of(deadLetter.getId()));
+
+        assertThat(response.getQueued()).isEqualTo(1);
+        verify(notificationService, never()).sendNotification(any());
+
+        queued.forEach(Runnable::run);
+
+        verify(notificationService).sendNotification(any(NotificationRequest.class));
+        assertThat(deadLetterRepository.count()).isZero();
+    }
+
+    @Test
+    void replay_WhenAnotherReplayHoldsDeadLetter_ShouldSkipIt() {
+        NotificationDeadLetter held = deadLetterRepository.save(deadLetter("john@example.com", LocalDateTime.now().plusMinutes(5)));
+
+        DeadLetterReplayResponse byId = deadLetterService(Runnable::run).replay(List.of(held.getId()));
+        DeadLetterReplayResponse oldest = deadLetterService(Runnable::run).replay(null);
+
+        assertThat(byId.getQueued()).isZero();
+        assertThat(byId.getSkipped()).isEqualTo(1);
+        assertThat(oldest.getQueued()).isZero();
+        verify(notificationService, never()).sendNotification(any());
+        assertThat(deadLetterRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void replay_WhenOverlapping_ShouldSendEachDeadLetterOnce() {
+        NotificationDeadLetter deadLetter = deadLetterRepository.save(deadLetter("john@example.com", null));
+        List<Runnable> first = new ArrayList<>();
+
+        deadLetterService(first::add).replay(List.of(deadLetter.getId()));
+        DeadLetterReplayResponse second = deadLetterService(Runnable::run).replay(List.of(deadLetter.getId()));
+        first.forEach(Runnable::run);
+
+        assertThat(second.getQueued()).isZero();
+        verify(notificationService, times(1)).sendNotification(any());
+    }
+
+    @Test
+    void replay_WhenReplayQueueIsFull_ShouldReleaseClaim() {
+        NotificationDeadLetter deadLetter = deadLetterRepository.save(deadLetter("john@example.com", null));
+
+        DeadLetterReplayResponse response = deadLetterService(task -> {
+            throw new RejectedExecutionException("Queue full");
+        }).replay(List.of(deadLetter.getId()));
+
+        assertThat(response.getQueued()).isZero();
+        assertThat(response.getSkipped()).isEqualTo(1);
+        assertThat(deadLetterRepository.findById(deadLetter.getId()).orElseThrow().getClaimedBy()).isNull();
+    }
+
+    private NotificationDeadLetterService deadLetterService(Executor executor) {
+        return new NotificationDeadLetterService(notificationService, deadLetterRepository,
+                                                 new ShardRouter(new ShardProperties()),
+                                                 new NotificationDeliveryProperties(), executor);
+    }
+
+    private static NotificationDeadLetter deadLetter(String email, LocalDateTime claimedUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        return NotificationDeadLetter.builder()
+                                     .channel(NotificationChannel.EMAIL)
+                                     .email(email)
+                                     .subject("Reservation Confirmed")
+                                     .message("See you soon")
+                                     .attempts(5)
+                                     .lastError("Connection refused")
+                                     .createdAt(now)
+                                     .lastAttemptAt(now)
+                                     .claimedBy(claimedUntil != null ? "another-replay" : null)
+                                     .claimedUntil(claimedUntil)
+                                     .build();
+    }
+}
@@ -0,0 +1,347 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDeadLetter;
+import com.umpisa.restaurant.notificationservice.model.entity.NotificationDelivery;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeadLetterRepository;
+import com.umpisa.restaurant.notificationservice.repository.NotificationDeliveryRepository;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationDeliveryServiceTest {
+
+    @Autowired
+    private NotificationDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationDeliveryProperties properties = new NotificationDeliveryProperties();
+
+    private NotificationDeliveryService deliveryService;
+
+    @BeforeEach
+    void setUp() {
+        for (NotificationChannel channel : new NotificationChannel[]{NotificationChannel.EMAIL, NotificationChannel.SMS}) {
+            NotificationDeliveryProperties.RetryPolicy policy = properties.policyFor(channel);
+            policy.setMaxAttempts(3);
+            policy.setInitialBackoff(Duration.ofMillis(10));
+            policy.setMaxBackoff(Duration.ofMillis(50));
+        }
+        deliveryService = deliveryService(Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryService.shutdown();
+        deliveryRepository.deleteAllInBatch();
+        deadLetterRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void backoff_ShouldGrowExponentiallyUpToTheCap() {
+        NotificationDeliveryProperties.RetryPolicy policy = new NotificationDeliveryProperties.RetryPolicy();
+        policy.setJitter(0);
+
+        assertThat(NotificationDeliveryService.backoff(policy, 1, 0.7)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(NotificationDeliveryService.backoff(policy, 2, 0.7)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(NotificationDeliveryService.backoff(policy, 4, 0.7)).isEqualTo(Duration.ofSeconds(16));
+        assertThat(NotificationDeliveryService.backoff(policy, 20, 0.7)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void backoff_WithJitter_ShouldStayWithinTheRandomizedFraction() {
+        NotificationDeliveryProperties.RetryPolicy policy = new NotificationDeliveryProperties.RetryPolicy();
+        policy.setJitter(0.5);
+
+        assertThat(NotificationDeliveryService.backoff(policy, 2, 0.0)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(NotificationDeliveryService.backoff(policy, 2, 0.5)).isEqualTo(Duration.ofSeconds(3));
+        assertThat(NotificationDeliveryService.backoff(policy, 2, 0.999)).isGreaterThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void deliver_WithBothChannels_ShouldSendEachSeparately() {
+        deliveryService.deliver(request(NotificationChannel.BOTH));
+
+        verify(notificationService).sendNotifications(List.of(emailRequest()));
+        verify(notificationService).sendNotifications(List.of(smsRequest()));
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void deliverAll_ShouldSendEachChannelInBatches() {
+        properties.setBatchSize(2);
+
+        deliveryService.deliverAll(List.of(emailRequest("a@example.com"), request(NotificationChannel.BOTH),
+                                           emailRequest("b@example.com")));
+
+        verify(notificationService).sendNotifications(List.of(emailRequest("a@example.com"), emailRequest()));
+        verify(notificationService).sendNotifications(List.of(emailRequest("b@example.com")));
+        verify(notificationService).sendNotifications(List.of(smsRequest()));
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void deliverAll_WhenBatchFailsPartWay_ShouldRetryOnlyUndelivered() {
+        List<NotificationRequest> batch = List.of(emailRequest("a@example.com"), emailRequest("b@example.com"),
+                                                  emailRequest("c@example.com"));
+        doThrow(new NotificationBatchException(1, new NotificationDeliveryException("Connection reset")))
+                .when(notificationService).sendNotifications(batch);
+
+        deliveryService.deliverAll(batch);
+
+        verify(notificationService, timeout(5000)).sendNotifications(List.of(emailRequest("b@example.com")));
+        verify(notificationService, timeout(5000)).sendNotifications(List.of(emailRequest("c@example.com")));
+        verify(notificationService, after(100).never()).sendNotifications(List.of(emailRequest("a@example.com")));
+        assertThat(meterRegistry.get("notifications.delivery.retried").counter().count()).isEqualTo(2);
+        assertThat(deadLetterRepository.count()).isZero();
+    }
+
+    @Test
+    void deliverAll_WhenOneRecipientIsRejected_ShouldDeadLetterItAndSendTheRest() {
+        List<NotificationRequest> batch = List.of(emailRequest("a@example.com"), emailRequest("b@example.com"),
+                                                  emailRequest("c@example.com"));
+        doThrow(new NotificationBatchException(1, new NotificationDeliveryException("Recipient address rejected", null, true)))
+                .when(notificationService).sendNotifications(batch);
+
+        deliveryService.deliverAll(batch);
+
+        verify(notificationService).sendNotifications(List.of(emailRequest("c@example.com")));
+        assertThat(deadLetterRepository.findAll()).singleElement()
+                                                  .satisfies(deadLetter -> assertThat(deadLetter.getEmail())
+                                                          .isEqualTo("b@example.com"));
+        assertThat(deliveryRepository.count()).isZero();
+        assertThat(meterRegistry.get("notifications.delivery.retried").counter().count()).isZero();
+    }
+
+    @Test
+    void deliverOnCommit_ShouldStoreInCallersTransactionAndSendAfterCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            deliveryService.deliverOnCommit(emailRequest());
+            verify(notificationService, never()).sendNotifications(any());
+        });
+        verify(notificationService).sendNotifications(any());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            deliveryService.deliverOnCommit(smsRequest());
+            status.setRollbackOnly();
+        });
+        verify(notificationService, times(1)).sendNotifications(any());
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void deliver_WhenOneChannelFails_ShouldRetryOnlyThatChannel() {
+        doThrow(new NotificationDeliveryException("Gateway unavailable"))
+                .doNothing()
+                .when(notificationService).sendNotifications(List.of(smsRequest()));
+
+        deliveryService.deliver(request(NotificationChannel.BOTH));
+
+        verify(notificationService, timeout(5000).times(2)).sendNotifications(List.of(smsRequest()));
+        verify(notificationService, after(100).times(1)).sendNotifications(List.of(emailRequest()));
+        assertThat(deadLetterRepository.count()).isZero();
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void deliver_WhenFailingThenSucceeding_ShouldRetryWithoutDeadLetter() {
+        doThrow(new NotificationDeliveryException("Connection refused"))
+                .doThrow(new NotificationDeliveryException("Connection refused"))
+                .doNothing()
+                .when(notificationService).sendNotifications(any());
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+
+        verify(notificationService, timeout(5000).times(3)).sendNotifications(any());
+        verify(notificationService, after(100).times(3)).sendNotifications(any());
+        assertThat(deadLetterRepository.count()).isZero();
+        assertThat(deliveryRepository.count()).isZero();
+        assertThat(meterRegistry.get("notifications.delivery.retried").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void deliver_WhenEveryAttemptFails_ShouldMoveDeliveryToDeadLetters() {
+        doThrow(new NotificationDeliveryException("Mailbox unavailable")).when(notificationService).sendNotifications(any());
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+
+        verify(notificationService, timeout(5000).times(3)).sendNotifications(any());
+        verify(notificationService, after(100).times(3)).sendNotifications(any());
+
+        List<NotificationDeadLetter> deadLetters = deadLetterRepository.findAll();
+        assertThat(deadLetters).hasSize(1);
+        NotificationDeadLetter deadLetter = deadLetters.get(0);
+        assertThat(deadLetter.getChannel()).isEqualTo(NotificationChannel.EMAIL);
+        assertThat(deadLetter.getEmail()).isEqualTo("john@example.com");
+        assertThat(deadLetter.getAttempts()).isEqualTo(3);
+        assertThat(deadLetter.getLastError()).isEqualTo("Mailbox unavailable");
+        assertThat(deliveryRepository.count()).isZero();
+        assertThat(meterRegistry.get("notifications.delivery.dead-lettered").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deliver_WhenFailureIsPermanent_ShouldDeadLetterWithoutRetrying() {
+        doThrow(new NotificationDeliveryException("Recipient address rejected", null, true))
+                .when(notificationService).sendNotifications(any());
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+
+        verify(notificationService, after(200).times(1)).sendNotifications(any());
+        assertThat(deadLetterRepository.findAll()).singleElement()
+                                                  .satisfies(deadLetter -> assertThat(deadLetter.getAttempts()).isEqualTo(1));
+        assertThat(meterRegistry.get("notifications.delivery.retried").counter().count()).isZero();
+    }
+
+    @Test
+    void deliver_WhenSenderFailsUnexpectedly_ShouldDeadLetterWithoutRetrying() {
+        doThrow(new IllegalStateException("No sender for EMAIL notifications"))
+                .when(notificationService).sendNotifications(any());
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+
+        verify(notificationService, after(200).times(1)).sendNotifications(any());
+        assertThat(deadLetterRepository.count()).isEqualTo(1);
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void deliver_WithRetryPendingAtShutdown_ShouldKeepDeliveryForNextInstance() {
+        properties.getEmail().setInitialBackoff(Duration.ofMinutes(1));
+        properties.getEmail().setMaxBackoff(Duration.ofMinutes(1));
+        doThrow(new NotificationDeliveryException("Connection refused"))
+                .doNothing()
+                .when(notificationService).sendNotifications(any());
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+        assertThat(meterRegistry.get("notifications.delivery.retries.pending").gauge().value()).isEqualTo(1);
+
+        NotificationDelivery pending = deliveryRepository.findAll().get(0);
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getLastError()).isEqualTo("Connection refused");
+        assertThat(pending.getClaimedUntil()).isNull();
+
+        // The restarted instance picks the delivery up once it is due
+        pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        deliveryRepository.save(pending);
+        restart(Runnable::run);
+        deliveryService.sweep();
+
+        verify(notificationService, times(2)).sendNotifications(any());
+        assertThat(deliveryRepository.count()).isZero();
+        assertThat(deadLetterRepository.count()).isZero();
+    }
+
+    @Test
+    void deliver_WhenExecutorSaturated_ShouldLeaveDeliveryForSweep() {
+        restart(task -> {
+            throw new RejectedExecutionException("Queue full");
+        });
+
+        deliveryService.deliver(request(NotificationChannel.EMAIL));
+
+        verify(notificationService, never()).sendNotifications(any());
+        assertThat(deliveryRepository.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notifications.delivery.deferred").counter().count()).isEqualTo(1);
+
+        restart(Runnable::run);
+        deliveryService.sweep();
+
+        verify(notificationService).sendNotifications(List.of(emailRequest()));
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void sweep_WhenDeliveryClaimedByAnotherWorker_ShouldNotSendIt() {
+        LocalDateTime now = LocalDateTime.now();
+        deliveryRepository.save(NotificationDelivery.builder()
+                                                    .channel(NotificationChannel.EMAIL)
+                                                    .email("john@example.com")
+                                                    .message("See you soon")
+                                                    .nextAttemptAt(now.minusSeconds(1))
+                                                    .claimedUntil(now.plusMinutes(5))
+                                                    .createdAt(now)
+                                                    .build());
+
+        deliveryService.sweep();
+
+        verify(notificationService, never()).sendNotifications(any());
+        assertThat(deliveryRepository.count()).isEqualTo(1);
+    }
+
+    private void restart(Executor executor) {
+        deliveryService.shutdown();
+        deliveryService = deliveryService(executor);
+    }
+
+    private NotificationDeliveryService deliveryService(Executor executor) {
+        return new NotificationDeliveryService(notificationService, deliveryRepository, deadLetterRepository,
+                                               new ShardRouter(new ShardProperties()), properties, transactionManager,
+                                               executor, meterRegistry);
+    }
+
+    private static NotificationRequest request(NotificationChannel channel) {
+        return request(channel, "john@example.com");
+    }
+
+    private static NotificationRequest request(NotificationChannel channel, String email) {
+        return NotificationRequest.builder()
+                                  .channel(channel)
+                                  .email(email)
+                                  .phoneNumber("+639171234567")
+                                  .subject("Reservation Confirmed")
+                                  .message("See you soon")
+                                  .build();
+    }
+
+    private static NotificationRequest emailRequest() {
+        return request(NotificationChannel.EMAIL);
+    }
+
+    private static NotificationRequest emailRequest(String email) {
+        return request(NotificationChannel.EMAIL, email);
+    }
+
+    private static NotificationRequest smsRequest() {
+        return request(NotificationChannel.SMS);
+    }
+}
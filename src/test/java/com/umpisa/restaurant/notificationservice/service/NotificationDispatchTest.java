@@ -0,0 +1,236 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.config.DispatchBacklog;
+import com.umpisa.restaurant.config.NotificationDispatchConfig;
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationCoalescingProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationDeliveryProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationDispatchProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.repository.HeldNotificationRepository;
+import com.umpisa.restaurant.notificationservice.service.event.ReservationEventListener;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Publishes reservation events from real transactions against a notification sender that blocks
+ * until released, and checks the publishing thread never waits for it.
+ */
+@SpringJUnitConfig(NotificationDispatchTest.DispatchTestConfig.class)
+class NotificationDispatchTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({NotificationDispatchConfig.class, NotificationDispatchProperties.class, NotificationDeliveryProperties.class,
+             ReservationEventListener.class, NotificationCoalescer.class, ShardProperties.class, ShardRouter.class,
+             DispatchBacklog.class})
+    static class DispatchTestConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        EmbeddedDatabase dataSource() {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EmbeddedDatabase dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        NotificationCoalescingProperties notificationCoalescingProperties() {
+            NotificationCoalescingProperties properties = new NotificationCoalescingProperties();
+            properties.setWindow(Duration.ZERO);
+            return properties;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private NotificationDeliveryService deliveryService;
+
+    @MockBean
+    private NotificationTemplateService templateService;
+
+    @MockBean
+    private HeldNotificationRepository holdRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final AtomicReference<Thread> sendingThread = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any()))
+                .thenReturn("Confirmation message");
+        when(templateService.buildConfirmationSubject(anyLong(), any())).thenReturn("Subject");
+        // A gateway that takes as long as the test wants
+        doAnswer(invocation -> {
+            sendingThread.set(Thread.currentThread());
+            sending.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(deliveryService).deliver(any(NotificationRequest.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void publishInTransaction_ShouldCommitWithoutWaitingForSlowSender() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Sending synchronously would block on the latch and miss the deadline
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () ->
+                transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(createdEvent())));
+
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sendingThread.get().getName()).startsWith("notification-");
+        release.countDown();
+        verify(deliveryService, timeout(5000)).deliver(any(NotificationRequest.class));
+    }
+
+    @Test
+    void publishInTransaction_ShouldNotSendBeforeCommit() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(createdEvent());
+            verify(deliveryService, after(200).never()).deliver(any(NotificationRequest.class));
+        });
+
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void publishInRolledBackTransaction_ShouldNotSend() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(createdEvent());
+            status.setRollbackOnly();
+        });
+
+        verify(deliveryService, after(300).never()).deliver(any(NotificationRequest.class));
+    }
+
+    @Test
+    void publishInTransaction_WhenSenderFails_ShouldStillCommit() {
+        doThrow(new IllegalStateException("SMTP server unavailable"))
+                .when(deliveryService).deliver(any(NotificationRequest.class));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Boolean committed = transactionTemplate.execute(status -> {
+            eventPublisher.publishEvent(createdEvent());
+            return !status.isRollbackOnly();
+        });
+
+        assertThat(committed).isTrue();
+        verify(deliveryService, timeout(5000)).deliver(any(NotificationRequest.class));
+    }
+
+    @Test
+    void notificationExecutor_WhenSaturated_ShouldDropAndReportQueueDepth() throws Exception {
+        NotificationDispatchProperties properties = new NotificationDispatchProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DispatchBacklog backlog = new DispatchBacklog();
+        ThreadPoolTaskExecutor executor = new NotificationDispatchConfig()
+                .notificationExecutor(properties, new ShardRouter(new ShardProperties()), backlog, meterRegistry);
+        executor.initialize();
+        try {
+            CountDownLatch busy = new CountDownLatch(1);
+            Instant firstSubmitted = Instant.now();
+            executor.execute(() -> await(busy));
+            executor.execute(() -> await(busy));
+
+            AtomicReference<Thread> overflowThread = new AtomicReference<>();
+            executor.execute(() -> overflowThread.set(Thread.currentThread()));
+
+            assertThat(meterRegistry.get("notifications.dispatch.queue.depth").gauge().value()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("notifications.dispatch.dropped").counter().count()).isEqualTo(1.0);
+            assertThat(backlog.oldestSubmission()).isAfterOrEqualTo(firstSubmitted);
+            busy.countDown();
+            executor.shutdown();
+            assertThat(overflowThread.get()).isNull();
+            assertThat(backlog.oldestSubmission()).isNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ReservationCreatedEvent createdEvent() {
+        return ReservationCreatedEvent.builder()
+                                      .reservationId(1L)
+                                      .customerName("John Doe")
+                                      .email("john@example.com")
+                                      .phoneNumber("+1234567890")
+                                      .reservationDateTime(LocalDateTime.now().plusDays(1))
+                                      .numberOfGuests(4)
+                                      .notificationChannel(NotificationChannel.EMAIL)
+                                      .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
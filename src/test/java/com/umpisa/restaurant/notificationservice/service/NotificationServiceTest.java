@@ -0,0 +1,133 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.service.audit.NotificationAuditLog;
+import com.umpisa.restaurant.notificationservice.service.sender.BatchingSmsSender;
+import com.umpisa.restaurant.notificationservice.service.sender.NotificationSender;
+import com.umpisa.restaurant.notificationservice.service.sender.SmsGateway;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private final NotificationSender emailSender = mock(NotificationSender.class);
+    private final SmsGateway smsGateway = mock(SmsGateway.class);
+    private final NotificationAuditLog auditLog = mock(NotificationAuditLog.class);
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        when(emailSender.channel()).thenReturn(NotificationChannel.EMAIL);
+        notificationService = new NotificationService(List.of(emailSender, new BatchingSmsSender(smsGateway, 2)), auditLog);
+    }
+
+    @Test
+    void sendNotification_WithEmailChannel_ShouldUseOnlyEmailSender() {
+        NotificationRequest request = request(NotificationChannel.EMAIL, 1);
+
+        notificationService.sendNotification(request);
+
+        verify(emailSender).send(request);
+        verify(smsGateway, never()).sendBatch(any());
+    }
+
+    @Test
+    void sendNotification_WithBothChannel_ShouldUseBothSenders() {
+        NotificationRequest request = request(NotificationChannel.BOTH, 1);
+
+        notificationService.sendNotification(request);
+
+        verify(emailSender).send(request);
+        verify(smsGateway).sendBatch(List.of(new SmsGateway.SmsMessage("+639170000001", "Your table is booked.")));
+        verify(auditLog).record(request, NotificationChannel.EMAIL, true);
+        verify(auditLog).record(request, NotificationChannel.SMS, true);
+    }
+
+    @Test
+    void sendNotification_WhenSenderFails_ShouldAuditFailureAndRethrow() {
+        NotificationRequest request = request(NotificationChannel.EMAIL, 1);
+        doThrow(new IllegalStateException("Connection refused")).when(emailSender).send(request);
+
+        assertThatThrownBy(() -> notificationService.sendNotification(request))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(auditLog).record(request, NotificationChannel.EMAIL, false);
+    }
+
+    @Test
+    void sendNotifications_ShouldBatchEachChannel() {
+        List<NotificationRequest> requests = IntStream.rangeClosed(1, 5)
+                                                      .mapToObj(i -> request(i % 2 == 0 ? NotificationChannel.EMAIL
+                                                                                        : NotificationChannel.BOTH, i))
+                                                      .toList();
+
+        notificationService.sendNotifications(requests);
+
+        verify(emailSender).sendAll(requests);
+        // Three SMS in batches of two
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SmsGateway.SmsMessage>> batches = ArgumentCaptor.forClass(List.class);
+        verify(smsGateway, times(2)).sendBatch(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(batches.getAllValues().get(1).get(0).phoneNumber()).isEqualTo("+639170000005");
+    }
+
+    @Test
+    void sendNotifications_WhenBatchFailsPartWay_ShouldAuditOnlyDeliveredAsSent() {
+        List<NotificationRequest> requests = List.of(request(NotificationChannel.EMAIL, 1), request(NotificationChannel.EMAIL, 2));
+        doThrow(new NotificationBatchException(1, new NotificationDeliveryException("Connection reset")))
+                .when(emailSender).sendAll(requests);
+
+        assertThatThrownBy(() -> notificationService.sendNotifications(requests))
+                .isInstanceOf(NotificationBatchException.class);
+
+        verify(auditLog).record(requests.get(0), NotificationChannel.EMAIL, true);
+        verify(auditLog).record(requests.get(1), NotificationChannel.EMAIL, false);
+    }
+
+    @Test
+    void constructor_WithTwoSendersForOneChannel_ShouldThrow() {
+        NotificationSender otherEmailSender = mock(NotificationSender.class);
+        when(otherEmailSender.channel()).thenReturn(NotificationChannel.EMAIL);
+
+        assertThatThrownBy(() -> new NotificationService(List.of(emailSender, otherEmailSender), auditLog))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void sendNotification_WithoutSenderForChannel_ShouldThrow() {
+        NotificationService emailOnly = new NotificationService(List.of(emailSender), auditLog);
+
+        assertThatThrownBy(() -> emailOnly.sendNotification(request(NotificationChannel.SMS, 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SMS");
+    }
+
+    private static NotificationRequest request(NotificationChannel channel, int i) {
+        return NotificationRequest.builder()
+                                  .channel(channel)
+                                  .email("guest" + i + "@example.com")
+                                  .phoneNumber("+63917000000" + i)
+                                  .subject("Reservation Confirmed - ID #" + i)
+                                  .message("Your table is booked.")
+                                  .build();
+    }
+}
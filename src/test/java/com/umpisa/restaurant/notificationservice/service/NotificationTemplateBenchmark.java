@@ -0,0 +1,87 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Compares rendering the confirmation message with the compiled template against the previous
+ * implementation, which built a placeholder map and ran one {@link String#replace} pass per placeholder.
+ * Reports throughput and bytes allocated per render, measured with the HotSpot per-thread allocation counter.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=NotificationTemplateBenchmark}.
+ */
+class NotificationTemplateBenchmark {
+
+    private static final int RENDERS = 1_000_000;
+
+    private static final String BODY = """
+            Dear {customerName},
+
+            Your reservation has been confirmed!
+
+            Reservation ID: {reservationId}
+            Date & Time: {dateTime}
+            Number of Guests: {numberOfGuests}
+
+            We look forward to serving you!
+
+            Best regards,
+            Restaurant Reservation System
+            """;
+
+    private static final String DATE_TIME = "Saturday, March 14, 2026 at 07:30 PM";
+
+    private final NotificationTemplate compiled =
+            NotificationTemplate.compile("confirmation.body", BODY, "customerName", "reservationId", "dateTime", "numberOfGuests");
+
+    // Kept alive so the renders cannot be optimized away
+    private long sink;
+
+    @Test
+    void renderThroughputAndAllocation() {
+        // Warm up the JIT before measuring
+        measure("warm-up             ", this::renderReplace);
+        measure("warm-up             ", this::renderCompiled);
+
+        measure("map + String.replace", this::renderReplace);
+        measure("compiled segments   ", this::renderCompiled);
+    }
+
+    private String renderCompiled(int i) {
+        return compiled.render("Guest " + (i & 1023), String.valueOf(i), DATE_TIME, String.valueOf(i & 7));
+    }
+
+    private String renderReplace(int i) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("customerName", "Guest " + (i & 1023));
+        placeholders.put("reservationId", String.valueOf(i));
+        placeholders.put("dateTime", DATE_TIME);
+        placeholders.put("numberOfGuests", String.valueOf(i & 7));
+
+        String result = BODY;
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            result = result.replace("{" + entry.getKey() + "}", entry.getValue());
+        }
+        return result;
+    }
+
+    private void measure(String label, IntFunction<String> render) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < RENDERS; i++) {
+            sink += render.apply(i).length();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%s: %,12.0f renders/s, %,6d bytes/render%n", label, RENDERS / seconds, allocated / RENDERS);
+    }
+}
@@ -0,0 +1,107 @@
+package com.umpisa.restaurant.notificationservice.service;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationTemplateProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationTemplateTest {
+
+    @Test
+    void render_ShouldFillEverySlotInOrder() {
+        NotificationTemplate template = NotificationTemplate.compile("test", "Dear {customerName}, #{reservationId} for {customerName}.",
+                                                                     "customerName", "reservationId");
+
+        assertThat(template.render("Ana", "42")).isEqualTo("Dear Ana, #42 for Ana.");
+    }
+
+    @Test
+    void render_ShouldKeepBracesThatAreNotPlaceholders() {
+        NotificationTemplate template = NotificationTemplate.compile("test", "{} { time } {time}", "time");
+
+        assertThat(template.render("7:00 PM")).isEqualTo("{} { time } 7:00 PM");
+    }
+
+    @Test
+    void compile_WithUnknownPlaceholder_ShouldFail() {
+        assertThatThrownBy(() -> NotificationTemplate.compile("reminder.subject", "At {time} on {date}", "time"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("reminder.subject")
+                .hasMessageContaining("{date}");
+    }
+
+    @Test
+    void templateService_WithUnknownPlaceholder_ShouldFailAtStartup() {
+        NotificationTemplateProperties properties = properties();
+        properties.getCancellation().setBody("Your table on {dateTime} is cancelled");
+
+        assertThatThrownBy(() -> new NotificationTemplateService(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cancellation.body");
+    }
+
+    @Test
+    void templateService_ShouldRenderConfiguredTemplates() {
+        NotificationTemplateService templateService = new NotificationTemplateService(properties());
+        LocalDateTime dateTime = LocalDateTime.of(2026, 3, 14, 19, 30);
+
+        assertThat(templateService.buildConfirmationSubject(42L, null)).isEqualTo("Confirmed #42");
+        assertThat(templateService.buildReservationConfirmationMessage("Ana", 42L, dateTime, 4, null))
+                .isEqualTo("Ana, 42, Saturday, March 14, 2026 at 07:30 PM, 4");
+        assertThat(templateService.buildReminderSubject(dateTime, null)).isEqualTo("See you at 07:30 PM");
+    }
+
+    @Test
+    void templateService_ShouldRenderInPreferredLanguage() {
+        NotificationTemplateProperties properties = properties();
+        NotificationTemplateProperties.LocaleTemplates chinese = new NotificationTemplateProperties.LocaleTemplates();
+        chinese.setDateTimePattern("yyyy年M月d日 HH:mm");
+        chinese.setTimePattern("HH:mm");
+        chinese.setConfirmation(template("预订已确认 #{reservationId}", "{customerName}，{dateTime}"));
+        properties.getLocales().put("zh", chinese);
+        NotificationTemplateService templateService = new NotificationTemplateService(properties);
+        LocalDateTime dateTime = LocalDateTime.of(2026, 3, 14, 19, 30);
+
+        assertThat(templateService.buildConfirmationSubject(42L, "zh")).isEqualTo("预订已确认 #42");
+        assertThat(templateService.buildReservationConfirmationMessage("Ana", 42L, dateTime, 4, "zh"))
+                .isEqualTo("Ana，2026年3月14日 19:30");
+        // Regional variants use the base language
+        assertThat(templateService.buildConfirmationSubject(42L, "zh-TW")).isEqualTo("预订已确认 #42");
+        // Templates a language leaves out fall back to the default language, formatted for the language
+        assertThat(templateService.buildReminderSubject(dateTime, "zh")).isEqualTo("See you at 19:30");
+        // Languages without templates use the default language
+        assertThat(templateService.buildConfirmationSubject(42L, "ko")).isEqualTo("Confirmed #42");
+    }
+
+    @Test
+    void templateService_WithUnknownPlaceholderInTranslation_ShouldFailAtStartup() {
+        NotificationTemplateProperties properties = properties();
+        NotificationTemplateProperties.LocaleTemplates filipino = new NotificationTemplateProperties.LocaleTemplates();
+        filipino.setReminder(template("Paalala: {oras}", "{customerName}, {dateTime}, {numberOfGuests}"));
+        properties.getLocales().put("fil", filipino);
+
+        assertThatThrownBy(() -> new NotificationTemplateService(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("locales.fil.reminder.subject");
+    }
+
+    private static NotificationTemplateProperties properties() {
+        NotificationTemplateProperties properties = new NotificationTemplateProperties();
+        properties.setConfirmation(template("Confirmed #{reservationId}", "{customerName}, {reservationId}, {dateTime}, {numberOfGuests}"));
+        properties.setCancellation(template("Cancelled #{reservationId}", "{customerName}, {reservationId}"));
+        properties.setUpdate(template("Updated #{reservationId}", "{customerName}, {reservationId}, {dateTime}, {numberOfGuests}"));
+        properties.setReminder(template("See you at {time}", "{customerName}, {dateTime}, {numberOfGuests}"));
+        properties.setWaitlistPromotion(template("Promoted #{reservationId}", "{customerName}, {reservationId}, {dateTime}, {numberOfGuests}"));
+        return properties;
+    }
+
+    private static NotificationTemplateProperties.TemplateConfig template(String subject, String body) {
+        NotificationTemplateProperties.TemplateConfig template = new NotificationTemplateProperties.TemplateConfig();
+        template.setSubject(subject);
+        template.setBody(body);
+        return template;
+    }
+}
@@ -1,19 +1,25 @@
 package com.umpisa.restaurant.notificationservice.service;
 
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.notificationservice.model.NotificationCoalescingProperties;
 import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.repository.HeldNotificationRepository;
 import com.umpisa.restaurant.notificationservice.service.event.ReservationEventListener;
 import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -24,12 +30,11 @@ import static org.mockito.Mockito.*;
 class ReservationEventListenerTest {
 
     @Mock
-    private NotificationService notificationService;
+    private NotificationDeliveryService deliveryService;
 
     @Mock
     private NotificationTemplateService templateService;
 
-    @InjectMocks
     private ReservationEventListener eventListener;
 
     private LocalDateTime futureDateTime;
@@ -37,6 +42,16 @@ class ReservationEventListenerTest {
     @BeforeEach
     void setUp() {
         futureDateTime = LocalDateTime.now().plusDays(1);
+
+        // Without a window every event is sent as it arrives
+        NotificationCoalescingProperties coalescingProperties = new NotificationCoalescingProperties();
+        coalescingProperties.setWindow(Duration.ZERO);
+        eventListener = new ReservationEventListener(new NotificationCoalescer(deliveryService, templateService,
+                                                                               mock(HeldNotificationRepository.class),
+                                                                               new ShardRouter(new ShardProperties()),
+                                                                               coalescingProperties,
+                                                                               mock(PlatformTransactionManager.class),
+                                                                               new SimpleMeterRegistry()));
     }
 
     @Test
@@ -51,15 +66,15 @@ class ReservationEventListenerTest {
                                                                .notificationChannel(NotificationChannel.EMAIL)
                                                                .build();
 
-        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt()))
+        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any()))
                 .thenReturn("Confirmation message");
-        when(templateService.buildConfirmationSubject(anyLong()))
+        when(templateService.buildConfirmationSubject(anyLong(), any()))
                 .thenReturn("Subject");
 
         eventListener.onReservationCreated(event);
 
         ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
-        verify(notificationService).sendNotification(requestCaptor.capture());
+        verify(deliveryService).deliver(requestCaptor.capture());
 
         NotificationRequest capturedRequest = requestCaptor.getValue();
         assertEquals(NotificationChannel.EMAIL, capturedRequest.getChannel());
@@ -69,6 +84,35 @@ class ReservationEventListenerTest {
         assertEquals("Confirmation message", capturedRequest.getMessage());
     }
 
+    @Test
+    void onReservationCreated_FromWaitlist_ShouldSendPromotionMessage() {
+        ReservationCreatedEvent event = ReservationCreatedEvent.builder()
+                                                               .reservationId(1L)
+                                                               .customerName("John Doe")
+                                                               .email("john@example.com")
+                                                               .phoneNumber("+1234567890")
+                                                               .reservationDateTime(futureDateTime)
+                                                               .numberOfGuests(4)
+                                                               .notificationChannel(NotificationChannel.EMAIL)
+                                                               .fromWaitlist(true)
+                                                               .build();
+
+        when(templateService.buildWaitlistPromotionMessage(anyString(), anyLong(), any(), anyInt(), any()))
+                .thenReturn("Promotion message");
+        when(templateService.buildWaitlistPromotionSubject(anyLong(), any()))
+                .thenReturn("Promotion subject");
+
+        eventListener.onReservationCreated(event);
+
+        ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(deliveryService).deliver(requestCaptor.capture());
+        verify(templateService, never()).buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any());
+
+        NotificationRequest capturedRequest = requestCaptor.getValue();
+        assertEquals("Promotion subject", capturedRequest.getSubject());
+        assertEquals("Promotion message", capturedRequest.getMessage());
+    }
+
     @Test
     void onReservationCreated_WithSmsChannel_ShouldSendSms() {
         ReservationCreatedEvent event = ReservationCreatedEvent.builder()
@@ -81,15 +125,15 @@ class ReservationEventListenerTest {
                                                                .notificationChannel(NotificationChannel.SMS)
                                                                .build();
 
-        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt()))
+        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any()))
                 .thenReturn("Confirmation message");
-        when(templateService.buildConfirmationSubject(anyLong()))
+        when(templateService.buildConfirmationSubject(anyLong(), any()))
                 .thenReturn("Subject");
 
         eventListener.onReservationCreated(event);
 
         ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
-        verify(notificationService).sendNotification(requestCaptor.capture());
+        verify(deliveryService).deliver(requestCaptor.capture());
 
         NotificationRequest capturedRequest = requestCaptor.getValue();
         assertEquals(NotificationChannel.SMS, capturedRequest.getChannel());
@@ -111,15 +155,15 @@ class ReservationEventListenerTest {
                                                                .notificationChannel(NotificationChannel.BOTH)
                                                                .build();
 
-        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt()))
+        when(templateService.buildReservationConfirmationMessage(anyString(), anyLong(), any(), anyInt(), any()))
                 .thenReturn("Confirmation message");
-        when(templateService.buildConfirmationSubject(anyLong()))
+        when(templateService.buildConfirmationSubject(anyLong(), any()))
                 .thenReturn("Subject");
 
         eventListener.onReservationCreated(event);
 
         ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
-        verify(notificationService).sendNotification(requestCaptor.capture());
+        verify(deliveryService).deliver(requestCaptor.capture());
 
         NotificationRequest capturedRequest = requestCaptor.getValue();
         assertEquals(NotificationChannel.BOTH, capturedRequest.getChannel());
@@ -139,15 +183,15 @@ class ReservationEventListenerTest {
                                                                    .notificationChannel(NotificationChannel.EMAIL)
                                                                    .build();
 
-        when(templateService.buildCancellationMessage(anyString(), anyLong()))
+        when(templateService.buildCancellationMessage(anyString(), anyLong(), any()))
                 .thenReturn("Cancellation message");
-        when(templateService.buildCancellationSubject(anyLong()))
+        when(templateService.buildCancellationSubject(anyLong(), any()))
                 .thenReturn("Subject");
 
         eventListener.onReservationCancelled(event);
 
         ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
-        verify(notificationService).sendNotification(requestCaptor.capture());
+        verify(deliveryService).deliver(requestCaptor.capture());
 
         NotificationRequest capturedRequest = requestCaptor.getValue();
         assertEquals(NotificationChannel.EMAIL, capturedRequest.getChannel());
@@ -169,15 +213,15 @@ class ReservationEventListenerTest {
                                                                .notificationChannel(NotificationChannel.SMS)
                                                                .build();
 
-        when(templateService.buildUpdateMessage(anyString(), anyLong(), any(), anyInt()))
+        when(templateService.buildUpdateMessage(anyString(), anyLong(), any(), anyInt(), any()))
                 .thenReturn("Update message");
-        when(templateService.buildUpdateSubject(anyLong()))
+        when(templateService.buildUpdateSubject(anyLong(), any()))
                 .thenReturn("Subject");
 
         eventListener.onReservationUpdated(event);
 
         ArgumentCaptor<NotificationRequest> requestCaptor = ArgumentCaptor.forClass(NotificationRequest.class);
-        verify(notificationService).sendNotification(requestCaptor.capture());
+        verify(deliveryService).deliver(requestCaptor.capture());
 
         NotificationRequest capturedRequest = requestCaptor.getValue();
         assertEquals(NotificationChannel.SMS, capturedRequest.getChannel());
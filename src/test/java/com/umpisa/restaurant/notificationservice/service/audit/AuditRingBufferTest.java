@@ -0,0 +1,90 @@
+package com.umpisa.restaurant.notificationservice.service.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacity_ShouldRoundUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new AuditRingBuffer<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void offer_WhenFull_ShouldRejectUntilPolled() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        Integer element;
+        while ((element = buffer.poll()) != null) {
+            drained.add(element);
+        }
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_FromManyThreads_ShouldDeliverEveryElementOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                executor.execute(() -> {
+                    await(start);
+                    for (int i = first; i < first + perProducer; i++) {
+                        // The consumer keeps up eventually
+                        while (!buffer.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            Set<Integer> received = new HashSet<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+                Integer element = buffer.poll();
+                if (element != null) {
+                    assertThat(received.add(element)).as("element %d is delivered once", element).isTrue();
+                }
+            }
+
+            assertThat(received).hasSize(producers * perProducer);
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.umpisa.restaurant.notificationservice.service.audit;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationAuditProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.service.NotificationService;
+import com.umpisa.restaurant.notificationservice.service.sender.NotificationSender;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Compares notification sends per second with the audit log disabled and enabled, from several threads
+ * at once, with senders that do nothing so that the audit overhead is all that is measured.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=NotificationAuditBenchmark}.
+ */
+class NotificationAuditBenchmark {
+
+    private static final int THREADS = 4;
+    private static final int SENDS_PER_THREAD = 500_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<NotificationRequest> requests = IntStream.range(0, 1_000)
+                                                                .mapToObj(NotificationAuditBenchmark::request)
+                                                                .toList();
+
+    @Test
+    void sendsPerSecond() throws Exception {
+        // Warm up the JIT before measuring
+        measure("warm-up       ", true);
+
+        measure("audit disabled", false);
+        measure("audit enabled ", true);
+    }
+
+    private void measure(String label, boolean auditEnabled) throws Exception {
+        NotificationAuditProperties properties = new NotificationAuditProperties();
+        properties.setEnabled(auditEnabled);
+        properties.setDirectory(directory.toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationAuditLog auditLog = new NotificationAuditLog(properties, meterRegistry);
+        NotificationService service = new NotificationService(List.of(noOp(NotificationChannel.EMAIL), noOp(NotificationChannel.SMS)),
+                                                              auditLog);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> futures = IntStream.range(0, THREADS).<Future<?>>mapToObj(t -> executor.submit(() -> {
+                for (int i = 0; i < SENDS_PER_THREAD; i++) {
+                    service.sendNotification(requests.get(i % requests.size()));
+                }
+            })).toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            System.out.printf("%s: %,12.0f sends/s, %,8.0f audit records dropped%n", label,
+                              THREADS * SENDS_PER_THREAD / seconds,
+                              meterRegistry.counter("notifications.audit.dropped").count());
+        } finally {
+            executor.shutdown();
+            auditLog.close();
+        }
+    }
+
+    private static NotificationSender noOp(NotificationChannel channel) {
+        return new NotificationSender() {
+            @Override
+            public NotificationChannel channel() {
+                return channel;
+            }
+
+            @Override
+            public void send(NotificationRequest request) {
+            }
+        };
+    }
+
+    private static NotificationRequest request(int i) {
+        return NotificationRequest.builder()
+                                  .channel(NotificationChannel.BOTH)
+                                  .email("guest" + i + "@example.com")
+                                  .phoneNumber("+6391700" + String.format("%05d", i))
+                                  .subject("Reservation Confirmed - ID #" + i)
+                                  .message("Your table is booked.")
+                                  .templateId("confirmation")
+                                  .build();
+    }
+}
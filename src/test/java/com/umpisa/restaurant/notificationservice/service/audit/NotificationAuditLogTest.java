@@ -0,0 +1,140 @@
+package com.umpisa.restaurant.notificationservice.service.audit;
+
+import com.umpisa.restaurant.notificationservice.model.NotificationAuditProperties;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.dto.response.NotificationAuditRecordResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationAuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private NotificationAuditLog auditLog;
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.close();
+        }
+    }
+
+    @Test
+    void record_ShouldBeFoundByRecipientNewestFirst() {
+        auditLog = newAuditLog(DataSize.ofMegabytes(1), 10);
+
+        auditLog.record(request(1, "confirmation"), NotificationChannel.EMAIL, true);
+        auditLog.record(request(2, "reminder"), NotificationChannel.EMAIL, true);
+        auditLog.record(request(1, "cancellation"), NotificationChannel.SMS, false);
+        auditLog.close();
+
+        List<NotificationAuditRecordResponse> records = auditLog.find("+639170000001", null, 10);
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getChannel()).isEqualTo(NotificationChannel.SMS);
+        assertThat(records.get(0).getTemplateId()).isEqualTo("cancellation");
+        assertThat(records.get(0).getStatus()).isEqualTo("FAILED");
+
+        List<NotificationAuditRecordResponse> all = auditLog.find(null, null, 10);
+        assertThat(all).extracting(NotificationAuditRecordResponse::getTemplateId)
+                          .containsExactly("cancellation", "reminder", "confirmation");
+    }
+
+    @Test
+    void record_ShouldHashMessageWithoutStoringIt() throws IOException {
+        auditLog = newAuditLog(DataSize.ofMegabytes(1), 10);
+
+        auditLog.record(request(1, "confirmation"), NotificationChannel.EMAIL, true);
+        auditLog.record(request(1, "confirmation"), NotificationChannel.SMS, true);
+        auditLog.close();
+
+        List<NotificationAuditRecordResponse> records = auditLog.find(null, null, 10);
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getHash()).hasSize(16).isEqualTo(records.get(1).getHash());
+        assertThat(auditLog.find(null, records.get(0).getHash(), 10)).hasSize(2);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                assertThat(Files.readString(file)).doesNotContain("Your table is booked");
+            }
+        }
+    }
+
+    @Test
+    void record_WhenFileIsFull_ShouldRollAndKeepNewestFiles() throws IOException {
+        // Roughly one record per file
+        auditLog = newAuditLog(DataSize.ofBytes(100), 3);
+
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(request(i, "confirmation"), NotificationChannel.EMAIL, true);
+        }
+        auditLog.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(3);
+        }
+        assertThat(auditLog.find(null, null, 10)).extracting(NotificationAuditRecordResponse::getRecipient)
+                                                 .containsExactly("guest9@example.com", "guest8@example.com", "guest7@example.com");
+    }
+
+    @Test
+    void find_WithInvalidLimit_ShouldThrow() {
+        auditLog = newAuditLog(DataSize.ofMegabytes(1), 10);
+
+        assertThatThrownBy(() -> auditLog.find(null, null, 0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> auditLog.find(null, null, NotificationAuditLog.MAX_QUERY_LIMIT + 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void record_WhenDisabled_ShouldWriteNothing() throws IOException {
+        NotificationAuditProperties properties = properties(DataSize.ofMegabytes(1), 10);
+        properties.setEnabled(false);
+        auditLog = new NotificationAuditLog(properties, new SimpleMeterRegistry());
+
+        auditLog.record(request(1, "confirmation"), NotificationChannel.EMAIL, true);
+        auditLog.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isZero();
+        }
+    }
+
+    private NotificationAuditLog newAuditLog(DataSize maxFileSize, int maxFiles) {
+        return new NotificationAuditLog(properties(maxFileSize, maxFiles), new SimpleMeterRegistry());
+    }
+
+    private NotificationAuditProperties properties(DataSize maxFileSize, int maxFiles) {
+        NotificationAuditProperties properties = new NotificationAuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxFileSize(maxFileSize);
+        properties.setMaxFiles(maxFiles);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        return properties;
+    }
+
+    private static NotificationRequest request(int i, String templateId) {
+        return NotificationRequest.builder()
+                                  .channel(NotificationChannel.BOTH)
+                                  .email("guest" + i + "@example.com")
+                                  .phoneNumber("+63917000000" + i)
+                                  .subject("Reservation Confirmed - ID #" + i)
+                                  .message("Your table is booked.")
+                                  .templateId(templateId)
+                                  .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.NotificationSenderProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Compares email throughput over one SMTP connection against a local GreenMail server when every
+ * message opens its own connection, when a pooled connection carries many messages, and when
+ * messages are sent in batches. Network round trips to a real server widen the gap considerably.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=SmtpEmailSenderBenchmark}.
+ */
+class SmtpEmailSenderBenchmark {
+
+    private static final int MESSAGES = 2_000;
+    private static final int BATCH_SIZE = 50;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final List<NotificationRequest> requests = IntStream.range(0, MESSAGES)
+                                                                .mapToObj(SmtpEmailSenderBenchmark::request)
+                                                                .toList();
+
+    @Test
+    void throughputPerConnection() {
+        // Warm up the JIT and the server before measuring
+        measure("warm-up                   ", 100, sender -> requests.forEach(sender::send));
+
+        measure("connection per message    ", 1, sender -> requests.forEach(sender::send));
+        measure("pooled connection         ", MESSAGES, sender -> requests.forEach(sender::send));
+        measure("pooled connection, batched", MESSAGES, sender -> {
+            for (int from = 0; from < MESSAGES; from += BATCH_SIZE) {
+                sender.sendAll(requests.subList(from, Math.min(from + BATCH_SIZE, MESSAGES)));
+            }
+        });
+    }
+
+    private static void measure(String label, int maxMessagesPerConnection, Consumer<SmtpEmailSender> work) {
+        NotificationSenderProperties.Email properties = new NotificationSenderProperties.Email();
+        properties.setHost("localhost");
+        properties.setPort(ServerSetupTest.SMTP.getPort());
+        properties.setPoolSize(1);
+        properties.setMaxMessagesPerConnection(maxMessagesPerConnection);
+
+        try (SmtpEmailSender sender = new SmtpEmailSender(properties, new SimpleMeterRegistry())) {
+            long started = System.nanoTime();
+            work.accept(sender);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            System.out.printf("%s: %,8.0f messages/s%n", label, MESSAGES / seconds);
+        }
+    }
+
+    private static NotificationRequest request(int i) {
+        return NotificationRequest.builder()
+                                  .channel(NotificationChannel.EMAIL)
+                                  .email("guest" + i + "@example.com")
+                                  .subject("Reservation Confirmed - ID #" + i)
+                                  .message("Your table is booked.")
+                                  .build();
+    }
+}
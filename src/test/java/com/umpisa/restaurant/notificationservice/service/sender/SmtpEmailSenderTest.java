@@ -0,0 +1,161 @@
+package com.umpisa.restaurant.notificationservice.service.sender;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.umpisa.restaurant.notificationservice.model.NotificationRequest;
+import com.umpisa.restaurant.notificationservice.model.NotificationSenderProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.shared.exceptions.NotificationBatchException;
+import com.umpisa.restaurant.shared.exceptions.NotificationDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sends to an in-process GreenMail SMTP server.
+ */
+class SmtpEmailSenderTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationSenderProperties.Email properties;
+    private SmtpEmailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationSenderProperties.Email();
+        properties.setHost("localhost");
+        properties.setPort(ServerSetupTest.SMTP.getPort());
+        properties.setFrom("reservations@restaurant.test");
+        sender = new SmtpEmailSender(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+    }
+
+    @Test
+    void send_ShouldDeliverTheMessage() throws Exception {
+        sender.send(request(1));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Reservation Confirmed - ID #1");
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("guest1@example.com");
+        assertThat(received[0].getFrom()[0].toString()).isEqualTo("reservations@restaurant.test");
+        assertThat(((String) received[0].getContent()).trim()).isEqualTo("Your table is booked.");
+    }
+
+    @Test
+    void send_ShouldReuseThePooledConnection() {
+        for (int i = 0; i < 10; i++) {
+            sender.send(request(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(connectionsOpened()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sendAll_ShouldSendTheBatchOverOneConnection() {
+        sender.sendAll(IntStream.range(0, 25).mapToObj(this::request).toList());
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(25);
+        assertThat(connectionsOpened()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sendAll_ShouldReplaceConnectionAfterMaxMessages() {
+        properties.setMaxMessagesPerConnection(10);
+
+        sender.sendAll(IntStream.range(0, 25).mapToObj(this::request).toList());
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(25);
+        assertThat(connectionsOpened()).isEqualTo(3.0);
+    }
+
+    @Test
+    void sendAll_WhenOneMessageFails_ShouldReportHowManyWereDelivered() {
+        List<NotificationRequest> requests = List.of(request(1), request(2).toBuilder().email("not-an-address").build(),
+                                                     request(3));
+
+        assertThatThrownBy(() -> sender.sendAll(requests))
+                .isInstanceOfSatisfying(NotificationBatchException.class, e -> {
+                    assertThat(e.getDelivered()).isEqualTo(1);
+                    assertThat(e.isPermanent()).isTrue();
+                });
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void send_AfterIdleTimeout_ShouldReopen() throws Exception {
+        properties.setIdleTimeout(Duration.ofMillis(50));
+
+        sender.send(request(1));
+        Thread.sleep(100);
+        sender.send(request(2));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(connectionsOpened()).isEqualTo(2.0);
+    }
+
+    @Test
+    void send_FromConcurrentThreads_ShouldOpenAtMostPoolSizeConnections() throws Exception {
+        properties.setPoolSize(2);
+        sender = new SmtpEmailSender(properties, meterRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> sends = IntStream.range(0, 40)
+                                             .<Future<?>>mapToObj(i -> executor.submit(() -> sender.send(request(i))))
+                                             .toList();
+            for (Future<?> send : sends) {
+                send.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(40);
+        assertThat(connectionsOpened()).isLessThanOrEqualTo(2.0);
+    }
+
+    @Test
+    void send_WhenServerUnavailable_ShouldThrow() {
+        properties.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        properties.setConnectTimeout(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> sender.send(request(1)))
+                .isInstanceOf(NotificationDeliveryException.class);
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.get("notifications.email.connections.opened").counter().count();
+    }
+
+    private NotificationRequest request(int i) {
+        return NotificationRequest.builder()
+                                  .channel(NotificationChannel.EMAIL)
+                                  .email("guest" + i + "@example.com")
+                                  .subject("Reservation Confirmed - ID #" + i)
+                                  .message("Your table is booked.")
+                                  .build();
+    }
+}
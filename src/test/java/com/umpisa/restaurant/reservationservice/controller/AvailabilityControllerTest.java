@@ -0,0 +1,56 @@
+package com.umpisa.restaurant.reservationservice.controller;
+
+import com.umpisa.restaurant.reservationservice.model.dto.response.AvailabilityResponse;
+import com.umpisa.restaurant.reservationservice.service.AvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AvailabilityController.class)
+class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    @Test
+    void getAvailability_ShouldReturnNearestSlots() throws Exception {
+        LocalDate date = LocalDate.of(2030, 12, 24);
+        AvailabilityResponse response = AvailabilityResponse.builder()
+                                                            .restaurantId(1L)
+                                                            .date(date)
+                                                            .partySize(4)
+                                                            .requestedSlot(date.atTime(19, 0))
+                                                            .requestedSlotAvailable(false)
+                                                            .slots(List.of(new AvailabilityResponse.SlotAvailability(date.atTime(19, 30), 6)))
+                                                            .build();
+        when(availabilityService.getAvailability(1L, date, 4, LocalTime.of(19, 0), 1)).thenReturn(response);
+
+        mockMvc.perform(get("/api/availability")
+                                .param("restaurantId", "1")
+                                .param("date", "2030-12-24")
+                                .param("partySize", "4")
+                                .param("time", "19:00")
+                                .param("nearest", "1"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.restaurantId").value(1))
+               .andExpect(jsonPath("$.requestedSlotAvailable").value(false))
+               .andExpect(jsonPath("$.slots[0].remainingSeats").value(6));
+
+        verify(availabilityService).getAvailability(1L, date, 4, LocalTime.of(19, 0), 1);
+    }
+}
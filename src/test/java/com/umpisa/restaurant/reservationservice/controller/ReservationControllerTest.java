@@ -3,19 +3,27 @@ package com.umpisa.restaurant.reservationservice.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
 import com.umpisa.restaurant.reservationservice.model.dto.request.UpdateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.BulkImportResponse;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationPageResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
 import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.service.IdempotencyStore;
+import com.umpisa.restaurant.reservationservice.service.ReservationImportService;
 import com.umpisa.restaurant.reservationservice.service.ReservationService;
+import com.umpisa.restaurant.shared.exceptions.IdempotencyKeyMismatchException;
+import com.umpisa.restaurant.shared.exceptions.PreconditionFailedException;
 import com.umpisa.restaurant.shared.exceptions.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -23,6 +31,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,6 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,6 +55,12 @@ class ReservationControllerTest {
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private ReservationImportService reservationImportService;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
     private CreateReservationRequest createRequest;
     private ReservationResponse reservationResponse;
 
@@ -53,6 +69,7 @@ class ReservationControllerTest {
         LocalDateTime futureDateTime = LocalDateTime.now().plusDays(1);
 
         createRequest = CreateReservationRequest.builder()
+                                                .restaurantId(1L)
                                                 .customerName("John Doe")
                                                 .phoneNumber("+1234567890")
                                                 .email("john@example.com")
@@ -89,6 +106,34 @@ class ReservationControllerTest {
         verify(reservationService).createReservation(any(CreateReservationRequest.class));
     }
 
+    @Test
+    void createReservation_WithIdempotencyKey_ShouldReplayStoredResponse() throws Exception {
+        when(idempotencyStore.execute(eq("retry-1"), any(CreateReservationRequest.class), any()))
+                .thenReturn(new IdempotencyStore.Result(reservationResponse, true));
+
+        mockMvc.perform(post("/api/reservations")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(createRequest)))
+               .andExpect(status().isCreated())
+               .andExpect(header().string("Idempotent-Replayed", "true"))
+               .andExpect(jsonPath("$.id").value(1L));
+
+        verify(reservationService, never()).createReservation(any());
+    }
+
+    @Test
+    void createReservation_WithReusedIdempotencyKey_ShouldReturnUnprocessableEntity() throws Exception {
+        when(idempotencyStore.execute(eq("retry-1"), any(CreateReservationRequest.class), any()))
+                .thenThrow(new IdempotencyKeyMismatchException("Idempotency-Key retry-1 was already used for a different request"));
+
+        mockMvc.perform(post("/api/reservations")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(createRequest)))
+               .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void createReservation_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         createRequest.setEmail("invalid-email");
@@ -116,12 +161,34 @@ class ReservationControllerTest {
         verify(reservationService).getUpcomingReservations("john@example.com");
     }
 
+    @Test
+    void getUpcomingReservations_WithLimit_ShouldReturnPage() throws Exception {
+        ReservationPageResponse page = ReservationPageResponse.builder()
+                                                              .content(List.of(reservationResponse))
+                                                              .nextCursor("next")
+                                                              .hasMore(true)
+                                                              .build();
+        when(reservationService.getUpcomingReservations("john@example.com", null, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/reservations")
+                                .param("email", "john@example.com")
+                                .param("limit", "1"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content[0].id").value(1L))
+               .andExpect(jsonPath("$.nextCursor").value("next"))
+               .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(reservationService, never()).getUpcomingReservations("john@example.com");
+    }
+
     @Test
     void getReservationById_ShouldReturnReservation() throws Exception {
+        reservationResponse.setVersion(0L);
         when(reservationService.getReservationById(1L)).thenReturn(reservationResponse);
 
         mockMvc.perform(get("/api/reservations/1"))
                .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
                .andExpect(jsonPath("$.id").value(1L))
                .andExpect(jsonPath("$.customerName").value("John Doe"));
 
@@ -144,25 +211,67 @@ class ReservationControllerTest {
                                                                          .numberOfGuests(6)
                                                                          .build();
 
-        when(reservationService.updateReservation(eq(1L), any(UpdateReservationRequest.class)))
+        reservationResponse.setVersion(3L);
+        when(reservationService.updateReservation(eq(1L), any(UpdateReservationRequest.class), eq(2L)))
                 .thenReturn(reservationResponse);
 
         mockMvc.perform(put("/api/reservations/1")
+                                .header(HttpHeaders.IF_MATCH, "\"2\"")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(updateRequest)))
                .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                .andExpect(jsonPath("$.id").value(1L));
 
-        verify(reservationService).updateReservation(eq(1L), any(UpdateReservationRequest.class));
+        verify(reservationService).updateReservation(eq(1L), any(UpdateReservationRequest.class), eq(2L));
     }
 
     @Test
     void cancelReservation_ShouldReturnNoContent() throws Exception {
-        doNothing().when(reservationService).cancelReservation(1L);
+        doNothing().when(reservationService).cancelReservation(1L, null);
 
         mockMvc.perform(delete("/api/reservations/1"))
                .andExpect(status().isNoContent());
 
-        verify(reservationService).cancelReservation(1L);
+        verify(reservationService).cancelReservation(1L, null);
+    }
+
+    @Test
+    void cancelReservation_WhenVersionIsStale_ShouldReturnPreconditionFailed() throws Exception {
+        doThrow(new PreconditionFailedException("Reservation with ID 1 has version 3, expected 2"))
+                .when(reservationService).cancelReservation(1L, 2L);
+
+        mockMvc.perform(delete("/api/reservations/1")
+                                .header(HttpHeaders.IF_MATCH, "W/\"2\""))
+               .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void cancelReservation_WithMalformedIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(delete("/api/reservations/1")
+                                .header(HttpHeaders.IF_MATCH, "\"abc\""))
+               .andExpect(status().isPreconditionFailed());
+
+        verify(reservationService, never()).cancelReservation(any(), any());
+    }
+
+    @Test
+    void importReservations_ShouldReturnImportSummary() throws Exception {
+        BulkImportResponse importResponse = BulkImportResponse.builder()
+                                                              .totalLines(2)
+                                                              .importedCount(1)
+                                                              .failedCount(1)
+                                                              .errors(List.of(new BulkImportResponse.LineError(2, "Malformed JSON")))
+                                                              .build();
+        when(reservationImportService.importReservations(any(InputStream.class))).thenReturn(importResponse);
+
+        mockMvc.perform(post("/api/reservations/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(objectMapper.writeValueAsString(createRequest) + "\n{not json}\n"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.importedCount").value(1))
+               .andExpect(jsonPath("$.errors[0].lineNumber").value(2));
+
+        verify(reservationImportService).importReservations(any(InputStream.class));
     }
 }
@@ -0,0 +1,73 @@
+package com.umpisa.restaurant.reservationservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.WaitlistEntryResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.service.WaitlistService;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WaitlistController.class)
+class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private WaitlistService waitlistService;
+
+    @Test
+    void joinWaitlist_ShouldReturnCreated() throws Exception {
+        CreateReservationRequest request = CreateReservationRequest.builder()
+                                                                   .restaurantId(1L)
+                                                                   .customerName("John Doe")
+                                                                   .phoneNumber("+639171234567")
+                                                                   .email("john@example.com")
+                                                                   .reservationDateTime(LocalDateTime.now().plusDays(1))
+                                                                   .numberOfGuests(4)
+                                                                   .notificationChannel(NotificationChannel.EMAIL)
+                                                                   .build();
+        WaitlistEntryResponse response = WaitlistEntryResponse.builder()
+                                                              .id(1L)
+                                                              .email("john@example.com")
+                                                              .status(WaitlistStatus.WAITING)
+                                                              .build();
+        when(waitlistService.joinWaitlist(any(CreateReservationRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/waitlist")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+               .andExpect(status().isCreated())
+               .andExpect(jsonPath("$.id").value(1))
+               .andExpect(jsonPath("$.status").value("WAITING"));
+    }
+
+    @Test
+    void leaveWaitlist_WhenNoLongerWaiting_ShouldReturnBadRequest() throws Exception {
+        doThrow(new InvalidReservationException("Waitlist entry is no longer waiting"))
+                .when(waitlistService).leaveWaitlist(1L);
+
+        mockMvc.perform(delete("/api/waitlist/1"))
+               .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,118 @@
+package com.umpisa.restaurant.reservationservice.repository;
+
+import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Compares latency and allocated bytes of the entity read path (load managed entities, then map)
+ * against the DTO projection read path on a 10k-row result set.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=ReservationReadPathBenchmark}.
+ */
+@DataJpaTest(properties = {
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import(ReservationMapper.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationReadPathBenchmark {
+
+    private static final String EMAIL = "corporate@example.com";
+    private static final int ROWS = 10_000;
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASURED_ITERATIONS = 30;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entityPathVersusProjectionPath() {
+        seed();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        LocalDateTime now = LocalDateTime.now();
+
+        Supplier<List<ReservationResponse>> entityPath = () -> readOnly.execute(status ->
+                reservationRepository.findByEmailAndStatusAndReservationDateTimeAfter(EMAIL, ReservationStatus.CONFIRMED, now)
+                                     .stream()
+                                     .map(reservationMapper::toResponse)
+                                     .collect(Collectors.toList()));
+
+        Supplier<List<ReservationResponse>> projectionPath = () -> readOnly.execute(status ->
+                reservationRepository.findUpcomingResponses(EMAIL, ReservationStatus.CONFIRMED, now));
+
+        measure("entity + mapper", entityPath);
+        measure("DTO projection ", projectionPath);
+
+        reservationRepository.deleteAllInBatch();
+    }
+
+    private void measure(String label, Supplier<List<ReservationResponse>> readPath) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+        }
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            rows = readPath.get().size();
+        }
+        double elapsedMillis = (System.nanoTime() - started) / 1_000_000.0;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%s: %d rows, %.2f ms/query, %,d KiB allocated/query, %.1f MB/s allocation rate%n",
+                          label, rows,
+                          elapsedMillis / MEASURED_ITERATIONS,
+                          allocated / MEASURED_ITERATIONS / 1024,
+                          allocated / 1_048_576.0 / (elapsedMillis / 1000.0));
+    }
+
+    private void seed() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Reservation> reservations = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            reservations.add(Reservation.builder()
+                                        .id((long) i + 1)
+                                        .restaurantId(1L)
+                                        .customerName("Corporate Guest " + i)
+                                        .phoneNumber("+639170000000")
+                                        .email(EMAIL)
+                                        .reservationDateTime(start.plusMinutes(i))
+                                        .numberOfGuests(2)
+                                        .status(ReservationStatus.CONFIRMED)
+                                        .notificationChannel(NotificationChannel.EMAIL)
+                                        .build());
+        }
+        reservationRepository.saveAll(reservations);
+    }
+}
@@ -0,0 +1,144 @@
+package com.umpisa.restaurant.reservationservice.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that every range query in {@link ReservationRepository} is served by one of the
+ * indexes declared on the {@code reservations} table instead of a full table scan.
+ * The SQL below mirrors the predicates Hibernate generates for each repository method.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationRepositoryIndexTest {
+
+    private static final int ROW_COUNT = 50_000;
+    private static final int CUSTOMER_COUNT = 500;
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 15, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedReservations() {
+        List<Object[]> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            LocalDateTime reservationDateTime = NOW.plusHours(i % 17_520 - 8_760);
+            Timestamp timestamp = Timestamp.valueOf(NOW);
+            rows.add(new Object[]{
+                    (long) i + 1,
+                    1L + i % 20,
+                    "Customer " + i,
+                    "+639170000000",
+                    "customer" + (i % CUSTOMER_COUNT) + "@example.com",
+                    Timestamp.valueOf(reservationDateTime),
+                    1 + i % 8,
+                    i % 10 == 0 ? "CANCELLED" : "CONFIRMED",
+                    "EMAIL",
+                    reservationDateTime.isBefore(NOW),
+                    timestamp,
+                    timestamp
+            });
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (id, restaurant_id, customer_name, phone_number, email, " +
+                                         "reservation_date_time, number_of_guests, status, notification_channel, " +
+                                         "reminder_sent, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                                 rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void removeReservations() {
+        jdbcTemplate.update("DELETE FROM reservations");
+    }
+
+    @Test
+    void findByEmail_ShouldUseEmailIndex() {
+        String plan = explain("SELECT * FROM reservations WHERE email = 'customer42@example.com'");
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_EMAIL_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findByStatusAndReservationDateTimeAfter_ShouldUseStatusIndex() {
+        String plan = explain("SELECT * FROM reservations WHERE status = 'CONFIRMED' " +
+                                      "AND reservation_date_time > " + literal(NOW.plusDays(300)));
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findByEmailAndStatusAndReservationDateTimeAfter_ShouldUseEmailIndex() {
+        String plan = explain("SELECT * FROM reservations WHERE email = 'customer42@example.com' " +
+                                      "AND status = 'CONFIRMED' AND reservation_date_time > " + literal(NOW));
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_EMAIL_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findPageByEmailAndStatusAfter_ShouldUseEmailIndex() {
+        LocalDateTime afterDateTime = NOW.plusDays(30);
+        String plan = explain("SELECT id, reservation_date_time FROM reservations WHERE email = 'customer42@example.com' " +
+                                      "AND status = 'CONFIRMED' AND reservation_date_time >= " + literal(afterDateTime) +
+                                      " AND (reservation_date_time > " + literal(afterDateTime) + " OR id > 1042)" +
+                                      " ORDER BY reservation_date_time, id FETCH FIRST 20 ROWS ONLY");
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_EMAIL_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findByReservationDateTimeBetweenAndReminderSentAndStatus_ShouldUseReminderIndex() {
+        LocalDateTime windowStart = NOW.plusHours(4);
+        String plan = explain("SELECT * FROM reservations WHERE reservation_date_time BETWEEN " +
+                                      literal(windowStart) + " AND " + literal(windowStart.plusMinutes(5)) +
+                                      " AND reminder_sent = FALSE AND status = 'CONFIRMED'");
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_REMINDER_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findBookedSeatsFrom_ShouldUseStatusIndex() {
+        String plan = explain("SELECT restaurant_id, reservation_date_time, SUM(number_of_guests) FROM reservations " +
+                                      "WHERE status = 'CONFIRMED' AND reservation_date_time >= " + literal(NOW.plusDays(300)) +
+                                      " GROUP BY restaurant_id, reservation_date_time");
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_STATUS_DATE_TIME");
+    }
+
+    @Test
+    void findIdsScheduledBefore_ShouldUseDateTimeIndex() {
+        String plan = explain("SELECT id FROM reservations WHERE reservation_date_time < " + literal(NOW.minusDays(300)) +
+                                      " ORDER BY reservation_date_time");
+
+        assertIndexUsed(plan, "IDX_RESERVATIONS_DATE_TIME");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private static String literal(LocalDateTime dateTime) {
+        return "TIMESTAMP '" + Timestamp.valueOf(dateTime) + "'";
+    }
+
+    private static void assertIndexUsed(String plan, String indexName) {
+        assertThat(plan).as("query plan").doesNotContainIgnoringCase("tableScan");
+        assertThat(plan).as("query plan").containsIgnoringCase(indexName);
+    }
+}
@@ -0,0 +1,102 @@
+package com.umpisa.restaurant.reservationservice.repository;
+
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures insert throughput of {@link ReservationRepository#saveAll} at JDBC batch sizes 1, 50 and 500.
+ * A batch size of 1 reproduces the one-round-trip-per-row behaviour of the former IDENTITY id strategy.
+ * Every run commits the same {@value #ROWS_PER_TRANSACTION} rows per transaction, so the runs differ only in
+ * statement round trips and not in commit overhead.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=ReservationSaveAllBenchmark}.
+ */
+@DataJpaTest(properties = {
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationSaveAllBenchmark {
+
+    private static final int ROWS_PER_RUN = 20_000;
+    private static final int ROWS_PER_TRANSACTION = 500;
+    private static final int[] BATCH_SIZES = {1, 50, 500};
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long nextId = 1;
+
+    @Test
+    void saveAllThroughput() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Warm up the connection pool, statement cache and JIT before measuring
+        insert(transactionTemplate, 50, ROWS_PER_RUN / 4);
+
+        for (int batchSize : BATCH_SIZES) {
+            long started = System.nanoTime();
+            insert(transactionTemplate, batchSize, ROWS_PER_RUN);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            System.out.printf("saveAll batch size %4d: %,10.0f inserts/s (%d rows in %d transactions, %.2f s)%n",
+                              batchSize, ROWS_PER_RUN / seconds, ROWS_PER_RUN,
+                              ROWS_PER_RUN / ROWS_PER_TRANSACTION, seconds);
+        }
+
+        reservationRepository.deleteAllInBatch();
+    }
+
+    private void insert(TransactionTemplate transactionTemplate, int batchSize, int rows) {
+        for (int offset = 0; offset < rows; offset += ROWS_PER_TRANSACTION) {
+            List<Reservation> chunk = buildReservations(offset, Math.min(ROWS_PER_TRANSACTION, rows - offset));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                reservationRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private List<Reservation> buildReservations(int offset, int count) {
+        LocalDateTime reservationDateTime = LocalDateTime.now().plusDays(1);
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(Reservation.builder()
+                                        .id(nextId++)
+                                        .restaurantId(1L + (offset + i) % 20)
+                                        .customerName("Customer " + (offset + i))
+                                        .phoneNumber("+639170000000")
+                                        .email("customer" + (offset + i) % 500 + "@example.com")
+                                        .reservationDateTime(reservationDateTime.plusMinutes(i))
+                                        .numberOfGuests(2)
+                                        .status(ReservationStatus.CONFIRMED)
+                                        .notificationChannel(NotificationChannel.EMAIL)
+                                        .build());
+        }
+        return reservations;
+    }
+}
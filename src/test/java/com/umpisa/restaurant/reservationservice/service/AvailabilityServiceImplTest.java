@@ -0,0 +1,92 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.AvailabilityResponse;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AvailabilityServiceImplTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    private ReservationCapacityEngine capacityEngine;
+    private AvailabilityServiceImpl availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        ReservationCapacityProperties properties = new ReservationCapacityProperties();
+        properties.setSlotLength(Duration.ofMinutes(30));
+        properties.setSeatsPerSlot(10);
+        properties.setOpeningTime(LocalTime.of(17, 0));
+        properties.setClosingTime(LocalTime.of(21, 0));
+
+        capacityEngine = new ReservationCapacityEngine(mock(ReservationRepository.class), new ShardRouter(new ShardProperties()), properties);
+        availabilityService = new AvailabilityServiceImpl(capacityEngine, properties);
+    }
+
+    @Test
+    void getAvailability_WithoutTime_ShouldListOpenSlotsWithinOpeningHours() {
+        capacityEngine.tryReserve(RESTAURANT_ID, tomorrow.atTime(18, 0), 8);
+
+        AvailabilityResponse response = availabilityService.getAvailability(RESTAURANT_ID, tomorrow, 4, null, 3);
+
+        assertThat(response.getRequestedSlotAvailable()).isNull();
+        assertThat(response.getSlots()).extracting(slot -> slot.getStartTime().toLocalTime())
+                                       .containsExactly(LocalTime.of(17, 0), LocalTime.of(17, 30),
+                                                        LocalTime.of(18, 30), LocalTime.of(19, 0),
+                                                        LocalTime.of(19, 30), LocalTime.of(20, 0),
+                                                        LocalTime.of(20, 30));
+    }
+
+    @Test
+    void getAvailability_WhenRequestedSlotIsOpen_ShouldReturnOnlyThatSlot() {
+        AvailabilityResponse response = availabilityService.getAvailability(RESTAURANT_ID, tomorrow, 4, LocalTime.of(19, 10), 3);
+
+        assertThat(response.getRequestedSlotAvailable()).isTrue();
+        assertThat(response.getRequestedSlot()).isEqualTo(tomorrow.atTime(19, 0));
+        assertThat(response.getSlots()).singleElement()
+                                       .satisfies(slot -> assertThat(slot.getRemainingSeats()).isEqualTo(10));
+    }
+
+    @Test
+    void getAvailability_WhenRequestedSlotIsFull_ShouldReturnNearestOpenSlots() {
+        capacityEngine.tryReserve(RESTAURANT_ID, tomorrow.atTime(19, 0), 10);
+        capacityEngine.tryReserve(RESTAURANT_ID, tomorrow.atTime(18, 30), 9);
+
+        AvailabilityResponse response = availabilityService.getAvailability(RESTAURANT_ID, tomorrow, 2, LocalTime.of(19, 0), 3);
+
+        assertThat(response.getRequestedSlotAvailable()).isFalse();
+        assertThat(response.getSlots()).extracting(slot -> slot.getStartTime().toLocalTime())
+                                       .containsExactly(LocalTime.of(19, 30), LocalTime.of(18, 0), LocalTime.of(20, 0));
+    }
+
+    @Test
+    void getAvailability_ShouldIgnoreBookingsAtOtherRestaurants() {
+        capacityEngine.tryReserve(2L, tomorrow.atTime(19, 0), 10);
+
+        AvailabilityResponse response = availabilityService.getAvailability(RESTAURANT_ID, tomorrow, 4, LocalTime.of(19, 0), 3);
+
+        assertThat(response.getRequestedSlotAvailable()).isTrue();
+        assertThat(availabilityService.getAvailability(2L, tomorrow, 4, LocalTime.of(19, 0), 3).getRequestedSlotAvailable()).isFalse();
+    }
+
+    @Test
+    void getAvailability_WithInvalidPartySize_ShouldThrowException() {
+        assertThatThrownBy(() -> availabilityService.getAvailability(RESTAURANT_ID, tomorrow, 0, null, 3))
+                .isInstanceOf(InvalidReservationException.class);
+    }
+}
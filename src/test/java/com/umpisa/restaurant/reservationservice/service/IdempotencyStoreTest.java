@@ -0,0 +1,252 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.umpisa.restaurant.config.ShardContext;
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationIdempotencyProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.IdempotencyRecord;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.repository.IdempotencyRecordRepository;
+import com.umpisa.restaurant.shared.exceptions.IdempotencyKeyMismatchException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                                                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AtomicInteger created = new AtomicInteger();
+
+    private CreateReservationRequest request;
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        request = CreateReservationRequest.builder()
+                                          .restaurantId(1L)
+                                          .customerName("John Doe")
+                                          .phoneNumber("+639171234567")
+                                          .email("john@example.com")
+                                          .reservationDateTime(LocalDateTime.now().plusDays(1).withNano(0))
+                                          .numberOfGuests(4)
+                                          .notificationChannel(NotificationChannel.EMAIL)
+                                          .build();
+
+        idempotencyStore = newStore();
+    }
+
+    @Test
+    void execute_ShouldCreateOnceAndReplayRetries() {
+        IdempotencyStore.Result first = idempotencyStore.execute("key-1", request, this::createReservation);
+        IdempotencyStore.Result retry = idempotencyStore.execute("key-1", request, this::createReservation);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().getId()).isEqualTo(first.response().getId());
+        assertThat(created).hasValue(1);
+        // The retry is answered from memory
+        verify(idempotencyRecordRepository, times(1)).findById("key-1");
+    }
+
+    @Test
+    void execute_WithDifferentRequest_ShouldRejectKeyReuse() {
+        idempotencyStore.execute("key-1", request, this::createReservation);
+        request.setNumberOfGuests(6);
+
+        assertThatThrownBy(() -> idempotencyStore.execute("key-1", request, this::createReservation))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void execute_WhenOnlyStoredInDatabase_ShouldReplayWithoutCreating() {
+        idempotencyStore.execute("key-1", request, this::createReservation);
+        ArgumentCaptor<IdempotencyRecord> recordCaptor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(recordCaptor.capture());
+        IdempotencyRecord stored = recordCaptor.getValue();
+        assertThat(stored.getResponseBody()).isNotNull();
+        assertThat(stored.getReservationId()).isEqualTo(1L);
+
+        // Another instance, or this one after the in-memory entry was evicted
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(stored));
+        IdempotencyStore.Result retry = newStore().execute("key-1", request, this::createReservation);
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().getId()).isEqualTo(1L);
+        assertThat(retry.response().getReservationDateTime()).isEqualTo(request.getReservationDateTime());
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void execute_WhenFirstRequestFails_ShouldLetRetryCreate() {
+        assertThatThrownBy(() -> idempotencyStore.execute("key-1", request, () -> {
+            throw new ReservationConflictException("Not enough seats left");
+        })).isInstanceOf(ReservationConflictException.class);
+
+        IdempotencyStore.Result retry = idempotencyStore.execute("key-1", request, this::createReservation);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void execute_WithConcurrentDuplicate_ShouldWaitForFirstRequest() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ReservationResponse> slowCreate = () -> {
+            creating.countDown();
+            await(release);
+            return createReservation();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyStore.Result> first = executor.submit(() -> idempotencyStore.execute("key-1", request, slowCreate));
+            assertThat(creating.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<IdempotencyStore.Result> duplicate = executor.submit(() -> idempotencyStore.execute("key-1", request, slowCreate));
+            Thread.sleep(100);
+            assertThat(duplicate).isNotDone();
+
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+            assertThat(created).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ForRestaurantInAnotherShard_ShouldKeepRecordInIdempotencyShard() {
+        List<Integer> recordShards = new ArrayList<>();
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            recordShards.add(ShardContext.current());
+            return invocation.getArgument(0);
+        });
+        when(idempotencyRecordRepository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            recordShards.add(ShardContext.current());
+            return invocation.getArgument(0);
+        });
+        request.setRestaurantId(2L);
+        AtomicInteger reservationShard = new AtomicInteger(-1);
+
+        IdempotencyStore.Result result = newStore(shardedRouter()).execute("key-1", request, () -> {
+            reservationShard.set(ShardContext.current());
+            return createReservation();
+        });
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(reservationShard).hasValue(1);
+        assertThat(recordShards).containsExactly(0, 0);
+        ArgumentCaptor<IdempotencyRecord> recordCaptor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).save(recordCaptor.capture());
+        assertThat(recordCaptor.getValue().getResponseBody()).isNotNull();
+    }
+
+    @Test
+    void execute_WhenKeyReusedForRestaurantInAnotherShard_ShouldRejectKeyReuse() {
+        idempotencyStore = newStore(shardedRouter());
+        idempotencyStore.execute("key-1", request, this::createReservation);
+        ArgumentCaptor<IdempotencyRecord> recordCaptor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(recordCaptor.capture());
+        when(idempotencyRecordRepository.findById("key-1")).thenAnswer(invocation ->
+                ShardContext.current() == 0 ? Optional.of(recordCaptor.getValue()) : Optional.empty());
+
+        request.setRestaurantId(2L);
+
+        assertThatThrownBy(() -> newStore(shardedRouter()).execute("key-1", request, this::createReservation))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void execute_ForRestaurantInAnotherShard_WhenCreateFails_ShouldReleaseKey() {
+        request.setRestaurantId(2L);
+
+        assertThatThrownBy(() -> newStore(shardedRouter()).execute("key-1", request, () -> {
+            throw new ReservationConflictException("Not enough seats left");
+        })).isInstanceOf(ReservationConflictException.class);
+
+        verify(idempotencyRecordRepository).delete(any(IdempotencyRecord.class));
+    }
+
+    private IdempotencyStore newStore() {
+        return newStore(new ShardRouter(new ShardProperties()));
+    }
+
+    private IdempotencyStore newStore(ShardRouter shardRouter) {
+        return new IdempotencyStore(idempotencyRecordRepository, shardRouter, transactionTemplate,
+                                    objectMapper, new ReservationIdempotencyProperties(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Two shards, with restaurant 1 in shard 0 and restaurant 2 in shard 1.
+     */
+    private static ShardRouter shardedRouter() {
+        ShardProperties shardProperties = new ShardProperties();
+        shardProperties.setEnabled(true);
+        shardProperties.setShards(List.of(new ShardProperties.Shard()));
+        shardProperties.setRestaurants(Map.of(1L, 0, 2L, 1));
+        return new ShardRouter(shardProperties);
+    }
+
+    private ReservationResponse createReservation() {
+        return ReservationResponse.builder()
+                                  .id((long) created.incrementAndGet())
+                                  .restaurantId(request.getRestaurantId())
+                                  .customerName(request.getCustomerName())
+                                  .email(request.getEmail())
+                                  .reservationDateTime(request.getReservationDateTime())
+                                  .numberOfGuests(request.getNumberOfGuests())
+                                  .status(ReservationStatus.CONFIRMED)
+                                  .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationArchiveProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.repository.ArchivedReservationRepository;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationArchiverTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArchivedReservationRepository archivedReservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllInBatch();
+        archivedReservationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void archivePastReservations_ShouldMoveOnlyReservationsOlderThanHorizonInChunks() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reservations.add(reservation(i + 1, LocalDateTime.now().minusDays(40 + i)));
+        }
+        reservations.add(reservation(6, LocalDateTime.now().minusDays(1)));
+        reservations.add(reservation(7, LocalDateTime.now().plusDays(1)));
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+
+        ReservationArchiveProperties properties = new ReservationArchiveProperties();
+        properties.setHorizon(Duration.ofDays(30));
+        properties.setChunkSize(2);
+        ReservationArchiver archiver = new ReservationArchiver(reservationRepository, properties,
+                                                               new TransactionTemplate(transactionManager),
+                                                               new ShardRouter(new ShardProperties()), meterRegistry);
+
+        archiver.archivePastReservations();
+
+        assertThat(reservationRepository.count()).isEqualTo(2);
+        assertThat(archivedReservationRepository.count()).isEqualTo(5);
+        assertThat(archivedReservationRepository.findResponseById(saved.get(0).getId()))
+                .hasValueSatisfying(archived -> assertThat(archived.getCustomerName()).isEqualTo("Archived Guest"));
+        assertThat(meterRegistry.get("reservations.archive.archived").counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("reservations.archive.lag").gauge().value()).isZero();
+    }
+
+    private static Reservation reservation(long id, LocalDateTime reservationDateTime) {
+        return Reservation.builder()
+                          .id(id)
+                          .restaurantId(1L)
+                          .customerName("Archived Guest")
+                          .phoneNumber("+639171234567")
+                          .email("guest@example.com")
+                          .reservationDateTime(reservationDateTime)
+                          .numberOfGuests(2)
+                          .status(ReservationStatus.CONFIRMED)
+                          .notificationChannel(NotificationChannel.EMAIL)
+                          .build();
+    }
+}
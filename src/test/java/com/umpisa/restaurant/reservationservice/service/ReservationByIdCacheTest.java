@@ -0,0 +1,68 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.ReservationCacheProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import com.umpisa.restaurant.shared.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationByIdCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ReservationByIdCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReservationByIdCache(new ReservationCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeHitsFromCache() {
+        cache.get(1L, loader("John Doe"));
+        ReservationResponse result = cache.get(1L, loader("John Doe"));
+
+        assertThat(result.getCustomerName()).isEqualTo("John Doe");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "reservations.by-id").tag("result", "hit")
+                                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void updatedAndCancelledEvents_ShouldInvalidateEntry() {
+        cache.get(1L, loader("John Doe"));
+
+        cache.onReservationUpdated(ReservationUpdatedEvent.builder().reservationId(1L).build());
+        assertThat(cache.get(1L, loader("Jane Doe")).getCustomerName()).isEqualTo("Jane Doe");
+
+        cache.onReservationCancelled(ReservationCancelledEvent.builder().reservationId(1L).build());
+        assertThat(cache.get(1L, loader("Jane Roe")).getCustomerName()).isEqualTo("Jane Roe");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_WhenLoaderThrows_ShouldNotCacheAnything() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new ResourceNotFoundException("Reservation", id);
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(cache.get(1L, loader("John Doe")).getCustomerName()).isEqualTo("John Doe");
+    }
+
+    private Function<Long, ReservationResponse> loader(String customerName) {
+        return id -> {
+            loads.incrementAndGet();
+            return ReservationResponse.builder().id(id).customerName(customerName).build();
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationCapacityEngineTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+    private static final Long OTHER_RESTAURANT_ID = 2L;
+    private static final int SEATS_PER_SLOT = 50;
+    private static final int WRITERS = 64;
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final LocalDateTime sevenPm = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0);
+
+    private ReservationCapacityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ReservationCapacityProperties properties = new ReservationCapacityProperties();
+        properties.setSlotLength(Duration.ofMinutes(30));
+        properties.setSeatsPerSlot(SEATS_PER_SLOT);
+        engine = new ReservationCapacityEngine(reservationRepository, new ShardRouter(new ShardProperties()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tryReserve_ShouldShareCapacityAcrossTheWholeSlot() {
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm, 30)).isTrue();
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm.plusMinutes(29), 20)).isTrue();
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm.plusMinutes(15), 1)).isFalse();
+
+        // The next slot is untouched
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm.plusMinutes(30), SEATS_PER_SLOT)).isTrue();
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isZero();
+    }
+
+    @Test
+    void tryReserve_ShouldKeepSeparateCapacityPerRestaurant() {
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm, SEATS_PER_SLOT)).isTrue();
+        assertThat(engine.tryReserve(RESTAURANT_ID, sevenPm, 1)).isFalse();
+
+        // A full slot at one restaurant leaves the same slot at another untouched
+        assertThat(engine.remainingSeats(OTHER_RESTAURANT_ID, sevenPm)).isEqualTo(SEATS_PER_SLOT);
+        assertThat(engine.tryReserve(OTHER_RESTAURANT_ID, sevenPm, SEATS_PER_SLOT)).isTrue();
+
+        engine.release(OTHER_RESTAURANT_ID, sevenPm, 10);
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isZero();
+        assertThat(engine.remainingSeats(OTHER_RESTAURANT_ID, sevenPm)).isEqualTo(10);
+    }
+
+    @Test
+    void reserve_WhenTransactionRollsBack_ShouldReleaseSeats() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        engine.reserve(RESTAURANT_ID, sevenPm, 10);
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isEqualTo(40);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isEqualTo(SEATS_PER_SLOT);
+    }
+
+    @Test
+    void reserve_WhenSlotIsFull_ShouldThrowConflict() {
+        engine.tryReserve(RESTAURANT_ID, sevenPm, 48);
+
+        assertThatThrownBy(() -> engine.reserve(RESTAURANT_ID, sevenPm, 4))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessageContaining("Not enough seats left");
+    }
+
+    @Test
+    void releaseAfterCommit_ShouldOnlyReleaseOnceCommitted() {
+        engine.tryReserve(RESTAURANT_ID, sevenPm, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        engine.releaseAfterCommit(RESTAURANT_ID, sevenPm, 10);
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isEqualTo(40);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isEqualTo(SEATS_PER_SLOT);
+    }
+
+    @Test
+    void reserveChange_WithinSameSlot_ShouldOnlyTakeTheDifference() {
+        engine.tryReserve(RESTAURANT_ID, sevenPm, 45);
+
+        engine.reserveChange(RESTAURANT_ID, sevenPm, 4, sevenPm.plusMinutes(15), 9);
+
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isZero();
+    }
+
+    @Test
+    void rebuild_ShouldLoadBookedSeatsFromRepository() {
+        ReservationRepository.BookedSeats booked = mock(ReservationRepository.BookedSeats.class);
+        when(booked.getRestaurantId()).thenReturn(RESTAURANT_ID);
+        when(booked.getReservationDateTime()).thenReturn(sevenPm);
+        when(booked.getSeats()).thenReturn(12L);
+        when(reservationRepository.findBookedSeatsFrom(eq(ReservationStatus.CONFIRMED), any(LocalDateTime.class)))
+                .thenReturn(List.of(booked));
+
+        engine.rebuild();
+
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isEqualTo(38);
+        assertThat(engine.remainingSeats(OTHER_RESTAURANT_ID, sevenPm)).isEqualTo(SEATS_PER_SLOT);
+    }
+
+    /**
+     * 64 writers hammer the same slot with random party sizes, taking and sometimes handing back seats.
+     * The counter must never exceed the capacity, and must end up equal to the seats still held.
+     */
+    @Test
+    void concurrentWriters_ShouldNeverOverbook() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger overbooked = new AtomicInteger();
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int attempt = 0; attempt < 10_000; attempt++) {
+                    int seats = random.nextInt(1, 7);
+                    if (engine.tryReserve(RESTAURANT_ID, sevenPm, seats)) {
+                        if (engine.bookedSeats(RESTAURANT_ID, sevenPm) > SEATS_PER_SLOT) {
+                            overbooked.incrementAndGet();
+                        }
+                        if (random.nextInt(4) == 0) {
+                            held.addAndGet(seats);
+                        } else {
+                            engine.release(RESTAURANT_ID, sevenPm, seats);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(overbooked).hasValue(0);
+        assertThat(held.get()).isLessThanOrEqualTo(SEATS_PER_SLOT);
+        assertThat(engine.bookedSeats(RESTAURANT_ID, sevenPm)).isEqualTo(held.get());
+    }
+
+    @Test
+    void concurrentWriters_ShouldFillSlotExactlyOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                if (engine.tryReserve(RESTAURANT_ID, sevenPm, 2)) {
+                    accepted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(accepted).hasValue(SEATS_PER_SLOT / 2);
+        assertThat(engine.remainingSeats(RESTAURANT_ID, sevenPm)).isZero();
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,233 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.DispatchBacklog;
+import com.umpisa.restaurant.config.ShardContext;
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationOutboxProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.events.CompletedEventPublications;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.IncompleteEventPublications;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationEventOutboxTest {
+
+    private final IncompleteEventPublications incompleteEventPublications = mock(IncompleteEventPublications.class);
+    private final CompletedEventPublications completedEventPublications = mock(CompletedEventPublications.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DispatchBacklog dispatchBacklog = new DispatchBacklog();
+
+    private ReservationOutboxProperties properties;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReservationOutboxProperties();
+        properties.setResubmitAfter(Duration.ofMinutes(1));
+        properties.setParallelism(3);
+
+        ShardProperties shardProperties = new ShardProperties();
+        shardProperties.setEnabled(true);
+        shardProperties.setShards(List.of(new ShardProperties.Shard()));
+        shardRouter = new ShardRouter(shardProperties);
+    }
+
+    @Test
+    void resubmitIncomplete_ShouldReplayEachStalePublicationOnceInItsShard() {
+        List<EventPublication> stale = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            stale.add(publication(Instant.now().minus(Duration.ofMinutes(5))));
+        }
+        EventPublication recent = publication(Instant.now());
+
+        Map<Integer, List<EventPublication>> incompleteByShard = Map.of(0, stale.subList(0, 10), 1, stale.subList(10, 20));
+        Map<UUID, Integer> resubmittedIn = new ConcurrentHashMap<>();
+        AtomicInteger resubmissions = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            Predicate<EventPublication> filter = invocation.getArgument(0);
+            int shard = ShardContext.current();
+            threads.add(Thread.currentThread().getName());
+            List<EventPublication> incomplete = new ArrayList<>(incompleteByShard.get(shard));
+            incomplete.add(recent);
+            incomplete.stream()
+                      .filter(filter)
+                      .forEach(publication -> {
+                          resubmissions.incrementAndGet();
+                          resubmittedIn.put(publication.getIdentifier(), shard);
+                      });
+            return null;
+        }).when(incompleteEventPublications).resubmitIncompletePublications(any());
+
+        newOutbox().resubmitIncomplete();
+
+        // Each shard's incomplete publications are loaded once
+        verify(incompleteEventPublications, times(2)).resubmitIncompletePublications(any());
+        assertThat(resubmissions).hasValue(20);
+        assertThat(resubmittedIn).hasSize(20)
+                                 .doesNotContainKey(recent.getIdentifier());
+        stale.subList(0, 10).forEach(publication -> assertThat(resubmittedIn).containsEntry(publication.getIdentifier(), 0));
+        stale.subList(10, 20).forEach(publication -> assertThat(resubmittedIn).containsEntry(publication.getIdentifier(), 1));
+        assertThat(threads).allMatch(name -> name.startsWith("outbox-resubmit"));
+        assertThat(meterRegistry.get("reservations.outbox.resubmitted").counter().count()).isEqualTo(20.0);
+    }
+
+    @Test
+    void resubmitIncomplete_WhileListenerMayStillBeQueued_ShouldWait() {
+        Runnable queued = dispatchBacklog.track(() -> { });
+        EventPublication publication = publication(Instant.now().minus(properties.getResubmitAfter()));
+        List<EventPublication> resubmitted = resubmitFromShardZero(List.of(publication));
+        ReservationEventOutbox outbox = newOutbox();
+
+        outbox.resubmitIncomplete();
+        assertThat(resubmitted).isEmpty();
+
+        queued.run();
+        outbox.resubmitIncomplete();
+        assertThat(resubmitted).containsExactly(publication);
+    }
+
+    @Test
+    void resubmitIncomplete_WhileResubmittedListenerIsQueued_ShouldNotResubmitAgain() throws Exception {
+        properties.setResubmitAfter(Duration.ofMillis(50));
+        EventPublication publication = publication(Instant.now().minus(Duration.ofMinutes(5)));
+        List<Runnable> queued = new ArrayList<>();
+        List<EventPublication> resubmitted = resubmitFromShardZero(List.of(publication), () ->
+                queued.add(dispatchBacklog.track(() -> { })));
+        ReservationEventOutbox outbox = newOutbox();
+
+        outbox.resubmitIncomplete();
+        Thread.sleep(100);
+        outbox.resubmitIncomplete();
+        assertThat(resubmitted).hasSize(1);
+
+        queued.forEach(Runnable::run);
+        outbox.resubmitIncomplete();
+        assertThat(resubmitted).hasSize(2);
+    }
+
+    @Test
+    void resubmitIncomplete_ShouldRunAtMostParallelismShardsAtOnce() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        }).when(incompleteEventPublications).resubmitIncompletePublications(any());
+
+        newOutbox().resubmitIncomplete();
+
+        assertThat(maxRunning.get()).isBetween(1, properties.getParallelism());
+    }
+
+    @Test
+    void resubmitIncomplete_WhilePreviousRunIsGoing_ShouldSkip() throws Exception {
+        ReservationEventOutbox outbox = newOutbox();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(incompleteEventPublications).resubmitIncompletePublications(any());
+
+        Thread first = new Thread(outbox::resubmitIncomplete);
+        first.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        int callsBefore = calls.get();
+
+        outbox.resubmitIncomplete();
+        assertThat(calls.get()).isEqualTo(callsBefore);
+
+        release.countDown();
+        first.join(5000);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void resubmitOnStartup_WhenDisabled_ShouldNotResubmit() {
+        properties.setResubmitOnStartup(false);
+
+        newOutbox().resubmitOnStartup();
+
+        verify(incompleteEventPublications, never()).resubmitIncompletePublications(any());
+    }
+
+    @Test
+    void compactCompleted_ShouldDeleteOldPublicationsInEveryShard() {
+        List<Integer> shards = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> shards.add(ShardContext.current()))
+                .when(completedEventPublications).deletePublicationsOlderThan(properties.getRetention());
+
+        newOutbox().compactCompleted();
+
+        assertThat(shards).containsExactly(0, 1);
+    }
+
+    private ReservationEventOutbox newOutbox() {
+        return new ReservationEventOutbox(incompleteEventPublications, completedEventPublications, shardRouter,
+                                          dispatchBacklog, properties, meterRegistry);
+    }
+
+    private List<EventPublication> resubmitFromShardZero(List<EventPublication> incomplete) {
+        return resubmitFromShardZero(incomplete, () -> { });
+    }
+
+    /**
+     * Serve the given incomplete publications from shard 0, running the listener for each one resubmitted.
+     *
+     * @return the resubmitted publications, in order
+     */
+    private List<EventPublication> resubmitFromShardZero(List<EventPublication> incomplete, Runnable listener) {
+        List<EventPublication> resubmitted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Predicate<EventPublication> filter = invocation.getArgument(0);
+            if (ShardContext.current() == 0) {
+                incomplete.stream()
+                          .filter(filter)
+                          .forEach(publication -> {
+                              resubmitted.add(publication);
+                              listener.run();
+                          });
+            }
+            return null;
+        }).when(incompleteEventPublications).resubmitIncompletePublications(any());
+        return resubmitted;
+    }
+
+    private static EventPublication publication(Instant publicationDate) {
+        EventPublication publication = mock(EventPublication.class);
+        when(publication.getIdentifier()).thenReturn(UUID.randomUUID());
+        when(publication.getPublicationDate()).thenReturn(publicationDate);
+        return publication;
+    }
+}
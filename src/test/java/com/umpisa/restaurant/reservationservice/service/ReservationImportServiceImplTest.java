@@ -0,0 +1,166 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.umpisa.restaurant.config.ShardIdGenerator;
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
+import com.umpisa.restaurant.reservationservice.model.ReservationImportProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.BulkImportResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationsImportedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationImportServiceImplTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReservationCapacityEngine capacityEngine;
+
+    @Mock
+    private ShardIdGenerator shardIdGenerator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                                                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ReservationImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        ReservationImportProperties properties = new ReservationImportProperties();
+        properties.setBatchSize(2);
+
+        importService = new ReservationImportServiceImpl(reservationRepository,
+                                                         new ReservationMapper(),
+                                                         properties,
+                                                         transactionTemplate,
+                                                         entityManager,
+                                                         objectMapper,
+                                                         Validation.buildDefaultValidatorFactory().getValidator(),
+                                                         eventPublisher,
+                                                         capacityEngine,
+                                                         new ShardRouter(new ShardProperties()),
+                                                         shardIdGenerator);
+    }
+
+    @Test
+    void importReservations_ShouldWriteValidLinesInBatchesAndReportInvalidLines() throws Exception {
+        runTransactionCallbacks();
+        when(capacityEngine.tryReserve(anyLong(), any(LocalDateTime.class), anyInt())).thenReturn(true);
+
+        String ndjson = String.join("\n",
+                                    line("Alice"),
+                                    "{not json}",
+                                    line("Bob"),
+                                    "",
+                                    line("C"),
+                                    line("Dave"));
+
+        BulkImportResponse response = importService.importReservations(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getTotalLines()).isEqualTo(5);
+        assertThat(response.getImportedCount()).isEqualTo(3);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(BulkImportResponse.LineError::getLineNumber)
+                                        .containsExactly(2L, 5L);
+        assertThat(response.getErrors().get(1).getMessage()).contains("customerName");
+
+        // Batch size 2: one full batch and one trailing batch
+        verify(reservationRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).clear();
+
+        ArgumentCaptor<ReservationsImportedEvent> eventCaptor = ArgumentCaptor.forClass(ReservationsImportedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getImportedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void importReservations_WhenBatchFails_ShouldReportEveryLineOfTheBatch() throws Exception {
+        runTransactionCallbacks();
+        when(capacityEngine.tryReserve(anyLong(), any(LocalDateTime.class), anyInt())).thenReturn(true);
+        when(reservationRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        String ndjson = line("Alice") + "\n" + line("Bob");
+
+        BulkImportResponse response = importService.importReservations(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getImportedCount()).isZero();
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        assertThat(response.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).contains("database unavailable"));
+        verify(capacityEngine, times(2)).release(eq(1L), any(LocalDateTime.class), eq(2));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void importReservations_WhenSlotIsFull_ShouldReportLineWithoutWritingIt() throws Exception {
+        when(capacityEngine.tryReserve(anyLong(), any(LocalDateTime.class), anyInt())).thenReturn(false);
+        when(capacityEngine.slotStart(any(LocalDateTime.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkImportResponse response = importService.importReservations(
+                new ByteArrayInputStream(line("Alice").getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getImportedCount()).isZero();
+        assertThat(response.getErrors()).singleElement()
+                                        .satisfies(error -> assertThat(error.getMessage()).contains("Not enough seats"));
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private String line(String customerName) throws Exception {
+        return objectMapper.writeValueAsString(CreateReservationRequest.builder()
+                                                                       .restaurantId(1L)
+                                                                       .customerName(customerName)
+                                                                       .phoneNumber("+639171234567")
+                                                                       .email("guest@example.com")
+                                                                       .reservationDateTime(LocalDateTime.now().plusDays(1))
+                                                                       .numberOfGuests(2)
+                                                                       .notificationChannel(NotificationChannel.EMAIL)
+                                                                       .build());
+    }
+}
@@ -1,8 +1,14 @@
 package com.umpisa.restaurant.reservationservice.service;
 
+import com.umpisa.restaurant.config.ReadYourWritesContext;
+import com.umpisa.restaurant.config.ShardIdGenerator;
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.ReservationCursorCodec;
 import com.umpisa.restaurant.reservationservice.mapper.ReservationMapper;
 import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
 import com.umpisa.restaurant.reservationservice.model.dto.request.UpdateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationPageResponse;
 import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
 import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
 import com.umpisa.restaurant.reservationservice.model.entity.Reservation;
@@ -10,8 +16,11 @@ import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCa
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
 import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
 import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ArchivedReservationRepository;
 import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
 import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.PreconditionFailedException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
 import com.umpisa.restaurant.shared.exceptions.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,17 +28,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,12 +51,36 @@ class ReservationServiceImplTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private ArchivedReservationRepository archivedReservationRepository;
+
     @Mock
     private ReservationMapper reservationMapper;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Spy
+    private ReservationCursorCodec cursorCodec = new ReservationCursorCodec();
+
+    @Mock
+    private ReservationByIdCache reservationByIdCache;
+
+    @Mock
+    private UpcomingReservationsCache upcomingReservationsCache;
+
+    @Mock
+    private ReservationCapacityEngine capacityEngine;
+
+    @Mock
+    private SlotLockManager slotLockManager;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardProperties());
+
+    @Mock
+    private ShardIdGenerator shardIdGenerator;
+
     @InjectMocks
     private ReservationServiceImpl reservationService;
 
@@ -56,6 +93,7 @@ class ReservationServiceImplTest {
         LocalDateTime futureDateTime = LocalDateTime.now().plusDays(1);
 
         createRequest = CreateReservationRequest.builder()
+                                                .restaurantId(1L)
                                                 .customerName("John Doe")
                                                 .phoneNumber("+1234567890")
                                                 .email("john@example.com")
@@ -66,6 +104,7 @@ class ReservationServiceImplTest {
 
         reservation = Reservation.builder()
                                  .id(1L)
+                                 .restaurantId(1L)
                                  .customerName("John Doe")
                                  .phoneNumber("+1234567890")
                                  .email("john@example.com")
@@ -79,6 +118,7 @@ class ReservationServiceImplTest {
 
         reservationResponse = ReservationResponse.builder()
                                                  .id(1L)
+                                                 .restaurantId(1L)
                                                  .customerName("John Doe")
                                                  .phoneNumber("+1234567890")
                                                  .email("john@example.com")
@@ -91,6 +131,7 @@ class ReservationServiceImplTest {
 
     @Test
     void createReservation_ShouldCreateAndPublishEvent() {
+        when(shardIdGenerator.nextId(0)).thenReturn(1L);
         when(reservationMapper.toEntity(createRequest)).thenReturn(reservation);
         when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
         when(reservationMapper.toResponse(reservation)).thenReturn(reservationResponse);
@@ -100,6 +141,9 @@ class ReservationServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getCustomerName()).isEqualTo("John Doe");
 
+        verify(slotLockManager).lockForTransaction(1L, createRequest.getReservationDateTime());
+        verify(capacityEngine).reserve(1L, createRequest.getReservationDateTime(), 4);
+        verify(shardRouter).bindTransaction(0);
         verify(reservationRepository).save(any(Reservation.class));
 
         ArgumentCaptor<ReservationCreatedEvent> eventCaptor =
@@ -109,6 +153,24 @@ class ReservationServiceImplTest {
         ReservationCreatedEvent capturedEvent = eventCaptor.getValue();
         assertThat(capturedEvent.getReservationId()).isEqualTo(1L);
         assertThat(capturedEvent.getEmail()).isEqualTo("john@example.com");
+        assertThat(capturedEvent.isFromWaitlist()).isFalse();
+    }
+
+    @Test
+    void createReservationFromWaitlist_ShouldFlagEvent() {
+        when(shardIdGenerator.nextId(0)).thenReturn(1L);
+        when(reservationMapper.toEntity(createRequest)).thenReturn(reservation);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
+        when(reservationMapper.toResponse(reservation)).thenReturn(reservationResponse);
+
+        reservationService.createReservationFromWaitlist(createRequest);
+
+        verify(capacityEngine).reserve(1L, createRequest.getReservationDateTime(), 4);
+
+        ArgumentCaptor<ReservationCreatedEvent> eventCaptor =
+                ArgumentCaptor.forClass(ReservationCreatedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().isFromWaitlist()).isTrue();
     }
 
     @Test
@@ -123,14 +185,28 @@ class ReservationServiceImplTest {
         verify(eventPublisher, never()).publishEvent(any());
     }
 
+    @Test
+    void createReservation_WhenSlotIsFull_ShouldThrowConflict() {
+        doThrow(new ReservationConflictException("Not enough seats left"))
+                .when(capacityEngine).reserve(1L, createRequest.getReservationDateTime(), 4);
+
+        assertThatThrownBy(() -> reservationService.createReservation(createRequest))
+                .isInstanceOf(ReservationConflictException.class);
+
+        verify(reservationRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void cancelReservation_ShouldUpdateStatusAndPublishEvent() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
+        when(reservationRepository.cancelIfNotCancelled(eq(1L), isNull(), any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(1);
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
 
-        reservationService.cancelReservation(1L);
+        reservationService.cancelReservation(1L, null);
 
-        verify(reservationRepository).save(any(Reservation.class));
+        verify(reservationRepository, never()).save(any());
+        verify(capacityEngine).releaseAfterCommit(1L, reservationResponse.getReservationDateTime(), 4);
 
         ArgumentCaptor<ReservationCancelledEvent> eventCaptor =
                 ArgumentCaptor.forClass(ReservationCancelledEvent.class);
@@ -138,13 +214,17 @@ class ReservationServiceImplTest {
 
         ReservationCancelledEvent capturedEvent = eventCaptor.getValue();
         assertThat(capturedEvent.getReservationId()).isEqualTo(1L);
+        assertThat(capturedEvent.getReservationDateTime()).isEqualTo(reservationResponse.getReservationDateTime());
+        assertThat(capturedEvent.getNumberOfGuests()).isEqualTo(4);
     }
 
     @Test
     void cancelReservation_WhenNotFound_ShouldThrowException() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.empty());
+        when(reservationRepository.cancelIfNotCancelled(eq(1L), isNull(), any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(0);
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> reservationService.cancelReservation(1L))
+        assertThatThrownBy(() -> reservationService.cancelReservation(1L, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Reservation with ID 1 not found");
 
@@ -153,33 +233,61 @@ class ReservationServiceImplTest {
 
     @Test
     void cancelReservation_WhenAlreadyCancelled_ShouldThrowException() {
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        reservationResponse.setStatus(ReservationStatus.CANCELLED);
+        when(reservationRepository.cancelIfNotCancelled(eq(1L), isNull(), any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(0);
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
 
-        assertThatThrownBy(() -> reservationService.cancelReservation(1L))
+        assertThatThrownBy(() -> reservationService.cancelReservation(1L, null))
                 .isInstanceOf(InvalidReservationException.class)
                 .hasMessageContaining("already cancelled");
 
-        verify(reservationRepository, never()).save(any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    void updateReservation_ShouldUpdateAndPublishEvent() {
+    void cancelReservation_WhenVersionIsStale_ShouldThrowPreconditionFailed() {
+        reservationResponse.setVersion(3L);
+        when(reservationRepository.cancelIfNotCancelled(eq(1L), eq(2L), any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(0);
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
+
+        assertThatThrownBy(() -> reservationService.cancelReservation(1L, 2L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("has version 3, expected 2");
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateReservation_ShouldMoveSeatsUpdateAndPublishEvent() {
         LocalDateTime newDateTime = LocalDateTime.now().plusDays(2);
         UpdateReservationRequest updateRequest = UpdateReservationRequest.builder()
                                                                          .reservationDateTime(newDateTime)
                                                                          .numberOfGuests(6)
                                                                          .build();
-
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
-        when(reservationMapper.toResponse(any(Reservation.class))).thenReturn(reservationResponse);
-
-        ReservationResponse result = reservationService.updateReservation(1L, updateRequest);
-
-        assertThat(result).isNotNull();
-        verify(reservationRepository).save(any(Reservation.class));
+        reservationResponse.setVersion(0L);
+        ReservationResponse updatedResponse = ReservationResponse.builder()
+                                                                 .id(1L)
+                                                                 .email("john@example.com")
+                                                                 .reservationDateTime(newDateTime)
+                                                                 .numberOfGuests(6)
+                                                                 .status(ReservationStatus.CONFIRMED)
+                                                                 .version(1L)
+                                                                 .build();
+
+        when(reservationRepository.findResponseById(1L))
+                .thenReturn(Optional.of(reservationResponse), Optional.of(updatedResponse));
+        when(reservationRepository.updateIfNotCancelled(eq(1L), eq(0L), eq(newDateTime), eq(6),
+                                                        any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(1);
+
+        ReservationResponse result = reservationService.updateReservation(1L, updateRequest, null);
+
+        assertThat(result).isSameAs(updatedResponse);
+        verify(slotLockManager).lockForTransaction(1L, reservationResponse.getReservationDateTime(), newDateTime);
+        verify(capacityEngine).reserveChange(1L, reservationResponse.getReservationDateTime(), 4, newDateTime, 6);
+        verify(reservationRepository, never()).save(any());
 
         ArgumentCaptor<ReservationUpdatedEvent> eventCaptor =
                 ArgumentCaptor.forClass(ReservationUpdatedEvent.class);
@@ -187,45 +295,116 @@ class ReservationServiceImplTest {
 
         ReservationUpdatedEvent capturedEvent = eventCaptor.getValue();
         assertThat(capturedEvent.getReservationId()).isEqualTo(1L);
+        assertThat(capturedEvent.getNewNumberOfGuests()).isEqualTo(6);
     }
 
     @Test
     void updateReservation_WhenCancelled_ShouldThrowException() {
-        reservation.setStatus(ReservationStatus.CANCELLED);
+        reservationResponse.setStatus(ReservationStatus.CANCELLED);
         UpdateReservationRequest updateRequest = UpdateReservationRequest.builder()
                                                                          .reservationDateTime(LocalDateTime.now().plusDays(2))
                                                                          .numberOfGuests(6)
                                                                          .build();
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
 
-        assertThatThrownBy(() -> reservationService.updateReservation(1L, updateRequest))
+        assertThatThrownBy(() -> reservationService.updateReservation(1L, updateRequest, null))
                 .isInstanceOf(InvalidReservationException.class)
                 .hasMessageContaining("Cannot update a cancelled reservation");
 
-        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(capacityEngine);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateReservation_WhenVersionIsStale_ShouldThrowPreconditionFailed() {
+        reservationResponse.setVersion(3L);
+        UpdateReservationRequest updateRequest = UpdateReservationRequest.builder()
+                                                                         .reservationDateTime(LocalDateTime.now().plusDays(2))
+                                                                         .numberOfGuests(6)
+                                                                         .build();
+
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
+
+        assertThatThrownBy(() -> reservationService.updateReservation(1L, updateRequest, 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verifyNoInteractions(capacityEngine);
+        verify(reservationRepository, never()).updateIfNotCancelled(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateReservation_WhenChangedConcurrently_ShouldThrowConflict() {
+        reservationResponse.setVersion(0L);
+        UpdateReservationRequest updateRequest = UpdateReservationRequest.builder()
+                                                                         .reservationDateTime(LocalDateTime.now().plusDays(2))
+                                                                         .numberOfGuests(6)
+                                                                         .build();
+
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
+        when(reservationRepository.updateIfNotCancelled(eq(1L), eq(0L), any(LocalDateTime.class), eq(6),
+                                                        any(LocalDateTime.class), eq(ReservationStatus.CANCELLED)))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> reservationService.updateReservation(1L, updateRequest, null))
+                .isInstanceOf(ReservationConflictException.class);
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void getUpcomingReservations_ShouldReturnFilteredList() {
         String email = "john@example.com";
-        List<Reservation> reservations = Collections.singletonList(reservation);
+        when(upcomingReservationsCache.get(eq(email), any())).thenAnswer(invocation ->
+                invocation.<Function<String, List<ReservationResponse>>>getArgument(1).apply(email));
 
-        when(reservationRepository.findByEmailAndStatusAndReservationDateTimeAfter(
+        when(reservationRepository.findUpcomingResponses(
                 eq(email), eq(ReservationStatus.CONFIRMED), any(LocalDateTime.class)))
-                .thenReturn(reservations);
-        when(reservationMapper.toResponse(any(Reservation.class))).thenReturn(reservationResponse);
+                .thenReturn(Collections.singletonList(reservationResponse));
 
         List<ReservationResponse> result = reservationService.getUpcomingReservations(email);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getEmail()).isEqualTo(email);
+        verify(reservationMapper, never()).toResponse(any());
+    }
+
+    @Test
+    void getUpcomingReservationsPage_ShouldReturnCursorWhenMoreRowsFollow() {
+        String email = "john@example.com";
+        ReservationResponse second = ReservationResponse.builder()
+                                                        .id(2L)
+                                                        .email(email)
+                                                        .reservationDateTime(reservationResponse.getReservationDateTime().plusHours(1))
+                                                        .build();
+
+        when(reservationRepository.findPageByEmailAndStatusAfter(
+                eq(email), eq(ReservationStatus.CONFIRMED), any(LocalDateTime.class), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(reservationResponse, second));
+
+        ReservationPageResponse page = reservationService.getUpcomingReservations(email, null, 1);
+
+        assertThat(page.getContent()).containsExactly(reservationResponse);
+        assertThat(page.isHasMore()).isTrue();
+
+        ReservationCursorCodec.Position position = cursorCodec.decode(page.getNextCursor());
+        assertThat(position.getId()).isEqualTo(1L);
+        assertThat(position.getReservationDateTime()).isEqualTo(reservationResponse.getReservationDateTime());
+    }
+
+    @Test
+    void getUpcomingReservationsPage_WithInvalidCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> reservationService.getUpcomingReservations("john@example.com", "not-a-cursor", 10))
+                .isInstanceOf(InvalidReservationException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+
+        verify(reservationRepository, never()).findPageByEmailAndStatusAfter(any(), any(), any(), any(), any());
     }
 
     @Test
     void getReservationById_ShouldReturnReservation() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(reservationMapper.toResponse(reservation)).thenReturn(reservationResponse);
+        loadThroughCache();
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
 
         ReservationResponse result = reservationService.getReservationById(1L);
 
@@ -233,11 +412,43 @@ class ReservationServiceImplTest {
         assertThat(result.getId()).isEqualTo(1L);
     }
 
+    @Test
+    void getReservationById_OnCacheMiss_ShouldReadFromPrimary() {
+        loadThroughCache();
+        when(reservationRepository.findResponseById(1L)).thenAnswer(invocation -> {
+            assertThat(ReadYourWritesContext.isPinnedToPrimary()).isTrue();
+            return Optional.of(reservationResponse);
+        });
+
+        reservationService.getReservationById(1L);
+
+        verify(reservationRepository).findResponseById(1L);
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+
     @Test
     void getReservationById_WhenNotFound_ShouldThrowException() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.empty());
+        loadThroughCache();
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.empty());
+        when(archivedReservationRepository.findResponseById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> reservationService.getReservationById(1L))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
+
+    @Test
+    void getReservationById_WhenArchived_ShouldFallThroughToArchive() {
+        loadThroughCache();
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.empty());
+        when(archivedReservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservationResponse));
+
+        ReservationResponse result = reservationService.getReservationById(1L);
+
+        assertThat(result.getId()).isEqualTo(1L);
+    }
+
+    private void loadThroughCache() {
+        when(reservationByIdCache.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, ReservationResponse>>getArgument(1).apply(invocation.getArgument(0)));
+    }
 }
@@ -0,0 +1,109 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.ReservationLockProperties;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares write throughput under the striped slot locks when writers book different slots,
+ * when they all book the same slot, and with a single global lock (one stripe), which is what
+ * serializing every booking amounts to.
+ * Each simulated write holds its lock for a short busy-wait standing in for the insert.
+ * <p>
+ * Not picked up by the default surefire run; execute with
+ * {@code mvn test -Dtest=SlotLockManagerBenchmark}.
+ */
+class SlotLockManagerBenchmark {
+
+    private static final Long RESTAURANT_ID = 1L;
+    private static final int WRITERS = 16;
+    private static final int WRITES_PER_WRITER = 2_000;
+    private static final long HOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).withHour(11).withMinute(0).withSecond(0).withNano(0);
+
+    @Test
+    void contention() throws Exception {
+        SlotLockManager striped = slotLockManager(1024);
+        SlotLockManager global = slotLockManager(1);
+
+        // Warm up the JIT before measuring
+        run(striped, writer -> firstSlot.plusMinutes(30L * writer));
+
+        measure("striped, distinct slots", striped, writer -> firstSlot.plusMinutes(30L * writer));
+        measure("striped, same slot     ", striped, writer -> firstSlot);
+        measure("global lock            ", global, writer -> firstSlot.plusMinutes(30L * writer));
+    }
+
+    private void measure(String label, SlotLockManager slotLockManager, IntFunction<LocalDateTime> slotOfWriter) throws Exception {
+        long started = System.nanoTime();
+        run(slotLockManager, slotOfWriter);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.printf("%s: %,10.0f writes/s%n", label, WRITERS * WRITES_PER_WRITER / seconds);
+    }
+
+    private static void run(SlotLockManager slotLockManager, IntFunction<LocalDateTime> slotOfWriter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            LocalDateTime slot = slotOfWriter.apply(i);
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int write = 0; write < WRITES_PER_WRITER; write++) {
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        slotLockManager.lockForTransaction(RESTAURANT_ID, slot);
+                        busyWait(HOLD_NANOS);
+                    } finally {
+                        TransactionSynchronizationManager.getSynchronizations()
+                                                         .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                        TransactionSynchronizationManager.clearSynchronization();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+
+    private static void busyWait(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static SlotLockManager slotLockManager(int stripes) {
+        ReservationLockProperties lockProperties = new ReservationLockProperties();
+        lockProperties.setStripes(stripes);
+        lockProperties.setTimeout(Duration.ofMinutes(1));
+        return new SlotLockManager(
+                new ReservationCapacityEngine(mock(ReservationRepository.class), new ShardRouter(new ShardProperties()), new ReservationCapacityProperties()), lockProperties);
+    }
+}
@@ -0,0 +1,148 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.ReservationLockProperties;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SlotLockManagerTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+
+    private final LocalDateTime sevenPm = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0);
+
+    private SlotLockManager slotLockManager;
+
+    @BeforeEach
+    void setUp() {
+        ReservationCapacityProperties capacityProperties = new ReservationCapacityProperties();
+        ReservationLockProperties lockProperties = new ReservationLockProperties();
+        lockProperties.setTimeout(Duration.ofMillis(100));
+
+        slotLockManager = new SlotLockManager(
+                new ReservationCapacityEngine(mock(ReservationRepository.class), new ShardRouter(new ShardProperties()), capacityProperties), lockProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lockForTransaction_ShouldHoldSlotUntilTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        slotLockManager.lockForTransaction(RESTAURANT_ID, sevenPm);
+
+        // Same slot from another thread times out while the transaction is open
+        assertThat(lockInOtherThread(RESTAURANT_ID, sevenPm.plusMinutes(10))).isInstanceOf(ReservationConflictException.class);
+
+        completeTransaction();
+
+        assertThat(lockInOtherThread(RESTAURANT_ID, sevenPm.plusMinutes(10))).isNull();
+    }
+
+    @Test
+    void lockForTransaction_ShouldNotBlockOtherSlots() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        slotLockManager.lockForTransaction(RESTAURANT_ID, sevenPm);
+
+        assertThat(lockInOtherThread(RESTAURANT_ID, sevenPm.plusHours(1))).isNull();
+    }
+
+    @Test
+    void lockForTransaction_ShouldNotBlockOtherRestaurantsInSameSlot() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        slotLockManager.lockForTransaction(RESTAURANT_ID, sevenPm);
+
+        assertThat(slotLockManager.stripeIndexes(2L, sevenPm)).isNotEqualTo(slotLockManager.stripeIndexes(RESTAURANT_ID, sevenPm));
+        assertThat(lockInOtherThread(2L, sevenPm)).isNull();
+    }
+
+    @Test
+    void stripeIndexes_ShouldBeDistinctAndAscending() {
+        int[] forward = slotLockManager.stripeIndexes(RESTAURANT_ID, sevenPm, sevenPm.plusHours(2), sevenPm.plusMinutes(5));
+        int[] backward = slotLockManager.stripeIndexes(RESTAURANT_ID, sevenPm.plusHours(2), sevenPm);
+
+        assertThat(forward).isSorted().containsExactly(backward);
+        assertThat(slotLockManager.stripeIndexes(RESTAURANT_ID, sevenPm, sevenPm.plusMinutes(5))).hasSize(1);
+    }
+
+    @Test
+    void opposingMoves_ShouldNotDeadlock() throws Exception {
+        LocalDateTime eightPm = sevenPm.plusHours(1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        CompletableFuture<Void> forward = CompletableFuture.runAsync(() -> moveRepeatedly(start, sevenPm, eightPm));
+        CompletableFuture<Void> backward = CompletableFuture.runAsync(() -> moveRepeatedly(start, eightPm, sevenPm));
+        start.countDown();
+
+        CompletableFuture.allOf(forward, backward).get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockForTransaction_WithoutTransaction_ShouldThrowException() {
+        assertThatThrownBy(() -> slotLockManager.lockForTransaction(RESTAURANT_ID, sevenPm))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void moveRepeatedly(CountDownLatch start, LocalDateTime from, LocalDateTime to) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < 1_000; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                slotLockManager.lockForTransaction(RESTAURANT_ID, from, to);
+            } finally {
+                completeTransaction();
+            }
+        }
+    }
+
+    /**
+     * Lock a restaurant's slot in a separate thread and transaction.
+     *
+     * @return the failure, or null if the lock was taken
+     */
+    private Throwable lockInOtherThread(Long restaurantId, LocalDateTime reservationDateTime) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                slotLockManager.lockForTransaction(restaurantId, reservationDateTime);
+                return null;
+            } catch (RuntimeException e) {
+                return (Throwable) e;
+            } finally {
+                completeTransaction();
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void completeTransaction() {
+        TransactionSynchronizationManager.getSynchronizations()
+                                         .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
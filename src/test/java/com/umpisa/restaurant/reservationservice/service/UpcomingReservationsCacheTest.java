@@ -0,0 +1,129 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.reservationservice.model.ReservationCacheProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.ReservationStatus;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCreatedEvent;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationUpdatedEvent;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpcomingReservationsCacheTest {
+
+    private static final String EMAIL = "john@example.com";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private UpcomingReservationsCache cache;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UpcomingReservationsCache(reservationRepository, new ReservationCacheProperties(), new SimpleMeterRegistry());
+        tomorrow = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void get_ShouldKeyOnNormalizedEmail() {
+        cache.get(" John@Example.com ", email -> List.of(reservation(1L, tomorrow)));
+
+        List<ReservationResponse> result = cache.get(EMAIL, email -> {
+            throw new AssertionError("should be served from cache");
+        });
+
+        assertThat(result).extracting(ReservationResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    void get_ShouldTrimReservationsWhoseTimeHasPassed() {
+        cache.get(EMAIL, email -> List.of(reservation(1L, LocalDateTime.now().minusMinutes(1)),
+                                          reservation(2L, tomorrow)));
+
+        assertThat(cache.get(EMAIL, email -> List.of())).extracting(ReservationResponse::getId).containsExactly(2L);
+    }
+
+    @Test
+    void events_ShouldPatchCachedListInPlace() {
+        cache.get(EMAIL, email -> List.of(reservation(1L, tomorrow), reservation(2L, tomorrow.plusDays(2))));
+
+        when(reservationRepository.findResponseById(3L)).thenReturn(Optional.of(reservation(3L, tomorrow.plusDays(1))));
+        cache.onReservationCreated(ReservationCreatedEvent.builder().reservationId(3L).email(EMAIL).build());
+
+        when(reservationRepository.findResponseById(1L)).thenReturn(Optional.of(reservation(1L, tomorrow.plusDays(3))));
+        cache.onReservationUpdated(ReservationUpdatedEvent.builder().reservationId(1L).email(EMAIL).build());
+
+        cache.onReservationCancelled(ReservationCancelledEvent.builder().reservationId(2L).email(EMAIL).build());
+
+        assertThat(cache.get(EMAIL, email -> List.of())).extracting(ReservationResponse::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void createdEvent_ForUncachedCustomer_ShouldNotQueryDatabase() {
+        cache.onReservationCreated(ReservationCreatedEvent.builder().reservationId(3L).email("other@example.com").build());
+
+        verify(reservationRepository, never()).findResponseById(anyLong());
+    }
+
+    @Test
+    void createdEvent_WhileListIsLoading_ShouldNotLeaveStaleListCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread loader = new Thread(() -> cache.get(EMAIL, email -> {
+            loading.countDown();
+            await(release);
+            // Read before the new reservation committed
+            return List.of(reservation(1L, tomorrow));
+        }));
+        loader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread publisher = new Thread(() ->
+                cache.onReservationCreated(ReservationCreatedEvent.builder().reservationId(2L).email(EMAIL).build()));
+        publisher.start();
+        release.countDown();
+        loader.join(5000);
+        publisher.join(5000);
+
+        List<ReservationResponse> result = cache.get(EMAIL, email -> List.of(reservation(1L, tomorrow),
+                                                                             reservation(2L, tomorrow.plusDays(1))));
+
+        assertThat(result).extracting(ReservationResponse::getId).containsExactly(1L, 2L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ReservationResponse reservation(Long id, LocalDateTime reservationDateTime) {
+        return ReservationResponse.builder()
+                                  .id(id)
+                                  .email(EMAIL)
+                                  .reservationDateTime(reservationDateTime)
+                                  .status(ReservationStatus.CONFIRMED)
+                                  .build();
+    }
+}
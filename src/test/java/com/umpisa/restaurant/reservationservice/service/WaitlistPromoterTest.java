@@ -0,0 +1,191 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.mapper.WaitlistMapper;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.dto.request.CreateReservationRequest;
+import com.umpisa.restaurant.reservationservice.model.dto.response.ReservationResponse;
+import com.umpisa.restaurant.reservationservice.model.entity.NotificationChannel;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.model.entity.event.ReservationCancelledEvent;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import com.umpisa.restaurant.shared.exceptions.InvalidReservationException;
+import com.umpisa.restaurant.shared.exceptions.ReservationConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WaitlistPromoterTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+    private static final int SEATS_PER_SLOT = 10;
+
+    private final WaitlistEntryRepository waitlistEntryRepository = mock(WaitlistEntryRepository.class);
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final LocalDateTime sevenPm = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0);
+    private final Map<Long, WaitlistEntry> entries = new HashMap<>();
+
+    private ReservationCapacityEngine capacityEngine;
+    private WaitlistQueue waitlistQueue;
+    private WaitlistPromoter waitlistPromoter;
+
+    @BeforeEach
+    void setUp() {
+        ReservationCapacityProperties properties = new ReservationCapacityProperties();
+        properties.setSeatsPerSlot(SEATS_PER_SLOT);
+        ShardRouter shardRouter = new ShardRouter(new ShardProperties());
+        capacityEngine = new ReservationCapacityEngine(mock(ReservationRepository.class), shardRouter, properties);
+        waitlistQueue = new WaitlistQueue(waitlistEntryRepository, capacityEngine, shardRouter);
+        waitlistPromoter = new WaitlistPromoter(waitlistQueue, waitlistEntryRepository, new WaitlistMapper(), reservationService,
+                                                capacityEngine, shardRouter, mock(PlatformTransactionManager.class));
+
+        when(waitlistEntryRepository.claimForPromotion(anyLong(), any(LocalDateTime.class), eq(WaitlistStatus.WAITING), eq(WaitlistStatus.PROMOTED)))
+                .thenReturn(1);
+        when(waitlistEntryRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(entries.get(invocation.<Long>getArgument(0))));
+
+        // Books like the real service: seats come out of the engine or the booking is rejected
+        when(reservationService.createReservationFromWaitlist(any(CreateReservationRequest.class))).thenAnswer(invocation -> {
+            CreateReservationRequest request = invocation.getArgument(0);
+            capacityEngine.reserve(request.getRestaurantId(), request.getReservationDateTime(), request.getNumberOfGuests());
+            return ReservationResponse.builder().id(100L + request.getNumberOfGuests()).build();
+        });
+    }
+
+    @Test
+    void onReservationCancelled_ShouldFillFreedSeatsWithBestFittingEntries() {
+        waitlist(1L, 6, 0);
+        waitlist(2L, 3, 2);
+        waitlist(3L, 3, 1);
+        waitlist(4L, 1, 3);
+
+        // Full slot, then a party of 4 cancels
+        capacityEngine.tryReserve(RESTAURANT_ID, sevenPm, SEATS_PER_SLOT);
+        capacityEngine.release(RESTAURANT_ID, sevenPm, 4);
+
+        waitlistPromoter.onReservationCancelled(ReservationCancelledEvent.builder()
+                                                                         .reservationId(9L)
+                                                                         .restaurantId(RESTAURANT_ID)
+                                                                         .reservationDateTime(sevenPm)
+                                                                         .numberOfGuests(4)
+                                                                         .build());
+
+        ArgumentCaptor<CreateReservationRequest> requestCaptor = ArgumentCaptor.forClass(CreateReservationRequest.class);
+        verify(reservationService, times(2)).createReservationFromWaitlist(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues()).extracting(CreateReservationRequest::getEmail)
+                                                .containsExactly("guest3@example.com", "guest4@example.com");
+
+        verify(waitlistEntryRepository).setReservationId(3L, 103L);
+        verify(waitlistEntryRepository).setReservationId(4L, 101L);
+        assertThat(capacityEngine.remainingSeats(RESTAURANT_ID, sevenPm)).isZero();
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isEqualTo(2);
+    }
+
+    @Test
+    void onReservationCancelled_AtOtherRestaurant_ShouldNotPromote() {
+        waitlist(1L, 2, 0);
+        capacityEngine.tryReserve(RESTAURANT_ID, sevenPm, SEATS_PER_SLOT);
+
+        // Seats freed at restaurant 2 cannot seat a party waiting for restaurant 1
+        capacityEngine.tryReserve(2L, sevenPm, SEATS_PER_SLOT);
+        capacityEngine.release(2L, sevenPm, 4);
+        waitlistPromoter.onReservationCancelled(ReservationCancelledEvent.builder()
+                                                                         .reservationId(9L)
+                                                                         .restaurantId(2L)
+                                                                         .reservationDateTime(sevenPm)
+                                                                         .numberOfGuests(4)
+                                                                         .build());
+
+        verify(reservationService, never()).createReservationFromWaitlist(any());
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isEqualTo(1);
+        assertThat(capacityEngine.remainingSeats(2L, sevenPm)).isEqualTo(4);
+    }
+
+    @Test
+    void promote_WhenSeatsAreTakenFirst_ShouldKeepCandidateQueued() {
+        waitlist(1L, 2, 0);
+        when(reservationService.createReservationFromWaitlist(any(CreateReservationRequest.class)))
+                .thenThrow(new ReservationConflictException("Not enough seats left"));
+
+        assertThat(waitlistPromoter.promote(RESTAURANT_ID, sevenPm)).isZero();
+
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isEqualTo(1);
+    }
+
+    @Test
+    void promote_WhenPromotionFailsUnexpectedly_ShouldRequeueCandidateAndStop() {
+        waitlist(1L, 2, 0);
+        waitlist(2L, 2, 1);
+        when(waitlistEntryRepository.claimForPromotion(eq(1L), any(LocalDateTime.class), eq(WaitlistStatus.WAITING), eq(WaitlistStatus.PROMOTED)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        assertThat(waitlistPromoter.promote(RESTAURANT_ID, sevenPm)).isZero();
+
+        verify(reservationService, never()).createReservationFromWaitlist(any());
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isEqualTo(2);
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 2)).map(WaitlistQueue.Candidate::id).contains(1L);
+    }
+
+    @Test
+    void promote_WhenEntryLeftTheWaitlist_ShouldNotBook() {
+        waitlist(1L, 2, 0);
+        when(waitlistEntryRepository.claimForPromotion(eq(1L), any(LocalDateTime.class), eq(WaitlistStatus.WAITING), eq(WaitlistStatus.PROMOTED)))
+                .thenReturn(0);
+
+        assertThat(waitlistPromoter.promote(RESTAURANT_ID, sevenPm)).isZero();
+
+        verify(reservationService, never()).createReservationFromWaitlist(any());
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isZero();
+    }
+
+    @Test
+    void promote_WhenEntryCannotBeBooked_ShouldExpireItAndMoveOn() {
+        waitlist(1L, 4, 0);
+        waitlist(2L, 2, 1);
+        when(reservationService.createReservationFromWaitlist(any(CreateReservationRequest.class)))
+                .thenThrow(new InvalidReservationException("Reservation date and time must be in the future"))
+                .thenReturn(ReservationResponse.builder().id(200L).build());
+
+        assertThat(waitlistPromoter.promote(RESTAURANT_ID, sevenPm)).isEqualTo(1);
+
+        verify(waitlistEntryRepository).updateStatus(1L, WaitlistStatus.WAITING, WaitlistStatus.EXPIRED);
+        verify(waitlistEntryRepository).setReservationId(2L, 200L);
+    }
+
+    private void waitlist(Long id, int partySize, int requestOrder) {
+        WaitlistEntry entry = WaitlistEntry.builder()
+                                           .id(id)
+                                           .restaurantId(RESTAURANT_ID)
+                                           .customerName("Guest " + id)
+                                           .phoneNumber("+639171234567")
+                                           .email("guest" + id + "@example.com")
+                                           .reservationDateTime(sevenPm)
+                                           .numberOfGuests(partySize)
+                                           .notificationChannel(NotificationChannel.EMAIL)
+                                           .status(WaitlistStatus.WAITING)
+                                           .requestedAt(sevenPm.minusDays(1).plusMinutes(requestOrder))
+                                           .build();
+        entries.put(id, entry);
+        waitlistQueue.add(WaitlistQueue.Candidate.of(entry));
+    }
+}
@@ -0,0 +1,111 @@
+package com.umpisa.restaurant.reservationservice.service;
+
+import com.umpisa.restaurant.config.ShardProperties;
+import com.umpisa.restaurant.config.ShardRouter;
+import com.umpisa.restaurant.reservationservice.model.ReservationCapacityProperties;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistEntry;
+import com.umpisa.restaurant.reservationservice.model.entity.WaitlistStatus;
+import com.umpisa.restaurant.reservationservice.repository.ReservationRepository;
+import com.umpisa.restaurant.reservationservice.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitlistQueueTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+
+    private final WaitlistEntryRepository waitlistEntryRepository = mock(WaitlistEntryRepository.class);
+    private final LocalDateTime sevenPm = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0);
+
+    private WaitlistQueue waitlistQueue;
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = new ShardRouter(new ShardProperties());
+        ReservationCapacityEngine capacityEngine = new ReservationCapacityEngine(mock(ReservationRepository.class), shardRouter, new ReservationCapacityProperties());
+        waitlistQueue = new WaitlistQueue(waitlistEntryRepository, capacityEngine, shardRouter);
+    }
+
+    @Test
+    void pollBestFit_ShouldPickLargestPartyThatFits() {
+        waitlistQueue.add(candidate(1L, 6, 0));
+        waitlistQueue.add(candidate(2L, 2, 1));
+        waitlistQueue.add(candidate(3L, 4, 2));
+
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 5)).map(WaitlistQueue.Candidate::id).contains(3L);
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 5)).map(WaitlistQueue.Candidate::id).contains(2L);
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 5)).isEmpty();
+        assertThat(waitlistQueue.size(RESTAURANT_ID, sevenPm)).isEqualTo(1);
+    }
+
+    @Test
+    void pollBestFit_WithinPartySize_ShouldPickEarliestRequest() {
+        waitlistQueue.add(candidate(1L, 4, 5));
+        waitlistQueue.add(candidate(2L, 4, 1));
+        waitlistQueue.add(candidate(3L, 4, 3));
+
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 4)).map(WaitlistQueue.Candidate::id).contains(2L);
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 4)).map(WaitlistQueue.Candidate::id).contains(3L);
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 4)).map(WaitlistQueue.Candidate::id).contains(1L);
+    }
+
+    @Test
+    void pollBestFit_ShouldShareQueueAcrossTheWholeSlot() {
+        waitlistQueue.add(new WaitlistQueue.Candidate(1L, RESTAURANT_ID, sevenPm.plusMinutes(15), sevenPm.minusDays(1), 2));
+
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm.plusMinutes(30), 2)).isEmpty();
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 2)).isPresent();
+    }
+
+    @Test
+    void pollBestFit_ShouldOnlyPickCandidatesOfTheRestaurant() {
+        waitlistQueue.add(new WaitlistQueue.Candidate(1L, 2L, sevenPm, sevenPm.minusDays(1), 2));
+
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 2)).isEmpty();
+        assertThat(waitlistQueue.pollBestFit(2L, sevenPm, 2)).map(WaitlistQueue.Candidate::id).contains(1L);
+    }
+
+    @Test
+    void remove_ShouldDropCandidate() {
+        WaitlistQueue.Candidate candidate = candidate(1L, 2, 0);
+        waitlistQueue.add(candidate);
+
+        assertThat(waitlistQueue.remove(candidate)).isTrue();
+        assertThat(waitlistQueue.remove(candidate)).isFalse();
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_ShouldLoadWaitingEntriesFromRepository() {
+        WaitlistEntry entry = WaitlistEntry.builder()
+                                           .id(7L)
+                                           .restaurantId(RESTAURANT_ID)
+                                           .reservationDateTime(sevenPm)
+                                           .requestedAt(sevenPm.minusDays(2))
+                                           .numberOfGuests(3)
+                                           .status(WaitlistStatus.WAITING)
+                                           .build();
+        when(waitlistEntryRepository.findByStatusAndReservationDateTimeGreaterThanEqual(eq(WaitlistStatus.WAITING), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry));
+
+        waitlistQueue.rebuild();
+
+        assertThat(waitlistQueue.pollBestFit(RESTAURANT_ID, sevenPm, 3)).map(WaitlistQueue.Candidate::id).contains(7L);
+    }
+
+    /**
+     * A candidate for seven o'clock that joined the waitlist the given number of minutes after the first one.
+     */
+    private WaitlistQueue.Candidate candidate(Long id, int partySize, int requestOrder) {
+        return new WaitlistQueue.Candidate(id, RESTAURANT_ID, sevenPm, sevenPm.minusDays(1).plusMinutes(requestOrder), partySize);
+    }
+}